@@ -0,0 +1,96 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.common.infra.persistence;
+
+import com.kleberrhuan.houer.common.infra.exception.InfrastructureException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Advisory locks do PostgreSQL com escopo de transação ({@code pg_try_advisory_xact_lock}). Valem entre todas as
+ * instâncias da aplicação e são liberados no commit ou rollback, por isso exigem transação ativa. Em outros bancos
+ * (H2 nos testes) o lock é sempre concedido.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdvisoryLockService {
+
+  private static final String TRY_LOCK_SQL =
+    "SELECT pg_try_advisory_xact_lock(?, ?)";
+  private static final Duration RETRY_INTERVAL = Duration.ofMillis(50);
+
+  private final JdbcTemplate jdbcTemplate;
+  private volatile Boolean supported;
+
+  /** Tenta obter o lock {@code (namespace, key)} sem esperar. */
+  public boolean tryLock(int namespace, long key) {
+    if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+      throw new IllegalStateException(
+        "Advisory lock de transação exige transação ativa"
+      );
+    }
+    if (!isSupported()) {
+      return true;
+    }
+    Boolean acquired = jdbcTemplate.queryForObject(
+      TRY_LOCK_SQL,
+      Boolean.class,
+      namespace,
+      fold(key)
+    );
+    return Boolean.TRUE.equals(acquired);
+  }
+
+  /** Insiste em {@link #tryLock} até {@code timeout}; esgotado o prazo, lança a exceção de {@code onTimeout}. */
+  public void lock(
+    int namespace,
+    long key,
+    Duration timeout,
+    Supplier<? extends RuntimeException> onTimeout
+  ) {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (!tryLock(namespace, key)) {
+      if (System.nanoTime() >= deadline) {
+        throw onTimeout.get();
+      }
+      try {
+        Thread.sleep(RETRY_INTERVAL);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw InfrastructureException.defaultException(
+          "Interrompido ao aguardar lock"
+        );
+      }
+    }
+    log.debug("Advisory lock ({}, {}) adquirido", namespace, key);
+  }
+
+  public static long keyOf(UUID id) {
+    return id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+  }
+
+  /** A variante de duas chaves recebe {@code int}; colisões só serializam chaves distintas, sem perder exclusão. */
+  private static int fold(long key) {
+    return (int) (key ^ (key >>> 32));
+  }
+
+  private boolean isSupported() {
+    Boolean current = supported;
+    if (current == null) {
+      String product = jdbcTemplate.execute(
+        (ConnectionCallback<String>) connection ->
+          connection.getMetaData().getDatabaseProductName()
+      );
+      current = "PostgreSQL".equalsIgnoreCase(product);
+      supported = current;
+    }
+    return current;
+  }
+}
@@ -7,8 +7,12 @@ import com.kleberrhuan.houer.common.interfaces.documentation.schemas.ErrorRespon
 import com.kleberrhuan.houer.common.interfaces.dto.request.PageableRequest;
 import com.kleberrhuan.houer.common.interfaces.dto.response.PaginatedResponse;
 import com.kleberrhuan.houer.csv.domain.model.ImportJobStatus;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportQueueStatusDto;
 import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportRequestDto;
 import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportResponseDto;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportStatsDto;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvUploadSessionRequestDto;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvUploadSessionResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -20,12 +24,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 /** Interface de documentação para endpoints de importação CSV de dados escolares. */
 @Tag(
@@ -40,13 +47,20 @@ public interface CsvImportControllerDocumentation {
       **Formato do Arquivo CSV:**\n
       • Primeira linha deve conter os cabeçalhos (nomes das colunas)\n
       • Colunas obrigatórias: CODESC, NOMESC, NOMEDEP, DE, MUN, DISTR\n
-      • Tamanho máximo: 10MB\n
-      • Formato: UTF-8 com separador vírgula (,)\n\n
+      • Tamanho máximo: 10MB (do arquivo enviado, compactado ou não)\n
+      • Formato: UTF-8 com separador vírgula (,)\n
+      • Aceita `.csv`, `.csv.gz` e `.zip` com um único CSV; compactados são armazenados como enviados\n\n
+      **Arquivos Repetidos:**\n
+      • Um arquivo idêntico a uma importação já concluída pelo usuário devolve aquele job (200) sem reprocessar\n\n
+      **Arquivos Pequenos:**\n
+      • Até `app.csv.import.inline.max-records` registros válidos, a importação é gravada antes da resposta e o job volta COMPLETED (200)\n\n
       **Processamento Assíncrono:**\n
-      • O arquivo é validado e enviado para fila de processamento\n
+      • O arquivo é validado e entra na fila de importações; o usuário pode ter várias importações na fila\n
+      • Administradores e arquivos pequenos têm prioridade; entre usuários a fila é atendida em rodízio\n
+      • A posição na fila vem em `queuePosition` enquanto o job aguarda\n
       • Acompanhe o progresso via WebSocket endpoint: `/ws`\n
       • Canal de notificação: `/topic/csv-import/{jobId}`\n
-      • Status disponíveis: PENDING, PROCESSING, COMPLETED, FAILED\n\n
+      • Status disponíveis: PENDING, PROCESSING, COMPLETED, FAILED, CANCELLED\n\n
       **Notificações em Tempo Real:**\n
       • Conecte-se ao WebSocket: `ws://localhost:8080/ws`\n
       • Subscribe no tópico: `/topic/csv-import/{jobId}`\n
@@ -56,6 +70,13 @@ public interface CsvImportControllerDocumentation {
   )
   @ApiResponses(
     {
+      @ApiResponse(
+        responseCode = "200",
+        description = "Importação já concluída: arquivo pequeno gravado na requisição ou idêntico a uma importação anterior",
+        content = @Content(
+          schema = @Schema(implementation = CsvImportResponseDtoSchema.class)
+        )
+      ),
       @ApiResponse(
         responseCode = "202",
         description = "Importação iniciada com sucesso",
@@ -69,6 +90,9 @@ public interface CsvImportControllerDocumentation {
             "jobId": "123e4567-e89b-12d3-a456-426614174000",
             "filename": "escolas_sp_2025.csv",
             "status": "PENDING",
+            "priority": "HIGH",
+            "queuePosition": 3,
+            "queuedAt": "2025-01-15T10:30:00Z",
             "totalRecords": null,
             "processedRecords": 0,
             "errorRecords": 0,
@@ -161,6 +185,42 @@ public interface CsvImportControllerDocumentation {
     Authentication auth
   );
 
+  @Operation(
+    summary = "Obter telemetria do job",
+    description = """
+      Mostra a telemetria do pipeline de importação de um job, por estágio.\n\n
+      • `stages`: linhas, segundos e linhas/s de read, validate, map, dedup e write\n
+      • `chunks`: chunks em andamento, confirmados, desfeitos e latência até o commit (p50, p95, p99, máximo)\n
+      • `rejectedRows`: linhas recusadas na validação do upload, por regra\n
+      • Os mesmos valores são publicados no Prometheus como `csv_import_pipeline_*` com a tag `job`\n
+      • Os dados ficam na réplica que executou o job, para os últimos jobs; fora dela a resposta é 404
+      """,
+    security = @SecurityRequirement(name = "BearerAuth")
+  )
+  @ApiResponses(
+    {
+      @ApiResponse(
+        responseCode = "200",
+        description = "Telemetria do job retornada com sucesso",
+        content = @Content(
+          schema = @Schema(implementation = CsvImportStatsDto.class)
+        )
+      ),
+      @ApiResponse(ref = "#/components/responses/Unauthorized"),
+      @ApiResponse(ref = "#/components/responses/Forbidden"),
+      @ApiResponse(ref = "#/components/responses/NotFound"),
+      @ApiResponse(ref = "#/components/responses/InternalServerError"),
+    }
+  )
+  ResponseEntity<CsvImportStatsDto> getJobStats(
+    @Parameter(
+      description = "ID único do job de importação",
+      required = true,
+      example = "123e4567-e89b-12d3-a456-426614174000"
+    ) @PathVariable UUID jobId,
+    Authentication auth
+  );
+
   @Operation(
     summary = "Listar jobs do usuário",
     description = """
@@ -218,6 +278,32 @@ public interface CsvImportControllerDocumentation {
     Authentication auth
   );
 
+  @Operation(
+    summary = "Consultar fila de importações",
+    description = """
+      Mostra o estado da fila de importações e os jobs do usuário que ainda aguardam execução.\n\n
+      • `waitingJobs`: jobs aguardando em toda a fila\n
+      • `runningJobs` / `maxConcurrentJobs`: jobs em execução e o limite global\n
+      • `longestWaitSeconds`: espera do job mais antigo da fila\n
+      • `userQueuedJobs`: jobs do usuário com a posição de cada um na fila
+      """,
+    security = @SecurityRequirement(name = "BearerAuth")
+  )
+  @ApiResponses(
+    {
+      @ApiResponse(
+        responseCode = "200",
+        description = "Estado da fila retornado com sucesso",
+        content = @Content(
+          schema = @Schema(implementation = CsvImportQueueStatusDto.class)
+        )
+      ),
+      @ApiResponse(ref = "#/components/responses/Unauthorized"),
+      @ApiResponse(ref = "#/components/responses/InternalServerError"),
+    }
+  )
+  ResponseEntity<CsvImportQueueStatusDto> getQueueStatus(Authentication auth);
+
   @Operation(
     summary = "Listar jobs por status",
     description = """
@@ -226,7 +312,8 @@ public interface CsvImportControllerDocumentation {
       • `PENDING`: Aguardando processamento\n
       • `PROCESSING`: Em andamento\n
       • `COMPLETED`: Finalizado com sucesso\n
-      • `FAILED`: Falhou durante processamento\n\n
+      • `FAILED`: Falhou durante processamento\n
+      • `CANCELLED`: Cancelado pelo usuário\n\n
       Útil para dashboards administrativos e monitoramento.
       """,
     security = @SecurityRequirement(name = "BearerAuth")
@@ -289,9 +376,10 @@ public interface CsvImportControllerDocumentation {
     description = """
       Cancela um job de importação em execução ou pendente.\n\n
       **Comportamento:**\n
-      • Jobs PENDING: Cancelados imediatamente\n
-      • Jobs PROCESSING: Interrompidos no próximo checkpoint\n
-      • Jobs COMPLETED/FAILED: Não podem ser cancelados\n\n
+      • Jobs PENDING: Cancelados imediatamente e liberam a vaga na fila\n
+      • Jobs PROCESSING: Param no próximo chunk; o chunk em andamento é desfeito\n
+      • O job termina em CANCELLED e pode ser retomado depois\n
+      • Jobs COMPLETED/FAILED/CANCELLED: Não podem ser cancelados\n\n
       **Permissões:**\n
       • Apenas o usuário que criou o job pode cancelá-lo\n
       • Administradores podem cancelar qualquer job\n\n
@@ -330,4 +418,265 @@ public interface CsvImportControllerDocumentation {
     ) @PathVariable UUID jobId,
     Authentication auth
   );
+
+  @Operation(
+    summary = "Retomar job de importação",
+    description = """
+      Reenfileira um job interrompido para continuar do último chunk confirmado.\n\n
+      **Comportamento:**\n
+      • Jobs FAILED: Retomados a partir do checkpoint de cada partição\n
+      • Jobs RUNNING sem execução ativa (queda do processo): Retomados da mesma forma\n
+      • Demais status: Não podem ser retomados\n\n
+      **Permissões:**\n
+      • Apenas o usuário que criou o job pode retomá-lo
+      """,
+    security = @SecurityRequirement(name = "BearerAuth")
+  )
+  @ApiResponses(
+    {
+      @ApiResponse(
+        responseCode = "202",
+        description = "Job reenfileirado para retomada",
+        content = @Content(
+          schema = @Schema(implementation = CsvImportResponseDtoSchema.class)
+        )
+      ),
+      @ApiResponse(ref = "#/components/responses/Unauthorized"),
+      @ApiResponse(ref = "#/components/responses/Forbidden"),
+      @ApiResponse(ref = "#/components/responses/NotFound"),
+      @ApiResponse(
+        responseCode = "409",
+        description = "Job não pode ser retomado ou usuário já possui importação ativa",
+        content = @Content(
+          schema = @Schema(implementation = ErrorResponseSchema.class)
+        )
+      ),
+      @ApiResponse(ref = "#/components/responses/InternalServerError"),
+    }
+  )
+  ResponseEntity<CsvImportResponseDto> resumeJob(
+    @Parameter(
+      description = "ID único do job a ser retomado",
+      required = true,
+      example = "123e4567-e89b-12d3-a456-426614174000"
+    ) @PathVariable UUID jobId,
+    Authentication auth
+  );
+
+  @Operation(
+    summary = "Baixar relatório de erros do job",
+    description = """
+      Retorna em NDJSON as linhas inválidas ignoradas no upload, uma por linha do relatório:
+
+      `{"line": 12, "column": "CODESC", "message": "..."}`
+
+
+      **Disponível quando:**
+
+      • `app.csv.import.skip-limit` é maior que zero e o upload foi aceito com linhas inválidas
+
+
+      **Permissões:**
+
+      • Apenas o usuário que criou o job pode baixar o relatório
+      """,
+    security = @SecurityRequirement(name = "BearerAuth")
+  )
+  @ApiResponses(
+    {
+      @ApiResponse(
+        responseCode = "200",
+        description = "Relatório de erros em NDJSON",
+        content = @Content(mediaType = "application/x-ndjson")
+      ),
+      @ApiResponse(ref = "#/components/responses/Unauthorized"),
+      @ApiResponse(ref = "#/components/responses/Forbidden"),
+      @ApiResponse(
+        responseCode = "404",
+        description = "Job inexistente ou sem linhas ignoradas",
+        content = @Content(
+          schema = @Schema(implementation = ErrorResponseSchema.class)
+        )
+      ),
+      @ApiResponse(ref = "#/components/responses/InternalServerError"),
+    }
+  )
+  ResponseEntity<InputStreamResource> downloadErrorReport(
+    @Parameter(
+      description = "ID único do job de importação",
+      required = true,
+      example = "123e4567-e89b-12d3-a456-426614174000"
+    ) @PathVariable UUID jobId,
+    Authentication auth
+  );
+
+  @Operation(
+    summary = "Abrir upload em partes",
+    description = """
+      Abre um upload retomável para arquivos grandes (`.csv`, `.csv.gz` ou `.zip`).\n\n
+      **Fluxo:**\n
+      • A resposta informa `chunkSize` e `chunkCount`; a parte `i` cobre os bytes `[i * chunkSize, (i + 1) * chunkSize)`\n
+      • Envie cada parte com `PUT /uploads/{uploadId}/chunks/{index}`, em qualquer ordem ou em paralelo\n
+      • Após uma queda, consulte `GET /uploads/{uploadId}` e reenvie as partes ausentes de `receivedChunks`\n
+      • Finalize com `POST /uploads/{uploadId}/complete`\n\n
+      **Validade:**\n
+      • Sessões não finalizadas expiram após `app.csv.import.upload-session-ttl`
+      """,
+    security = @SecurityRequirement(name = "BearerAuth")
+  )
+  @ApiResponses(
+    {
+      @ApiResponse(
+        responseCode = "201",
+        description = "Upload aberto",
+        content = @Content(
+          schema = @Schema(implementation = CsvUploadSessionResponseDto.class)
+        )
+      ),
+      @ApiResponse(ref = "#/components/responses/BadRequest"),
+      @ApiResponse(ref = "#/components/responses/Unauthorized"),
+      @ApiResponse(ref = "#/components/responses/InternalServerError"),
+    }
+  )
+  ResponseEntity<CsvUploadSessionResponseDto> createUpload(
+    @Valid CsvUploadSessionRequestDto request,
+    Authentication auth
+  );
+
+  @Operation(
+    summary = "Enviar parte do upload",
+    description = """
+      Grava a parte `index` no arquivo do upload. O corpo são os bytes crus da parte e o header
+      `X-Chunk-Checksum` traz o SHA-256 da parte em hexadecimal.\n\n
+      **Comportamento:**\n
+      • Todas as partes, exceto a última, devem ter exatamente `chunkSize` bytes\n
+      • Reenviar uma parte sobrescreve a anterior
+      """,
+    security = @SecurityRequirement(name = "BearerAuth")
+  )
+  @ApiResponses(
+    {
+      @ApiResponse(responseCode = "204", description = "Parte confirmada"),
+      @ApiResponse(
+        responseCode = "400",
+        description = "Índice fora do intervalo ou tamanho da parte diferente do esperado",
+        content = @Content(
+          schema = @Schema(implementation = ErrorResponseSchema.class)
+        )
+      ),
+      @ApiResponse(ref = "#/components/responses/Unauthorized"),
+      @ApiResponse(ref = "#/components/responses/Forbidden"),
+      @ApiResponse(ref = "#/components/responses/NotFound"),
+      @ApiResponse(
+        responseCode = "409",
+        description = "Upload já finalizado",
+        content = @Content(
+          schema = @Schema(implementation = ErrorResponseSchema.class)
+        )
+      ),
+      @ApiResponse(
+        responseCode = "422",
+        description = "SHA-256 da parte não confere",
+        content = @Content(
+          schema = @Schema(implementation = ErrorResponseSchema.class)
+        )
+      ),
+      @ApiResponse(ref = "#/components/responses/InternalServerError"),
+    }
+  )
+  ResponseEntity<Void> uploadChunk(
+    @Parameter(
+      description = "ID do upload",
+      required = true,
+      example = "123e4567-e89b-12d3-a456-426614174000"
+    ) @PathVariable UUID uploadId,
+    @Parameter(
+      description = "Índice da parte, a partir de zero",
+      required = true
+    ) @PathVariable int index,
+    @Parameter(
+      description = "SHA-256 da parte em hexadecimal",
+      required = true
+    ) @RequestHeader("X-Chunk-Checksum") String checksum,
+    InputStream body,
+    Authentication auth
+  );
+
+  @Operation(
+    summary = "Consultar upload em partes",
+    description = "Retorna o estado do upload e os índices das partes já confirmadas.",
+    security = @SecurityRequirement(name = "BearerAuth")
+  )
+  @ApiResponses(
+    {
+      @ApiResponse(
+        responseCode = "200",
+        description = "Estado do upload",
+        content = @Content(
+          schema = @Schema(implementation = CsvUploadSessionResponseDto.class)
+        )
+      ),
+      @ApiResponse(ref = "#/components/responses/Unauthorized"),
+      @ApiResponse(ref = "#/components/responses/Forbidden"),
+      @ApiResponse(ref = "#/components/responses/NotFound"),
+      @ApiResponse(ref = "#/components/responses/InternalServerError"),
+    }
+  )
+  ResponseEntity<CsvUploadSessionResponseDto> getUpload(
+    @Parameter(
+      description = "ID do upload",
+      required = true,
+      example = "123e4567-e89b-12d3-a456-426614174000"
+    ) @PathVariable UUID uploadId,
+    Authentication auth
+  );
+
+  @Operation(
+    summary = "Finalizar upload em partes",
+    description = """
+      Valida o arquivo montado e o enfileira para importação, como `POST /import`.\n\n
+      **Comportamento:**\n
+      • Todas as partes precisam ter sido confirmadas\n
+      • Chamadas repetidas devolvem o mesmo job
+      """,
+    security = @SecurityRequirement(name = "BearerAuth")
+  )
+  @ApiResponses(
+    {
+      @ApiResponse(
+        responseCode = "200",
+        description = "Arquivo idêntico a uma importação já concluída; devolve o job existente",
+        content = @Content(
+          schema = @Schema(implementation = CsvImportResponseDtoSchema.class)
+        )
+      ),
+      @ApiResponse(
+        responseCode = "202",
+        description = "Importação enfileirada",
+        content = @Content(
+          schema = @Schema(implementation = CsvImportResponseDtoSchema.class)
+        )
+      ),
+      @ApiResponse(ref = "#/components/responses/BadRequest"),
+      @ApiResponse(ref = "#/components/responses/Unauthorized"),
+      @ApiResponse(ref = "#/components/responses/Forbidden"),
+      @ApiResponse(ref = "#/components/responses/NotFound"),
+      @ApiResponse(
+        responseCode = "409",
+        description = "Partes ausentes ou usuário já possui importação ativa",
+        content = @Content(
+          schema = @Schema(implementation = ErrorResponseSchema.class)
+        )
+      ),
+      @ApiResponse(ref = "#/components/responses/InternalServerError"),
+    }
+  )
+  ResponseEntity<CsvImportResponseDto> completeUpload(
+    @Parameter(
+      description = "ID do upload",
+      required = true,
+      example = "123e4567-e89b-12d3-a456-426614174000"
+    ) @PathVariable UUID uploadId,
+    Authentication auth
+  );
 }
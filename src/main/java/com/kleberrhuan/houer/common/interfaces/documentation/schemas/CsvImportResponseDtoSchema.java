@@ -13,9 +13,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
       "jobId": "123e4567-e89b-12d3-a456-426614174000",
       "filename": "escolas_sp_2025.csv",
       "status": "COMPLETED",
+      "priority": "NORMAL",
+      "queuePosition": null,
+      "queuedAt": "2025-01-15T10:29:45Z",
       "totalRecords": 1500,
       "processedRecords": 1485,
       "errorRecords": 15,
+      "insertedRecords": 40,
+      "updatedRecords": 95,
+      "unchangedRecords": 1350,
       "errorMessage": null,
       "startedAt": "2025-01-15T10:30:00Z",
       "finishedAt": "2025-01-15T10:35:30Z",
@@ -2,22 +2,46 @@
 package com.kleberrhuan.houer.csv.application.mapper;
 
 import com.kleberrhuan.houer.csv.domain.model.CsvImportJob;
+import com.kleberrhuan.houer.csv.domain.model.CsvUploadSession;
 import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportResponseDto;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvUploadSessionResponseDto;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface CsvImportMapper {
-  @Mapping(target = "jobId", source = "id")
+  @Mapping(target = "jobId", source = "job.id")
+  @Mapping(target = "queuePosition", source = "queuePosition")
   @Mapping(
     target = "createdAt",
     expression = "java(toInstant(job.getCreatedAt()))"
   )
-  CsvImportResponseDto toResponseDto(CsvImportJob job);
+  CsvImportResponseDto toResponseDto(CsvImportJob job, Integer queuePosition);
+
+  default CsvImportResponseDto toResponseDto(CsvImportJob job) {
+    return toResponseDto(job, null);
+  }
+
+  default CsvUploadSessionResponseDto toUploadResponseDto(
+    CsvUploadSession session,
+    List<Integer> receivedChunks
+  ) {
+    return new CsvUploadSessionResponseDto(
+      session.getId(),
+      session.getFilename(),
+      session.getTotalSize(),
+      session.getChunkSize(),
+      session.getChunkCount(),
+      receivedChunks,
+      session.getJobId(),
+      session.getExpiresAt()
+    );
+  }
 
   default Instant toInstant(LocalDateTime localDateTime) {
     return localDateTime != null
@@ -0,0 +1,218 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.parser;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvRow;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Tokenizador de CSV ({@code ;}) que trabalha direto sobre bytes UTF-8. Os buffers de leitura e de células são
+ * reaproveitados entre linhas: cada célula é uma faixa {@code [offset, offset + length)} de {@link #rowBuffer()} e
+ * só vira {@link String} quando pedida. Colunas numéricas são convertidas a partir dos bytes.
+ *
+ * <p>Aspas seguem o comportamento usado com o OpenCSV: campo entre aspas pode conter {@code ;} e quebras de linha,
+ * {@code ""} e {@code \"} viram {@code "} e {@code \\} vira {@code \}. {@code \r\n} é tratado como quebra de linha.
+ *
+ * <p>Não é thread-safe e a linha atual é invalidada a cada {@link #nextRow()}.
+ */
+public final class CsvByteTokenizer implements CsvRow, Closeable {
+
+  private static final int SEPARATOR = ';';
+  private static final int QUOTE = '"';
+  private static final int ESCAPE = '\\';
+  private static final int LF = '\n';
+  private static final int CR = '\r';
+  private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  private final InputStream input;
+  private final byte[] buffer;
+  private int bufferPos;
+  private int bufferLimit;
+  private long remaining;
+  private long consumed;
+
+  private byte[] cells = new byte[1024];
+  private int cellsLength;
+  private int[] bounds = new int[64];
+  private int cellCount;
+
+  public CsvByteTokenizer(InputStream input) {
+    this(input, Long.MAX_VALUE);
+  }
+
+  /** Lê no máximo {@code limit} bytes de {@code input}; usado para percorrer apenas uma faixa do arquivo. */
+  public CsvByteTokenizer(InputStream input, long limit) {
+    this.input = input;
+    this.buffer = new byte[DEFAULT_BUFFER_SIZE];
+    this.remaining = limit;
+  }
+
+  /** Avança para a próxima linha. Retorna {@code false} ao fim da entrada. */
+  public boolean nextRow() throws IOException {
+    cellsLength = 0;
+    cellCount = 0;
+
+    int c = read();
+    if (c < 0) {
+      return false;
+    }
+
+    int cellStart = 0;
+    boolean inQuotes = false;
+    boolean atCellStart = true;
+
+    while (c >= 0) {
+      if (inQuotes) {
+        if (c == QUOTE) {
+          if (peek() == QUOTE) {
+            append(read());
+          } else {
+            inQuotes = false;
+          }
+        } else if (c == ESCAPE && (peek() == QUOTE || peek() == ESCAPE)) {
+          append(read());
+        } else {
+          append(c);
+        }
+      } else if (c == SEPARATOR) {
+        endCell(cellStart);
+        cellStart = cellsLength;
+        atCellStart = true;
+        c = read();
+        continue;
+      } else if (c == LF) {
+        break;
+      } else if (c == CR && peek() == LF) {
+        // CR de um CRLF: descartado
+      } else if (c == QUOTE && atCellStart) {
+        inQuotes = true;
+      } else {
+        append(c);
+      }
+      atCellStart = false;
+      c = read();
+    }
+
+    endCell(cellStart);
+    return true;
+  }
+
+  @Override
+  public int cellCount() {
+    return cellCount;
+  }
+
+  public int cellOffset(int index) {
+    return bounds[index * 2];
+  }
+
+  public int cellLength(int index) {
+    return bounds[index * 2 + 1] - bounds[index * 2];
+  }
+
+  /** Buffer compartilhado com o conteúdo já desescapado das células da linha atual. */
+  public byte[] rowBuffer() {
+    return cells;
+  }
+
+  @Override
+  public String cellAsString(int index) {
+    return new String(
+      cells,
+      cellOffset(index),
+      cellLength(index),
+      StandardCharsets.UTF_8
+    );
+  }
+
+  @Override
+  public long cellAsLong(int index, long defaultValue) {
+    int offset = cellOffset(index);
+    int length = cellLength(index);
+    if (length == 0) {
+      return defaultValue;
+    }
+
+    long value = 0;
+    for (int i = offset; i < offset + length; i++) {
+      int digit = cells[i] - '0';
+      if (digit < 0 || digit > 9) {
+        return defaultValue;
+      }
+      if (value > (Long.MAX_VALUE - digit) / 10) {
+        throw new NumberFormatException(
+          "Valor numérico excede o limite: " + cellAsString(index)
+        );
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  /** Linha atual como {@code String[]}, no formato que o OpenCSV entregava. */
+  public String[] toArray() {
+    String[] values = new String[cellCount];
+    for (int i = 0; i < cellCount; i++) {
+      values[i] = cellAsString(i);
+    }
+    return values;
+  }
+
+  /** Bytes consumidos da entrada até o fim da linha atual. */
+  public long position() {
+    return consumed;
+  }
+
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+
+  private void endCell(int cellStart) {
+    if (cellCount * 2 == bounds.length) {
+      bounds = Arrays.copyOf(bounds, bounds.length * 2);
+    }
+    bounds[cellCount * 2] = cellStart;
+    bounds[cellCount * 2 + 1] = cellsLength;
+    cellCount++;
+  }
+
+  private void append(int c) {
+    if (cellsLength == cells.length) {
+      cells = Arrays.copyOf(cells, cells.length * 2);
+    }
+    cells[cellsLength++] = (byte) c;
+  }
+
+  private int read() throws IOException {
+    if (bufferPos == bufferLimit && !fill()) {
+      return -1;
+    }
+    consumed++;
+    return buffer[bufferPos++] & 0xFF;
+  }
+
+  private int peek() throws IOException {
+    if (bufferPos == bufferLimit && !fill()) {
+      return -1;
+    }
+    return buffer[bufferPos] & 0xFF;
+  }
+
+  private boolean fill() throws IOException {
+    if (remaining <= 0) {
+      return false;
+    }
+    int n = input.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+    if (n <= 0) {
+      return false;
+    }
+    remaining -= n;
+    bufferPos = 0;
+    bufferLimit = n;
+    return true;
+  }
+}
@@ -1,16 +1,13 @@
 /* (C)2025 Kleber Rhuan */
 package com.kleberrhuan.houer.csv.application.parser;
 
-import com.opencsv.CSVParser;
-import com.opencsv.CSVParserBuilder;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVReaderBuilder;
-import com.opencsv.exceptions.CsvException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -19,55 +16,65 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class CsvParser {
 
-  public Stream<String[]> read(InputStream inputStream)
-    throws IOException, CsvException {
-    try (CSVReader reader = createCsvReader(inputStream)) {
+  public Stream<String[]> read(InputStream inputStream) throws IOException {
+    try (CsvByteTokenizer tokenizer = tokenize(inputStream)) {
       log.debug("Iniciando leitura do CSV com encoding UTF-8 e separador ';'");
-      return reader.readAll().stream();
+      List<String[]> rows = new ArrayList<>();
+      while (tokenizer.nextRow()) {
+        rows.add(tokenizer.toArray());
+      }
+      return rows.stream();
     }
   }
 
+  /** Tokenizador sobre bytes para quem consome as células sem materializar {@code String[]}. */
+  public CsvByteTokenizer tokenize(InputStream inputStream) {
+    return new CsvByteTokenizer(inputStream);
+  }
+
   public Iterator<String[]> readAsIterator(InputStream inputStream)
     throws IOException {
-    CSVReader reader = createCsvReader(inputStream);
+    CsvByteTokenizer tokenizer = tokenize(inputStream);
 
     log.debug("Iniciando leitura streaming do CSV com separador ';'");
 
-    Iterator<String[]> originalIterator = reader.iterator();
-
     return new Iterator<>() {
       private boolean finished = false;
+      private boolean hasPending = false;
 
       @Override
       public boolean hasNext() {
-        boolean hasNext = originalIterator.hasNext();
-        if (!hasNext && !finished) {
+        if (hasPending) {
+          return true;
+        }
+        if (finished) {
+          return false;
+        }
+        try {
+          hasPending = tokenizer.nextRow();
+        } catch (IOException e) {
+          throw new UncheckedIOException("Erro ao ler linha do CSV", e);
+        }
+        if (!hasPending) {
           finished = true;
           try {
-            reader.close();
-            log.debug("CSVReader fechado após leitura completa");
+            tokenizer.close();
+            log.debug("Tokenizador fechado após leitura completa");
           } catch (IOException e) {
-            log.warn("Erro ao fechar CSVReader: {}", e.getMessage());
+            log.warn("Erro ao fechar tokenizador: {}", e.getMessage());
           }
         }
-        return hasNext;
+        return hasPending;
       }
 
       @Override
       public String[] next() {
-        return originalIterator.next();
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        hasPending = false;
+        return tokenizer.toArray();
       }
     };
   }
-
-  private CSVReader createCsvReader(InputStream inputStream) {
-    CSVParser parser = new CSVParserBuilder().withSeparator(';').build();
-
-    return new CSVReaderBuilder(
-      new InputStreamReader(inputStream, StandardCharsets.UTF_8)
-    )
-      .withCSVParser(parser)
-      .withSkipLines(0)
-      .build();
-  }
 }
@@ -1,13 +1,32 @@
 /* (C)2025 Kleber Rhuan */
 package com.kleberrhuan.houer.csv.application.port;
 
+import com.kleberrhuan.houer.csv.domain.exception.ValidationErrorAggregator.ValidationError;
+import com.kleberrhuan.houer.csv.domain.model.ValidationSummary;
 import java.io.InputStream;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 public interface CsvValidator<T> {
   Stream<T> validate(InputStream inputStream, String filename);
 
+  default ValidationSummary summarize(
+    InputStream inputStream,
+    String filename,
+    int maxErrors
+  ) {
+    return summarize(inputStream, filename, maxErrors, error -> {});
+  }
+
+  /** Valida em streaming entregando cada erro de linha a {@code errorSink}, na ordem do arquivo. */
+  ValidationSummary summarize(
+    InputStream inputStream,
+    String filename,
+    int maxErrors,
+    Consumer<ValidationError> errorSink
+  );
+
   default List<T> validateToList(InputStream inputStream, String filename) {
     return validate(inputStream, filename).toList();
   }
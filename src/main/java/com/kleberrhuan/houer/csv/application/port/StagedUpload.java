@@ -0,0 +1,25 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.port;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Upload em andamento gravado em área temporária. O conteúdo só passa a pertencer a um job após {@link #promote(UUID)};
+ * se não for promovido, {@link #close()} descarta o arquivo temporário.
+ */
+public interface StagedUpload extends AutoCloseable {
+  OutputStream outputStream();
+
+  URI promote(UUID jobId);
+
+  /**
+   * Move o conteúdo para o endereço dado pelo seu SHA-256, compartilhado por todos os jobs com o mesmo arquivo. Se o
+   * conteúdo já estiver armazenado, o arquivo temporário é descartado.
+   */
+  URI promoteContent(String sha256);
+
+  @Override
+  void close();
+}
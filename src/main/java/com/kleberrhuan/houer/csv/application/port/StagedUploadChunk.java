@@ -0,0 +1,17 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.port;
+
+/**
+ * Parte de um upload em partes recebida em área temporária. Só entra no arquivo montado após {@link #commit()}, depois
+ * de conferida; se não for confirmada, {@link #close()} descarta o arquivo temporário e o arquivo montado fica intacto.
+ */
+public interface StagedUploadChunk extends AutoCloseable {
+  /** Bytes recebidos, até {@code maxLength + 1}; acima de {@code maxLength} nada é guardado além do limite. */
+  long received();
+
+  /** Copia a parte para a sua posição no arquivo do upload. */
+  void commit();
+
+  @Override
+  void close();
+}
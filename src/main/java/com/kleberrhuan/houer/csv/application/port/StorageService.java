@@ -9,6 +9,33 @@ import org.springframework.web.multipart.MultipartFile;
 public interface StorageService {
   URI store(MultipartFile file, UUID jobId);
 
+  StagedUpload stage(String originalFilename);
+
+  /** Área temporária para o relatório de erros do upload; ao ser promovido fica ao lado do arquivo do job. */
+  StagedUpload stageErrorReport(String originalFilename);
+
+  /** Cria o arquivo vazio de um upload em partes. */
+  void createUpload(UUID uploadId);
+
+  /**
+   * Recebe {@code data} em área temporária, lendo no máximo {@code maxLength + 1} bytes, para ser gravado na posição
+   * {@code offset} do arquivo do upload por {@link StagedUploadChunk#commit()}. Partes diferentes podem ser recebidas e
+   * confirmadas em paralelo.
+   */
+  StagedUploadChunk stageUploadChunk(
+    UUID uploadId,
+    long offset,
+    InputStream data,
+    long maxLength
+  );
+
+  InputStream openUpload(UUID uploadId);
+
+  /** Move o arquivo montado para o endereço do conteúdo, como {@link StagedUpload#promoteContent(String)}. */
+  URI promoteUpload(UUID uploadId, String sha256, String originalFilename);
+
+  void deleteUpload(UUID uploadId);
+
   void delete(URI uri);
 
   boolean exists(URI uri);
@@ -0,0 +1,38 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.processor;
+
+/**
+ * Versão thread-safe do {@link LongHashSet} para as estratégias paralelas: a chave escolhe um de N segmentos, cada um
+ * protegido pelo próprio monitor. Threads em segmentos diferentes não disputam lock e o redimensionamento fica
+ * restrito ao segmento.
+ */
+final class ConcurrentLongHashSet {
+
+  private static final int SEGMENTS = 64;
+
+  private final LongHashSet[] segments = new LongHashSet[SEGMENTS];
+
+  ConcurrentLongHashSet() {
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new LongHashSet();
+    }
+  }
+
+  boolean add(long key) {
+    // Bits altos escolhem o segmento; os baixos, o slot dentro dele
+    LongHashSet segment = segments[(LongHashSet.mix(key) >>> 26) & (SEGMENTS - 1)];
+    synchronized (segment) {
+      return segment.add(key);
+    }
+  }
+
+  int size() {
+    int size = 0;
+    for (LongHashSet segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+}
@@ -5,33 +5,85 @@ import com.kleberrhuan.houer.csv.application.parser.CsvParser;
 import com.kleberrhuan.houer.csv.application.port.CsvRecordMapper;
 import com.kleberrhuan.houer.csv.application.validator.CompositeRowValidator;
 import com.kleberrhuan.houer.csv.application.validator.HeaderValidator;
+import com.kleberrhuan.houer.csv.application.validator.RowValidationPlan;
+import com.kleberrhuan.houer.csv.domain.exception.AggregatedValidationException;
 import com.kleberrhuan.houer.csv.domain.exception.CsvValidationException;
-import com.kleberrhuan.houer.csv.domain.model.RowContext;
+import com.kleberrhuan.houer.csv.domain.exception.RowValidationException;
+import com.kleberrhuan.houer.csv.domain.exception.ValidationErrorAggregator.ValidationError;
+import com.kleberrhuan.houer.csv.domain.model.ScanTimings;
+import com.kleberrhuan.houer.csv.domain.model.ValidationSummary;
 import com.kleberrhuan.houer.csv.infra.exception.CsvProcessingException;
+import com.kleberrhuan.houer.csv.infra.observability.SampledTimer;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class CsvProcessor<T> {
 
+  /** Linhas por lote entregue a um worker quando a validação é paralela. */
+  static final int BATCH_SIZE = 512;
+
   private final CsvParser parser;
   private final HeaderValidator headerValidator;
   private final CompositeRowValidator rowValidator;
+  private final int parallelism;
+
+  public CsvProcessor(
+    CsvParser parser,
+    HeaderValidator headerValidator,
+    CompositeRowValidator rowValidator
+  ) {
+    this(parser, headerValidator, rowValidator, 1);
+  }
+
+  @Autowired
+  public CsvProcessor(
+    CsvParser parser,
+    HeaderValidator headerValidator,
+    CompositeRowValidator rowValidator,
+    CsvImportProperties importProperties
+  ) {
+    this(
+      parser,
+      headerValidator,
+      rowValidator,
+      importProperties.resolveValidationParallelism()
+    );
+  }
+
+  CsvProcessor(
+    CsvParser parser,
+    HeaderValidator headerValidator,
+    CompositeRowValidator rowValidator,
+    int parallelism
+  ) {
+    this.parser = parser;
+    this.headerValidator = headerValidator;
+    this.rowValidator = rowValidator;
+    this.parallelism = Math.max(1, parallelism);
+  }
 
   @Timed(
     value = "csv.processing.time",
@@ -85,6 +137,240 @@ public class CsvProcessor<T> {
     return processInternal(inputStream, filename, factoryCreator);
   }
 
+  /**
+   * Valida o arquivo inteiro em uma única passada sem materializar os registros: cada linha é validada e mapeada e
+   * descartada em seguida. Mantém apenas contadores e os primeiros {@code maxErrors} erros. Com paralelismo maior que
+   * um, lotes de linhas são validados em workers e os resultados combinados na ordem do arquivo. O resumo traz o tempo
+   * estimado de leitura, validação e mapeamento e as linhas recusadas por regra.
+   */
+  @Timed(
+    value = "csv.processing.scan.time",
+    description = "Tempo de validação CSV em streaming"
+  )
+  public ValidationSummary scan(
+    InputStream inputStream,
+    String filename,
+    Function<String[], Function<String[], T>> mapperFactory,
+    int maxErrors
+  ) {
+    return scan(inputStream, filename, mapperFactory, maxErrors, error -> {});
+  }
+
+  /**
+   * Como {@link #scan(InputStream, String, Function, int)}, entregando também todos os erros de linha a
+   * {@code errorSink}, na ordem do arquivo e sempre na thread chamadora.
+   */
+  public ValidationSummary scan(
+    InputStream inputStream,
+    String filename,
+    Function<String[], Function<String[], T>> mapperFactory,
+    int maxErrors,
+    Consumer<ValidationError> errorSink
+  ) {
+    try {
+      Iterator<String[]> csvIterator = parser.readAsIterator(inputStream);
+
+      if (!csvIterator.hasNext()) {
+        throw new CsvValidationException("Arquivo CSV vazio ou inválido");
+      }
+
+      String[] headers = csvIterator.next();
+      headerValidator.validate(headers, filename);
+      RowValidationPlan validationPlan = rowValidator.compile(headers);
+      Function<String[], T> recordMapper = mapperFactory.apply(headers);
+      SampledTimer read = new SampledTimer();
+      Iterator<String[]> rows = new ReadTimedIterator(csvIterator, read);
+
+      List<ValidationError> firstErrors = new ArrayList<>();
+      Consumer<ValidationError> collector = error -> {
+        if (firstErrors.size() < maxErrors) {
+          firstErrors.add(error);
+        }
+        errorSink.accept(error);
+      };
+
+      ScanResult result = parallelism > 1
+        ? scanPipelined(
+          rows,
+          validationPlan,
+          recordMapper,
+          filename,
+          collector
+        )
+        : scanRows(
+          rows,
+          2,
+          Integer.MAX_VALUE,
+          validationPlan,
+          recordMapper,
+          filename,
+          collector
+        );
+
+      log.info(
+        "Validação em streaming de {} concluída: {} linhas válidas, {} com erro",
+        filename,
+        result.validRows,
+        result.errorRows
+      );
+
+      return new ValidationSummary(
+        result.validRows,
+        result.errorRows,
+        firstErrors,
+        new ScanTimings(
+          read.estimatedNanos(),
+          result.validate.estimatedNanos(),
+          result.map.estimatedNanos(),
+          result.rejected
+        )
+      );
+    } catch (IOException e) {
+      throw new UncheckedIOException("Erro ao ler arquivo CSV: " + filename, e);
+    }
+  }
+
+  private ScanResult scanPipelined(
+    Iterator<String[]> csvIterator,
+    RowValidationPlan validationPlan,
+    Function<String[], T> recordMapper,
+    String filename,
+    Consumer<ValidationError> collector
+  ) {
+    ScanResult total = new ScanResult();
+    try (
+      RowBatchPipeline<BatchScan> pipeline = new RowBatchPipeline<>(
+        csvIterator,
+        2,
+        BATCH_SIZE,
+        parallelism,
+        batch -> {
+          List<ValidationError> errors = new ArrayList<>();
+          ScanResult result = scanRows(
+            Arrays.asList(batch.rows()).subList(0, batch.size()).iterator(),
+            batch.firstLine(),
+            batch.size(),
+            validationPlan,
+            recordMapper,
+            filename,
+            errors::add
+          );
+          return new BatchScan(result, errors);
+        }
+      )
+    ) {
+      // Lotes chegam na ordem do arquivo: os erros saem na mesma ordem da validação sequencial
+      while (pipeline.hasNext()) {
+        BatchScan batch = pipeline.next();
+        total.add(batch.result());
+        batch.errors().forEach(collector);
+      }
+    }
+    return total;
+  }
+
+  private ScanResult scanRows(
+    Iterator<String[]> rows,
+    int firstLine,
+    int maxRows,
+    RowValidationPlan validationPlan,
+    Function<String[], T> recordMapper,
+    String filename,
+    Consumer<ValidationError> onError
+  ) {
+    ScanResult result = new ScanResult();
+    int lineNumber = firstLine;
+
+    for (int i = 0; i < maxRows && rows.hasNext(); i++, lineNumber++) {
+      String[] values = rows.next();
+
+      try {
+        long begin = result.validate.begin();
+        validationPlan.validate(values, lineNumber, filename);
+        result.validate.end(begin);
+        begin = result.map.begin();
+        recordMapper.apply(values);
+        result.map.end(begin);
+        result.validRows++;
+      } catch (AggregatedValidationException e) {
+        result.reject(
+          validationPlan.rejectionReason(values, lineNumber, filename)
+        );
+        e.getErrors().forEach(onError);
+      } catch (RowValidationException | CsvValidationException e) {
+        result.reject(
+          validationPlan.rejectionReason(values, lineNumber, filename)
+        );
+        onError.accept(new ValidationError(lineNumber, null, e.getMessage()));
+      } catch (RuntimeException e) {
+        result.reject(
+          validationPlan.rejectionReason(values, lineNumber, filename)
+        );
+        onError.accept(
+          new ValidationError(
+            lineNumber,
+            null,
+            "Erro inesperado ao processar linha: " + e.getMessage()
+          )
+        );
+      }
+    }
+    return result;
+  }
+
+  /** Contadores e tempos de um trecho do arquivo. */
+  private static final class ScanResult {
+
+    private long validRows;
+    private long errorRows;
+    private final SampledTimer validate = new SampledTimer();
+    private final SampledTimer map = new SampledTimer();
+    private final Map<String, Long> rejected = new HashMap<>();
+
+    private void reject(String reason) {
+      errorRows++;
+      rejected.merge(reason, 1L, Long::sum);
+    }
+
+    private void add(ScanResult other) {
+      validRows += other.validRows;
+      errorRows += other.errorRows;
+      validate.add(other.validate);
+      map.add(other.map);
+      other.rejected.forEach((reason, count) ->
+        rejected.merge(reason, count, Long::sum)
+      );
+    }
+  }
+
+  /** Mede a leitura das linhas: o parser lê e separa a linha seguinte dentro do {@code hasNext}. */
+  private static final class ReadTimedIterator implements Iterator<String[]> {
+
+    private final Iterator<String[]> delegate;
+    private final SampledTimer timer;
+
+    private ReadTimedIterator(Iterator<String[]> delegate, SampledTimer timer) {
+      this.delegate = delegate;
+      this.timer = timer;
+    }
+
+    @Override
+    public boolean hasNext() {
+      long begin = timer.begin();
+      boolean hasNext = delegate.hasNext();
+      timer.end(begin);
+      return hasNext;
+    }
+
+    @Override
+    public String[] next() {
+      return delegate.next();
+    }
+  }
+
+  /** Resultado de um lote validado em worker, com seus erros na ordem das linhas. */
+  private record BatchScan(ScanResult result, List<ValidationError> errors) {}
+
   private Stream<T> processInternal(
     InputStream inputStream,
     String filename,
@@ -109,20 +395,37 @@ public class CsvProcessor<T> {
       headerValidator.validate(headers, filename);
 
       Function<String[], T> recordMapper = mapperFactory.apply(headers);
-      Iterator<T> iterator = createValidatedIterator(
-        headers,
-        csvIterator,
-        recordMapper,
-        processedRows,
-        errorRows,
-        filename
-      );
+      RowValidationPlan validationPlan = rowValidator.compile(headers);
+      RowBatchPipeline<Object[]> pipeline = parallelism > 1
+        ? new RowBatchPipeline<>(
+          csvIterator,
+          2,
+          BATCH_SIZE,
+          parallelism,
+          batch -> mapBatch(batch, validationPlan, recordMapper, filename)
+        )
+        : null;
+      Iterator<T> iterator = pipeline != null
+        ? createPipelinedIterator(pipeline, processedRows, errorRows)
+        : createValidatedIterator(
+          validationPlan,
+          csvIterator,
+          recordMapper,
+          processedRows,
+          errorRows,
+          filename
+        );
 
       return StreamSupport
         .stream(
           Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED),
           false
         )
+        .onClose(() -> {
+          if (pipeline != null) {
+            pipeline.close();
+          }
+        })
         .onClose(() ->
           log.info(
             "Processamento concluído: {} linhas processadas, {} erros",
@@ -142,8 +445,75 @@ public class CsvProcessor<T> {
     }
   }
 
+  /**
+   * Valida e mapeia um lote em um worker. Cada posição do resultado é o registro mapeado ou a exceção da linha, que só
+   * é lançada quando o consumidor chega nela, preservando o comportamento da leitura sequencial.
+   */
+  private Object[] mapBatch(
+    RowBatchPipeline.RowBatch batch,
+    RowValidationPlan validationPlan,
+    Function<String[], T> recordMapper,
+    String filename
+  ) {
+    Object[] outcomes = new Object[batch.size()];
+    for (int i = 0; i < batch.size(); i++) {
+      int lineNumber = batch.firstLine() + i;
+      try {
+        validationPlan.validate(batch.rows()[i], lineNumber, filename);
+        outcomes[i] = recordMapper.apply(batch.rows()[i]);
+      } catch (CsvValidationException e) {
+        outcomes[i] = e;
+      } catch (RuntimeException e) {
+        outcomes[i] = new CsvProcessingException(
+          "Erro inesperado ao processar linha " + lineNumber,
+          e
+        );
+      }
+    }
+    return outcomes;
+  }
+
+  private Iterator<T> createPipelinedIterator(
+    RowBatchPipeline<Object[]> pipeline,
+    AtomicInteger processedRows,
+    AtomicInteger errorRows
+  ) {
+    return new Iterator<>() {
+      private Object[] current = new Object[0];
+      private int index;
+
+      @Override
+      public boolean hasNext() {
+        while (index == current.length) {
+          if (!pipeline.hasNext()) {
+            return false;
+          }
+          current = pipeline.next();
+          index = 0;
+        }
+        return true;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public T next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        Object outcome = current[index];
+        current[index++] = null;
+        if (outcome instanceof RuntimeException e) {
+          errorRows.incrementAndGet();
+          throw e;
+        }
+        processedRows.incrementAndGet();
+        return (T) outcome;
+      }
+    };
+  }
+
   private Iterator<T> createValidatedIterator(
-    String[] headers,
+    RowValidationPlan validationPlan,
     Iterator<String[]> csvIterator,
     Function<String[], T> recordMapper,
     AtomicInteger processedRows,
@@ -159,22 +529,12 @@ public class CsvProcessor<T> {
       }
 
       @Override
-      @Counted(
-        value = "csv.rows.processed",
-        description = "Linhas processadas do CSV"
-      )
       public T next() {
         String[] values = csvIterator.next();
         lineNumber++;
 
         try {
-          RowContext context = new RowContext(
-            headers,
-            values,
-            lineNumber,
-            filename
-          );
-          rowValidator.validate(context);
+          validationPlan.validate(values, lineNumber, filename);
 
           T mapped = recordMapper.apply(values);
           processedRows.incrementAndGet();
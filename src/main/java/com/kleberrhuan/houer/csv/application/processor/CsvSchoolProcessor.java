@@ -2,19 +2,28 @@
 package com.kleberrhuan.houer.csv.application.processor;
 
 import com.kleberrhuan.houer.csv.application.port.ProcessingStrategy;
+import com.kleberrhuan.houer.csv.domain.exception.ValidationErrorAggregator.ValidationError;
 import com.kleberrhuan.houer.csv.domain.factory.CsvSchoolRecordFactory;
 import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.domain.model.ValidationSummary;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties.DedupMode;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Function;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class CsvSchoolProcessor {
 
@@ -22,11 +31,32 @@ public class CsvSchoolProcessor {
   private final ProcessingStrategy<CsvSchoolRecord> sequential = s -> s;
   private final ProcessingStrategy<CsvSchoolRecord> parallel = Stream::parallel;
 
-  private final ProcessingStrategy<CsvSchoolRecord> deduplicated = stream ->
-    stream.filter(distinctByKey(CsvSchoolRecord::codesc));
+  private final ProcessingStrategy<CsvSchoolRecord> deduplicated;
+  private final ProcessingStrategy<CsvSchoolRecord> deduplicatedParallel;
 
-  private final ProcessingStrategy<CsvSchoolRecord> deduplicatedParallel =
-    stream -> stream.filter(distinctByKey(CsvSchoolRecord::codesc)).parallel();
+  public CsvSchoolProcessor(CsvProcessor<CsvSchoolRecord> core) {
+    this(core, DedupMode.FIRST_WINS);
+  }
+
+  @Autowired
+  public CsvSchoolProcessor(
+    CsvProcessor<CsvSchoolRecord> core,
+    CsvImportProperties importProperties
+  ) {
+    this(core, importProperties.getDedupMode());
+  }
+
+  private CsvSchoolProcessor(
+    CsvProcessor<CsvSchoolRecord> core,
+    DedupMode dedupMode
+  ) {
+    this.core = core;
+    this.deduplicated = deduplicated(dedupMode);
+    this.deduplicatedParallel =
+      dedupMode == DedupMode.LAST_WINS
+        ? stream -> lastWins(stream).parallel()
+        : stream -> stream.filter(firstWinsConcurrent()).parallel();
+  }
 
   public Stream<CsvSchoolRecord> process(
     InputStream inputStream,
@@ -42,6 +72,29 @@ public class CsvSchoolProcessor {
     );
   }
 
+  public ValidationSummary summarize(
+    InputStream inputStream,
+    String filename,
+    int maxErrors
+  ) {
+    return summarize(inputStream, filename, maxErrors, error -> {});
+  }
+
+  public ValidationSummary summarize(
+    InputStream inputStream,
+    String filename,
+    int maxErrors,
+    Consumer<ValidationError> errorSink
+  ) {
+    return core.scan(
+      inputStream,
+      filename,
+      CsvSchoolRecordFactory::createMapper,
+      maxErrors,
+      errorSink
+    );
+  }
+
   public ProcessingStrategy<CsvSchoolRecord> sequential() {
     return sequential;
   }
@@ -54,17 +107,99 @@ public class CsvSchoolProcessor {
     return deduplicatedParallel;
   }
 
-  private static <T> Predicate<T> distinctByKey(
-    Function<? super T, ?> keyExtractor
-  ) {
-    ConcurrentHashMap<Object, Boolean> seen = new ConcurrentHashMap<>();
-    return t -> {
-      Object key = keyExtractor.apply(t);
+  /** Deduplicação por CODESC no modo informado, independente do configurado. */
+  public ProcessingStrategy<CsvSchoolRecord> deduplicated(DedupMode mode) {
+    return mode == DedupMode.LAST_WINS
+      ? CsvSchoolProcessor::lastWins
+      : stream -> stream.filter(firstWins());
+  }
+
+  private static Predicate<CsvSchoolRecord> firstWins() {
+    LongHashSet seen = new LongHashSet();
+    Set<String> seenNonNumeric = new HashSet<>();
+    return record -> {
+      String key = record.codesc();
       if (key == null) {
-        log.warn("Registro com chave nula encontrado, será ignorado: {}", t);
+        log.warn(
+          "Registro com chave nula encontrado, será ignorado: {}",
+          record
+        );
         return false;
       }
-      return seen.putIfAbsent(key, Boolean.TRUE) == null;
+      long code = parseCode(key);
+      return code >= 0 ? seen.add(code) : seenNonNumeric.add(key);
     };
   }
+
+  private static Predicate<CsvSchoolRecord> firstWinsConcurrent() {
+    ConcurrentLongHashSet seen = new ConcurrentLongHashSet();
+    Set<String> seenNonNumeric = ConcurrentHashMap.newKeySet();
+    return record -> {
+      String key = record.codesc();
+      if (key == null) {
+        log.warn(
+          "Registro com chave nula encontrado, será ignorado: {}",
+          record
+        );
+        return false;
+      }
+      long code = parseCode(key);
+      return code >= 0 ? seen.add(code) : seenNonNumeric.add(key);
+    };
+  }
+
+  /**
+   * Mantém a última ocorrência de cada CODESC na posição em que ele apareceu primeiro. Precisa consumir o stream
+   * inteiro antes de emitir, mas o índice código → posição continua primitivo.
+   */
+  private static Stream<CsvSchoolRecord> lastWins(
+    Stream<CsvSchoolRecord> stream
+  ) {
+    List<CsvSchoolRecord> kept = new ArrayList<>();
+    LongIntHashMap positions = new LongIntHashMap();
+    Map<String, Integer> nonNumericPositions = new HashMap<>();
+
+    try (stream) {
+      stream.forEachOrdered(record -> {
+        String key = record.codesc();
+        if (key == null) {
+          log.warn(
+            "Registro com chave nula encontrado, será ignorado: {}",
+            record
+          );
+          return;
+        }
+        long code = parseCode(key);
+        int previous = code >= 0
+          ? positions.putIfAbsent(code, kept.size())
+          : nonNumericPositions.getOrDefault(key, -1);
+        if (previous >= 0) {
+          kept.set(previous, record);
+        } else {
+          if (code < 0) {
+            nonNumericPositions.put(key, kept.size());
+          }
+          kept.add(record);
+        }
+      });
+    }
+    return kept.stream();
+  }
+
+  /** CODESC como {@code long} não negativo; {@code -1} se não for numérico (tratado à parte). */
+  static long parseCode(String codesc) {
+    int length = codesc.length();
+    if (length == 0 || length > 18) {
+      return -1;
+    }
+    long code = 0;
+    for (int i = 0; i < length; i++) {
+      int digit = codesc.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      code = code * 10 + digit;
+    }
+    return code;
+  }
 }
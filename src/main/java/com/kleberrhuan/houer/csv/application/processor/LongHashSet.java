@@ -0,0 +1,115 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.processor;
+
+/**
+ * Conjunto de {@code long} com endereçamento aberto (sondagem linear) sobre um único {@code long[]}: cerca de 8 a 16
+ * bytes por chave, contra ~90 de um {@code ConcurrentHashMap<String, Boolean>}. Zero é o marcador de slot vazio e
+ * fica em um flag à parte. Não é thread-safe.
+ */
+final class LongHashSet {
+
+  private static final float LOAD_FACTOR = 0.75f;
+
+  private long[] table;
+  private int size;
+  private int resizeAt;
+  private boolean containsZero;
+
+  LongHashSet() {
+    this(64);
+  }
+
+  LongHashSet(int expected) {
+    int capacity = 16;
+    while (capacity * LOAD_FACTOR < expected) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  /** Adiciona a chave; {@code false} se ela já estava presente. */
+  boolean add(long key) {
+    if (key == 0) {
+      if (containsZero) {
+        return false;
+      }
+      containsZero = true;
+      size++;
+      return true;
+    }
+
+    int mask = table.length - 1;
+    int slot = mix(key) & mask;
+    while (true) {
+      long current = table[slot];
+      if (current == 0) {
+        table[slot] = key;
+        if (++size > resizeAt) {
+          rehash(table.length << 1);
+        }
+        return true;
+      }
+      if (current == key) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  boolean contains(long key) {
+    if (key == 0) {
+      return containsZero;
+    }
+    int mask = table.length - 1;
+    int slot = mix(key) & mask;
+    while (true) {
+      long current = table[slot];
+      if (current == 0) {
+        return false;
+      }
+      if (current == key) {
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  int capacity() {
+    return table.length;
+  }
+
+  /** Espalha os bits (finalizador do MurmurHash3) para códigos sequenciais não agruparem. */
+  static int mix(long key) {
+    long h = key;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return (int) h;
+  }
+
+  private void allocate(int capacity) {
+    table = new long[capacity];
+    resizeAt = (int) (capacity * LOAD_FACTOR);
+  }
+
+  private void rehash(int newCapacity) {
+    long[] old = table;
+    allocate(newCapacity);
+    int mask = newCapacity - 1;
+    for (long key : old) {
+      if (key != 0) {
+        int slot = mix(key) & mask;
+        while (table[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = key;
+      }
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.processor;
+
+/**
+ * Mapa {@code long -> int} com endereçamento aberto, usado pelo modo "última ocorrência vence" para achar a posição
+ * já ocupada por um código. Valores negativos não são suportados ({@code -1} indica ausência). Não é thread-safe.
+ */
+final class LongIntHashMap {
+
+  private static final float LOAD_FACTOR = 0.75f;
+  private static final int MISSING = -1;
+
+  private long[] keys;
+  private int[] values;
+  private int size;
+  private int resizeAt;
+  private int zeroValue = MISSING;
+
+  LongIntHashMap() {
+    allocate(64);
+  }
+
+  /** Associa {@code value} se a chave ainda não existe; caso contrário retorna o valor atual sem alterá-lo. */
+  int putIfAbsent(long key, int value) {
+    if (key == 0) {
+      if (zeroValue != MISSING) {
+        return zeroValue;
+      }
+      zeroValue = value;
+      size++;
+      return MISSING;
+    }
+
+    int mask = keys.length - 1;
+    int slot = LongHashSet.mix(key) & mask;
+    while (true) {
+      long current = keys[slot];
+      if (current == 0) {
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+          rehash(keys.length << 1);
+        }
+        return MISSING;
+      }
+      if (current == key) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new int[capacity];
+    resizeAt = (int) (capacity * LOAD_FACTOR);
+  }
+
+  private void rehash(int newCapacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(newCapacity);
+    int mask = newCapacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0) {
+        int slot = LongHashSet.mix(oldKeys[i]) & mask;
+        while (keys[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.processor;
+
+import com.kleberrhuan.houer.csv.infra.exception.CsvProcessingException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Pipeline leitor → workers → coletor ordenado. A thread que consome lê as linhas e as corta em lotes, que são
+ * validados e mapeados em virtual threads. Os resultados saem na ordem de leitura. No máximo {@code 2 × parallelism}
+ * lotes ficam em voo, o que limita a memória e segura a leitura quando os workers não acompanham.
+ *
+ * <p>Não é thread-safe: deve ser consumido por uma única thread, a mesma que fecha.
+ */
+final class RowBatchPipeline<R> implements Iterator<R>, AutoCloseable {
+
+  /** Lote de linhas; {@code firstLine} é o número da primeira linha no arquivo (o header é a linha 1). */
+  record RowBatch(int firstLine, String[][] rows, int size) {}
+
+  private final Iterator<String[]> rows;
+  private final int batchSize;
+  private final int window;
+  private final Function<RowBatch, R> worker;
+  private final ExecutorService executor =
+    Executors.newVirtualThreadPerTaskExecutor();
+  private final ArrayDeque<Future<R>> inFlight = new ArrayDeque<>();
+  private int nextLine;
+
+  RowBatchPipeline(
+    Iterator<String[]> rows,
+    int firstLine,
+    int batchSize,
+    int parallelism,
+    Function<RowBatch, R> worker
+  ) {
+    this.rows = rows;
+    this.nextLine = firstLine;
+    this.batchSize = batchSize;
+    this.window = Math.max(2, parallelism * 2);
+    this.worker = worker;
+  }
+
+  @Override
+  public boolean hasNext() {
+    fill();
+    return !inFlight.isEmpty();
+  }
+
+  @Override
+  public R next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Future<R> head = inFlight.poll();
+    fill();
+    return await(head);
+  }
+
+  @Override
+  public void close() {
+    inFlight.forEach(future -> future.cancel(true));
+    inFlight.clear();
+    executor.shutdownNow();
+  }
+
+  private void fill() {
+    while (inFlight.size() < window && rows.hasNext()) {
+      String[][] batch = new String[batchSize][];
+      int size = 0;
+      while (size < batchSize && rows.hasNext()) {
+        batch[size++] = rows.next();
+      }
+      RowBatch rowBatch = new RowBatch(nextLine, batch, size);
+      nextLine += size;
+      inFlight.add(executor.submit(() -> worker.apply(rowBatch)));
+    }
+  }
+
+  private R await(Future<R> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      close();
+      throw new CsvProcessingException(
+        "Validação interrompida aguardando lote de linhas",
+        e
+      );
+    } catch (CancellationException e) {
+      throw new CsvProcessingException("Validação cancelada", e);
+    } catch (ExecutionException e) {
+      close();
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new CsvProcessingException(
+        "Erro ao validar lote de linhas: " + e.getCause().getMessage(),
+        e.getCause()
+      );
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.service;
+
+import com.kleberrhuan.houer.csv.application.port.StorageService;
+import com.kleberrhuan.houer.csv.domain.model.CsvImportJob;
+import com.kleberrhuan.houer.csv.domain.repository.CsvStoredFileRepository;
+import com.kleberrhuan.houer.csv.infra.properties.CsvStorageProperties;
+import java.net.URI;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Contagem de referências dos arquivos armazenados por conteúdo. A linha de {@code csv_stored_file} fica bloqueada
+ * enquanto o arquivo é movido ou removido, então um job novo nunca aponta para um arquivo que outro job está apagando.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CsvContentStore {
+
+  private final CsvStoredFileRepository storedFileRepository;
+  private final StorageService storageService;
+  private final CsvStorageProperties storageProperties;
+
+  /** Registra mais uma referência ao conteúdo e executa {@code promote}, que o coloca no endereço do hash. */
+  @Transactional
+  public URI store(String sha256, Supplier<URI> promote) {
+    storedFileRepository.acquire(sha256);
+    return promote.get();
+  }
+
+  /**
+   * Libera a referência do job concluído; o último a liberar remove o arquivo. Sem
+   * {@code app.csv.storage.delete-after-processing} os arquivos são mantidos.
+   */
+  @Transactional
+  public void release(CsvImportJob job) {
+    if (
+      !storageProperties.isDeleteAfterProcessing() ||
+      job.getContentSha256() == null ||
+      job.getFileUri() == null
+    ) {
+      return;
+    }
+
+    storedFileRepository
+      .findForUpdate(job.getContentSha256())
+      .ifPresent(file -> {
+        if (file.getRefCount() > 1) {
+          file.setRefCount(file.getRefCount() - 1);
+          return;
+        }
+        storageService.delete(URI.create(job.getFileUri()));
+        storedFileRepository.delete(file);
+        log.debug(
+          "Conteúdo {} sem referências, arquivo removido",
+          job.getContentSha256()
+        );
+      });
+  }
+}
@@ -0,0 +1,87 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.service;
+
+import com.kleberrhuan.houer.common.infra.persistence.AdvisoryLockService;
+import com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Locks;
+import com.kleberrhuan.houer.csv.domain.exception.ActiveImportJobException;
+import com.kleberrhuan.houer.csv.domain.model.CsvImportJob;
+import com.kleberrhuan.houer.csv.domain.model.ImportJobStatus;
+import com.kleberrhuan.houer.csv.domain.repository.CsvImportJobRepository;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Admissão de novos jobs na fila, segura entre réplicas da API. A checagem de limite e a inserção rodam numa
+ * transação curta sob o advisory lock do usuário, depois da validação do arquivo; o índice único parcial de jobs
+ * ativos por conteúdo é a última barreira contra duas importações simultâneas do mesmo arquivo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CsvImportAdmission {
+
+  static final List<ImportJobStatus> ACTIVE = List.of(
+    ImportJobStatus.PENDING,
+    ImportJobStatus.RUNNING
+  );
+  private static final Duration USER_LOCK_TIMEOUT = Duration.ofSeconds(10);
+
+  private final CsvImportJobRepository jobRepository;
+  private final AdvisoryLockService advisoryLocks;
+  private final CsvImportProperties importProperties;
+
+  /** Checagem antecipada, sem lock, para recusar o upload antes de validar o arquivo. */
+  public void checkQueueLimit(Long userId) {
+    int limit = importProperties.getQueue().getMaxQueuedPerUser();
+    long queued = jobRepository.countByCreatedByAndStatusAndDispatchedAtIsNull(
+      userId,
+      ImportJobStatus.PENDING
+    );
+    if (queued >= limit) {
+      throw new ActiveImportJobException(
+        "Usuário %d já possui %d importações na fila".formatted(userId, queued)
+      );
+    }
+  }
+
+  /**
+   * Insere {@code job} na fila se o usuário ainda tiver vaga. Se o usuário já tem um job ativo com o mesmo conteúdo,
+   * devolve esse job e não insere nada.
+   */
+  @Transactional
+  public CsvImportJob register(CsvImportJob job, Long userId) {
+    lockUser(userId);
+
+    Optional<CsvImportJob> active =
+      jobRepository.findFirstByCreatedByAndContentSha256AndStatusIn(
+        userId,
+        job.getContentSha256(),
+        ACTIVE
+      );
+    if (active.isPresent()) {
+      return active.get();
+    }
+
+    checkQueueLimit(userId);
+    return jobRepository.saveAndFlush(job);
+  }
+
+  /** Serializa, em todas as réplicas, operações que mudam a fila do usuário. Exige transação ativa. */
+  public void lockUser(Long userId) {
+    advisoryLocks.lock(
+      Locks.USER_ADMISSION,
+      userId,
+      USER_LOCK_TIMEOUT,
+      () ->
+        new ActiveImportJobException(
+          "Falha ao obter lock para usuário " + userId
+        )
+    );
+  }
+}
@@ -2,32 +2,55 @@
 package com.kleberrhuan.houer.csv.application.service;
 
 import com.kleberrhuan.houer.common.application.factory.PageableFactory;
+import com.kleberrhuan.houer.common.infra.exception.InfrastructureException;
+import com.kleberrhuan.houer.common.infra.persistence.AdvisoryLockService;
 import com.kleberrhuan.houer.common.interfaces.dto.request.PageableRequest;
 import com.kleberrhuan.houer.common.interfaces.dto.response.PaginatedResponse;
 import com.kleberrhuan.houer.csv.application.port.CsvValidator;
 import com.kleberrhuan.houer.csv.application.port.NotificationService;
+import com.kleberrhuan.houer.csv.application.port.StagedUpload;
 import com.kleberrhuan.houer.csv.application.port.StorageService;
+import com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Locks;
 import com.kleberrhuan.houer.csv.domain.exception.ActiveImportJobException;
+import com.kleberrhuan.houer.csv.domain.exception.CsvValidationException;
 import com.kleberrhuan.houer.csv.domain.factory.CsvImportNotificationFactory;
 import com.kleberrhuan.houer.csv.domain.model.*;
 import com.kleberrhuan.houer.csv.domain.repository.CsvImportJobRepository;
+import com.kleberrhuan.houer.csv.infra.batch.ImportCancellationRegistry;
+import com.kleberrhuan.houer.csv.infra.batch.ImportExecutionRegistry;
+import com.kleberrhuan.houer.csv.infra.batch.InlineSchoolImporter;
 import com.kleberrhuan.houer.csv.infra.exception.CsvProcessingException;
-import com.kleberrhuan.houer.csv.infra.messaging.CsvImportMessagePublisher;
+import com.kleberrhuan.houer.csv.infra.observability.ImportPipelineMetrics;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import com.kleberrhuan.houer.csv.infra.storage.CompressionFormat;
+import com.kleberrhuan.houer.csv.infra.storage.ContentDigest;
+import com.kleberrhuan.houer.csv.infra.storage.ErrorReportWriter;
+import com.kleberrhuan.houer.csv.infra.storage.TeeInputStream;
 import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportNotification;
-import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportQueueMessage;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
@@ -35,45 +58,280 @@ import org.springframework.web.multipart.MultipartFile;
 @Slf4j
 public class CsvImportService {
 
+  private static final Duration JOB_LOCK_TIMEOUT = Duration.ofSeconds(5);
+
   private final CsvImportJobRepository jobRepository;
   private final CsvValidator<CsvSchoolRecord> csvValidator;
-  private final CsvImportMessagePublisher messagePublisher;
   private final PageableFactory pageableFactory;
   private final NotificationService notificationService;
   private final StorageService storageService;
-
-  @Transactional
+  private final CsvImportProperties importProperties;
+  private final ImportExecutionRegistry executionRegistry;
+  private final ImportCancellationRegistry cancellation;
+  private final CsvContentStore contentStore;
+  private final ImportQueueScheduler queueScheduler;
+  private final CsvImportAdmission admission;
+  private final AdvisoryLockService advisoryLocks;
+  private final InlineSchoolImporter inlineImporter;
+  private final ImportPipelineMetrics pipelineMetrics;
+
+  /**
+   * Valida o upload linha a linha enquanto o replica para a área de staging do storage, mantendo apenas contadores. A
+   * transação fica restrita à inserção do {@link CsvImportJob}. Com {@code app.csv.import.skip-limit} maior que zero,
+   * até esse número de linhas inválidas é aceito: elas vão para o relatório de erros do job e o job as descarta.
+   * Arquivos pequenos são gravados antes da resposta (ver {@link #importInline}).
+   */
   public UUID startImport(@NonNull MultipartFile file, @NotNull Long userId) {
-    validateNoActiveJob(userId);
+    admission.checkQueueLimit(userId);
     validateFile(file);
 
-    try (InputStream in = file.getInputStream()) {
-      List<CsvSchoolRecord> records = parseCsvToList(
-        in,
-        file.getOriginalFilename()
+    String filename = file.getOriginalFilename();
+
+    try (
+      StagedUpload upload = storageService.stage(filename);
+      StagedUpload report = stageErrorReport(filename)
+    ) {
+      MessageDigest digest = ContentDigest.newDigest();
+      ValidationSummary summary = validateWhileStoring(
+        file,
+        upload,
+        digest,
+        report,
+        filename
+      );
+      return enqueue(
+        filename,
+        summary,
+        ContentDigest.hex(digest),
+        report,
+        upload::promoteContent,
+        userId
+      );
+    } catch (CsvValidationException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new CsvProcessingException(
+        "Erro ao iniciar importação: " + e.getMessage(),
+        e
+      );
+    }
+  }
+
+  /**
+   * Igual a {@link #startImport(MultipartFile, Long)} para um arquivo já montado no storage por um upload em partes:
+   * valida lendo o arquivo e, se aceito, o move para o endereço do conteúdo.
+   */
+  public UUID startImportFromUpload(
+    @NonNull UUID uploadId,
+    @NonNull String filename,
+    @NotNull Long userId
+  ) {
+    admission.checkQueueLimit(userId);
+
+    try (StagedUpload report = stageErrorReport(filename)) {
+      MessageDigest digest = ContentDigest.newDigest();
+      ValidationSummary summary = scan(
+        storageService.openUpload(uploadId),
+        digest,
+        report,
+        filename
+      );
+      return enqueue(
+        filename,
+        summary,
+        ContentDigest.hex(digest),
+        report,
+        sha256 -> storageService.promoteUpload(uploadId, sha256, filename),
+        userId
+      );
+    } catch (CsvValidationException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new CsvProcessingException(
+        "Erro ao iniciar importação: " + e.getMessage(),
+        e
+      );
+    }
+  }
+
+  private StagedUpload stageErrorReport(String filename) {
+    return importProperties.getSkipLimit() > 0
+      ? storageService.stageErrorReport(filename)
+      : null;
+  }
+
+  /**
+   * Cria o job do arquivo validado e o coloca na fila do {@link ImportQueueScheduler}. Se o usuário já importou o
+   * mesmo conteúdo com sucesso dentro de {@code app.csv.import.duplicate-upload-window}, ou se uma importação dele
+   * com o mesmo conteúdo ainda está ativa, devolve aquele job sem rodar o pipeline de novo.
+   */
+  private UUID enqueue(
+    String filename,
+    ValidationSummary summary,
+    String contentSha256,
+    StagedUpload report,
+    Function<String, URI> promoteInput,
+    Long userId
+  ) {
+    if (summary.invalidRecords() > importProperties.getSkipLimit()) {
+      summary.throwIfErrors();
+    }
+
+    Optional<CsvImportJob> duplicate = findCompletedDuplicate(
+      userId,
+      contentSha256
+    );
+    if (duplicate.isPresent()) {
+      log.info(
+        "Arquivo {} idêntico ao do job {} já concluído – importação ignorada",
+        filename,
+        duplicate.get().getId()
       );
+      return duplicate.get().getId();
+    }
 
-      String description = file.getOriginalFilename();
-      CsvImportJob job = createAndSaveJob(file, description, records);
+    CsvImportJob created = newJob(filename, filename, summary, contentSha256);
+    CsvImportJob job = register(created, userId);
+    if (job != created) {
+      log.info(
+        "Arquivo {} idêntico ao do job {} ainda ativo – importação ignorada",
+        filename,
+        job.getId()
+      );
+      return job.getId();
+    }
+    pipelineMetrics.recordUpload(
+      job.getId(),
+      summary.validRecords() + summary.invalidRecords(),
+      summary.validRecords(),
+      summary.timings()
+    );
 
-      URI fileUri = storageService.store(file, job.getId());
+    try {
+      URI fileUri = contentStore.store(
+        contentSha256,
+        () -> promoteInput.apply(contentSha256)
+      );
+      job.setFileUri(fileUri.toString());
+      if (summary.hasErrors()) {
+        job.setErrorReportUri(report.promote(job.getId()).toString());
+      }
+      job = jobRepository.save(job);
 
-      publishQueueMessage(job, fileUri, description, userId);
       notifyEnqueued(job);
+      if (importInline(job, summary, fileUri, userId)) {
+        return job.getId();
+      }
+      queueScheduler.dispatch();
 
       log.info(
-        "Job {} enfileirado ({} registros) – arquivo {} armazenado em {}",
+        "Job {} enfileirado com prioridade {} ({} registros, {} linhas inválidas ignoradas) – arquivo {} armazenado em {}",
         job.getId(),
-        records.size(),
-        file.getOriginalFilename(),
+        job.getPriority(),
+        summary.validRecords(),
+        summary.invalidRecords(),
+        filename,
         fileUri
       );
 
       return job.getId();
-    } catch (Exception e) {
-      throw new CsvProcessingException(
-        "Erro ao iniciar importação: " + e.getMessage(),
-        e
+    } catch (RuntimeException e) {
+      updateJobStatus(
+        job.getId(),
+        ImportJobStatus.FAILED,
+        "Falha ao enfileirar importação: " + e.getMessage()
+      );
+      throw e;
+    }
+  }
+
+  /**
+   * Grava na própria requisição arquivos com até {@code app.csv.import.inline.max-records} registros válidos. O job é
+   * marcado como admitido antes, para a fila não publicá-lo em paralelo, e passa por RUNNING e COMPLETED (ou FAILED,
+   * retomável pelo Spring Batch) com as mesmas notificações do caminho assíncrono. Devolve {@code false} quando o job
+   * deve seguir pela fila.
+   */
+  private boolean importInline(
+    CsvImportJob job,
+    ValidationSummary summary,
+    URI fileUri,
+    Long userId
+  ) {
+    if (
+      !importProperties.getInline().accepts(summary.validRecords()) ||
+      jobRepository.markDispatched(job.getId(), Instant.now()) == 0
+    ) {
+      return false;
+    }
+
+    UUID jobId = job.getId();
+    long start = System.nanoTime();
+    updateJobStatus(jobId, ImportJobStatus.RUNNING, null);
+    pipelineMetrics.open(jobId);
+    try {
+      InlineSchoolImporter.Result result = inlineImporter.importFile(
+        jobId,
+        Path.of(fileUri),
+        job.getFilename(),
+        summary.hasErrors(),
+        userId
+      );
+
+      CsvImportJob done = findJobById(jobId);
+      done.setProcessedRecords(result.read());
+      done.setInsertedRecords(Math.toIntExact(result.inserted()));
+      done.setUpdatedRecords(Math.toIntExact(result.updated()));
+      done.setUnchangedRecords(Math.toIntExact(result.unchanged()));
+      jobRepository.save(done);
+      updateJobStatus(jobId, ImportJobStatus.COMPLETED, null);
+      releaseInputFile(jobId);
+
+      log.info(
+        "Job {} importado na requisição em {}ms - Lidos: {} - Escritos: {} - Inalterados: {}",
+        jobId,
+        (System.nanoTime() - start) / 1_000_000,
+        result.read(),
+        result.written(),
+        result.unchanged()
+      );
+    } catch (RuntimeException e) {
+      log.error("Falha na importação inline do job {}", jobId, e);
+      updateJobStatus(
+        jobId,
+        ImportJobStatus.FAILED,
+        "Falha na importação: " + e.getMessage()
+      );
+    } finally {
+      pipelineMetrics.close(jobId);
+    }
+    return true;
+  }
+
+  private Optional<CsvImportJob> findCompletedDuplicate(
+    Long userId,
+    String contentSha256
+  ) {
+    Duration window = importProperties.getDuplicateUploadWindow();
+    if (window.isZero()) {
+      return Optional.empty();
+    }
+    return jobRepository.findFirstByCreatedByAndContentSha256AndStatusAndCreatedAtAfterOrderByCreatedAtDesc(
+      userId,
+      contentSha256,
+      ImportJobStatus.COMPLETED,
+      LocalDateTime.now().minus(window)
+    );
+  }
+
+  /** Libera a referência do job concluído ao arquivo armazenado, removendo-o se nenhum outro job o usa. */
+  public void releaseInputFile(@NonNull UUID jobId) {
+    try {
+      contentStore.release(findJobById(jobId));
+    } catch (RuntimeException e) {
+      log.warn(
+        "Falha ao liberar arquivo do job {}: {}",
+        jobId,
+        e.getMessage()
       );
     }
   }
@@ -96,6 +354,7 @@ public class CsvImportService {
         case RUNNING -> CsvImportNotificationFactory.started(job);
         case COMPLETED -> CsvImportNotificationFactory.completed(job);
         case FAILED -> CsvImportNotificationFactory.failed(job, errorMessage);
+        case CANCELLED -> CsvImportNotificationFactory.cancelled(job);
         default -> CsvImportNotificationFactory.of(
           job,
           status,
@@ -106,14 +365,15 @@ public class CsvImportService {
     notificationService.send(notification);
   }
 
-  private void validateNoActiveJob(Long userId) {
-    boolean exists = jobRepository.existsByCreatedByAndStatusIn(
-      userId,
-      List.of(ImportJobStatus.PENDING, ImportJobStatus.RUNNING)
-    );
-    if (exists) {
+  private CsvImportJob register(CsvImportJob job, Long userId) {
+    try {
+      return admission.register(job, userId);
+    } catch (DataIntegrityViolationException e) {
+      // Outra réplica registrou o mesmo arquivo entre a checagem e a inserção
       throw new ActiveImportJobException(
-        "Usuário %d já possui importação ativa".formatted(userId)
+        "Importação do arquivo %s já está em andamento".formatted(
+          job.getFilename()
+        )
       );
     }
   }
@@ -124,51 +384,102 @@ public class CsvImportService {
     }
   }
 
-  private List<CsvSchoolRecord> parseCsvToList(
+  /**
+   * Uploads {@code .csv.gz} e {@code .zip} são replicados compactados e validados sobre o stream descompactado. O
+   * restante do arquivo (trailer do gzip, diretório central do zip) é drenado, mesmo que o parser já tenha fechado o
+   * stream descompactado, para que a cópia armazenada fique íntegra.
+   */
+  private ValidationSummary validateWhileStoring(
+    MultipartFile file,
+    StagedUpload upload,
+    MessageDigest digest,
+    StagedUpload report,
+    String filename
+  ) throws IOException {
+    return scan(
+      new TeeInputStream(file.getInputStream(), upload.outputStream()),
+      digest,
+      report,
+      filename
+    );
+  }
+
+  /** Valida o arquivo descompactado e alimenta {@code digest} com os bytes como recebidos. */
+  private ValidationSummary scan(
+    InputStream source,
+    MessageDigest digest,
+    StagedUpload report,
+    String filename
+  ) throws IOException {
+    CompressionFormat format = CompressionFormat.fromFilename(filename);
+    try (
+      InputStream raw = new DigestInputStream(source, digest);
+      InputStream in = format.decode(StreamUtils.nonClosing(raw))
+    ) {
+      ValidationSummary summary = summarize(in, report, filename);
+      raw.transferTo(OutputStream.nullOutputStream());
+      return summary;
+    }
+  }
+
+  private ValidationSummary summarize(
     InputStream in,
+    StagedUpload report,
     String filename
   ) {
-    return csvValidator.validateToList(in, filename);
+    if (report == null) {
+      return csvValidator.summarize(
+        in,
+        filename,
+        importProperties.getMaxReportedErrors()
+      );
+    }
+    try (
+      ErrorReportWriter errorReport = new ErrorReportWriter(
+        report.outputStream()
+      )
+    ) {
+      return csvValidator.summarize(
+        in,
+        filename,
+        importProperties.getMaxReportedErrors(),
+        errorReport
+      );
+    }
   }
 
-  private CsvImportJob createAndSaveJob(
-    MultipartFile file,
+  private CsvImportJob newJob(
+    String filename,
     String description,
-    List<CsvSchoolRecord> records
+    ValidationSummary summary,
+    String contentSha256
   ) {
     CsvImportJob job = new CsvImportJob();
-    job.setFilename(file.getOriginalFilename());
+    job.setFilename(filename);
     job.setDescription(description);
     job.setStatus(ImportJobStatus.PENDING);
-    job.setTotalRecords(records.size());
+    job.setPriority(queueScheduler.priorityOf(summary.validRecords()));
+    job.setQueuedAt(Instant.now());
+    job.setTotalRecords(Math.toIntExact(summary.validRecords()));
     job.setProcessedRecords(0);
-    job.setErrorRecords(0);
-    return jobRepository.save(job);
-  }
-
-  private void publishQueueMessage(
-    CsvImportJob job,
-    URI fileUri,
-    String description,
-    Long userId
-  ) {
-    CsvImportQueueMessage msg = new CsvImportQueueMessage(
-      job.getId(),
-      job.getFilename(),
-      fileUri,
-      description,
-      userId,
-      Instant.now()
-    );
-
-    messagePublisher.publishImportMessage(msg);
+    job.setErrorRecords(Math.toIntExact(summary.invalidRecords()));
+    job.setInsertedRecords(0);
+    job.setUpdatedRecords(0);
+    job.setUnchangedRecords(0);
+    job.setContentSha256(contentSha256);
+    return job;
   }
 
   private void notifyEnqueued(CsvImportJob job) {
+    String message = job.getErrorRecords() > 0
+      ? "Importação enfileirada para processamento (%d linhas inválidas serão ignoradas)".formatted(
+          job.getErrorRecords()
+        )
+      : "Importação enfileirada para processamento";
     CsvImportNotification notification = CsvImportNotificationFactory.of(
       job,
       ImportJobStatus.PENDING,
-      "Importação enfileirada para processamento"
+      message
     );
     notificationService.send(notification);
   }
@@ -178,10 +489,16 @@ public class CsvImportService {
       job.setStartedAt(Instant.now());
     }
     if (
-      status == ImportJobStatus.COMPLETED || status == ImportJobStatus.FAILED
+      status == ImportJobStatus.COMPLETED ||
+      status == ImportJobStatus.FAILED ||
+      status == ImportJobStatus.CANCELLED
     ) {
       job.setFinishedAt(Instant.now());
     }
+    // Só uma retomada usa o checkpoint
+    if (status == ImportJobStatus.COMPLETED) {
+      job.setCheckpoint(null);
+    }
     job.setStatus(status);
   }
 
@@ -206,6 +523,13 @@ public class CsvImportService {
       );
   }
 
+  /** Telemetria do job nesta réplica; vazia se ele não rodou aqui ou já saiu dos recentes. */
+  public Optional<ImportPipelineMetrics.JobStats> findJobStats(
+    @NonNull UUID jobId
+  ) {
+    return pipelineMetrics.stats(jobId);
+  }
+
   public PaginatedResponse<List<CsvImportJob>> findJobsByUser(
     Long userId,
     PageableRequest pageableRequest
@@ -234,6 +558,7 @@ public class CsvImportService {
 
   @Transactional
   public void cancelJob(UUID jobId, Long userId) {
+    lockJob(jobId);
     CsvImportJob job = findJobById(jobId);
 
     if (userId != null && !userId.equals(job.getCreatedBy())) {
@@ -248,7 +573,8 @@ public class CsvImportService {
 
     if (
       job.getStatus() == ImportJobStatus.COMPLETED ||
-      job.getStatus() == ImportJobStatus.FAILED
+      job.getStatus() == ImportJobStatus.FAILED ||
+      job.getStatus() == ImportJobStatus.CANCELLED
     ) {
       throw new com.kleberrhuan.houer.common.domain.exception.BusinessException(
         org.springframework.http.HttpStatus.CONFLICT,
@@ -262,23 +588,179 @@ public class CsvImportService {
 
     updateJobStatus(
       jobId,
-      ImportJobStatus.FAILED,
+      ImportJobStatus.CANCELLED,
       "Importação cancelada pelo usuário"
     );
+    // Os workers desta réplica veem na hora; os das outras, na próxima consulta ao banco
+    cancellation.markCancelled(jobId);
+  }
+
+  /**
+   * Recoloca um job interrompido no fim da fila. Quando admitido, o consumer relança a mesma instância do Spring
+   * Batch, que retoma cada partição do offset salvo no último chunk confirmado. Aceita jobs FAILED, jobs CANCELLED que
+   * já pararam e jobs RUNNING que não estão executando nesta instância (processo caiu no meio da importação).
+   */
+  @Transactional
+  public void resumeJob(UUID jobId, Long userId) {
+    lockJob(jobId);
+    CsvImportJob job = findJobById(jobId);
+
+    if (userId != null && !userId.equals(job.getCreatedBy())) {
+      throw new com.kleberrhuan.houer.common.domain.exception.BusinessException(
+        org.springframework.http.HttpStatus.FORBIDDEN,
+        com.kleberrhuan.houer.common.interfaces.dto.error.ApiErrorType.FORBIDDEN,
+        com.kleberrhuan.houer.common.interfaces.dto.error.MessageKey.of(
+          "error.csv.import.job.unauthorized"
+        )
+      );
+    }
+
+    if (!isResumable(job)) {
+      throw new com.kleberrhuan.houer.common.domain.exception.BusinessException(
+        org.springframework.http.HttpStatus.CONFLICT,
+        com.kleberrhuan.houer.common.interfaces.dto.error.ApiErrorType.BUSINESS_ERROR,
+        com.kleberrhuan.houer.common.interfaces.dto.error.MessageKey.of(
+          "error.csv.import.job.not.resumable"
+        ),
+        "Job não pode ser retomado"
+      );
+    }
+
+    admission.lockUser(job.getCreatedBy());
+    if (
+      jobRepository.existsByCreatedByAndContentSha256AndStatusInAndIdNot(
+        job.getCreatedBy(),
+        job.getContentSha256(),
+        CsvImportAdmission.ACTIVE,
+        jobId
+      )
+    ) {
+      throw new ActiveImportJobException(
+        "Importação do arquivo %s já está em andamento".formatted(
+          job.getFilename()
+        )
+      );
+    }
+
+    job.setStatus(ImportJobStatus.PENDING);
+    job.setQueuedAt(Instant.now());
+    job.setDispatchedAt(null);
+    job.setFinishedAt(null);
+    job.setErrorMessage(null);
+    jobRepository.save(job);
+    cancellation.forget(jobId);
+
+    notificationService.send(
+      CsvImportNotificationFactory.of(
+        job,
+        ImportJobStatus.PENDING,
+        "Importação reenfileirada a partir do último checkpoint"
+      )
+    );
+
+    log.info(
+      "Job {} reenfileirado para retomada ({} registros já processados)",
+      jobId,
+      job.getProcessedRecords()
+    );
+  }
+
+  /** Serializa cancelamento e retomada do mesmo job entre réplicas. Exige transação ativa. */
+  private void lockJob(UUID jobId) {
+    advisoryLocks.lock(
+      Locks.JOB,
+      AdvisoryLockService.keyOf(jobId),
+      JOB_LOCK_TIMEOUT,
+      () ->
+        InfrastructureException.defaultException(
+          "Não foi possível obter lock para job " + jobId
+        )
+    );
+  }
+
+  /** Abre o relatório NDJSON das linhas ignoradas no upload. Apenas o dono do job pode baixá-lo. */
+  public InputStream openErrorReport(UUID jobId, Long userId) {
+    CsvImportJob job = findJobById(jobId);
+
+    if (userId != null && !userId.equals(job.getCreatedBy())) {
+      throw new com.kleberrhuan.houer.common.domain.exception.BusinessException(
+        org.springframework.http.HttpStatus.FORBIDDEN,
+        com.kleberrhuan.houer.common.interfaces.dto.error.ApiErrorType.FORBIDDEN,
+        com.kleberrhuan.houer.common.interfaces.dto.error.MessageKey.of(
+          "error.csv.import.job.unauthorized"
+        )
+      );
+    }
+
+    if (
+      job.getErrorReportUri() == null ||
+      !storageService.exists(URI.create(job.getErrorReportUri()))
+    ) {
+      throw new com.kleberrhuan.houer.common.domain.exception.BusinessException(
+        org.springframework.http.HttpStatus.NOT_FOUND,
+        com.kleberrhuan.houer.common.interfaces.dto.error.ApiErrorType.RESOURCE_NOT_FOUND,
+        com.kleberrhuan.houer.common.interfaces.dto.error.MessageKey.of(
+          "error.csv.import.job.error.report.not.found"
+        ),
+        jobId
+      );
+    }
+
+    return storageService.openInputStream(URI.create(job.getErrorReportUri()));
+  }
+
+  private boolean isResumable(CsvImportJob job) {
+    if (
+      job.getFileUri() == null ||
+      !storageService.exists(URI.create(job.getFileUri()))
+    ) {
+      return false;
+    }
+    return switch (job.getStatus()) {
+      case FAILED -> true;
+      case RUNNING, CANCELLED -> !executionRegistry.isRunning(job.getId());
+      default -> false;
+    };
   }
 
+  /**
+   * Soma incrementos de progresso (incluindo a classificação delta) com um único {@code UPDATE} atômico e notifica o
+   * progresso. Chamado periodicamente pelo {@code ImportProgressTracker}, não por chunk.
+   */
   @Transactional
-  public void updateJobProgress(
+  public void addJobProgress(
     UUID jobId,
     int processedRecords,
-    int errorRecords
+    int errorRecords,
+    int insertedRecords,
+    int updatedRecords,
+    int unchangedRecords
   ) {
-    CsvImportJob job = findJobById(jobId);
+    int rows = jobRepository.incrementProgress(
+      jobId,
+      processedRecords,
+      errorRecords,
+      insertedRecords,
+      updatedRecords,
+      unchangedRecords
+    );
+    if (rows == 0) {
+      log.warn("Job {} não encontrado ao registrar progresso", jobId);
+      return;
+    }
 
-    job.setProcessedRecords(job.getProcessedRecords() + processedRecords);
-    job.setErrorRecords(job.getErrorRecords() + errorRecords);
+    jobRepository
+      .findById(jobId)
+      .ifPresent(job ->
+        notificationService.send(CsvImportNotificationFactory.progress(job))
+      );
+  }
 
-    jobRepository.save(job);
-    notificationService.send(CsvImportNotificationFactory.progress(job));
+  /** Grava o checkpoint das partições do repositório leve. Chamado pelo {@code ImportProgressTracker} a cada flush. */
+  @Transactional
+  public void saveJobCheckpoint(UUID jobId, String checkpoint) {
+    if (jobRepository.updateCheckpoint(jobId, checkpoint) == 0) {
+      log.warn("Job {} não encontrado ao gravar checkpoint", jobId);
+    }
   }
 }
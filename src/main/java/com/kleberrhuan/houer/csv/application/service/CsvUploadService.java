@@ -0,0 +1,280 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.service;
+
+import com.kleberrhuan.houer.common.domain.exception.BusinessException;
+import com.kleberrhuan.houer.common.interfaces.dto.error.ApiErrorType;
+import com.kleberrhuan.houer.common.interfaces.dto.error.MessageKey;
+import com.kleberrhuan.houer.csv.application.port.StagedUploadChunk;
+import com.kleberrhuan.houer.csv.application.port.StorageService;
+import com.kleberrhuan.houer.csv.domain.exception.UploadSessionNotFoundException;
+import com.kleberrhuan.houer.csv.domain.model.CsvUploadChunk;
+import com.kleberrhuan.houer.csv.domain.model.CsvUploadSession;
+import com.kleberrhuan.houer.csv.domain.repository.CsvUploadChunkRepository;
+import com.kleberrhuan.houer.csv.domain.repository.CsvUploadSessionRepository;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import com.kleberrhuan.houer.csv.infra.storage.ContentDigest;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Upload retomável em partes de tamanho fixo. Cada parte é gravada na sua posição do arquivo final e confirmada com o
+ * SHA-256 informado pelo cliente; partes podem chegar fora de ordem, em paralelo ou ser reenviadas. Ao finalizar, o
+ * arquivo montado segue o mesmo caminho de validação e enfileiramento de {@link CsvImportService#startImport}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CsvUploadService {
+
+  private final CsvUploadSessionRepository sessionRepository;
+  private final CsvUploadChunkRepository chunkRepository;
+  private final StorageService storageService;
+  private final ConcurrentSafeCsvImportService importService;
+  private final CsvImportProperties importProperties;
+
+  public CsvUploadSession createSession(
+    @NonNull String filename,
+    long totalSize
+  ) {
+    long maxSize = importProperties.getMaxUploadSize().toBytes();
+    if (totalSize <= 0 || totalSize > maxSize) {
+      throw new BusinessException(
+        HttpStatus.BAD_REQUEST,
+        ApiErrorType.BUSINESS_ERROR,
+        MessageKey.of("error.csv.upload.size.invalid"),
+        totalSize,
+        maxSize
+      );
+    }
+
+    int chunkSize = Math.toIntExact(
+      importProperties.getUploadChunkSize().toBytes()
+    );
+
+    CsvUploadSession session = new CsvUploadSession();
+    session.setFilename(filename);
+    session.setTotalSize(totalSize);
+    session.setChunkSize(chunkSize);
+    session.setChunkCount((int) ((totalSize + chunkSize - 1) / chunkSize));
+    session.setExpiresAt(
+      Instant.now().plus(importProperties.getUploadSessionTtl())
+    );
+    session = sessionRepository.save(session);
+
+    storageService.createUpload(session.getId());
+
+    log.info(
+      "Upload em partes {} criado para arquivo {} ({} bytes em {} partes)",
+      session.getId(),
+      filename,
+      totalSize,
+      session.getChunkCount()
+    );
+    return session;
+  }
+
+  public CsvUploadSession findSession(@NonNull UUID uploadId, Long userId) {
+    CsvUploadSession session = sessionRepository
+      .findById(uploadId)
+      .filter(s -> s.isCompleted() || s.getExpiresAt().isAfter(Instant.now()))
+      .orElseThrow(() -> new UploadSessionNotFoundException(uploadId));
+
+    if (userId != null && !userId.equals(session.getCreatedBy())) {
+      throw new BusinessException(
+        HttpStatus.FORBIDDEN,
+        ApiErrorType.FORBIDDEN,
+        MessageKey.of("error.csv.upload.session.unauthorized")
+      );
+    }
+    return session;
+  }
+
+  public List<Integer> findReceivedChunks(@NonNull UUID uploadId) {
+    return chunkRepository.findChunkIndexes(uploadId);
+  }
+
+  /**
+   * Grava a parte {@code index} conferindo tamanho e SHA-256. A parte é recebida em área temporária e só sobrescreve
+   * o arquivo montado depois de conferida. Reenviar uma parte já confirmada a sobrescreve, o que permite retomar um
+   * envio interrompido sem saber o que chegou.
+   */
+  public void uploadChunk(
+    @NonNull UUID uploadId,
+    int index,
+    @NonNull InputStream data,
+    @NonNull String sha256,
+    Long userId
+  ) {
+    CsvUploadSession session = findSession(uploadId, userId);
+
+    if (session.isCompleted()) {
+      throw new BusinessException(
+        HttpStatus.CONFLICT,
+        ApiErrorType.CONFLICT,
+        MessageKey.of("error.csv.upload.session.completed"),
+        uploadId
+      );
+    }
+    if (index < 0 || index >= session.getChunkCount()) {
+      throw new BusinessException(
+        HttpStatus.BAD_REQUEST,
+        ApiErrorType.BUSINESS_ERROR,
+        MessageKey.of("error.csv.upload.chunk.index.invalid"),
+        index,
+        session.getChunkCount()
+      );
+    }
+
+    int expectedSize = session.sizeOf(index);
+    MessageDigest digest = ContentDigest.newDigest();
+    try (
+      StagedUploadChunk chunk = storageService.stageUploadChunk(
+        uploadId,
+        session.offsetOf(index),
+        new DigestInputStream(data, digest),
+        expectedSize
+      )
+    ) {
+      String actual = ContentDigest.hex(digest);
+      verifyChunk(
+        uploadId,
+        index,
+        chunk.received(),
+        expectedSize,
+        actual,
+        sha256
+      );
+
+      chunk.commit();
+      recordChunk(uploadId, index, expectedSize, actual);
+    }
+    log.debug(
+      "Parte {} do upload {} recebida ({} bytes)",
+      index,
+      uploadId,
+      expectedSize
+    );
+  }
+
+  /**
+   * Finaliza o upload e inicia a importação. Idempotente: chamar de novo devolve o mesmo job, para que o cliente
+   * possa repetir a chamada se perder a resposta.
+   */
+  public UUID complete(@NonNull UUID uploadId, @NonNull Long userId) {
+    CsvUploadSession session = findSession(uploadId, userId);
+    if (session.isCompleted()) {
+      return session.getJobId();
+    }
+
+    long received = chunkRepository.countBySessionId(uploadId);
+    if (received < session.getChunkCount()) {
+      throw new BusinessException(
+        HttpStatus.CONFLICT,
+        ApiErrorType.CONFLICT,
+        MessageKey.of("error.csv.upload.session.incomplete"),
+        received,
+        session.getChunkCount()
+      );
+    }
+
+    UUID jobId = importService.startImportFromUpload(
+      uploadId,
+      session.getFilename(),
+      userId
+    );
+
+    session.setJobId(jobId);
+    sessionRepository.save(session);
+    chunkRepository.deleteBySessionId(uploadId);
+    // Conteúdo já importado não é promovido; o arquivo montado sobra e é descartado aqui
+    storageService.deleteUpload(uploadId);
+
+    log.info("Upload em partes {} finalizado como job {}", uploadId, jobId);
+    return jobId;
+  }
+
+  @Scheduled(fixedDelayString = "${app.csv.import.upload-cleanup-interval:1h}")
+  @Transactional
+  public void purgeExpiredSessions() {
+    List<CsvUploadSession> expired =
+      sessionRepository.findByJobIdIsNullAndExpiresAtBefore(Instant.now());
+
+    for (CsvUploadSession session : expired) {
+      chunkRepository.deleteBySessionId(session.getId());
+      storageService.deleteUpload(session.getId());
+      sessionRepository.delete(session);
+    }
+
+    if (!expired.isEmpty()) {
+      log.info("{} uploads em partes expirados removidos", expired.size());
+    }
+  }
+
+  /**
+   * Confere tamanho e SHA-256 antes de a parte tocar o arquivo montado. Se um reenvio não confere, a confirmação
+   * anterior daquela parte também deixa de valer: o cliente precisa reenviá-la íntegra antes de finalizar.
+   */
+  private void verifyChunk(
+    UUID uploadId,
+    int index,
+    long received,
+    int expectedSize,
+    String actual,
+    String sha256
+  ) {
+    if (received != expectedSize) {
+      chunkRepository.deleteBySessionIdAndChunkIndex(uploadId, index);
+      throw new BusinessException(
+        HttpStatus.BAD_REQUEST,
+        ApiErrorType.BUSINESS_ERROR,
+        MessageKey.of("error.csv.upload.chunk.size.mismatch"),
+        index,
+        received,
+        expectedSize
+      );
+    }
+    if (!actual.equalsIgnoreCase(sha256.trim())) {
+      chunkRepository.deleteBySessionIdAndChunkIndex(uploadId, index);
+      throw new BusinessException(
+        HttpStatus.UNPROCESSABLE_ENTITY,
+        ApiErrorType.BUSINESS_ERROR,
+        MessageKey.of("error.csv.upload.chunk.checksum.mismatch"),
+        index
+      );
+    }
+  }
+
+  private void recordChunk(UUID uploadId, int index, int size, String sha256) {
+    CsvUploadChunk chunk = chunkRepository
+      .findBySessionIdAndChunkIndex(uploadId, index)
+      .orElseGet(CsvUploadChunk::new);
+    chunk.setSessionId(uploadId);
+    chunk.setChunkIndex(index);
+    chunk.setSize(size);
+    chunk.setSha256(sha256);
+    chunk.setReceivedAt(Instant.now());
+
+    try {
+      chunkRepository.save(chunk);
+    } catch (DataIntegrityViolationException e) {
+      // Reenvio concorrente da mesma parte: os bytes já foram gravados e a outra requisição confirmou a parte
+      log.debug(
+        "Parte {} do upload {} já confirmada em paralelo",
+        index,
+        uploadId
+      );
+    }
+  }
+}
@@ -0,0 +1,440 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.service;
+
+import com.kleberrhuan.houer.common.infra.persistence.AdvisoryLockService;
+import com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Locks;
+import com.kleberrhuan.houer.csv.domain.model.CsvImportJob;
+import com.kleberrhuan.houer.csv.domain.model.ImportJobStatus;
+import com.kleberrhuan.houer.csv.domain.model.ImportPriority;
+import com.kleberrhuan.houer.csv.domain.repository.CsvImportJobRepository;
+import com.kleberrhuan.houer.csv.infra.messaging.CsvImportMessagePublisher;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportQueueMessage;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.URI;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Escalonador da fila de importações. Jobs entram como {@code PENDING} sem {@code dispatchedAt} e só são publicados no
+ * RabbitMQ quando há vaga no limite global de jobs simultâneos, de modo que a fila fica no banco, sobrevive a
+ * reinícios e pode ser consultada. A ordem de admissão é:
+ *
+ * <ul>
+ *   <li>faixa {@link ImportPriority#HIGH} antes de {@link ImportPriority#NORMAL};
+ *   <li>dentro da faixa, rodízio entre usuários: o próximo é quem tem menos jobs em execução ou já escolhidos na
+ *       rodada, desempatando pelo job mais antigo;
+ *   <li>para cada usuário, ordem de chegada.
+ * </ul>
+ *
+ * Cada varredura roda numa transação sob um advisory lock global do PostgreSQL: só uma réplica admite por vez, e as
+ * outras desistem da rodada em vez de esperar, então o limite global e o limite por usuário valem para o cluster. A
+ * admissão em si é um {@code UPDATE} condicional, que também impede publicar o mesmo job duas vezes; as mensagens só
+ * são publicadas depois do commit.
+ */
+@Service
+@Slf4j
+public class ImportQueueScheduler {
+
+  static final String METRIC_PREFIX = "csv.import.queue";
+  private static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+
+  private final CsvImportJobRepository jobRepository;
+  private final CsvImportMessagePublisher messagePublisher;
+  private final CsvImportProperties.Queue config;
+  private final int maxConcurrentJobs;
+  private final MeterRegistry meterRegistry;
+  private final TransactionOperations transactions;
+  private final AdvisoryLockService advisoryLocks;
+
+  private final Map<ImportPriority, AtomicInteger> waitingByPriority =
+    new EnumMap<>(ImportPriority.class);
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile Instant oldestQueuedAt;
+
+  @Autowired
+  public ImportQueueScheduler(
+    CsvImportJobRepository jobRepository,
+    CsvImportMessagePublisher messagePublisher,
+    CsvImportProperties importProperties,
+    MeterRegistry meterRegistry,
+    DataSource dataSource,
+    PlatformTransactionManager transactionManager,
+    AdvisoryLockService advisoryLocks
+  ) {
+    this(
+      jobRepository,
+      messagePublisher,
+      importProperties,
+      meterRegistry,
+      resolveMaxConcurrentJobs(importProperties, dataSource),
+      new TransactionTemplate(transactionManager),
+      advisoryLocks
+    );
+  }
+
+  ImportQueueScheduler(
+    CsvImportJobRepository jobRepository,
+    CsvImportMessagePublisher messagePublisher,
+    CsvImportProperties importProperties,
+    MeterRegistry meterRegistry,
+    int maxConcurrentJobs,
+    TransactionOperations transactions,
+    AdvisoryLockService advisoryLocks
+  ) {
+    this.jobRepository = jobRepository;
+    this.messagePublisher = messagePublisher;
+    this.config = importProperties.getQueue();
+    this.maxConcurrentJobs = maxConcurrentJobs;
+    this.meterRegistry = meterRegistry;
+    this.transactions = transactions;
+    this.advisoryLocks = advisoryLocks;
+
+    for (ImportPriority priority : ImportPriority.values()) {
+      AtomicInteger depth = new AtomicInteger();
+      waitingByPriority.put(priority, depth);
+      Gauge
+        .builder(METRIC_PREFIX + ".depth", depth, AtomicInteger::get)
+        .description("Jobs aguardando admissão na fila")
+        .tag("priority", priority.name())
+        .register(meterRegistry);
+    }
+    Gauge
+      .builder(METRIC_PREFIX + ".in.flight", inFlight, AtomicInteger::get)
+      .description("Jobs admitidos que ainda não terminaram")
+      .register(meterRegistry);
+    Gauge
+      .builder(METRIC_PREFIX + ".limit", () -> maxConcurrentJobs)
+      .description("Limite global de jobs simultâneos")
+      .register(meterRegistry);
+    Gauge
+      .builder(
+        METRIC_PREFIX + ".oldest.wait",
+        this,
+        s -> s.longestWait().toMillis() / 1000.0
+      )
+      .description("Espera do job mais antigo ainda na fila")
+      .baseUnit("seconds")
+      .register(meterRegistry);
+
+    log.info(
+      "Fila de importação com até {} jobs simultâneos e {} por usuário",
+      maxConcurrentJobs,
+      config.getMaxRunningPerUser()
+    );
+  }
+
+  /** Faixa de um novo job: administradores e arquivos pequenos passam na frente. */
+  public ImportPriority priorityOf(long validRecords) {
+    if (validRecords <= config.getSmallFileRecords() || isAdmin()) {
+      return ImportPriority.HIGH;
+    }
+    return ImportPriority.NORMAL;
+  }
+
+  /** Admite jobs da fila enquanto houver vaga. Chamado a cada enfileiramento, término de job e periodicamente. */
+  @Scheduled(
+    fixedDelayString = "${app.csv.import.queue.dispatch-interval:5s}",
+    initialDelayString = "${app.csv.import.queue.dispatch-interval:5s}"
+  )
+  public synchronized void dispatch() {
+    Admission admission;
+    try {
+      admission = transactions.execute(status -> admitLocked());
+    } catch (RuntimeException e) {
+      log.warn("Falha ao admitir jobs da fila: {}", e.getMessage());
+      return;
+    }
+    if (admission == null) {
+      return;
+    }
+
+    int published = 0;
+    for (CsvImportJob job : admission.admitted()) {
+      if (publish(job)) {
+        published++;
+      }
+    }
+    refreshGauges(admission.waiting(), admission.running() + published);
+  }
+
+  /**
+   * Escolhe e marca os jobs admitidos sob o advisory lock. A publicação fica para depois do commit: assim um rollback
+   * não deixa mensagem de um job que continua na fila, e o consumidor sempre encontra o job já marcado.
+   */
+  private Admission admitLocked() {
+    if (!advisoryLocks.tryLock(Locks.QUEUE_DISPATCH, 0)) {
+      log.debug("Outra instância está admitindo jobs da fila");
+      return null;
+    }
+
+    List<CsvImportJob> running = jobRepository.findInFlight();
+    List<CsvImportJob> waiting = findWaiting();
+    Map<Long, Integer> runningByUser = countByUser(running);
+
+    int free = maxConcurrentJobs - running.size();
+    List<CsvImportJob> admitted = new ArrayList<>();
+    for (CsvImportJob job : fairOrder(waiting, runningByUser)) {
+      if (free - admitted.size() <= 0) {
+        break;
+      }
+      Long userId = job.getCreatedBy();
+      if (
+        runningByUser.getOrDefault(userId, 0) >=
+        config.getMaxRunningPerUser()
+      ) {
+        continue;
+      }
+      if (markDispatched(job)) {
+        admitted.add(job);
+        runningByUser.merge(userId, 1, Integer::sum);
+      }
+    }
+    return new Admission(waiting, running.size(), admitted);
+  }
+
+  /** Jobs aguardando, na ordem em que seriam admitidos agora. */
+  public List<CsvImportJob> queuedJobs() {
+    return fairOrder(findWaiting(), countByUser(jobRepository.findInFlight()));
+  }
+
+  /** Posição (a partir de 1) de cada job aguardando, na ordem em que seriam admitidos agora. */
+  public Map<UUID, Integer> queuePositions() {
+    List<CsvImportJob> ordered = queuedJobs();
+    Map<UUID, Integer> positions = new HashMap<>();
+    for (int i = 0; i < ordered.size(); i++) {
+      positions.put(ordered.get(i).getId(), i + 1);
+    }
+    return positions;
+  }
+
+  public QueueSnapshot snapshot() {
+    List<CsvImportJob> waiting = findWaiting();
+    int running = jobRepository.findInFlight().size();
+    refreshGauges(waiting, running);
+    return new QueueSnapshot(
+      waiting.size(),
+      running,
+      maxConcurrentJobs,
+      longestWait()
+    );
+  }
+
+  /**
+   * Ordem de admissão dos jobs aguardando. {@code runningByUser} entra na conta do rodízio para que um usuário com
+   * job em execução fique atrás de quem ainda não tem nenhum.
+   */
+  static List<CsvImportJob> fairOrder(
+    List<CsvImportJob> waiting,
+    Map<Long, Integer> runningByUser
+  ) {
+    Map<Long, Integer> served = new HashMap<>(runningByUser);
+    List<CsvImportJob> ordered = new ArrayList<>(waiting.size());
+
+    for (ImportPriority priority : ImportPriority.values()) {
+      Map<Long, ArrayDeque<CsvImportJob>> byUser = new LinkedHashMap<>();
+      waiting
+        .stream()
+        .filter(job -> job.getPriority() == priority)
+        .sorted(
+          Comparator.comparing(
+            CsvImportJob::getQueuedAt,
+            Comparator.nullsFirst(Comparator.naturalOrder())
+          )
+        )
+        .forEach(job ->
+          byUser
+            .computeIfAbsent(job.getCreatedBy(), u -> new ArrayDeque<>())
+            .add(job)
+        );
+
+      PriorityQueue<ArrayDeque<CsvImportJob>> turns = new PriorityQueue<>(
+        Comparator
+          .<ArrayDeque<CsvImportJob>>comparingInt(q ->
+            served.getOrDefault(q.peek().getCreatedBy(), 0)
+          )
+          .thenComparing(
+            q -> q.peek().getQueuedAt(),
+            Comparator.nullsFirst(Comparator.naturalOrder())
+          )
+      );
+      turns.addAll(byUser.values());
+
+      while (!turns.isEmpty()) {
+        ArrayDeque<CsvImportJob> queue = turns.poll();
+        CsvImportJob job = queue.poll();
+        ordered.add(job);
+        served.merge(job.getCreatedBy(), 1, Integer::sum);
+        if (!queue.isEmpty()) {
+          turns.add(queue);
+        }
+      }
+    }
+    return ordered;
+  }
+
+  private boolean markDispatched(CsvImportJob job) {
+    Instant now = Instant.now();
+    if (jobRepository.markDispatched(job.getId(), now) == 0) {
+      return false;
+    }
+    job.setDispatchedAt(now);
+    return true;
+  }
+
+  private boolean publish(CsvImportJob job) {
+    Instant now = job.getDispatchedAt();
+    try {
+      messagePublisher.publishImportMessage(
+        new CsvImportQueueMessage(
+          job.getId(),
+          job.getFilename(),
+          URI.create(job.getFileUri()),
+          job.getDescription(),
+          job.getCreatedBy(),
+          now,
+          job.getErrorReportUri() != null
+        )
+      );
+    } catch (RuntimeException e) {
+      jobRepository.clearDispatched(job.getId());
+      job.setDispatchedAt(null);
+      log.warn(
+        "Falha ao publicar job {}; ele continua na fila: {}",
+        job.getId(),
+        e.getMessage()
+      );
+      return false;
+    }
+
+    Duration waited = job.getQueuedAt() != null
+      ? Duration.between(job.getQueuedAt(), now)
+      : Duration.ZERO;
+    Timer
+      .builder(METRIC_PREFIX + ".wait")
+      .description("Tempo entre a entrada do job na fila e sua admissão")
+      .tag("priority", job.getPriority().name())
+      .register(meterRegistry)
+      .record(waited);
+
+    log.info(
+      "Job {} do usuário {} admitido após {}ms na fila (prioridade {})",
+      job.getId(),
+      job.getCreatedBy(),
+      waited.toMillis(),
+      job.getPriority()
+    );
+    return true;
+  }
+
+  private List<CsvImportJob> findWaiting() {
+    return jobRepository.findByStatusAndDispatchedAtIsNullAndFileUriIsNotNullOrderByQueuedAtAsc(
+      ImportJobStatus.PENDING
+    );
+  }
+
+  private void refreshGauges(List<CsvImportJob> waiting, int running) {
+    Map<ImportPriority, Integer> depth = new EnumMap<>(ImportPriority.class);
+    List<CsvImportJob> remaining = waiting
+      .stream()
+      .filter(job -> job.getDispatchedAt() == null)
+      .toList();
+    for (CsvImportJob job : remaining) {
+      depth.merge(job.getPriority(), 1, Integer::sum);
+    }
+    waitingByPriority.forEach((priority, gauge) ->
+      gauge.set(depth.getOrDefault(priority, 0))
+    );
+    inFlight.set(running);
+    oldestQueuedAt =
+      remaining.isEmpty() ? null : remaining.getFirst().getQueuedAt();
+  }
+
+  private Duration longestWait() {
+    Instant oldest = oldestQueuedAt;
+    return oldest == null
+      ? Duration.ZERO
+      : Duration.between(oldest, Instant.now());
+  }
+
+  private static Map<Long, Integer> countByUser(List<CsvImportJob> jobs) {
+    Map<Long, Integer> counts = new HashMap<>();
+    for (CsvImportJob job : jobs) {
+      counts.merge(job.getCreatedBy(), 1, Integer::sum);
+    }
+    return counts;
+  }
+
+  private static boolean isAdmin() {
+    Authentication auth = SecurityContextHolder
+      .getContext()
+      .getAuthentication();
+    return (
+      auth != null &&
+      auth
+        .getAuthorities()
+        .stream()
+        .anyMatch(a -> ADMIN_AUTHORITY.equals(a.getAuthority()))
+    );
+  }
+
+  private static int resolveMaxConcurrentJobs(
+    CsvImportProperties importProperties,
+    DataSource dataSource
+  ) {
+    int configured = importProperties.getQueue().getMaxConcurrentJobs();
+    if (configured > 0) {
+      return configured;
+    }
+    try {
+      if (dataSource.isWrapperFor(HikariDataSource.class)) {
+        int poolSize = dataSource
+          .unwrap(HikariDataSource.class)
+          .getMaximumPoolSize();
+        return Math.max(1, poolSize / importProperties.resolvePartitions());
+      }
+    } catch (SQLException e) {
+      log.debug("DataSource não expõe o pool do Hikari", e);
+    }
+    return 1;
+  }
+
+  private record Admission(
+    List<CsvImportJob> waiting,
+    int running,
+    List<CsvImportJob> admitted
+  ) {}
+
+  /** Estado da fila para a API. */
+  public record QueueSnapshot(
+    int waiting,
+    int running,
+    int maxConcurrentJobs,
+    Duration longestWait
+  ) {}
+}
@@ -1,6 +1,7 @@
 /* (C)2025 Kleber Rhuan */
 package com.kleberrhuan.houer.csv.application.validator;
 
+import com.kleberrhuan.houer.csv.application.validator.rule.CompiledRowRule;
 import com.kleberrhuan.houer.csv.application.validator.rule.RowRule;
 import com.kleberrhuan.houer.csv.domain.model.RowContext;
 import java.util.List;
@@ -20,4 +21,15 @@ public class CompositeRowValidator {
       rule.validate(context);
     }
   }
+
+  /** Compila as regras para o cabeçalho do arquivo; o plano é reutilizado em todas as linhas. */
+  public RowValidationPlan compile(String[] headers) {
+    CompiledRowRule[] compiled = new CompiledRowRule[rules.size()];
+    String[] reasons = new String[compiled.length];
+    for (int i = 0; i < compiled.length; i++) {
+      compiled[i] = rules.get(i).compile(headers);
+      reasons[i] = rules.get(i).reason();
+    }
+    return new RowValidationPlan(compiled, reasons);
+  }
 }
@@ -5,11 +5,14 @@ import com.kleberrhuan.houer.csv.application.port.CsvValidator;
 import com.kleberrhuan.houer.csv.application.port.ProcessingStrategy;
 import com.kleberrhuan.houer.csv.application.processor.CsvSchoolProcessor;
 import com.kleberrhuan.houer.csv.domain.exception.CsvValidationException;
+import com.kleberrhuan.houer.csv.domain.exception.ValidationErrorAggregator.ValidationError;
 import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.domain.model.ValidationSummary;
 import com.kleberrhuan.houer.csv.infra.exception.CsvProcessingException;
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
 import java.io.InputStream;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -47,6 +50,37 @@ public class CsvSchoolValidator implements CsvValidator<CsvSchoolRecord> {
     }
   }
 
+  @Override
+  @Timed(
+    value = "csv.school.validation.summary.time",
+    description = "Tempo de validação em streaming do CSV de escolas"
+  )
+  @Counted(
+    value = "csv.school.validation.summary.executions",
+    description = "Execuções de validação em streaming do CSV de escolas"
+  )
+  public ValidationSummary summarize(
+    InputStream inputStream,
+    String filename,
+    int maxErrors,
+    Consumer<ValidationError> errorSink
+  ) {
+    try {
+      return processor.summarize(inputStream, filename, maxErrors, errorSink);
+    } catch (CsvValidationException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw new CsvProcessingException(
+        "Erro inesperado na validação em streaming do CSV: " + filename,
+        e
+      );
+    }
+  }
+
+  /**
+   * Validação e mapeamento em lotes paralelos ({@code app.csv.import.validation-parallelism}) com saída na ordem do
+   * arquivo. A deduplicação roda depois do coletor ordenado, então a primeira ocorrência é sempre a do arquivo.
+   */
   @Timed(
     value = "csv.school.validation.parallel.time",
     description = "Tempo de validação paralela do CSV de escolas"
@@ -63,7 +97,7 @@ public class CsvSchoolValidator implements CsvValidator<CsvSchoolRecord> {
       return processor.process(
         inputStream,
         filename,
-        processor.deduplicatedParallel()
+        processor.deduplicated()
       );
     } catch (CsvValidationException e) {
       throw e;
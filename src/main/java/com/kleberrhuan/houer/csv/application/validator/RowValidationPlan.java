@@ -0,0 +1,60 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.validator;
+
+import com.kleberrhuan.houer.csv.application.validator.rule.CompiledRowRule;
+import java.util.function.Predicate;
+
+/** Regras de linha compiladas para o cabeçalho de um arquivo, aplicadas na ordem das {@code RowRule}. */
+public final class RowValidationPlan {
+
+  /** Motivo de recusa de linhas que passam em todas as regras e falham no mapeamento. */
+  public static final String MAPPING_REASON = "mapping";
+
+  private final CompiledRowRule[] rules;
+  private final String[] reasons;
+
+  RowValidationPlan(CompiledRowRule[] rules, String[] reasons) {
+    this.rules = rules;
+    this.reasons = reasons;
+  }
+
+  public void validate(String[] values, int lineNumber, String filename) {
+    for (CompiledRowRule rule : rules) {
+      rule.validate(values, lineNumber, filename);
+    }
+  }
+
+  /**
+   * Filtro das linhas aceitas pelas regras, para quem descarta as linhas recusadas na validação do upload em vez de
+   * falhar.
+   */
+  public Predicate<String[]> validRows(String filename) {
+    return values -> {
+      try {
+        validate(values, 0, filename);
+        return true;
+      } catch (RuntimeException e) {
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Motivo da recusa de uma linha já rejeitada: a primeira regra que a recusa ou {@link #MAPPING_REASON}. Reaplica as
+   * regras, então só deve ser chamado no caminho de erro.
+   */
+  public String rejectionReason(
+    String[] values,
+    int lineNumber,
+    String filename
+  ) {
+    for (int i = 0; i < rules.length; i++) {
+      try {
+        rules[i].validate(values, lineNumber, filename);
+      } catch (RuntimeException e) {
+        return reasons[i];
+      }
+    }
+    return MAPPING_REASON;
+  }
+}
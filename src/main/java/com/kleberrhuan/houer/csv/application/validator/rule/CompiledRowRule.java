@@ -0,0 +1,13 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.validator.rule;
+
+/**
+ * Regra já resolvida para um cabeçalho: as posições validadas são conhecidas e cada linha é verificada por índice,
+ * sem consultar metadados nem alocar no caminho feliz.
+ */
+@FunctionalInterface
+public interface CompiledRowRule {
+  CompiledRowRule NO_OP = (values, lineNumber, filename) -> {};
+
+  void validate(String[] values, int lineNumber, String filename);
+}
@@ -5,6 +5,7 @@ import com.kleberrhuan.houer.csv.application.service.CsvColumnMetadataService;
 import com.kleberrhuan.houer.csv.domain.exception.ValidationErrorAggregator;
 import com.kleberrhuan.houer.csv.domain.model.CsvSchoolColumn;
 import com.kleberrhuan.houer.csv.domain.model.RowContext;
+import java.util.Arrays;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -45,4 +46,57 @@ public final class MandatoryRule implements RowRule {
 
     errorAggregator.throwIfErrors();
   }
+
+  @Override
+  public CompiledRowRule compile(String[] headers) {
+    int[] positions = new int[headers.length];
+    String[] names = new String[headers.length];
+    int count = 0;
+    for (int i = 0; i < headers.length; i++) {
+      String columnName = headers[i].trim();
+      Optional<CsvSchoolColumn> columnInfo = metadataService.getColumnInfo(
+        columnName
+      );
+      if (columnInfo.isPresent() && columnInfo.get().isRequired()) {
+        positions[count] = i;
+        names[count++] = columnName;
+      }
+    }
+    if (count == 0) {
+      return CompiledRowRule.NO_OP;
+    }
+
+    int[] required = Arrays.copyOf(positions, count);
+    String[] requiredNames = Arrays.copyOf(names, count);
+    return (values, lineNumber, filename) -> {
+      ValidationErrorAggregator errorAggregator = null;
+      for (int j = 0; j < required.length; j++) {
+        int pos = required[j];
+        if (pos >= values.length) {
+          continue;
+        }
+        String value = values[pos];
+        // Só quem começa vazio ou com espaço pode ficar vazio após trim()
+        if (
+          value == null ||
+          (
+            (value.isEmpty() || value.charAt(0) <= ' ') &&
+            value.trim().isEmpty()
+          )
+        ) {
+          if (errorAggregator == null) {
+            errorAggregator = new ValidationErrorAggregator();
+          }
+          errorAggregator.addError(
+            lineNumber,
+            requiredNames[j],
+            "Campo obrigatório não pode estar vazio"
+          );
+        }
+      }
+      if (errorAggregator != null) {
+        errorAggregator.throwIfErrors();
+      }
+    };
+  }
 }
@@ -5,6 +5,7 @@ import com.kleberrhuan.houer.csv.application.service.CsvColumnMetadataService;
 import com.kleberrhuan.houer.csv.domain.exception.ValidationErrorAggregator;
 import com.kleberrhuan.houer.csv.domain.model.CsvSchoolColumn;
 import com.kleberrhuan.houer.csv.domain.model.RowContext;
+import java.util.Arrays;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -54,6 +55,76 @@ public final class NumericRule implements RowRule {
     errorAggregator.throwIfErrors();
   }
 
+  @Override
+  public CompiledRowRule compile(String[] headers) {
+    int[] positions = new int[headers.length];
+    String[] names = new String[headers.length];
+    int count = 0;
+    for (int i = 0; i < headers.length; i++) {
+      String columnName = headers[i].trim();
+      Optional<CsvSchoolColumn> columnInfo = metadataService.getColumnInfo(
+        columnName
+      );
+      if (columnInfo.isPresent() && columnInfo.get().isNumeric()) {
+        positions[count] = i;
+        names[count++] = columnName;
+      }
+    }
+    if (count == 0) {
+      return CompiledRowRule.NO_OP;
+    }
+
+    int[] numeric = Arrays.copyOf(positions, count);
+    String[] numericNames = Arrays.copyOf(names, count);
+    return (values, lineNumber, filename) -> {
+      ValidationErrorAggregator errorAggregator = null;
+      for (int j = 0; j < numeric.length; j++) {
+        int pos = numeric[j];
+        if (pos >= values.length) {
+          continue;
+        }
+        String value = values[pos];
+        if (value == null || isPlainDigits(value)) {
+          continue;
+        }
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+          continue;
+        }
+        if (errorAggregator == null) {
+          errorAggregator = new ValidationErrorAggregator();
+        }
+        validateNumericValue(
+          trimmed,
+          numericNames[j],
+          lineNumber,
+          errorAggregator
+        );
+      }
+      if (errorAggregator != null) {
+        errorAggregator.throwIfErrors();
+      }
+    };
+  }
+
+  /**
+   * Caminho rápido: só dígitos ASCII e curto o bastante para caber em {@code long}. Demais valores (espaços, sinal,
+   * números longos) seguem para {@link #validateNumericValue}, que preserva as mensagens de erro.
+   */
+  private static boolean isPlainDigits(String value) {
+    int length = value.length();
+    if (length == 0 || length > 18) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private void validateNumericValue(
     String value,
     String columnName,
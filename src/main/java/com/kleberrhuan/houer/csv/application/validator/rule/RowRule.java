@@ -2,8 +2,21 @@
 package com.kleberrhuan.houer.csv.application.validator.rule;
 
 import com.kleberrhuan.houer.csv.domain.model.RowContext;
+import java.util.Locale;
 
 public sealed interface RowRule
   permits MandatoryRule, NumericRule, SchoolCodeRule {
   void validate(RowContext context);
+
+  /** Resolve a regra para o cabeçalho do arquivo uma única vez. */
+  CompiledRowRule compile(String[] headers);
+
+  /** Motivo de recusa nas métricas, derivado do nome da regra: {@code SchoolCodeRule} vira {@code school_code}. */
+  default String reason() {
+    return getClass()
+      .getSimpleName()
+      .replaceFirst("Rule$", "")
+      .replaceAll("([a-z])([A-Z])", "$1_$2")
+      .toLowerCase(Locale.ROOT);
+  }
 }
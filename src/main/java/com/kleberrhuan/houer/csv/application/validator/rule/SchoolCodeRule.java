@@ -26,17 +26,36 @@ public final class SchoolCodeRule implements RowRule {
       String value = values[i];
 
       if (CsvSchoolColumn.CODESC.name().equals(columnName)) {
-        validateSchoolCode(value, context);
+        validateSchoolCode(value, context.filename(), context.lineNumber());
         break;
       }
     }
   }
 
-  private void validateSchoolCode(String value, RowContext context) {
+  @Override
+  public CompiledRowRule compile(String[] headers) {
+    for (int i = 0; i < headers.length; i++) {
+      if (CsvSchoolColumn.CODESC.name().equals(headers[i].trim())) {
+        int pos = i;
+        return (values, lineNumber, filename) -> {
+          if (pos < values.length) {
+            validateSchoolCode(values[pos], filename, lineNumber);
+          }
+        };
+      }
+    }
+    return CompiledRowRule.NO_OP;
+  }
+
+  private void validateSchoolCode(
+    String value,
+    String filename,
+    int lineNumber
+  ) {
     if (value == null || value.trim().isEmpty()) {
       throw new RowValidationException(
-        context.filename(),
-        context.lineNumber(),
+        filename,
+        lineNumber,
         "Código da escola (CODESC) é obrigatório"
       );
     }
@@ -49,19 +68,21 @@ public final class SchoolCodeRule implements RowRule {
 
       if (code <= 0) {
         throw new RowValidationException(
-          context.filename(),
-          context.lineNumber(),
+          filename,
+          lineNumber,
           CsvSchoolColumn.CODESC.name(),
           trimmedValue,
           "Código da escola deve ser positivo"
         );
       }
 
-      log.trace("Código da escola válido: {}", code);
+      if (log.isTraceEnabled()) {
+        log.trace("Código da escola válido: {}", code);
+      }
     } catch (NumberFormatException e) {
       throw new RowValidationException(
-        context.filename(),
-        context.lineNumber(),
+        filename,
+        lineNumber,
         CsvSchoolColumn.CODESC.name(),
         trimmedValue,
         "Código da escola deve ser um número inteiro válido"
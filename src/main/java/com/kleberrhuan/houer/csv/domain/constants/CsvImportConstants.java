@@ -12,6 +12,8 @@ public final class CsvImportConstants {
     public static final String CSV_IMPORT_QUEUE = "csv.import.queue";
     public static final String CSV_NOTIFICATION_QUEUE =
       "csv.notification.queue";
+    public static final String CSV_IMPORT_PARTITION_QUEUE =
+      "csv.import.partition.queue";
 
     private Queues() {}
   }
@@ -23,7 +25,18 @@ public final class CsvImportConstants {
     public static final String FILE_URI_PARAMETER_NAME = "fileUri";
     public static final String DESCRIPTION_PARAMETER_NAME = "description";
     public static final String USER_ID_PARAMETER_NAME = "userId";
-    public static final String TIMESTAMP_PARAMETER_NAME = "timestamp";
+    public static final String SKIP_INVALID_PARAMETER_NAME = "skipInvalidRows";
+  }
+
+  /** Namespaces dos advisory locks do PostgreSQL usados pela importação. */
+  public static final class Locks {
+
+    public static final int USER_ADMISSION = 7401;
+    public static final int JOB = 7402;
+    public static final int QUEUE_DISPATCH = 7403;
+    public static final int METADATA_PURGE = 7404;
+
+    private Locks() {}
   }
 
   public static final class Exchanges {
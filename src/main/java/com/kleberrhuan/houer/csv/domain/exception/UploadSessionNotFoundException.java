@@ -0,0 +1,21 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.domain.exception;
+
+import com.kleberrhuan.houer.common.domain.exception.BusinessException;
+import com.kleberrhuan.houer.common.interfaces.dto.error.ApiErrorType;
+import com.kleberrhuan.houer.common.interfaces.dto.error.MessageKey;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+
+/** Exceção lançada quando uma sessão de upload em partes não existe ou já expirou. */
+public class UploadSessionNotFoundException extends BusinessException {
+
+  public UploadSessionNotFoundException(UUID uploadId) {
+    super(
+      HttpStatus.NOT_FOUND,
+      ApiErrorType.RESOURCE_NOT_FOUND,
+      MessageKey.of("error.csv.upload.session.not.found"),
+      uploadId
+    );
+  }
+}
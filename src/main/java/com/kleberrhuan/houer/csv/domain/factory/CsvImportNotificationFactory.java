@@ -38,12 +38,13 @@ public final class CsvImportNotificationFactory {
     String progressBar = generateProgressBar(percentage);
 
     String msg = String.format(
-      "Processando: %s (%.1f%%) – %d/%d registros processados – %d erros",
+      "Processando: %s (%.1f%%) – %d/%d registros processados – %d erros%s",
       progressBar,
       percentage,
       job.getProcessedRecords(),
       job.getTotalRecords(),
-      job.getErrorRecords()
+      job.getErrorRecords(),
+      deltaSummary(job)
     );
 
     return of(job, ImportJobStatus.RUNNING, msg);
@@ -60,9 +61,10 @@ public final class CsvImportNotificationFactory {
 
   public static CsvImportNotification completed(CsvImportJob job) {
     String msg = String.format(
-      "✅ Importação concluída! %d registros processados com %d erro(s)",
+      "✅ Importação concluída! %d registros processados com %d erro(s)%s",
       job.getProcessedRecords(),
-      job.getErrorRecords()
+      job.getErrorRecords(),
+      deltaSummary(job)
     );
     return of(job, ImportJobStatus.COMPLETED, msg);
   }
@@ -91,6 +93,34 @@ public final class CsvImportNotificationFactory {
     );
   }
 
+  public static CsvImportNotification cancelled(CsvImportJob job) {
+    String msg = String.format(
+      "⏹️ Importação cancelada após processar %d/%d registros",
+      job.getProcessedRecords(),
+      job.getTotalRecords()
+    );
+    return of(job, ImportJobStatus.CANCELLED, msg);
+  }
+
+  private static String deltaSummary(CsvImportJob job) {
+    int inserted = valueOrZero(job.getInsertedRecords());
+    int updated = valueOrZero(job.getUpdatedRecords());
+    int unchanged = valueOrZero(job.getUnchangedRecords());
+    if (inserted + updated + unchanged == 0) {
+      return "";
+    }
+    return String.format(
+      " (%d novas, %d alteradas, %d inalteradas)",
+      inserted,
+      updated,
+      unchanged
+    );
+  }
+
+  private static int valueOrZero(Integer value) {
+    return value == null ? 0 : value;
+  }
+
   private static double calculatePercentage(int processed, int total) {
     if (total == 0) return 0.0;
     return (processed * 100.0) / total;
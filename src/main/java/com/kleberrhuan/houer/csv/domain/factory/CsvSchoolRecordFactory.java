@@ -1,27 +1,31 @@
 /* (C)2025 Kleber Rhuan */
 package com.kleberrhuan.houer.csv.domain.factory;
 
+import com.kleberrhuan.houer.csv.domain.model.CsvRow;
 import com.kleberrhuan.houer.csv.domain.model.CsvSchoolColumn;
 import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.domain.model.MetricLayout;
+import com.kleberrhuan.houer.csv.domain.model.SchoolMetrics;
+import java.util.Arrays;
 import java.util.EnumMap;
-import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
-import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 
 public final class CsvSchoolRecordFactory {
 
-  private static final Pattern DIGITS = Pattern.compile("\\d+");
   private static final char BOM = '\uFEFF';
 
-  private final Map<CsvSchoolColumn, Integer> indexMap;
-  private final List<Map.Entry<CsvSchoolColumn, Integer>> metricPositions;
+  private final int[] positionByOrdinal;
+  private final MetricLayout metricLayout;
 
   private CsvSchoolRecordFactory(String[] headers) {
-    this.indexMap = createIndexMap(headers);
-    this.metricPositions =
-      indexMap.entrySet().stream().filter(e -> e.getKey().isMetric()).toList();
+    Map<CsvSchoolColumn, Integer> indexMap = createIndexMap(headers);
+    this.positionByOrdinal = new int[CsvSchoolColumn.values().length];
+    Arrays.fill(positionByOrdinal, -1);
+    indexMap.forEach((column, pos) -> positionByOrdinal[column.ordinal()] = pos
+    );
+    this.metricLayout = MetricLayout.of(indexMap);
   }
 
   public static Function<String[], CsvSchoolRecord> createMapper(
@@ -31,6 +35,56 @@ public final class CsvSchoolRecordFactory {
     return factory::createRecord;
   }
 
+  /**
+   * Mapper sobre linhas tokenizadas: colunas de texto viram {@link String} e métricas são lidas direto da célula,
+   * sem passar por {@code String[]}.
+   */
+  public static Function<CsvRow, CsvSchoolRecord> createRowMapper(
+    String[] headers
+  ) {
+    CsvSchoolRecordFactory factory = new CsvSchoolRecordFactory(headers);
+    return factory::createRecord;
+  }
+
+  /** Posição de {@code column} no cabeçalho, com a mesma limpeza de nomes do mapeamento; {@code -1} se ausente. */
+  public static int columnIndex(String[] headers, CsvSchoolColumn column) {
+    for (int i = 0; i < headers.length; i++) {
+      if (column.name().equals(cleanColumnName(headers[i]))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private CsvSchoolRecord createRecord(CsvRow row) {
+    int slots = metricLayout.slotsAvailable(row.cellCount());
+    long[] metrics = new long[metricLayout.size()];
+    for (int i = 0; i < slots; i++) {
+      metrics[i] = row.cellAsLong(metricLayout.position(i), 0L);
+    }
+
+    String tipoesc = stringAt(row, CsvSchoolColumn.TIPOESC);
+    String codSit = stringAt(row, CsvSchoolColumn.CODSIT);
+
+    return new CsvSchoolRecord(
+      stringAt(row, CsvSchoolColumn.NOMEDEP),
+      stringAt(row, CsvSchoolColumn.DE),
+      stringAt(row, CsvSchoolColumn.MUN),
+      stringAt(row, CsvSchoolColumn.DISTR),
+      stringAt(row, CsvSchoolColumn.CODESC),
+      stringAt(row, CsvSchoolColumn.NOMESC),
+      isDigits(tipoesc) ? Long.parseLong(tipoesc) : null,
+      stringAt(row, CsvSchoolColumn.TIPOESC_DESC),
+      isDigits(codSit) ? Short.parseShort(codSit) : null,
+      new SchoolMetrics(metricLayout, metrics, slots)
+    );
+  }
+
+  private String stringAt(CsvRow row, CsvSchoolColumn col) {
+    int pos = positionByOrdinal[col.ordinal()];
+    return (pos >= 0 && pos < row.cellCount()) ? row.cellAsString(pos) : null;
+  }
+
   private CsvSchoolRecord createRecord(String[] values) {
     String nomeDep = stringAt(values, CsvSchoolColumn.NOMEDEP);
     String de = stringAt(values, CsvSchoolColumn.DE);
@@ -42,19 +96,11 @@ public final class CsvSchoolRecordFactory {
     String tipoescDesc = stringAt(values, CsvSchoolColumn.TIPOESC_DESC);
     Short codSit = shortAt(values, CsvSchoolColumn.CODSIT);
 
-    EnumMap<CsvSchoolColumn, Long> metrics = new EnumMap<>(
-      CsvSchoolColumn.class
-    );
-    for (var entry : metricPositions) {
-      int pos = entry.getValue();
-      if (pos < values.length) {
-        String raw = values[pos];
-        if (raw != null && !raw.isBlank() && DIGITS.matcher(raw).matches()) {
-          metrics.put(entry.getKey(), Long.parseLong(raw));
-        } else {
-          metrics.put(entry.getKey(), 0L);
-        }
-      }
+    int slots = metricLayout.slotsAvailable(values.length);
+    long[] metrics = new long[metricLayout.size()];
+    for (int i = 0; i < slots; i++) {
+      String raw = values[metricLayout.position(i)];
+      metrics[i] = isDigits(raw) ? Long.parseLong(raw) : 0L;
     }
 
     return new CsvSchoolRecord(
@@ -67,27 +113,37 @@ public final class CsvSchoolRecordFactory {
       tipoesc,
       tipoescDesc,
       codSit,
-      metrics
+      new SchoolMetrics(metricLayout, metrics, slots)
     );
   }
 
   private Short shortAt(String[] values, CsvSchoolColumn csvSchoolColumn) {
     String s = stringAt(values, csvSchoolColumn);
-    return (s != null && DIGITS.matcher(s).matches())
-      ? Short.parseShort(s)
-      : null;
+    return isDigits(s) ? Short.parseShort(s) : null;
   }
 
   private String stringAt(String[] values, CsvSchoolColumn col) {
-    Integer pos = indexMap.get(col);
-    return (pos != null && pos < values.length) ? values[pos] : null;
+    int pos = positionByOrdinal[col.ordinal()];
+    return (pos >= 0 && pos < values.length) ? values[pos] : null;
   }
 
   private Long longAt(String[] values, CsvSchoolColumn col) {
     String s = stringAt(values, col);
-    return (s != null && DIGITS.matcher(s).matches())
-      ? Long.parseLong(s)
-      : null;
+    return isDigits(s) ? Long.parseLong(s) : null;
+  }
+
+  /** Equivalente a {@code \d+} sem regex: não vazio e só dígitos ASCII. */
+  private static boolean isDigits(String s) {
+    if (s == null || s.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
   }
 
   private static Map<CsvSchoolColumn, Integer> createIndexMap(
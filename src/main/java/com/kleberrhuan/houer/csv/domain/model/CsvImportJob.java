@@ -7,9 +7,14 @@ import java.time.Instant;
 import java.util.UUID;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
-/** Entidade para controle de jobs de importação CSV. */
+/**
+ * Entidade para controle de jobs de importação CSV. Com {@link DynamicUpdate} as atualizações de status não regravam
+ * os contadores, que são incrementados direto no banco durante a importação.
+ */
 @Entity
+@DynamicUpdate
 @Table(name = "csv_import_job", schema = "csv")
 @Getter
 @Setter
@@ -25,10 +30,31 @@ public class CsvImportJob extends Auditable<Long> {
   @Column(columnDefinition = "TEXT")
   private String description;
 
+  @Column(name = "file_uri", columnDefinition = "TEXT")
+  private String fileUri;
+
+  @Column(name = "error_report_uri", columnDefinition = "TEXT")
+  private String errorReportUri;
+
+  @Column(name = "content_sha256", length = 64)
+  private String contentSha256;
+
   @Enumerated(EnumType.STRING)
   @Column(nullable = false)
   private ImportJobStatus status;
 
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 10)
+  private ImportPriority priority = ImportPriority.NORMAL;
+
+  /** Entrada na fila; a retomada recoloca o job no fim. */
+  @Column(name = "queued_at")
+  private Instant queuedAt;
+
+  /** Admissão pelo escalonador. Job PENDING sem admissão ainda está aguardando na fila. */
+  @Column(name = "dispatched_at")
+  private Instant dispatchedAt;
+
   @Column(name = "total_records")
   private Integer totalRecords = 0;
 
@@ -38,6 +64,15 @@ public class CsvImportJob extends Auditable<Long> {
   @Column(name = "error_records")
   private Integer errorRecords = 0;
 
+  @Column(name = "inserted_records")
+  private Integer insertedRecords = 0;
+
+  @Column(name = "updated_records")
+  private Integer updatedRecords = 0;
+
+  @Column(name = "unchanged_records")
+  private Integer unchangedRecords = 0;
+
   @Column(name = "error_message", columnDefinition = "TEXT")
   private String errorMessage;
 
@@ -47,6 +82,10 @@ public class CsvImportJob extends Auditable<Long> {
   @Column(name = "finished_at")
   private Instant finishedAt;
 
+  /** Contexto de restart das partições, gravado só com o repositório leve do Spring Batch. */
+  @Column(columnDefinition = "TEXT")
+  private String checkpoint;
+
   @Version
   private Long version;
 }
@@ -0,0 +1,18 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.domain.model;
+
+/**
+ * Visão de uma linha já tokenizada. Permite ler colunas numéricas sem materializar a célula como {@link String}.
+ */
+public interface CsvRow {
+  int cellCount();
+
+  String cellAsString(int index);
+
+  /**
+   * Valor da célula quando ela contém somente dígitos ASCII; {@code defaultValue} se vazia ou com outros caracteres.
+   *
+   * @throws NumberFormatException se os dígitos excederem {@link Long#MAX_VALUE}
+   */
+  long cellAsLong(int index, long defaultValue);
+}
@@ -2,9 +2,9 @@
 package com.kleberrhuan.houer.csv.domain.model;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
-import java.util.Map;
 
 public record CsvSchoolRecord(
   @NotBlank String nomeDep,
@@ -16,5 +16,5 @@ public record CsvSchoolRecord(
   @Positive Long tipoesc,
   @NotBlank String tipoescDesc,
   @PositiveOrZero Short codSit,
-  @NotBlank Map<CsvSchoolColumn, Long> metrics
+  @NotNull SchoolMetrics metrics
 ) {}
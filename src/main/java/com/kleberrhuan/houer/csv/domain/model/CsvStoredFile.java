@@ -0,0 +1,30 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.domain.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.Setter;
+
+/** Arquivo de importação armazenado pelo SHA-256 do conteúdo. {@code refCount} conta os jobs que ainda o usam. */
+@Entity
+@Table(name = "csv_stored_file", schema = "csv")
+@Getter
+@Setter
+public class CsvStoredFile {
+
+  @Id
+  @Column(length = 64)
+  private String sha256;
+
+  @Column(name = "ref_count", nullable = false)
+  private int refCount;
+
+  @Column(
+    name = "created_at",
+    nullable = false,
+    insertable = false,
+    updatable = false
+  )
+  private Instant createdAt;
+}
@@ -0,0 +1,42 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.domain.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+
+/** Parte confirmada de um {@link CsvUploadSession}. Uma linha por parte, para que envios paralelos não disputem a sessão. */
+@Entity
+@Table(
+  name = "csv_upload_chunk",
+  schema = "csv",
+  uniqueConstraints = @UniqueConstraint(
+    name = "uk_csv_upload_chunk",
+    columnNames = { "session_id", "chunk_index" }
+  )
+)
+@Getter
+@Setter
+public class CsvUploadChunk {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.AUTO)
+  private UUID id;
+
+  @Column(name = "session_id", nullable = false)
+  private UUID sessionId;
+
+  @Column(name = "chunk_index", nullable = false)
+  private int chunkIndex;
+
+  @Column(nullable = false)
+  private int size;
+
+  @Column(nullable = false)
+  private String sha256;
+
+  @Column(name = "received_at", nullable = false)
+  private Instant receivedAt;
+}
@@ -0,0 +1,59 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.domain.model;
+
+import com.kleberrhuan.houer.common.infra.persistence.Auditable;
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Upload de CSV enviado em partes de tamanho fixo. O arquivo é montado direto no storage; ao finalizar vira um
+ * {@link CsvImportJob}.
+ */
+@Entity
+@Table(name = "csv_upload_session", schema = "csv")
+@Getter
+@Setter
+public class CsvUploadSession extends Auditable<Long> {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.AUTO)
+  private UUID id;
+
+  @Column(nullable = false)
+  private String filename;
+
+  @Column(name = "total_size", nullable = false)
+  private long totalSize;
+
+  @Column(name = "chunk_size", nullable = false)
+  private int chunkSize;
+
+  @Column(name = "chunk_count", nullable = false)
+  private int chunkCount;
+
+  @Column(name = "job_id")
+  private UUID jobId;
+
+  @Column(name = "expires_at", nullable = false)
+  private Instant expiresAt;
+
+  @Version
+  private Long version;
+
+  /** Offset da parte {@code index} no arquivo final. */
+  public long offsetOf(int index) {
+    return (long) index * chunkSize;
+  }
+
+  /** Tamanho esperado da parte {@code index}; a última pode ser menor. */
+  public int sizeOf(int index) {
+    return (int) Math.min(chunkSize, totalSize - offsetOf(index));
+  }
+
+  public boolean isCompleted() {
+    return jobId != null;
+  }
+}
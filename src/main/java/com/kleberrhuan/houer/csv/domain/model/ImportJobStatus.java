@@ -6,4 +6,5 @@ public enum ImportJobStatus {
   RUNNING,
   COMPLETED,
   FAILED,
+  CANCELLED,
 }
@@ -0,0 +1,9 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.domain.model;
+
+/** Faixas da fila de importação, na ordem em que são atendidas. */
+public enum ImportPriority {
+  /** Administradores e arquivos pequenos, que liberam a vaga rápido. */
+  HIGH,
+  NORMAL,
+}
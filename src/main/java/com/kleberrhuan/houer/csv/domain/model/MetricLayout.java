@@ -0,0 +1,91 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.domain.model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Disposição das colunas de métricas de um arquivo: qual coluna ocupa cada slot do vetor de {@link SchoolMetrics} e
+ * em que célula da linha ela está. Montada uma vez por arquivo a partir do cabeçalho e compartilhada por todas as
+ * linhas. Os slots seguem a ordem das células, então uma linha curta preenche apenas um prefixo do vetor.
+ */
+public final class MetricLayout {
+
+  private static final MetricLayout EMPTY = new MetricLayout(
+    new CsvSchoolColumn[0],
+    new int[0]
+  );
+
+  private final CsvSchoolColumn[] columns;
+  private final int[] positions;
+  private final int[] slotByOrdinal;
+  private final String[] jsonKeys;
+
+  private MetricLayout(CsvSchoolColumn[] columns, int[] positions) {
+    this.columns = columns;
+    this.positions = positions;
+    this.slotByOrdinal = new int[CsvSchoolColumn.values().length];
+    this.jsonKeys = new String[columns.length];
+    Arrays.fill(slotByOrdinal, -1);
+    for (int i = 0; i < columns.length; i++) {
+      slotByOrdinal[columns[i].ordinal()] = i;
+      jsonKeys[i] = "\"" + columns[i].name() + "\":";
+    }
+  }
+
+  public static MetricLayout empty() {
+    return EMPTY;
+  }
+
+  /** Layout das colunas métricas presentes em {@code indexMap} (coluna → posição da célula). */
+  public static MetricLayout of(Map<CsvSchoolColumn, Integer> indexMap) {
+    List<Map.Entry<CsvSchoolColumn, Integer>> metrics = indexMap
+      .entrySet()
+      .stream()
+      .filter(e -> e.getKey().isMetric())
+      .sorted(Comparator.comparingInt(Map.Entry::getValue))
+      .toList();
+
+    CsvSchoolColumn[] columns = new CsvSchoolColumn[metrics.size()];
+    int[] positions = new int[metrics.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = metrics.get(i).getKey();
+      positions[i] = metrics.get(i).getValue();
+    }
+    return new MetricLayout(columns, positions);
+  }
+
+  public int size() {
+    return columns.length;
+  }
+
+  public CsvSchoolColumn column(int slot) {
+    return columns[slot];
+  }
+
+  /** Índice da célula que alimenta o slot. */
+  public int position(int slot) {
+    return positions[slot];
+  }
+
+  /** Slot da coluna ou {@code -1} se ela não faz parte do layout. */
+  public int slotOf(CsvSchoolColumn column) {
+    return slotByOrdinal[column.ordinal()];
+  }
+
+  /** Quantidade de slots cujas células existem em uma linha com {@code cellCount} células. */
+  public int slotsAvailable(int cellCount) {
+    int slots = 0;
+    while (slots < positions.length && positions[slots] < cellCount) {
+      slots++;
+    }
+    return slots;
+  }
+
+  /** Chave JSON já formatada ({@code "NOME":}) do slot. */
+  String jsonKey(int slot) {
+    return jsonKeys[slot];
+  }
+}
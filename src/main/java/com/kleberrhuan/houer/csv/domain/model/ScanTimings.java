@@ -0,0 +1,21 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.domain.model;
+
+import java.util.Map;
+
+/**
+ * Tempo estimado de cada estágio da validação de um upload (leitura, validação e mapeamento) e linhas recusadas por
+ * regra. O mapeamento só roda nas linhas que passaram na validação.
+ */
+public record ScanTimings(
+  long readNanos,
+  long validateNanos,
+  long mapNanos,
+  Map<String, Long> rejectedRows
+) {
+  public static final ScanTimings NONE = new ScanTimings(0, 0, 0, Map.of());
+
+  public ScanTimings {
+    rejectedRows = Map.copyOf(rejectedRows);
+  }
+}
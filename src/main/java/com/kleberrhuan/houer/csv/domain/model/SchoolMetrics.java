@@ -0,0 +1,107 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.domain.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Métricas de uma linha como vetor primitivo indexado por um {@link MetricLayout}. Apenas os primeiros {@link #size()}
+ * slots estão preenchidos (células ausentes no fim da linha não geram métrica).
+ */
+public final class SchoolMetrics {
+
+  private static final SchoolMetrics EMPTY = new SchoolMetrics(
+    MetricLayout.empty(),
+    new long[0],
+    0
+  );
+
+  private final MetricLayout layout;
+  private final long[] values;
+  private final int size;
+
+  public SchoolMetrics(MetricLayout layout, long[] values, int size) {
+    this.layout = layout;
+    this.values = values;
+    this.size = size;
+  }
+
+  public static SchoolMetrics empty() {
+    return EMPTY;
+  }
+
+  public MetricLayout layout() {
+    return layout;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public CsvSchoolColumn column(int slot) {
+    return layout.column(slot);
+  }
+
+  public long value(int slot) {
+    return values[slot];
+  }
+
+  public boolean containsKey(CsvSchoolColumn column) {
+    int slot = layout.slotOf(column);
+    return slot >= 0 && slot < size;
+  }
+
+  /** Valor da métrica ou {@code null} se ausente. */
+  public Long get(CsvSchoolColumn column) {
+    return containsKey(column) ? values[layout.slotOf(column)] : null;
+  }
+
+  public Map<CsvSchoolColumn, Long> toMap() {
+    Map<CsvSchoolColumn, Long> map = new EnumMap<>(CsvSchoolColumn.class);
+    for (int i = 0; i < size; i++) {
+      map.put(layout.column(i), values[i]);
+    }
+    return map;
+  }
+
+  /** Serializa como objeto JSON ({@code {"COLUNA":valor,...}}); chaves são nomes do enum e dispensam escape. */
+  public StringBuilder appendJson(StringBuilder sb) {
+    sb.append('{');
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(layout.jsonKey(i)).append(values[i]);
+    }
+    return sb.append('}');
+  }
+
+  public String toJson() {
+    return appendJson(new StringBuilder(16 + size * 24)).toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof SchoolMetrics other)) {
+      return false;
+    }
+    return toMap().equals(other.toMap());
+  }
+
+  @Override
+  public int hashCode() {
+    return toMap().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return toMap().toString();
+  }
+}
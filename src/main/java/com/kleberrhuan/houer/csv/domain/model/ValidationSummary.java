@@ -0,0 +1,39 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.domain.model;
+
+import com.kleberrhuan.houer.csv.domain.exception.AggregatedValidationException;
+import com.kleberrhuan.houer.csv.domain.exception.ValidationErrorAggregator.ValidationError;
+import java.util.List;
+
+/**
+ * Resultado de uma validação em streaming: apenas contadores, os primeiros erros encontrados e o tempo de cada
+ * estágio, sem manter os registros em memória.
+ */
+public record ValidationSummary(
+  long validRecords,
+  long invalidRecords,
+  List<ValidationError> errors,
+  ScanTimings timings
+) {
+  public ValidationSummary {
+    errors = List.copyOf(errors);
+  }
+
+  public ValidationSummary(
+    long validRecords,
+    long invalidRecords,
+    List<ValidationError> errors
+  ) {
+    this(validRecords, invalidRecords, errors, ScanTimings.NONE);
+  }
+
+  public boolean hasErrors() {
+    return invalidRecords > 0;
+  }
+
+  public void throwIfErrors() {
+    if (hasErrors()) {
+      throw new AggregatedValidationException(errors);
+    }
+  }
+}
@@ -3,12 +3,19 @@ package com.kleberrhuan.houer.csv.domain.repository;
 
 import com.kleberrhuan.houer.csv.domain.model.CsvImportJob;
 import com.kleberrhuan.houer.csv.domain.model.ImportJobStatus;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /** Repositório para jobs de importação CSV. */
 @Repository
@@ -17,12 +24,113 @@ public interface CsvImportJobRepository
   /** Busca jobs por status com paginação. */
   Page<CsvImportJob> findByStatus(ImportJobStatus status, Pageable pageable);
 
+  /** Usado pelos workers para saber, a cada intervalo, se o job foi cancelado. */
+  boolean existsByIdAndStatus(UUID id, ImportJobStatus status);
+
   /** Busca jobs de um usuário específico. */
   Page<CsvImportJob> findByCreatedBy(Long createdBy, Pageable pageable);
 
-  /** Verifica se usuário tem jobs ativos (PENDING ou RUNNING). */
-  boolean existsByCreatedByAndStatusIn(
+  /** Job ativo do usuário com o mesmo conteúdo; o índice único parcial garante que há no máximo um. */
+  Optional<CsvImportJob> findFirstByCreatedByAndContentSha256AndStatusIn(
     Long userId,
+    String contentSha256,
     List<ImportJobStatus> statuses
   );
+
+  /** Verifica se o usuário tem outro job ativo com o mesmo conteúdo além do informado. */
+  boolean existsByCreatedByAndContentSha256AndStatusInAndIdNot(
+    Long userId,
+    String contentSha256,
+    List<ImportJobStatus> statuses,
+    UUID id
+  );
+
+  /** Último job concluído do usuário com o mesmo conteúdo, criado após {@code since}. */
+  Optional<CsvImportJob> findFirstByCreatedByAndContentSha256AndStatusAndCreatedAtAfterOrderByCreatedAtDesc(
+    Long userId,
+    String contentSha256,
+    ImportJobStatus status,
+    LocalDateTime since
+  );
+
+  /**
+   * Jobs aguardando admissão na fila, do mais antigo para o mais novo. O job é registrado antes de o arquivo ser
+   * armazenado; sem {@code fileUri} ele ainda não pode ser admitido.
+   */
+  List<CsvImportJob> findByStatusAndDispatchedAtIsNullAndFileUriIsNotNullOrderByQueuedAtAsc(
+    ImportJobStatus status
+  );
+
+  /** Quantos jobs do usuário ainda aguardam admissão na fila. */
+  long countByCreatedByAndStatusAndDispatchedAtIsNull(
+    Long userId,
+    ImportJobStatus status
+  );
+
+  /** Jobs admitidos pelo escalonador que ainda não terminaram: publicados no broker ou executando. */
+  @Query(
+    """
+    SELECT j FROM CsvImportJob j
+    WHERE j.status = com.kleberrhuan.houer.csv.domain.model.ImportJobStatus.RUNNING
+       OR (j.status = com.kleberrhuan.houer.csv.domain.model.ImportJobStatus.PENDING
+           AND j.dispatchedAt IS NOT NULL)
+    """
+  )
+  List<CsvImportJob> findInFlight();
+
+  /**
+   * Marca o job como admitido se ele ainda estiver aguardando e com o arquivo armazenado. Retorna zero quando outra
+   * instância já o admitiu ou o job saiu da fila (cancelado).
+   */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query(
+    """
+    UPDATE CsvImportJob j SET j.dispatchedAt = :now
+    WHERE j.id = :id
+      AND j.dispatchedAt IS NULL
+      AND j.fileUri IS NOT NULL
+      AND j.status = com.kleberrhuan.houer.csv.domain.model.ImportJobStatus.PENDING
+    """
+  )
+  int markDispatched(@Param("id") UUID id, @Param("now") Instant now);
+
+  /** Devolve à fila um job cuja publicação no broker falhou. */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE CsvImportJob j SET j.dispatchedAt = NULL WHERE j.id = :id")
+  int clearDispatched(@Param("id") UUID id);
+
+  /** Checkpoint das partições gravado pelo repositório leve; vazio se o job nunca executou nesse modo. */
+  @Query("SELECT j.checkpoint FROM CsvImportJob j WHERE j.id = :id")
+  Optional<String> findCheckpoint(@Param("id") UUID id);
+
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE CsvImportJob j SET j.checkpoint = :checkpoint WHERE j.id = :id")
+  int updateCheckpoint(
+    @Param("id") UUID id,
+    @Param("checkpoint") String checkpoint
+  );
+
+  /** Soma incrementos aos contadores do job direto no banco, sem ler a entidade. */
+  @Modifying(clearAutomatically = true)
+  @Query(
+    """
+    UPDATE CsvImportJob j SET
+        j.processedRecords = j.processedRecords + :processed,
+        j.errorRecords = j.errorRecords + :errors,
+        j.insertedRecords = j.insertedRecords + :inserted,
+        j.updatedRecords = j.updatedRecords + :updated,
+        j.unchangedRecords = j.unchangedRecords + :unchanged
+    WHERE j.id = :id
+    """
+  )
+  int incrementProgress(
+    @Param("id") UUID id,
+    @Param("processed") int processed,
+    @Param("errors") int errors,
+    @Param("inserted") int inserted,
+    @Param("updated") int updated,
+    @Param("unchanged") int unchanged
+  );
 }
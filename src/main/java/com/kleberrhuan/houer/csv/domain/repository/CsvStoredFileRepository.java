@@ -0,0 +1,33 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.domain.repository;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvStoredFile;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/** Repositório para a contagem de referências dos arquivos armazenados por conteúdo. */
+@Repository
+public interface CsvStoredFileRepository
+  extends JpaRepository<CsvStoredFile, String> {
+  /** Registra mais um job usando o arquivo, criando a linha na primeira referência. */
+  @Modifying
+  @Query(
+    value = """
+    INSERT INTO csv.csv_stored_file (sha256, ref_count)
+    VALUES (:sha256, 1)
+    ON CONFLICT (sha256) DO UPDATE SET ref_count = csv.csv_stored_file.ref_count + 1
+    """,
+    nativeQuery = true
+  )
+  void acquire(@Param("sha256") String sha256);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT f FROM CsvStoredFile f WHERE f.sha256 = :sha256")
+  Optional<CsvStoredFile> findForUpdate(@Param("sha256") String sha256);
+}
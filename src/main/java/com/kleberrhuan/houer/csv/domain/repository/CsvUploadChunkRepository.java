@@ -0,0 +1,46 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.domain.repository;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvUploadChunk;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Repositório para as partes recebidas de uploads em partes. */
+@Repository
+public interface CsvUploadChunkRepository
+  extends JpaRepository<CsvUploadChunk, UUID> {
+  Optional<CsvUploadChunk> findBySessionIdAndChunkIndex(
+    UUID sessionId,
+    int chunkIndex
+  );
+
+  long countBySessionId(UUID sessionId);
+
+  /** Índices das partes já recebidas, em ordem. */
+  @Query(
+    "SELECT c.chunkIndex FROM CsvUploadChunk c WHERE c.sessionId = :sessionId ORDER BY c.chunkIndex"
+  )
+  List<Integer> findChunkIndexes(@Param("sessionId") UUID sessionId);
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM CsvUploadChunk c WHERE c.sessionId = :sessionId")
+  void deleteBySessionId(@Param("sessionId") UUID sessionId);
+
+  @Transactional
+  @Modifying
+  @Query(
+    "DELETE FROM CsvUploadChunk c WHERE c.sessionId = :sessionId AND c.chunkIndex = :chunkIndex"
+  )
+  void deleteBySessionIdAndChunkIndex(
+    @Param("sessionId") UUID sessionId,
+    @Param("chunkIndex") int chunkIndex
+  );
+}
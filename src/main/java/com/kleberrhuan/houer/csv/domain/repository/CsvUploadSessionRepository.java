@@ -0,0 +1,17 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.domain.repository;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvUploadSession;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/** Repositório para sessões de upload em partes. */
+@Repository
+public interface CsvUploadSessionRepository
+  extends JpaRepository<CsvUploadSession, UUID> {
+  /** Sessões não finalizadas que já expiraram. */
+  List<CsvUploadSession> findByJobIdIsNullAndExpiresAtBefore(Instant now);
+}
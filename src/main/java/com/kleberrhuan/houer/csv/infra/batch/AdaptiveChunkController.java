@@ -0,0 +1,274 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Controlador de realimentação do step de importação. Cada chunk confirmado informa quantas linhas leu e quanto
+ * demorou (da leitura ao commit); a cada {@code adjust-interval} a janela é avaliada e o tamanho de chunk e o número de
+ * partições que podem executar chunks ao mesmo tempo são ajustados dentro dos limites configurados:
+ *
+ * <ul>
+ *   <li>espera no pool do Hikari: tira um worker ou, já no mínimo, corta o chunk pela metade;
+ *   <li>chunk acima da latência alvo: encolhe proporcionalmente, no máximo pela metade;
+ *   <li>vazão caiu depois de liberar um worker: devolve o worker;
+ *   <li>chunk abaixo de metade da latência alvo: cresce 25% ou, já no máximo, libera mais um worker.
+ * </ul>
+ *
+ * O estado é global porque o recurso disputado, o banco, também é: jobs simultâneos dividem os mesmos workers.
+ */
+@Component
+@Slf4j
+public class AdaptiveChunkController {
+
+  static final String METRIC_PREFIX = "csv.import.adaptive";
+
+  private final CsvImportProperties.Adaptive config;
+  private final int maxWorkers;
+  private final MeterRegistry meterRegistry;
+  private final Supplier<PoolWait> poolWait;
+  private final LongSupplier clock;
+
+  private final AtomicInteger chunkSize;
+  private final AtomicInteger workers;
+  private final AdjustableSemaphore workerPermits;
+
+  private long windowStart;
+  private long windowItems;
+  private long windowNanos;
+  private long windowChunks;
+  private long lastAdjustment;
+  private double lastThroughput;
+  private boolean lastAddedWorker;
+  private volatile double throughput;
+  private volatile double chunkLatencyMillis;
+
+  @Autowired
+  public AdaptiveChunkController(
+    CsvImportProperties importProperties,
+    MeterRegistry meterRegistry,
+    DataSource dataSource
+  ) {
+    this(
+      importProperties,
+      meterRegistry,
+      new HikariPoolWaitProbe(dataSource, meterRegistry),
+      System::nanoTime
+    );
+  }
+
+  AdaptiveChunkController(
+    CsvImportProperties importProperties,
+    MeterRegistry meterRegistry,
+    Supplier<PoolWait> poolWait,
+    LongSupplier clock
+  ) {
+    this.config = importProperties.getAdaptive();
+    this.maxWorkers = importProperties.resolvePartitions();
+    this.meterRegistry = meterRegistry;
+    this.poolWait = poolWait;
+    this.clock = clock;
+    this.chunkSize =
+      new AtomicInteger(
+        clamp(
+          config.getInitialChunkSize(),
+          config.getMinChunkSize(),
+          config.getMaxChunkSize()
+        )
+      );
+    this.workers = new AtomicInteger(maxWorkers);
+    this.workerPermits = new AdjustableSemaphore(maxWorkers);
+    this.lastAdjustment = clock.getAsLong();
+
+    meterRegistry.gauge(METRIC_PREFIX + ".chunk.size", chunkSize);
+    meterRegistry.gauge(METRIC_PREFIX + ".workers", workers);
+    Gauge
+      .builder(METRIC_PREFIX + ".throughput", this, c -> c.throughput)
+      .description("Linhas por segundo na última janela avaliada")
+      .baseUnit("rows/s")
+      .register(meterRegistry);
+    Gauge
+      .builder(
+        METRIC_PREFIX + ".chunk.latency",
+        this,
+        c -> c.chunkLatencyMillis
+      )
+      .description("Duração média de chunk na última janela avaliada")
+      .baseUnit("ms")
+      .register(meterRegistry);
+  }
+
+  /** Tamanho do próximo chunk; lido pelo {@link AdaptiveCompletionPolicy} no início de cada chunk. */
+  public int currentChunkSize() {
+    return config.isEnabled() ? chunkSize.get() : config.getInitialChunkSize();
+  }
+
+  public int currentWorkers() {
+    return workers.get();
+  }
+
+  /** Bloqueia até haver vaga para mais um chunk em execução. */
+  public void acquireWorker() throws InterruptedException {
+    if (config.isEnabled()) {
+      workerPermits.acquire();
+    }
+  }
+
+  public void releaseWorker() {
+    if (config.isEnabled()) {
+      workerPermits.release();
+    }
+  }
+
+  /** Registra um chunk confirmado e, passado o intervalo de ajuste, reavalia chunk e workers. */
+  public synchronized void recordChunk(long items, long elapsedNanos) {
+    if (!config.isEnabled() || items <= 0) {
+      return;
+    }
+
+    long now = clock.getAsLong();
+    if (windowChunks == 0) {
+      // Começa a janela no início deste chunk para que o tempo ocioso entre jobs não conte como vazão baixa
+      windowStart = now - elapsedNanos;
+    }
+    windowItems += items;
+    windowNanos += elapsedNanos;
+    windowChunks++;
+
+    if (now - lastAdjustment >= config.getAdjustInterval().toNanos()) {
+      adjust(now);
+    }
+  }
+
+  private void adjust(long now) {
+    long latency = windowNanos / windowChunks;
+    double currentThroughput =
+      windowItems * 1e9 / Math.max(1, now - windowStart);
+    throughput = currentThroughput;
+    chunkLatencyMillis = latency / 1e6;
+
+    PoolWait wait = poolWait.get();
+    long target = config.getTargetChunkLatency().toNanos();
+    int size = chunkSize.get();
+
+    if (
+      wait.threadsAwaiting() > 0 ||
+      wait.averageWaitNanos() > config.getMaxPoolWait().toNanos()
+    ) {
+      if (!changeWorkers(-1, "pool_wait")) {
+        changeChunkSize(size / 2, "pool_wait");
+      }
+    } else if (latency > target) {
+      changeChunkSize(
+        Math.max(size / 2, (int) (size * (double) target / latency)),
+        "latency"
+      );
+    } else if (lastAddedWorker && currentThroughput < lastThroughput * 0.9) {
+      changeWorkers(-1, "throughput_drop");
+    } else if (latency < target / 2) {
+      if (!changeChunkSize(size + Math.max(1, size / 4), "headroom")) {
+        changeWorkers(1, "headroom");
+      }
+    }
+
+    lastThroughput = currentThroughput;
+    lastAdjustment = now;
+    windowItems = 0;
+    windowNanos = 0;
+    windowChunks = 0;
+  }
+
+  private boolean changeChunkSize(int requested, String reason) {
+    lastAddedWorker = false;
+    int current = chunkSize.get();
+    int next = clamp(
+      requested,
+      config.getMinChunkSize(),
+      config.getMaxChunkSize()
+    );
+    if (next == current) {
+      return false;
+    }
+
+    chunkSize.set(next);
+    recordAdjustment("chunk_size", next > current, reason);
+    log.info(
+      "Tamanho de chunk ajustado de {} para {} ({}) – vazão {} linhas/s, chunk {}ms",
+      current,
+      next,
+      reason,
+      Math.round(throughput),
+      Math.round(chunkLatencyMillis)
+    );
+    return true;
+  }
+
+  private boolean changeWorkers(int delta, String reason) {
+    int current = workers.get();
+    int next = clamp(current + delta, config.getMinWorkers(), maxWorkers);
+    lastAddedWorker = next > current;
+    if (next == current) {
+      return false;
+    }
+
+    workers.set(next);
+    workerPermits.adjust(next - current);
+    recordAdjustment("workers", next > current, reason);
+    log.info(
+      "Workers ativos ajustados de {} para {} ({}) – vazão {} linhas/s, chunk {}ms",
+      current,
+      next,
+      reason,
+      Math.round(throughput),
+      Math.round(chunkLatencyMillis)
+    );
+    return true;
+  }
+
+  private void recordAdjustment(String parameter, boolean up, String reason) {
+    meterRegistry
+      .counter(
+        METRIC_PREFIX + ".adjustments",
+        "parameter",
+        parameter,
+        "direction",
+        up ? "up" : "down",
+        "reason",
+        reason
+      )
+      .increment();
+  }
+
+  private static int clamp(int value, int min, int max) {
+    return Math.max(min, Math.min(max, value));
+  }
+
+  /** Pressão no pool de conexões: threads esperando agora e espera média por conexão desde a última leitura. */
+  public record PoolWait(int threadsAwaiting, long averageWaitNanos) {}
+
+  /** Semáforo cujo número de vagas pode diminuir com vagas em uso; as devoluções seguintes absorvem a diferença. */
+  private static final class AdjustableSemaphore extends Semaphore {
+
+    private AdjustableSemaphore(int permits) {
+      super(permits, true);
+    }
+
+    private void adjust(int delta) {
+      if (delta > 0) {
+        release(delta);
+      } else if (delta < 0) {
+        reducePermits(-delta);
+      }
+    }
+  }
+}
@@ -0,0 +1,40 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+import org.springframework.batch.repeat.policy.CompletionPolicySupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Política de término de chunk com tamanho lido do {@link AdaptiveChunkController} no início de cada chunk. O tamanho
+ * fica no contexto do chunk, então uma mudança no meio dele só vale para o próximo.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdaptiveCompletionPolicy extends CompletionPolicySupport {
+
+  private final AdaptiveChunkController controller;
+
+  @Override
+  public RepeatContext start(RepeatContext parent) {
+    return new SizedContext(parent, controller.currentChunkSize());
+  }
+
+  @Override
+  public boolean isComplete(RepeatContext context) {
+    SizedContext sized = (SizedContext) context;
+    return sized.getStartedCount() >= sized.size;
+  }
+
+  private static final class SizedContext extends RepeatContextSupport {
+
+    private final int size;
+
+    private SizedContext(RepeatContext parent, int size) {
+      super(parent);
+      this.size = size;
+    }
+  }
+}
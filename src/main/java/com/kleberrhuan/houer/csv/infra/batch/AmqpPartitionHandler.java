@@ -0,0 +1,161 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Jobs.ID_PARAMETER_NAME;
+
+import com.kleberrhuan.houer.csv.infra.exception.CsvProcessingException;
+import com.kleberrhuan.houer.csv.infra.messaging.CsvImportMessagePublisher;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportPartitionMessage;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.partition.PartitionHandler;
+import org.springframework.batch.core.partition.StepExecutionSplitter;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link PartitionHandler} do modo remoto: publica uma mensagem por partição na fila de partições e acompanha as
+ * {@code StepExecution}s pelo {@link JobExplorer} até todas terminarem. A réplica que consome a mensagem grava o
+ * resultado da partição no {@code JobRepository}, então a agregação no step gerenciador é a mesma do modo local.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AmqpPartitionHandler implements PartitionHandler {
+
+  private final CsvImportMessagePublisher messagePublisher;
+  private final JobExplorer jobExplorer;
+  private final CsvImportProperties importProperties;
+
+  @Override
+  public Collection<StepExecution> handle(
+    StepExecutionSplitter stepSplitter,
+    StepExecution managerStepExecution
+  ) throws Exception {
+    Set<StepExecution> partitions = stepSplitter.split(
+      managerStepExecution,
+      importProperties.resolveGridSize()
+    );
+    UUID jobId = UUID.fromString(
+      managerStepExecution.getJobParameters().getString(ID_PARAMETER_NAME)
+    );
+    Long jobExecutionId = managerStepExecution.getJobExecutionId();
+
+    for (StepExecution partition : partitions) {
+      messagePublisher.publishPartitionMessage(
+        new CsvImportPartitionMessage(jobId, jobExecutionId, partition.getId())
+      );
+    }
+    log.info(
+      "{} partições do job {} publicadas para execução remota",
+      partitions.size(),
+      jobId
+    );
+
+    return awaitPartitions(jobId, jobExecutionId, partitions);
+  }
+
+  /**
+   * Consulta o repositório até nenhuma partição estar em execução e devolve o estado final de cada uma. Partição
+   * abandonada ({@link #isAbandoned}) é republicada para outra réplica retomar; na mesma atualização só uma vez, e
+   * depois de {@code staleRetries} republicações o step falha sem esperar o {@code timeout}.
+   */
+  Collection<StepExecution> awaitPartitions(
+    UUID jobId,
+    Long jobExecutionId,
+    Collection<StepExecution> partitions
+  ) throws InterruptedException {
+    CsvImportProperties.Remote remote = importProperties.getRemote();
+    long deadline = System.nanoTime() + remote.getTimeout().toNanos();
+    Map<Long, StepExecution> pending = new HashMap<>();
+    partitions.forEach(partition -> pending.put(partition.getId(), partition));
+    List<StepExecution> finished = new ArrayList<>(partitions.size());
+    Map<Long, LocalDateTime> republishedAt = new HashMap<>();
+    Map<Long, Integer> republished = new HashMap<>();
+
+    while (true) {
+      Iterator<Long> ids = pending.keySet().iterator();
+      while (ids.hasNext()) {
+        Long id = ids.next();
+        StepExecution current = jobExplorer.getStepExecution(
+          jobExecutionId,
+          id
+        );
+        if (current == null) {
+          continue;
+        }
+        if (!current.getStatus().isRunning()) {
+          finished.add(current);
+          ids.remove();
+        } else if (
+          isAbandoned(current, remote.getStaleAfter()) &&
+          !current.getLastUpdated().equals(republishedAt.get(id))
+        ) {
+          int attempts = republished.merge(id, 1, Integer::sum);
+          if (attempts > remote.getStaleRetries()) {
+            throw new CsvProcessingException(
+              "Partição remota %s abandonada %d vezes".formatted(
+                current.getStepName(),
+                attempts
+              )
+            );
+          }
+          log.warn(
+            "Partição {} do job {} sem atualização desde {}; republicando ({}/{})",
+            current.getStepName(),
+            jobId,
+            current.getLastUpdated(),
+            attempts,
+            remote.getStaleRetries()
+          );
+          republishedAt.put(id, current.getLastUpdated());
+          messagePublisher.publishPartitionMessage(
+            new CsvImportPartitionMessage(jobId, jobExecutionId, id)
+          );
+        }
+      }
+
+      if (pending.isEmpty()) {
+        return finished;
+      }
+      if (System.nanoTime() - deadline > 0) {
+        throw new CsvProcessingException(
+          "Tempo esgotado aguardando %d partições remotas".formatted(
+            pending.size()
+          )
+        );
+      }
+      Thread.sleep(remote.getPollInterval().toMillis());
+    }
+  }
+
+  /**
+   * Em execução e sem atualização há mais que {@code staleAfter}: o {@code JobRepository} grava a partição a cada
+   * chunk, então a réplica que a executava caiu.
+   */
+  public static boolean isAbandoned(
+    StepExecution partition,
+    Duration staleAfter
+  ) {
+    return (
+      partition.getStatus() == BatchStatus.STARTED &&
+      partition.getLastUpdated() != null &&
+      partition
+        .getLastUpdated()
+        .isBefore(LocalDateTime.now().minus(staleAfter))
+    );
+  }
+}
@@ -0,0 +1,148 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.common.infra.persistence.AdvisoryLockService;
+import com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Locks;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Remove o histórico antigo das tabelas {@code BATCH_}, que o Spring Batch nunca limpa. Uma instância de job sai com
+ * todas as execuções, steps, parâmetros e contextos quando a última atividade de todas as suas execuções é anterior
+ * à retenção; instâncias com execução recente ou em andamento ficam. Cada lote é uma transação curta, e o advisory
+ * lock evita que duas réplicas limpem ao mesmo tempo. Um job resumido depois de purgado recomeça do início (o upsert é
+ * idempotente).
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(
+  value = "app.csv.import.metadata-purge.enabled",
+  havingValue = "true",
+  matchIfMissing = true
+)
+public class BatchMetadataPurgeJob {
+
+  private static final String SELECT_EXPIRED =
+    """
+    SELECT i.JOB_INSTANCE_ID FROM %1$sJOB_INSTANCE i
+    WHERE NOT EXISTS (
+      SELECT 1 FROM %1$sJOB_EXECUTION e
+      WHERE e.JOB_INSTANCE_ID = i.JOB_INSTANCE_ID
+        AND COALESCE(e.END_TIME, e.LAST_UPDATED, e.CREATE_TIME) >= ?
+    )
+    ORDER BY i.JOB_INSTANCE_ID
+    LIMIT ?
+    """;
+
+  private static final String EXECUTIONS_OF =
+    "SELECT JOB_EXECUTION_ID FROM %1$sJOB_EXECUTION WHERE JOB_INSTANCE_ID IN (%2$s)";
+
+  // Ordem das chaves estrangeiras: contextos e steps antes das execuções, execuções antes das instâncias
+  private static final List<String> DELETES = List.of(
+    "DELETE FROM %1$sSTEP_EXECUTION_CONTEXT WHERE STEP_EXECUTION_ID IN (" +
+    "SELECT STEP_EXECUTION_ID FROM %1$sSTEP_EXECUTION WHERE JOB_EXECUTION_ID IN (" +
+    EXECUTIONS_OF +
+    "))",
+    "DELETE FROM %1$sSTEP_EXECUTION WHERE JOB_EXECUTION_ID IN (" +
+    EXECUTIONS_OF +
+    ")",
+    "DELETE FROM %1$sJOB_EXECUTION_CONTEXT WHERE JOB_EXECUTION_ID IN (" +
+    EXECUTIONS_OF +
+    ")",
+    "DELETE FROM %1$sJOB_EXECUTION_PARAMS WHERE JOB_EXECUTION_ID IN (" +
+    EXECUTIONS_OF +
+    ")",
+    "DELETE FROM %1$sJOB_EXECUTION WHERE JOB_INSTANCE_ID IN (%2$s)",
+    "DELETE FROM %1$sJOB_INSTANCE WHERE JOB_INSTANCE_ID IN (%2$s)"
+  );
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactions;
+  private final AdvisoryLockService advisoryLocks;
+  private final CsvImportProperties.MetadataPurge config;
+  private final String tablePrefix;
+
+  public BatchMetadataPurgeJob(
+    JdbcTemplate jdbcTemplate,
+    PlatformTransactionManager transactionManager,
+    AdvisoryLockService advisoryLocks,
+    CsvImportProperties importProperties,
+    @Value("${spring.batch.jdbc.table-prefix:BATCH_}") String tablePrefix
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactions = new TransactionTemplate(transactionManager);
+    this.advisoryLocks = advisoryLocks;
+    this.config = importProperties.getMetadataPurge();
+    this.tablePrefix = tablePrefix;
+  }
+
+  @Scheduled(cron = "${app.csv.import.metadata-purge.cron:0 30 3 * * *}")
+  public void purge() {
+    LocalDateTime cutoff = LocalDateTime.now().minus(config.getRetention());
+    long start = System.currentTimeMillis();
+    long purged = 0;
+
+    try {
+      int batch;
+      do {
+        batch = transactions.execute(status -> purgeBatch(cutoff));
+        purged += batch;
+      } while (batch == config.getBatchSize());
+    } catch (RuntimeException e) {
+      log.warn(
+        "Falha ao limpar histórico do Spring Batch após {} instâncias: {}",
+        purged,
+        e.getMessage()
+      );
+      return;
+    }
+
+    if (purged > 0) {
+      log.info(
+        "Histórico do Spring Batch anterior a {} removido em {}ms: {} instâncias de job",
+        cutoff,
+        System.currentTimeMillis() - start,
+        purged
+      );
+    }
+  }
+
+  /** @return instâncias removidas no lote; zero quando não há mais nada ou outra réplica está limpando */
+  private int purgeBatch(LocalDateTime cutoff) {
+    if (!advisoryLocks.tryLock(Locks.METADATA_PURGE, 0)) {
+      log.debug("Outra instância está limpando o histórico do Spring Batch");
+      return 0;
+    }
+
+    List<Long> ids = jdbcTemplate.queryForList(
+      SELECT_EXPIRED.formatted(tablePrefix),
+      Long.class,
+      Timestamp.valueOf(cutoff),
+      config.getBatchSize()
+    );
+    if (ids.isEmpty()) {
+      return 0;
+    }
+
+    String placeholders = String.join(
+      ",",
+      Collections.nCopies(ids.size(), "?")
+    );
+    Object[] args = ids.toArray();
+    for (String delete : DELETES) {
+      jdbcTemplate.update(delete.formatted(tablePrefix, placeholders), args);
+    }
+    return ids.size();
+  }
+}
@@ -0,0 +1,80 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+/**
+ * Partitioner do repositório leve. Sem as tabelas {@code BATCH_} o Spring Batch não tem as partições da execução
+ * anterior, então a retomada devolve as do checkpoint do {@code csv.csv_import_job}, cada uma com a posição do seu
+ * reader. Partições novas e restauradas entram no {@link ImportProgressTracker} antes de executar, para que o
+ * checkpoint cubra também as que ainda não confirmaram nenhum chunk.
+ */
+@Slf4j
+public class CheckpointPartitioner implements Partitioner {
+
+  private final UUID jobId;
+  private final Partitioner delegate;
+  private final String checkpoint;
+  private final ImportProgressTracker progressTracker;
+
+  public CheckpointPartitioner(
+    UUID jobId,
+    Partitioner delegate,
+    String checkpoint,
+    ImportProgressTracker progressTracker
+  ) {
+    this.jobId = jobId;
+    this.delegate = delegate;
+    this.checkpoint = checkpoint;
+    this.progressTracker = progressTracker;
+  }
+
+  @Override
+  public Map<String, ExecutionContext> partition(int gridSize) {
+    Map<String, ExecutionContext> partitions = restore();
+    if (partitions == null) {
+      partitions = delegate.partition(gridSize);
+    }
+    partitions.forEach((name, context) ->
+      progressTracker.recordCheckpoint(jobId, name, context)
+    );
+    return partitions;
+  }
+
+  private Map<String, ExecutionContext> restore() {
+    if (checkpoint == null || checkpoint.isBlank()) {
+      return null;
+    }
+    Map<String, ExecutionContext> partitions = ImportCheckpoint.read(checkpoint);
+    for (ExecutionContext context : partitions.values()) {
+      String keysFile = context.getString(
+        SchoolFilePartitioner.KEYS_FILE_KEY,
+        null
+      );
+      // Sem o arquivo de chaves as posições salvas não valem: recomeça (o upsert é idempotente)
+      if (keysFile != null && !Files.exists(Path.of(keysFile))) {
+        log.warn(
+          "Checkpoint do job {} descartado: arquivo de chaves {} não existe mais",
+          jobId,
+          keysFile
+        );
+        return null;
+      }
+    }
+    if (partitions.isEmpty()) {
+      return null;
+    }
+    log.info(
+      "Retomando job {} a partir do checkpoint de {} partições",
+      jobId,
+      partitions.size()
+    );
+    return partitions;
+  }
+}
@@ -0,0 +1,85 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.csv.infra.observability.SampledTimer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Classificação delta das escolas de um chunk. Os contadores só são repassados ao {@link SchoolImportDelta} depois do
+ * commit, para que um chunk desfeito não entre nas contagens. Sem delta (job não aberto) tudo é gravado. O tempo de
+ * classificação é amostrado para a telemetria do estágio de deduplicação.
+ */
+final class ChunkDelta {
+
+  private final SchoolImportDelta delta;
+  private final SampledTimer timer = new SampledTimer();
+  private int inserted;
+  private int updated;
+  private int unchanged;
+
+  ChunkDelta(SchoolImportDelta delta) {
+    this.delta = delta;
+  }
+
+  boolean shouldWrite(long code, long contentHash) {
+    if (delta == null) {
+      return true;
+    }
+    long begin = timer.begin();
+    SchoolImportDelta.Change change = delta.classify(code, contentHash);
+    timer.end(begin);
+    switch (change) {
+      case INSERTED -> inserted++;
+      case UPDATED -> updated++;
+      case UNCHANGED -> {
+        unchanged++;
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Escolas classificadas neste chunk. */
+  long classified() {
+    return timer.count();
+  }
+
+  long nanos() {
+    return timer.estimatedNanos();
+  }
+
+  int unchanged() {
+    return unchanged;
+  }
+
+  /**
+   * Repassa os contadores quando a transação corrente confirmar; sem sincronização de transação ativa, repassa na
+   * hora.
+   */
+  void commitAfterTransaction() {
+    if (delta == null) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      commit();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+      new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          commit();
+        }
+      }
+    );
+  }
+
+  void commit() {
+    if (delta != null) {
+      delta.count(SchoolImportDelta.Change.INSERTED, inserted);
+      delta.count(SchoolImportDelta.Change.UPDATED, updated);
+      delta.count(SchoolImportDelta.Change.UNCHANGED, unchanged);
+    }
+  }
+}
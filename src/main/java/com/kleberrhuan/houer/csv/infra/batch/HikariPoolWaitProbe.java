@@ -0,0 +1,73 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mede a pressão no pool do Hikari: threads esperando conexão agora e a espera média por conexão desde a última
+ * leitura, calculada a partir do timer {@code hikaricp.connections.acquire}. Sem Hikari ou sem o timer, reporta zero.
+ */
+@Slf4j
+class HikariPoolWaitProbe implements Supplier<AdaptiveChunkController.PoolWait> {
+
+  private static final String ACQUIRE_TIMER = "hikaricp.connections.acquire";
+
+  private final HikariDataSource dataSource;
+  private final MeterRegistry meterRegistry;
+  private long lastCount;
+  private double lastTotalNanos;
+
+  HikariPoolWaitProbe(DataSource dataSource, MeterRegistry meterRegistry) {
+    this.dataSource = unwrap(dataSource);
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public synchronized AdaptiveChunkController.PoolWait get() {
+    return new AdaptiveChunkController.PoolWait(
+      threadsAwaiting(),
+      averageWaitSinceLastCall()
+    );
+  }
+
+  private int threadsAwaiting() {
+    HikariPoolMXBean pool = dataSource == null
+      ? null
+      : dataSource.getHikariPoolMXBean();
+    return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+  }
+
+  private long averageWaitSinceLastCall() {
+    long count = 0;
+    double totalNanos = 0;
+    for (Timer timer : meterRegistry.find(ACQUIRE_TIMER).timers()) {
+      count += timer.count();
+      totalNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+    }
+
+    long acquired = count - lastCount;
+    double waited = totalNanos - lastTotalNanos;
+    lastCount = count;
+    lastTotalNanos = totalNanos;
+    return acquired > 0 ? (long) (waited / acquired) : 0;
+  }
+
+  private static HikariDataSource unwrap(DataSource dataSource) {
+    try {
+      if (dataSource.isWrapperFor(HikariDataSource.class)) {
+        return dataSource.unwrap(HikariDataSource.class);
+      }
+    } catch (SQLException e) {
+      log.debug("DataSource não expõe o pool do Hikari", e);
+    }
+    return null;
+  }
+}
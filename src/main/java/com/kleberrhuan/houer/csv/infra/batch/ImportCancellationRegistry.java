@@ -0,0 +1,64 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.csv.domain.model.ImportJobStatus;
+import com.kleberrhuan.houer.csv.domain.repository.CsvImportJobRepository;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sinal de cancelamento consultado pelos workers a cada chunk. A fonte é o status {@code CANCELLED} no banco, então o
+ * cancelamento alcança partições em qualquer réplica; cada consulta vale por {@code cancellation-check-interval}. Um
+ * cancelamento feito nesta réplica vale na hora.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ImportCancellationRegistry {
+
+  private final CsvImportJobRepository jobRepository;
+  private final CsvImportProperties importProperties;
+  private final Map<UUID, Check> checks = new ConcurrentHashMap<>();
+
+  public void markCancelled(UUID jobId) {
+    checks.put(jobId, new Check(true, System.nanoTime()));
+  }
+
+  public boolean isCancelled(UUID jobId) {
+    Check check = checks.get(jobId);
+    long interval = importProperties.getCancellationCheckInterval().toNanos();
+    if (check != null && System.nanoTime() - check.checkedAt() < interval) {
+      return check.cancelled();
+    }
+    return checkNow(jobId);
+  }
+
+  /** Consulta o banco ignorando o valor guardado. */
+  public boolean checkNow(UUID jobId) {
+    boolean cancelled;
+    try {
+      cancelled =
+        jobRepository.existsByIdAndStatus(jobId, ImportJobStatus.CANCELLED);
+    } catch (RuntimeException e) {
+      log.warn(
+        "Falha ao consultar cancelamento do job {}: {}",
+        jobId,
+        e.getMessage()
+      );
+      return false;
+    }
+    checks.put(jobId, new Check(cancelled, System.nanoTime()));
+    return cancelled;
+  }
+
+  public void forget(UUID jobId) {
+    checks.remove(jobId);
+  }
+
+  private record Check(boolean cancelled, long checkedAt) {}
+}
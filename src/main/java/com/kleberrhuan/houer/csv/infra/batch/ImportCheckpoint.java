@@ -0,0 +1,70 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.csv.infra.exception.CsvProcessingException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.batch.core.repository.dao.Jackson2ExecutionContextStringSerializer;
+import org.springframework.batch.item.ExecutionContext;
+
+/**
+ * Checkpoint compacto do {@code csv.csv_import_job} no repositório leve: o contexto de cada partição (faixa do
+ * partitioner e posição do reader) por nome de partição. Usa o mesmo serializador das tabelas {@code BATCH_}, que
+ * preserva os tipos dos valores ({@code getLong} continua funcionando na retomada).
+ */
+public final class ImportCheckpoint {
+
+  private static final Jackson2ExecutionContextStringSerializer SERIALIZER =
+    new Jackson2ExecutionContextStringSerializer();
+
+  private ImportCheckpoint() {}
+
+  /** {@code schoolImportWorkerStep:partition3} vira {@code partition3}, a chave devolvida pelo partitioner. */
+  public static String partitionName(String stepName) {
+    return stepName.substring(stepName.lastIndexOf(':') + 1);
+  }
+
+  public static String write(Map<String, ExecutionContext> partitions) {
+    Map<String, Object> content = new LinkedHashMap<>();
+    partitions.forEach((name, context) -> {
+      Map<String, Object> values = new HashMap<>();
+      context.entrySet().forEach(e -> values.put(e.getKey(), e.getValue()));
+      content.put(name, values);
+    });
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      SERIALIZER.serialize(content, out);
+    } catch (IOException e) {
+      throw new CsvProcessingException("Erro ao serializar checkpoint", e);
+    }
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  @SuppressWarnings("unchecked")
+  public static Map<String, ExecutionContext> read(String checkpoint) {
+    Map<String, Object> content;
+    try {
+      content =
+        SERIALIZER.deserialize(
+          new ByteArrayInputStream(checkpoint.getBytes(StandardCharsets.UTF_8))
+        );
+    } catch (IOException e) {
+      throw new CsvProcessingException("Checkpoint inválido", e);
+    }
+
+    Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+    content.forEach((name, values) ->
+      partitions.put(
+        name,
+        new ExecutionContext((Map<String, Object>) values)
+      )
+    );
+    return partitions;
+  }
+}
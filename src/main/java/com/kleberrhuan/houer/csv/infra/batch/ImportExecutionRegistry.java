@@ -0,0 +1,29 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Jobs de importação em execução nesta instância. Uma execução que o Spring Batch ainda marca como {@code STARTED},
+ * mas que não está aqui, sobrou de um processo que caiu.
+ */
+@Component
+public class ImportExecutionRegistry {
+
+  private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+
+  public void register(UUID jobId) {
+    running.add(jobId);
+  }
+
+  public void unregister(UUID jobId) {
+    running.remove(jobId);
+  }
+
+  public boolean isRunning(UUID jobId) {
+    return running.contains(jobId);
+  }
+}
@@ -0,0 +1,51 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties.JobRepositoryMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repositório usado pelo {@code schoolImportJob} e pelo launcher das importações, conforme
+ * {@code app.csv.import.job-repository}. Não é um bean {@link JobRepository} para não concorrer com o do Spring Boot,
+ * que continua servindo o modo remoto, a recuperação de execuções órfãs e a limpeza do histórico.
+ */
+@Component
+@Slf4j
+public class ImportJobRepositoryProvider {
+
+  private final JobRepository repository;
+  private final boolean lightweight;
+
+  public ImportJobRepositoryProvider(
+    JobRepository jobRepository,
+    CsvImportProperties importProperties
+  ) {
+    this.lightweight = importProperties.usesLightweightJobRepository();
+    this.repository =
+      lightweight ? new InMemoryJobRepository() : jobRepository;
+
+    if (
+      !lightweight &&
+      importProperties.getJobRepository() == JobRepositoryMode.LIGHTWEIGHT
+    ) {
+      log.warn(
+        "job-repository LIGHTWEIGHT ignorado: partições remotas exigem as tabelas BATCH_ compartilhadas"
+      );
+    } else if (lightweight) {
+      log.info(
+        "Importações usando repositório de jobs em memória; checkpoints no csv_import_job"
+      );
+    }
+  }
+
+  public JobRepository get() {
+    return repository;
+  }
+
+  public boolean isLightweight() {
+    return lightweight;
+  }
+}
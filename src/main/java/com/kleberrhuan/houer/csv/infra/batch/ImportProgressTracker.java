@@ -0,0 +1,176 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.csv.application.service.CsvImportService;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Acumula o progresso das importações em memória a cada chunk e o grava periodicamente com um único {@code UPDATE}
+ * incremental por job. As partições só somam em {@link LongAdder}s; o banco vê no máximo uma escrita por intervalo.
+ * Cada {@link #open} conta uma referência: o step gerenciador e as partições remotas executadas na mesma réplica
+ * compartilham o acompanhamento, que só é descartado no último {@link #close}.
+ *
+ * <p>Com o repositório leve do Spring Batch, o contexto de cada partição confirmado no último chunk também é guardado
+ * aqui e gravado como checkpoint do job no mesmo intervalo, só quando mudou.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ImportProgressTracker {
+
+  private final CsvImportService importService;
+  private final SchoolImportDeltaRegistry deltaRegistry;
+  private final Map<UUID, JobProgress> progress = new ConcurrentHashMap<>();
+
+  public void open(UUID jobId) {
+    progress.compute(
+      jobId,
+      (id, current) -> {
+        JobProgress jobProgress = current == null ? new JobProgress() : current;
+        jobProgress.references++;
+        return jobProgress;
+      }
+    );
+  }
+
+  /** Soma o resultado de um chunk confirmado. Ignorado se o job não foi aberto. */
+  public void recordChunk(UUID jobId, long processed, long errors) {
+    JobProgress jobProgress = progress.get(jobId);
+    if (jobProgress != null) {
+      jobProgress.processed.add(processed);
+      jobProgress.errors.add(errors);
+    }
+  }
+
+  /** Substitui o contexto confirmado da partição. Ignorado se o job não foi aberto. */
+  public void recordCheckpoint(
+    UUID jobId,
+    String partition,
+    ExecutionContext context
+  ) {
+    JobProgress jobProgress = progress.get(jobId);
+    if (jobProgress != null) {
+      jobProgress.checkpoints.put(partition, new ExecutionContext(context));
+      jobProgress.checkpointVersion.increment();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${app.csv.import.progress-flush-interval:1s}")
+  public void flushAll() {
+    progress.forEach(this::flush);
+  }
+
+  /** Grava o que ainda não foi enviado e, se era a última referência, para de acompanhar o job. */
+  public void close(UUID jobId) {
+    JobProgress jobProgress = progress.get(jobId);
+    if (jobProgress == null) {
+      return;
+    }
+    flush(jobId, jobProgress);
+    progress.computeIfPresent(
+      jobId,
+      (id, current) -> --current.references > 0 ? current : null
+    );
+  }
+
+  boolean isTracking(UUID jobId) {
+    return progress.containsKey(jobId);
+  }
+
+  // Os contadores só avançam depois do UPDATE: se ele falhar, o incremento vai no próximo flush.
+  private void flush(UUID jobId, JobProgress jobProgress) {
+    synchronized (jobProgress) {
+      flushProgress(jobId, jobProgress);
+      flushCheckpoint(jobId, jobProgress);
+    }
+  }
+
+  private void flushProgress(UUID jobId, JobProgress jobProgress) {
+    SchoolImportDelta delta = deltaRegistry.find(jobId);
+    long processed = jobProgress.processed.sum() - jobProgress.flushedProcessed;
+    long errors = jobProgress.errors.sum() - jobProgress.flushedErrors;
+    long inserted = delta == null
+      ? 0
+      : delta.inserted() - jobProgress.flushedInserted;
+    long updated = delta == null
+      ? 0
+      : delta.updated() - jobProgress.flushedUpdated;
+    long unchanged = delta == null
+      ? 0
+      : delta.unchanged() - jobProgress.flushedUnchanged;
+
+    if ((processed | errors | inserted | updated | unchanged) == 0) {
+      return;
+    }
+
+    try {
+      importService.addJobProgress(
+        jobId,
+        Math.toIntExact(processed),
+        Math.toIntExact(errors),
+        Math.toIntExact(inserted),
+        Math.toIntExact(updated),
+        Math.toIntExact(unchanged)
+      );
+    } catch (RuntimeException e) {
+      log.warn(
+        "Falha ao gravar progresso do job {}: {}",
+        jobId,
+        e.getMessage()
+      );
+      return;
+    }
+
+    jobProgress.flushedProcessed += processed;
+    jobProgress.flushedErrors += errors;
+    jobProgress.flushedInserted += inserted;
+    jobProgress.flushedUpdated += updated;
+    jobProgress.flushedUnchanged += unchanged;
+  }
+
+  private void flushCheckpoint(UUID jobId, JobProgress jobProgress) {
+    long version = jobProgress.checkpointVersion.sum();
+    if (version == jobProgress.flushedCheckpointVersion) {
+      return;
+    }
+    try {
+      importService.saveJobCheckpoint(
+        jobId,
+        ImportCheckpoint.write(new LinkedHashMap<>(jobProgress.checkpoints))
+      );
+    } catch (RuntimeException e) {
+      log.warn(
+        "Falha ao gravar checkpoint do job {}: {}",
+        jobId,
+        e.getMessage()
+      );
+      return;
+    }
+    jobProgress.flushedCheckpointVersion = version;
+  }
+
+  private static final class JobProgress {
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, ExecutionContext> checkpoints =
+      new ConcurrentHashMap<>();
+    private final LongAdder checkpointVersion = new LongAdder();
+    private long flushedCheckpointVersion;
+    private long flushedProcessed;
+    private long flushedErrors;
+    private long flushedInserted;
+    private long flushedUpdated;
+    private long flushedUnchanged;
+    private int references;
+  }
+}
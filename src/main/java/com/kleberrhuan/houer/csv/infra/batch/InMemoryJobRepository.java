@@ -0,0 +1,296 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.DefaultJobKeyGenerator;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobKeyGenerator;
+import org.springframework.batch.core.JobParameter;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.batch.item.ExecutionContext;
+
+/**
+ * {@link JobRepository} em memória para o modo leve de importação. Execuções, steps e contextos são os próprios
+ * objetos do Spring Batch, sem cópia nem escrita em banco; atualizar um step por chunk custa só a troca da versão. Ao
+ * contrário do {@code ResourcelessJobRepository}, aceita vários jobs e partições ao mesmo tempo. A instância é
+ * descartada quando sua execução termina: o restart de um job não depende daqui, e sim do checkpoint gravado no
+ * {@code csv.csv_import_job}. Das concluídas fica só a chave, em um conjunto limitado, para que a mensagem reentregue
+ * de um job já importado continue sendo recusada com {@link JobInstanceAlreadyCompleteException}.
+ */
+@Slf4j
+public class InMemoryJobRepository implements JobRepository {
+
+  private static final int MAX_COMPLETED_KEYS = 1_000;
+
+  private final JobKeyGenerator<JobParameters> keyGenerator =
+    new DefaultJobKeyGenerator();
+  private final AtomicLong instanceIds = new AtomicLong();
+  private final AtomicLong executionIds = new AtomicLong();
+  private final AtomicLong stepExecutionIds = new AtomicLong();
+
+  private final Map<String, JobInstance> instances = new HashMap<>();
+  private final Map<Long, List<JobExecution>> executions = new HashMap<>();
+  private final Set<String> completed = Collections.newSetFromMap(
+    new LinkedHashMap<>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+        return size() > MAX_COMPLETED_KEYS;
+      }
+    }
+  );
+
+  @Override
+  public synchronized List<String> getJobNames() {
+    return instances
+      .values()
+      .stream()
+      .map(JobInstance::getJobName)
+      .distinct()
+      .toList();
+  }
+
+  @Override
+  public synchronized boolean isJobInstanceExists(
+    String jobName,
+    JobParameters jobParameters
+  ) {
+    return instances.containsKey(key(jobName, jobParameters));
+  }
+
+  @Override
+  public synchronized JobInstance getJobInstance(
+    String jobName,
+    JobParameters jobParameters
+  ) {
+    return instances.get(key(jobName, jobParameters));
+  }
+
+  @Override
+  public synchronized JobInstance createJobInstance(
+    String jobName,
+    JobParameters jobParameters
+  ) {
+    String key = key(jobName, jobParameters);
+    if (instances.containsKey(key)) {
+      throw new IllegalStateException(
+        "JobInstance já existe para " + jobName + " com esses parâmetros"
+      );
+    }
+    JobInstance instance = new JobInstance(
+      instanceIds.incrementAndGet(),
+      jobName
+    );
+    instance.setVersion(0);
+    instances.put(key, instance);
+    executions.put(instance.getId(), new ArrayList<>());
+    return instance;
+  }
+
+  /** Mesmas regras de restart do {@code SimpleJobRepository}, sobre as execuções ainda em memória. */
+  @Override
+  public synchronized JobExecution createJobExecution(
+    String jobName,
+    JobParameters jobParameters
+  )
+    throws JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException {
+    String key = key(jobName, jobParameters);
+    JobInstance instance = instances.get(key);
+    ExecutionContext executionContext = new ExecutionContext();
+
+    if (completed.contains(key) && hasIdentifying(jobParameters)) {
+      throw new JobInstanceAlreadyCompleteException(
+        "Instância já concluída: " + jobName + " " + jobParameters
+      );
+    }
+    if (instance == null) {
+      instance = createJobInstance(jobName, jobParameters);
+    } else {
+      List<JobExecution> previous = executions.get(instance.getId());
+      for (JobExecution execution : previous) {
+        if (execution.isRunning()) {
+          throw new JobExecutionAlreadyRunningException(
+            "Execução em andamento para " + instance
+          );
+        }
+        BatchStatus status = execution.getStatus();
+        if (status == BatchStatus.UNKNOWN) {
+          throw new JobRestartException(
+            "Execução em estado UNKNOWN não pode ser reiniciada: " + instance
+          );
+        }
+        if (
+          hasIdentifying(execution.getJobParameters()) &&
+          (status == BatchStatus.COMPLETED || status == BatchStatus.ABANDONED)
+        ) {
+          throw new JobInstanceAlreadyCompleteException(
+            "Instância já concluída: " + instance
+          );
+        }
+      }
+      if (!previous.isEmpty()) {
+        executionContext =
+          new ExecutionContext(previous.getLast().getExecutionContext());
+      }
+    }
+
+    JobExecution execution = new JobExecution(
+      instance,
+      executionIds.incrementAndGet(),
+      jobParameters
+    );
+    execution.setVersion(0);
+    execution.setExecutionContext(executionContext);
+    execution.setLastUpdated(LocalDateTime.now());
+    executions.get(instance.getId()).add(execution);
+    return execution;
+  }
+
+  /** A atualização final da execução (status terminal e {@code endTime}) descarta a instância. */
+  @Override
+  public synchronized void update(JobExecution jobExecution) {
+    jobExecution.setLastUpdated(LocalDateTime.now());
+    jobExecution.incrementVersion();
+
+    if (
+      jobExecution.getEndTime() != null &&
+      !jobExecution.getStatus().isRunning()
+    ) {
+      JobInstance instance = jobExecution.getJobInstance();
+      executions.remove(instance.getId());
+      instances.values().remove(instance);
+      if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
+        completed.add(
+          key(instance.getJobName(), jobExecution.getJobParameters())
+        );
+      }
+      log.debug(
+        "Execução {} ({}) encerrada com {}; descartada da memória",
+        jobExecution.getId(),
+        instance.getJobName(),
+        jobExecution.getStatus()
+      );
+    }
+  }
+
+  @Override
+  public void add(StepExecution stepExecution) {
+    stepExecution.setId(stepExecutionIds.incrementAndGet());
+    stepExecution.setVersion(0);
+    stepExecution.setLastUpdated(LocalDateTime.now());
+  }
+
+  @Override
+  public void addAll(Collection<StepExecution> stepExecutions) {
+    stepExecutions.forEach(this::add);
+  }
+
+  /** Chamado a cada chunk de cada partição: não toca nos mapas compartilhados. */
+  @Override
+  public void update(StepExecution stepExecution) {
+    stepExecution.setLastUpdated(LocalDateTime.now());
+    stepExecution.incrementVersion();
+    if (stepExecution.getJobExecution().isStopping()) {
+      stepExecution.setTerminateOnly();
+    }
+  }
+
+  /** Os contextos ficam nos próprios objetos de execução. */
+  @Override
+  public void updateExecutionContext(StepExecution stepExecution) {}
+
+  @Override
+  public void updateExecutionContext(JobExecution jobExecution) {}
+
+  @Override
+  public synchronized StepExecution getLastStepExecution(
+    JobInstance jobInstance,
+    String stepName
+  ) {
+    return stepExecutions(jobInstance, stepName)
+      .stream()
+      .max(
+        Comparator
+          .comparing(StepExecution::getCreateTime)
+          .thenComparing(StepExecution::getId)
+      )
+      .orElse(null);
+  }
+
+  @Override
+  public synchronized long getStepExecutionCount(
+    JobInstance jobInstance,
+    String stepName
+  ) {
+    return stepExecutions(jobInstance, stepName).size();
+  }
+
+  @Override
+  public synchronized JobExecution getLastJobExecution(
+    String jobName,
+    JobParameters jobParameters
+  ) {
+    JobInstance instance = instances.get(key(jobName, jobParameters));
+    if (instance == null) {
+      return null;
+    }
+    List<JobExecution> list = executions.get(instance.getId());
+    return list.isEmpty() ? null : list.getLast();
+  }
+
+  @Override
+  public synchronized List<JobExecution> findJobExecutions(
+    JobInstance jobInstance
+  ) {
+    return List.copyOf(
+      executions.getOrDefault(jobInstance.getId(), List.of()).reversed()
+    );
+  }
+
+  private List<StepExecution> stepExecutions(
+    JobInstance jobInstance,
+    String stepName
+  ) {
+    List<StepExecution> found = new ArrayList<>();
+    for (JobExecution execution : executions.getOrDefault(
+      jobInstance.getId(),
+      List.of()
+    )) {
+      for (StepExecution step : execution.getStepExecutions()) {
+        if (step.getStepName().equals(stepName) && step.getId() != null) {
+          found.add(step);
+        }
+      }
+    }
+    return found;
+  }
+
+  private static boolean hasIdentifying(JobParameters jobParameters) {
+    return jobParameters
+      .getParameters()
+      .values()
+      .stream()
+      .anyMatch(JobParameter::isIdentifying);
+  }
+
+  private String key(String jobName, JobParameters jobParameters) {
+    return jobName + "|" + keyGenerator.generateKey(jobParameters);
+  }
+}
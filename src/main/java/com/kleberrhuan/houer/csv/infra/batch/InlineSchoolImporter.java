@@ -0,0 +1,145 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.csv.application.parser.CsvByteTokenizer;
+import com.kleberrhuan.houer.csv.application.validator.CompositeRowValidator;
+import com.kleberrhuan.houer.csv.domain.factory.CsvSchoolRecordFactory;
+import com.kleberrhuan.houer.csv.domain.model.CsvRow;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.infra.exception.CsvProcessingException;
+import com.kleberrhuan.houer.csv.infra.observability.ImportPipelineMetrics;
+import com.kleberrhuan.houer.csv.infra.storage.CompressionFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Caminho rápido para arquivos pequenos: lê o arquivo já validado e armazenado, aplica o {@link SchoolItemProcessor}
+ * e grava tudo com um único {@code COPY} e merge do {@link SchoolCopyLoader}, sem JobRepository, fila nem chunks. A
+ * classificação delta consulta só os códigos do arquivo. Leitura, dedup e escrita vão para a telemetria do job.
+ */
+@Component
+@RequiredArgsConstructor
+public class InlineSchoolImporter {
+
+  private final CompositeRowValidator rowValidator;
+  private final SchoolItemProcessor itemProcessor;
+  private final SchoolImportDeltaRegistry deltaRegistry;
+  private final SchoolCopyLoader copyLoader;
+  private final ImportPipelineMetrics pipelineMetrics;
+
+  public record Result(int read, long inserted, long updated, long unchanged) {
+    public long written() {
+      return inserted + updated;
+    }
+  }
+
+  /** Com {@code skipInvalidRows}, descarta as linhas recusadas na validação do upload, como o reader do job. */
+  @Transactional
+  public Result importFile(
+    UUID jobId,
+    Path file,
+    String filename,
+    boolean skipInvalidRows,
+    Long userId
+  ) {
+    long start = System.nanoTime();
+    List<CsvSchoolRecord> records = read(file, filename, skipInvalidRows);
+    long readNanos = System.nanoTime() - start;
+
+    long[] codes = records
+      .stream()
+      .map(record -> SchoolCopyLoader.parseCode(record.codesc()))
+      .filter(Objects::nonNull)
+      .mapToLong(Long::longValue)
+      .toArray();
+    SchoolImportDelta delta = deltaRegistry.forCodes(codes);
+    ChunkDelta chunkDelta = new ChunkDelta(delta);
+
+    start = System.nanoTime();
+    copyLoader.load(records, chunkDelta, userId);
+    chunkDelta.commit();
+    long writeNanos = System.nanoTime() - start;
+
+    pipelineMetrics.recordStage(
+      jobId,
+      ImportPipelineMetrics.Stage.READ,
+      records.size(),
+      readNanos
+    );
+    pipelineMetrics.recordStage(
+      jobId,
+      ImportPipelineMetrics.Stage.DEDUP,
+      chunkDelta.classified(),
+      chunkDelta.nanos()
+    );
+    pipelineMetrics.recordStage(
+      jobId,
+      ImportPipelineMetrics.Stage.WRITE,
+      records.size() - chunkDelta.unchanged(),
+      writeNanos - chunkDelta.nanos()
+    );
+
+    return new Result(
+      records.size(),
+      delta.inserted(),
+      delta.updated(),
+      delta.unchanged()
+    );
+  }
+
+  private List<CsvSchoolRecord> read(
+    Path file,
+    String filename,
+    boolean skipInvalidRows
+  ) {
+    try (
+      CsvByteTokenizer tokenizer = new CsvByteTokenizer(
+        CompressionFormat
+          .fromFilename(file.getFileName().toString())
+          .decode(Files.newInputStream(file))
+      )
+    ) {
+      if (!tokenizer.nextRow()) {
+        throw new CsvProcessingException("Arquivo CSV vazio");
+      }
+      String[] headers = tokenizer.toArray();
+      Function<CsvRow, CsvSchoolRecord> mapper =
+        CsvSchoolRecordFactory.createRowMapper(headers);
+      Predicate<String[]> rowFilter = skipInvalidRows
+        ? rowValidator.compile(headers).validRows(filename)
+        : null;
+
+      List<CsvSchoolRecord> records = new ArrayList<>();
+      while (tokenizer.nextRow()) {
+        if (tokenizer.cellCount() == 1 && tokenizer.cellLength(0) == 0) {
+          continue;
+        }
+        if (rowFilter != null && !rowFilter.test(tokenizer.toArray())) {
+          continue;
+        }
+        CsvSchoolRecord record = itemProcessor.process(
+          mapper.apply(tokenizer)
+        );
+        if (record != null) {
+          records.add(record);
+        }
+      }
+      return records;
+    } catch (IOException e) {
+      throw new CsvProcessingException(
+        "Erro ao ler arquivo " + filename + ": " + e.getMessage(),
+        e
+      );
+    }
+  }
+}
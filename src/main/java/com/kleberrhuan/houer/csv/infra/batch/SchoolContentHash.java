@@ -0,0 +1,95 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.domain.model.SchoolMetrics;
+
+/**
+ * Hash de 64 bits do conteúdo de uma escola no estilo xxHash64: os campos entram como lanes de 8 bytes na rodada do
+ * xxHash e o resultado passa pela avalanche final. As métricas são combinadas por soma, então a ordem das colunas no
+ * arquivo não altera o hash. Nunca devolve {@code 0}, que marca "sem hash" no índice.
+ */
+public final class SchoolContentHash {
+
+  private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+  private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long PRIME64_3 = 0x165667B19E3779F9L;
+  private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+  private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+  private static final long NULL_LANE = 0xA5A5A5A5A5A5A5A5L;
+
+  private SchoolContentHash() {}
+
+  public static long of(CsvSchoolRecord record) {
+    long h = PRIME64_5;
+    h = text(h, record.nomeDep());
+    h = text(h, record.de());
+    h = text(h, record.mun());
+    h = text(h, record.distr());
+    h = text(h, record.nomesc());
+    h = lane(h, record.tipoesc() == null ? NULL_LANE : record.tipoesc());
+    h = text(h, record.tipoescDesc());
+    h = lane(h, record.codSit() == null ? NULL_LANE : record.codSit());
+    h = lane(h, metrics(record.metrics()));
+
+    long hash = avalanche(h);
+    return hash == 0 ? 1 : hash;
+  }
+
+  private static long metrics(SchoolMetrics metrics) {
+    long sum = metrics.size();
+    for (int i = 0; i < metrics.size(); i++) {
+      long key = ((long) metrics.column(i).ordinal() << 32) ^ PRIME64_4;
+      sum += round(key, metrics.value(i));
+    }
+    return sum;
+  }
+
+  private static long text(long h, String value) {
+    if (value == null) {
+      return lane(h, NULL_LANE);
+    }
+    int length = value.length();
+    h = lane(h, length);
+    int i = 0;
+    for (; i + 4 <= length; i += 4) {
+      h =
+        lane(
+          h,
+          value.charAt(i) |
+          ((long) value.charAt(i + 1) << 16) |
+          ((long) value.charAt(i + 2) << 32) |
+          ((long) value.charAt(i + 3) << 48)
+        );
+    }
+    if (i < length) {
+      long tail = 0;
+      for (int shift = 0; i < length; i++, shift += 16) {
+        tail |= (long) value.charAt(i) << shift;
+      }
+      h = lane(h, tail);
+    }
+    return h;
+  }
+
+  private static long round(long acc, long input) {
+    acc += input * PRIME64_2;
+    acc = Long.rotateLeft(acc, 31);
+    return acc * PRIME64_1;
+  }
+
+  private static long lane(long h, long input) {
+    h ^= round(0, input);
+    return Long.rotateLeft(h, 27) * PRIME64_1 + PRIME64_4;
+  }
+
+  private static long avalanche(long h) {
+    h ^= h >>> 33;
+    h *= PRIME64_2;
+    h ^= h >>> 29;
+    h *= PRIME64_3;
+    h ^= h >>> 32;
+    return h;
+  }
+}
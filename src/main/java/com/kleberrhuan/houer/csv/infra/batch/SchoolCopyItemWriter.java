@@ -0,0 +1,91 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.infra.observability.ImportPipelineMetrics;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writer alternativo ao {@link SchoolItemWriter}: envia o chunk inteiro pelo {@link SchoolCopyLoader}, um {@code COPY}
+ * para staging e um upsert set-based por tabela. Roda na conexão da transação do chunk, então rollback e retry
+ * continuam valendo.
+ */
+@Component
+@StepScope
+@ConditionalOnProperty(name = "app.csv.import.writer", havingValue = "copy")
+@RequiredArgsConstructor
+@Slf4j
+public class SchoolCopyItemWriter implements ItemWriter<CsvSchoolRecord> {
+
+  private final SchoolCopyLoader copyLoader;
+  private final SchoolImportDeltaRegistry deltaRegistry;
+  private final ImportPipelineMetrics pipelineMetrics;
+
+  @Value("#{jobParameters['userId']}")
+  private Long userId;
+
+  @Value("#{jobParameters['jobId']}")
+  private String jobId;
+
+  @Override
+  public void write(Chunk<? extends CsvSchoolRecord> chunk) {
+    var items = chunk.getItems();
+    if (items.isEmpty()) {
+      return;
+    }
+
+    log.info("Iniciando escrita via COPY de {} itens", items.size());
+
+    long start = System.nanoTime();
+    ChunkDelta chunkDelta = new ChunkDelta(
+      jobId == null ? null : deltaRegistry.find(UUID.fromString(jobId))
+    );
+    copyLoader.load(items, chunkDelta, userId);
+    chunkDelta.commitAfterTransaction();
+    recordStages(items.size(), chunkDelta, System.nanoTime() - start);
+
+    log.info(
+      "Finalizou escrita via COPY de {} itens ({} inalterados ignorados)",
+      items.size(),
+      chunkDelta.unchanged()
+    );
+  }
+
+  String buildCopyPayload(Iterable<? extends CsvSchoolRecord> items) {
+    return buildCopyPayload(items, new ChunkDelta(null));
+  }
+
+  String buildCopyPayload(
+    Iterable<? extends CsvSchoolRecord> items,
+    ChunkDelta chunkDelta
+  ) {
+    return copyLoader.buildCopyPayload(items, chunkDelta);
+  }
+
+  private void recordStages(int size, ChunkDelta chunkDelta, long nanos) {
+    if (jobId == null) {
+      return;
+    }
+    UUID id = UUID.fromString(jobId);
+    pipelineMetrics.recordStage(
+      id,
+      ImportPipelineMetrics.Stage.DEDUP,
+      chunkDelta.classified(),
+      chunkDelta.nanos()
+    );
+    pipelineMetrics.recordStage(
+      id,
+      ImportPipelineMetrics.Stage.WRITE,
+      size - chunkDelta.unchanged(),
+      nanos - chunkDelta.nanos()
+    );
+  }
+}
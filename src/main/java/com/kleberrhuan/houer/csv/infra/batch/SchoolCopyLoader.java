@@ -0,0 +1,238 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.domain.model.SchoolMetrics;
+import com.kleberrhuan.houer.csv.infra.exception.CsvProcessingException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Grava um lote de escolas com um {@code COPY} para uma tabela temporária (não logada, esvaziada no commit) e um
+ * upsert set-based em {@code school.school} e {@code school.school_metrics_jsonb}. Usa a conexão da transação
+ * corrente, que precisa existir: é nela que a tabela de staging e a marcação de importação valem.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchoolCopyLoader {
+
+  private static final String CREATE_STAGING_SQL =
+    """
+      CREATE TEMP TABLE IF NOT EXISTS school_import_staging (
+          seq           INTEGER NOT NULL,
+          code          BIGINT NOT NULL,
+          nome_esc      TEXT,
+          nome_dep      TEXT,
+          de            TEXT,
+          mun           TEXT,
+          distr         TEXT,
+          tipo_esc      SMALLINT,
+          tipo_esc_desc TEXT,
+          codsit        SMALLINT,
+          content_hash  BIGINT,
+          metrics       JSONB
+      ) ON COMMIT DELETE ROWS
+      """;
+
+  private static final String COPY_SQL =
+    """
+      COPY pg_temp.school_import_staging
+          (seq, code, nome_esc, nome_dep, de, mun, distr, tipo_esc, tipo_esc_desc, codsit, content_hash, metrics)
+      FROM STDIN
+      """;
+
+  // DISTINCT ON mantém a última ocorrência do código no chunk, como o upsert linha a linha fazia.
+  private static final String MERGE_SCHOOL_SQL =
+    """
+      INSERT INTO school.school (code, nome_esc, nome_dep, de, mun, distr, tipo_esc, tipo_esc_desc, codsit, codesc, content_hash, created_at, updated_at, created_by, updated_by)
+      SELECT DISTINCT ON (code)
+          code, nome_esc, nome_dep, de, mun, distr, tipo_esc, tipo_esc_desc, codsit, code, content_hash,
+          CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, ?, ?
+      FROM pg_temp.school_import_staging
+      ORDER BY code, seq DESC
+      ON CONFLICT (code)
+      DO UPDATE SET
+          nome_esc = EXCLUDED.nome_esc,
+          nome_dep = EXCLUDED.nome_dep,
+          de = EXCLUDED.de,
+          mun = EXCLUDED.mun,
+          distr = EXCLUDED.distr,
+          tipo_esc = EXCLUDED.tipo_esc,
+          tipo_esc_desc = EXCLUDED.tipo_esc_desc,
+          codsit = EXCLUDED.codsit,
+          codesc = EXCLUDED.codesc,
+          content_hash = EXCLUDED.content_hash,
+          updated_at = CURRENT_TIMESTAMP,
+          updated_by = EXCLUDED.updated_by
+      """;
+
+  private static final String MERGE_METRICS_SQL =
+    """
+      INSERT INTO school.school_metrics_jsonb (school_code, metrics, created_at, updated_at, created_by, updated_by)
+      SELECT DISTINCT ON (code)
+          code, metrics, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, ?, ?
+      FROM pg_temp.school_import_staging
+      WHERE metrics IS NOT NULL
+      ORDER BY code, seq DESC
+      ON CONFLICT (school_code)
+      DO UPDATE SET
+          metrics = COALESCE(school.school_metrics_jsonb.metrics, '{}'::jsonb) || EXCLUDED.metrics,
+          updated_at = CURRENT_TIMESTAMP,
+          updated_by = EXCLUDED.updated_by
+      """;
+
+  private static final String MARK_IMPORT_SQL =
+    "SELECT set_config('app.csv_import', 'on', true)";
+
+  private static final String NULL = "\\N";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /** Grava os itens que o {@code chunkDelta} aprova e devolve quantas linhas foram enviadas. */
+  int load(
+    Iterable<? extends CsvSchoolRecord> items,
+    ChunkDelta chunkDelta,
+    Long userId
+  ) {
+    StringBuilder payload = new StringBuilder(16 * 1024);
+    int rows = appendPayload(payload, items, chunkDelta);
+    if (rows > 0) {
+      jdbcTemplate.execute(
+        (ConnectionCallback<Void>) connection -> {
+          writeStaged(connection, payload.toString(), userId);
+          return null;
+        }
+      );
+    }
+    return rows;
+  }
+
+  private void writeStaged(Connection connection, String payload, Long userId)
+    throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(CREATE_STAGING_SQL);
+      statement.execute(MARK_IMPORT_SQL);
+    }
+
+    CopyManager copyManager = connection
+      .unwrap(PGConnection.class)
+      .getCopyAPI();
+
+    try {
+      long copied = copyManager.copyIn(COPY_SQL, new StringReader(payload));
+      log.debug("{} linhas copiadas para staging", copied);
+    } catch (IOException e) {
+      throw new CsvProcessingException(
+        "Erro ao enviar chunk via COPY: " + e.getMessage(),
+        e
+      );
+    }
+
+    int schools = executeMerge(connection, MERGE_SCHOOL_SQL, userId);
+    int metrics = executeMerge(connection, MERGE_METRICS_SQL, userId);
+    log.debug(
+      "Merge do chunk concluído: {} escolas, {} registros de métricas",
+      schools,
+      metrics
+    );
+  }
+
+  private int executeMerge(Connection connection, String sql, Long userId)
+    throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setObject(1, userId);
+      statement.setObject(2, userId);
+      return statement.executeUpdate();
+    }
+  }
+
+  String buildCopyPayload(
+    Iterable<? extends CsvSchoolRecord> items,
+    ChunkDelta chunkDelta
+  ) {
+    StringBuilder sb = new StringBuilder(16 * 1024);
+    appendPayload(sb, items, chunkDelta);
+    return sb.toString();
+  }
+
+  private static int appendPayload(
+    StringBuilder sb,
+    Iterable<? extends CsvSchoolRecord> items,
+    ChunkDelta chunkDelta
+  ) {
+    int seq = 0;
+    for (CsvSchoolRecord item : items) {
+      Long code = parseCode(item.codesc());
+      if (code == null) {
+        log.warn("Código da escola inválido: {}", item.codesc());
+        continue;
+      }
+      long contentHash = SchoolContentHash.of(item);
+      if (!chunkDelta.shouldWrite(code, contentHash)) {
+        continue;
+      }
+
+      sb.append(seq++).append('\t').append(code).append('\t');
+      appendText(sb, item.nomesc()).append('\t');
+      appendText(sb, item.nomeDep()).append('\t');
+      appendText(sb, item.de()).append('\t');
+      appendText(sb, item.mun()).append('\t');
+      appendText(sb, item.distr()).append('\t');
+      appendNumber(sb, item.tipoesc()).append('\t');
+      appendText(sb, item.tipoescDesc()).append('\t');
+      appendNumber(sb, item.codSit()).append('\t');
+      sb.append(contentHash).append('\t');
+      appendMetrics(sb, item.metrics()).append('\n');
+    }
+    return seq;
+  }
+
+  static Long parseCode(String codesc) {
+    try {
+      return Long.parseLong(codesc);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static StringBuilder appendNumber(StringBuilder sb, Number value) {
+    return value == null ? sb.append(NULL) : sb.append(value.longValue());
+  }
+
+  /** Escapa o valor para o formato texto do COPY (barra invertida, tab e quebras de linha). */
+  private static StringBuilder appendText(StringBuilder sb, String value) {
+    if (value == null) {
+      return sb.append(NULL);
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\' -> sb.append("\\\\");
+        case '\t' -> sb.append("\\t");
+        case '\n' -> sb.append("\\n");
+        case '\r' -> sb.append("\\r");
+        default -> sb.append(c);
+      }
+    }
+    return sb;
+  }
+
+  private static StringBuilder appendMetrics(
+    StringBuilder sb,
+    SchoolMetrics metrics
+  ) {
+    return metrics.isEmpty() ? sb.append(NULL) : metrics.appendJson(sb);
+  }
+}
@@ -0,0 +1,234 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.csv.application.parser.CsvByteTokenizer;
+import com.kleberrhuan.houer.csv.infra.exception.CsvProcessingException;
+import com.kleberrhuan.houer.csv.infra.storage.CompressionFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+/**
+ * Divide o CSV armazenado em faixas de bytes alinhadas a início de registro. O arquivo é varrido uma única vez pelo
+ * {@link CsvByteTokenizer} para montar o índice de registros, respeitando quebras de linha entre aspas; cada partição
+ * recebe {@code [startOffset, endOffset)} e é lida por um {@link SchoolRangeItemReader} próprio, com contexto de
+ * restart independente. Arquivos compactados não
+ * permitem acesso aleatório: viram uma única partição que vai do fim do cabeçalho até o fim do conteúdo.
+ *
+ * <p>Com um {@link SchoolKeySorter}, as linhas são antes ordenadas e deduplicadas por CODESC e cada partição recebe uma
+ * faixa contígua do arquivo de chaves, lida pelo {@link SchoolSortedItemReader}: cada worker escreve um intervalo de
+ * códigos em ordem crescente, o que mantém as inserções próximas no índice da chave primária. As linhas duplicadas
+ * descartadas na ordenação nunca chegam a um worker; a quantidade vai para {@code discardedDuplicates}, para que o
+ * progresso do job ainda alcance o total de linhas válidas.
+ */
+@Slf4j
+public class SchoolFilePartitioner implements Partitioner {
+
+  public static final String START_OFFSET_KEY = "startOffset";
+  public static final String END_OFFSET_KEY = "endOffset";
+  public static final String LINE_COUNT_KEY = "lineCount";
+  public static final String KEYS_FILE_KEY = "keysFile";
+  public static final String KEY_FROM_KEY = "keyFrom";
+  public static final String KEY_TO_KEY = "keyTo";
+  public static final String PARTITION_PREFIX = "partition";
+
+  private final Path file;
+  private final SchoolKeySorter keySorter;
+  private final Path keysFile;
+  private final LongConsumer discardedDuplicates;
+
+  public SchoolFilePartitioner(Path file) {
+    this(file, null, null);
+  }
+
+  public SchoolFilePartitioner(
+    Path file,
+    SchoolKeySorter keySorter,
+    Path keysFile
+  ) {
+    this(file, keySorter, keysFile, duplicates -> {});
+  }
+
+  public SchoolFilePartitioner(
+    Path file,
+    SchoolKeySorter keySorter,
+    Path keysFile,
+    LongConsumer discardedDuplicates
+  ) {
+    this.file = file;
+    this.keySorter = keySorter;
+    this.keysFile = keysFile;
+    this.discardedDuplicates = discardedDuplicates;
+  }
+
+  @Override
+  public Map<String, ExecutionContext> partition(int gridSize) {
+    CompressionFormat format = CompressionFormat.fromFilename(
+      file.getFileName().toString()
+    );
+    if (format.isCompressed()) {
+      return singlePartition(format);
+    }
+    if (keySorter != null) {
+      return sortedPartitions(gridSize);
+    }
+
+    LineIndex index = buildLineIndex();
+    Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+
+    int lines = index.count();
+    int parts = Math.max(1, Math.min(gridSize, lines));
+    long dataStart = lines == 0 ? index.fileSize() : index.offsetAt(0);
+    long dataBytes = index.fileSize() - dataStart;
+
+    int firstLine = 0;
+    for (int p = 0; p < parts; p++) {
+      int lastLine;
+      if (p == parts - 1) {
+        lastLine = lines;
+      } else {
+        long target = dataStart + (dataBytes * (p + 1)) / parts;
+        lastLine = Math.max(firstLine + 1, index.firstLineAtOrAfter(target));
+        lastLine = Math.min(lastLine, lines - (parts - p - 1));
+      }
+
+      long start = firstLine < lines ? index.offsetAt(firstLine) : dataStart;
+      long end = lastLine < lines ? index.offsetAt(lastLine) : index.fileSize();
+
+      ExecutionContext context = new ExecutionContext();
+      context.putLong(START_OFFSET_KEY, start);
+      context.putLong(END_OFFSET_KEY, end);
+      context.putInt(LINE_COUNT_KEY, lastLine - firstLine);
+      partitions.put(PARTITION_PREFIX + p, context);
+
+      firstLine = lastLine;
+    }
+
+    log.info(
+      "Arquivo {} dividido em {} partições ({} linhas, {} bytes)",
+      file.getFileName(),
+      partitions.size(),
+      lines,
+      index.fileSize()
+    );
+    return partitions;
+  }
+
+  private Map<String, ExecutionContext> sortedPartitions(int gridSize) {
+    SchoolKeySorter.SortedKeys keys = keySorter.sort(file, keysFile);
+    if (keys.duplicates() > 0) {
+      discardedDuplicates.accept(keys.duplicates());
+    }
+    Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+
+    long count = keys.count();
+    int parts = (int) Math.max(1, Math.min(gridSize, count));
+    for (int p = 0; p < parts; p++) {
+      long from = count * p / parts;
+      long to = count * (p + 1) / parts;
+
+      ExecutionContext context = new ExecutionContext();
+      context.putString(KEYS_FILE_KEY, keysFile.toString());
+      context.putLong(KEY_FROM_KEY, from);
+      context.putLong(KEY_TO_KEY, to);
+      context.putInt(LINE_COUNT_KEY, Math.toIntExact(to - from));
+      partitions.put(PARTITION_PREFIX + p, context);
+    }
+
+    log.info(
+      "Arquivo {} dividido em {} partições por faixa de CODESC ({} escolas, {} duplicadas descartadas)",
+      file.getFileName(),
+      partitions.size(),
+      count,
+      keys.duplicates()
+    );
+    return partitions;
+  }
+
+  private Map<String, ExecutionContext> singlePartition(
+    CompressionFormat format
+  ) {
+    ExecutionContext context = new ExecutionContext();
+    context.putLong(START_OFFSET_KEY, headerLength(format));
+    context.putLong(END_OFFSET_KEY, Long.MAX_VALUE);
+
+    log.info(
+      "Arquivo compactado {} ({}) lido em uma única partição",
+      file.getFileName(),
+      format
+    );
+    return Map.of(PARTITION_PREFIX + 0, context);
+  }
+
+  /**
+   * Bytes do cabeçalho, incluindo a quebra de linha, no conteúdo descompactado. Lido pelo {@link CsvByteTokenizer} para
+   * que um nome de coluna entre aspas com quebra de linha não corte o cabeçalho ao meio.
+   */
+  private long headerLength(CompressionFormat format) {
+    try (
+      CsvByteTokenizer tokenizer = new CsvByteTokenizer(
+        format.decode(Files.newInputStream(file))
+      )
+    ) {
+      tokenizer.nextRow();
+      return tokenizer.position();
+    } catch (IOException e) {
+      throw new CsvProcessingException(
+        "Erro ao ler cabeçalho do arquivo compactado: " + e.getMessage(),
+        e
+      );
+    }
+  }
+
+  /**
+   * Registra o offset de início de cada registro de dados (após o cabeçalho). Os registros vêm do
+   * {@link CsvByteTokenizer}, e não de cada {@code '\n'}: campo entre aspas pode conter quebras de linha, e uma faixa
+   * que começasse no meio dele seria lida errada dos dois lados.
+   */
+  LineIndex buildLineIndex() {
+    try (
+      CsvByteTokenizer tokenizer = new CsvByteTokenizer(
+        Files.newInputStream(file)
+      )
+    ) {
+      long[] offsets = new long[1024];
+      int count = 0;
+
+      if (tokenizer.nextRow()) {
+        long rowStart = tokenizer.position();
+        while (tokenizer.nextRow()) {
+          if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+          }
+          offsets[count++] = rowStart;
+          rowStart = tokenizer.position();
+        }
+      }
+      return new LineIndex(offsets, count, Files.size(file));
+    } catch (IOException e) {
+      throw new CsvProcessingException(
+        "Erro ao indexar arquivo CSV: " + e.getMessage(),
+        e
+      );
+    }
+  }
+
+  record LineIndex(long[] offsets, int count, long fileSize) {
+    long offsetAt(int line) {
+      return offsets[line];
+    }
+
+    /** Primeira linha cujo início é {@code >= target}; {@code count} se não houver. */
+    int firstLineAtOrAfter(long target) {
+      int pos = Arrays.binarySearch(offsets, 0, count, target);
+      return pos >= 0 ? pos : -pos - 1;
+    }
+  }
+}
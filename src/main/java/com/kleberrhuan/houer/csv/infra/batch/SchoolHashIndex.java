@@ -0,0 +1,94 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+/**
+ * Mapa {@code code → content_hash} em dois {@code long[]} com endereçamento aberto. Montado uma vez no início do job
+ * e só lido durante os steps, então pode ser compartilhado pelas partições sem sincronização. Valor {@code 0} indica
+ * escola existente sem hash gravado.
+ */
+final class SchoolHashIndex {
+
+  private static final float LOAD_FACTOR = 0.75f;
+
+  private long[] keys;
+  private long[] values;
+  private boolean[] used;
+  private int size;
+  private int mask;
+
+  SchoolHashIndex(int expected) {
+    int capacity = 16;
+    while (capacity * LOAD_FACTOR < expected) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  void put(long code, long hash) {
+    int slot = slot(code);
+    if (used[slot]) {
+      values[slot] = hash;
+      return;
+    }
+    used[slot] = true;
+    keys[slot] = code;
+    values[slot] = hash;
+    if (++size > keys.length * LOAD_FACTOR) {
+      rehash(keys.length << 1);
+    }
+  }
+
+  boolean contains(long code) {
+    return used[slot(code)];
+  }
+
+  /** Hash gravado para a escola; {@code 0} se ela não existe ou não tem hash. */
+  long get(long code) {
+    int slot = slot(code);
+    return used[slot] ? values[slot] : 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  private int slot(long code) {
+    int slot = mix(code) & mask;
+    while (used[slot] && keys[slot] != code) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private static int mix(long key) {
+    long h = key;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return (int) h;
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new long[capacity];
+    used = new boolean[capacity];
+    mask = capacity - 1;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    long[] oldValues = values;
+    boolean[] oldUsed = used;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        int slot = slot(oldKeys[i]);
+        used[slot] = true;
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estado delta de uma importação: hashes conhecidos no início do job e contadores de escolas novas, alteradas e
+ * inalteradas. Compartilhado pelas partições do job.
+ */
+public final class SchoolImportDelta {
+
+  public enum Change {
+    INSERTED,
+    UPDATED,
+    UNCHANGED,
+  }
+
+  private final SchoolHashIndex knownHashes;
+  private final LongAdder inserted = new LongAdder();
+  private final LongAdder updated = new LongAdder();
+  private final LongAdder unchanged = new LongAdder();
+
+  SchoolImportDelta(SchoolHashIndex knownHashes) {
+    this.knownHashes = knownHashes;
+  }
+
+  public Change classify(long code, long contentHash) {
+    if (!knownHashes.contains(code)) {
+      return Change.INSERTED;
+    }
+    return knownHashes.get(code) == contentHash
+      ? Change.UNCHANGED
+      : Change.UPDATED;
+  }
+
+  public void count(Change change, int amount) {
+    switch (change) {
+      case INSERTED -> inserted.add(amount);
+      case UPDATED -> updated.add(amount);
+      case UNCHANGED -> unchanged.add(amount);
+    }
+  }
+
+  public int knownSchools() {
+    return knownHashes.size();
+  }
+
+  public long inserted() {
+    return inserted.sum();
+  }
+
+  public long updated() {
+    return updated.sum();
+  }
+
+  public long unchanged() {
+    return unchanged.sum();
+  }
+}
@@ -0,0 +1,141 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carrega os hashes de conteúdo conhecidos uma vez por job e os entrega aos writers de cada partição. Cada
+ * {@link #open} conta uma referência; o delta é descartado no último {@link #close}. A carga roda fora do
+ * {@code compute} do mapa, para não segurar o lock do bin durante o {@code SELECT} da tabela inteira; as partições do
+ * mesmo job esperam pela carga de quem abriu primeiro.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchoolImportDeltaRegistry {
+
+  private static final String COUNT_SQL = "SELECT COUNT(*) FROM school.school";
+  private static final String LOAD_SQL =
+    "SELECT code, content_hash FROM school.school";
+  private static final String LOAD_CODES_SQL =
+    "SELECT code, content_hash FROM school.school WHERE code = ANY(?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Map<UUID, Entry> deltas = new ConcurrentHashMap<>();
+
+  public SchoolImportDelta open(UUID jobId) {
+    Entry entry = deltas.compute(
+      jobId,
+      (id, current) -> {
+        Entry opened = current == null ? new Entry() : current;
+        opened.references++;
+        return opened;
+      }
+    );
+    try {
+      return entry.delta(this::load);
+    } catch (RuntimeException e) {
+      close(jobId);
+      throw e;
+    }
+  }
+
+  /** Delta do job ou {@code null} se ele não foi aberto (o writer grava tudo). */
+  public SchoolImportDelta find(UUID jobId) {
+    Entry entry = deltas.get(jobId);
+    return entry == null ? null : entry.delta;
+  }
+
+  /** Solta uma referência. Devolve o delta só quando era a última, ou {@code null}. */
+  public SchoolImportDelta close(UUID jobId) {
+    SchoolImportDelta[] released = new SchoolImportDelta[1];
+    deltas.computeIfPresent(
+      jobId,
+      (id, entry) -> {
+        if (--entry.references > 0) {
+          return entry;
+        }
+        released[0] = entry.delta;
+        return null;
+      }
+    );
+    return released[0];
+  }
+
+  /**
+   * Delta só com os hashes das escolas informadas, fora do registro de jobs. Para lotes pequenos, buscar por código
+   * sai mais barato que carregar a tabela inteira.
+   */
+  public SchoolImportDelta forCodes(long[] codes) {
+    SchoolHashIndex index = new SchoolHashIndex(codes.length);
+    if (codes.length > 0) {
+      Long[] boxed = Arrays.stream(codes).boxed().toArray(Long[]::new);
+      jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(
+            LOAD_CODES_SQL
+          );
+          statement.setArray(1, connection.createArrayOf("bigint", boxed));
+          return statement;
+        },
+        (RowCallbackHandler) rs -> index.put(rs.getLong(1), rs.getLong(2))
+      );
+    }
+    return new SchoolImportDelta(index);
+  }
+
+  private SchoolImportDelta load() {
+    long start = System.nanoTime();
+    Long expected = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+    SchoolHashIndex index = new SchoolHashIndex(
+      expected == null ? 0 : Math.toIntExact(expected)
+    );
+
+    // content_hash NULL vira 0: escola existente que precisa ser regravada
+    jdbcTemplate.query(
+      LOAD_SQL,
+      (RowCallbackHandler) rs -> index.put(rs.getLong(1), rs.getLong(2))
+    );
+
+    log.info(
+      "Hashes de {} escolas carregados para importação delta em {}ms",
+      index.size(),
+      (System.nanoTime() - start) / 1_000_000
+    );
+    return new SchoolImportDelta(index);
+  }
+
+  private static final class Entry {
+
+    private final ReentrantLock loading = new ReentrantLock();
+    private volatile SchoolImportDelta delta;
+    private int references;
+
+    private SchoolImportDelta delta(Supplier<SchoolImportDelta> loader) {
+      SchoolImportDelta loaded = delta;
+      if (loaded != null) {
+        return loaded;
+      }
+      loading.lock();
+      try {
+        if (delta == null) {
+          delta = loader.get();
+        }
+        return delta;
+      } finally {
+        loading.unlock();
+      }
+    }
+  }
+}
@@ -4,6 +4,7 @@ package com.kleberrhuan.houer.csv.infra.batch;
 import com.kleberrhuan.houer.csv.application.service.CsvColumnMetadataService;
 import com.kleberrhuan.houer.csv.domain.model.CsvSchoolColumn;
 import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.domain.model.MetricLayout;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,19 +21,26 @@ public class SchoolItemProcessor
 
   private final CsvColumnMetadataService metadataService;
 
+  // Layouts são compartilhados por todas as linhas do arquivo: basta validá-los uma vez
+  private volatile MetricLayout lastValidatedLayout;
+
   @Override
   public CsvSchoolRecord process(CsvSchoolRecord item) {
+    MetricLayout layout = item.metrics().layout();
+    if (layout == lastValidatedLayout) {
+      return item;
+    }
+
     Set<CsvSchoolColumn> validMetrics = metadataService.getMetricColumns();
-    item
-      .metrics()
-      .keySet()
-      .forEach(metricCol -> {
-        if (!validMetrics.contains(metricCol)) {
-          throw new IllegalArgumentException(
-            "Métrica inválida: " + metricCol.name() + " - " + item
-          );
-        }
-      });
+    for (int i = 0; i < layout.size(); i++) {
+      CsvSchoolColumn metricCol = layout.column(i);
+      if (!validMetrics.contains(metricCol)) {
+        throw new IllegalArgumentException(
+          "Métrica inválida: " + metricCol.name() + " - " + item
+        );
+      }
+    }
+    lastValidatedLayout = layout;
 
     return item;
   }
@@ -1,102 +1,155 @@
 /* (C)2025 Kleber Rhuan */
 package com.kleberrhuan.houer.csv.infra.batch;
 
+import com.kleberrhuan.houer.csv.application.parser.CsvByteTokenizer;
+import com.kleberrhuan.houer.csv.application.validator.CompositeRowValidator;
 import com.kleberrhuan.houer.csv.domain.factory.CsvSchoolRecordFactory;
 import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import com.kleberrhuan.houer.csv.domain.repository.CsvImportJobRepository;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties.DedupMode;
+import com.kleberrhuan.houer.csv.infra.storage.CompressionFormat;
+import java.io.IOException;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
-import java.util.function.Function;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.function.Predicate;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.configuration.annotation.StepScope;
-import org.springframework.batch.item.file.FlatFileItemReader;
-import org.springframework.batch.item.file.LineMapper;
-import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
-import org.springframework.batch.item.file.mapping.DefaultLineMapper;
-import org.springframework.batch.item.file.mapping.FieldSetMapper;
-import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 
 @Configuration
 @RequiredArgsConstructor
 @Slf4j
 public class SchoolItemReader {
 
+  private final CompositeRowValidator rowValidator;
+  private final CsvImportProperties importProperties;
+  private final ImportJobRepositoryProvider jobRepositories;
+  private final CsvImportJobRepository importJobRepository;
+  private final ImportProgressTracker progressTracker;
+
+  @Bean
+  @StepScope
+  public Partitioner schoolFilePartitioner(
+    @Value("#{jobParameters['fileUri']}") @NonNull String fileUriString,
+    @Value("#{jobParameters['jobId']}") String jobId
+  ) throws IOException {
+    SchoolFilePartitioner partitioner = filePartitioner(
+      Path.of(URI.create(fileUriString)),
+      jobId
+    );
+    if (jobId == null || !jobRepositories.isLightweight()) {
+      return partitioner;
+    }
+
+    UUID id = UUID.fromString(jobId);
+    return new CheckpointPartitioner(
+      id,
+      partitioner,
+      importJobRepository.findCheckpoint(id).orElse(null),
+      progressTracker
+    );
+  }
+
+  private SchoolFilePartitioner filePartitioner(Path file, String jobId)
+    throws IOException {
+    CsvImportProperties.ExternalSort externalSort =
+      importProperties.getExternalSort();
+    boolean compressed = CompressionFormat
+      .fromFilename(file.getFileName().toString())
+      .isCompressed();
+    if (
+      jobId == null || compressed || !externalSort.accepts(Files.size(file))
+    ) {
+      return new SchoolFilePartitioner(file);
+    }
+
+    // Última ocorrência, como o upsert na ordem do arquivo faz nos demais caminhos; as descartadas contam como processadas
+    UUID id = UUID.fromString(jobId);
+    return new SchoolFilePartitioner(
+      file,
+      SchoolKeySorter.withMemoryBudget(
+        externalSort.getMemoryBudget(),
+        DedupMode.LAST_WINS
+      ),
+      SchoolKeySorter.keysFile(file, id),
+      duplicates -> progressTracker.recordChunk(id, duplicates, 0)
+    );
+  }
+
   @Bean
   @StepScope
-  public FlatFileItemReader<CsvSchoolRecord> csvSchoolReader(
-    @Value("#{jobParameters['fileUri']}") @NonNull String fileUriString
+  public ItemStreamReader<CsvSchoolRecord> csvSchoolReader(
+    @Value("#{jobParameters['fileUri']}") @NonNull String fileUriString,
+    @Value("#{stepExecutionContext['startOffset']}") Long startOffset,
+    @Value("#{stepExecutionContext['endOffset']}") Long endOffset,
+    @Value("#{stepExecutionContext['keysFile']}") String keysFile,
+    @Value("#{stepExecutionContext['keyFrom']}") Long keyFrom,
+    @Value("#{stepExecutionContext['keyTo']}") Long keyTo,
+    @Value("#{jobParameters['skipInvalidRows']}") String skipInvalidRows,
+    @Value("#{jobParameters['filename']}") String filename
   ) throws Exception {
-    URI fileUri = URI.create(fileUriString);
-    Resource csvResource = new UrlResource(fileUri);
+    Path file = Path.of(URI.create(fileUriString));
 
     String[] headers;
     try (
-      BufferedReader br = new BufferedReader(
-        new InputStreamReader(
-          csvResource.getInputStream(),
-          StandardCharsets.UTF_8
-        )
+      CsvByteTokenizer tokenizer = new CsvByteTokenizer(
+        CompressionFormat
+          .fromFilename(file.getFileName().toString())
+          .decode(Files.newInputStream(file))
       )
     ) {
-      String headerLine = br.readLine();
-      if (headerLine == null) {
+      if (!tokenizer.nextRow()) {
         throw new IllegalStateException("Arquivo CSV vazio");
       }
-      headers = headerLine.split(";");
+      headers = tokenizer.toArray();
+    }
+
+    // Só uploads aceitos com linhas inválidas pagam a revalidação linha a linha
+    Predicate<String[]> rowFilter = Boolean.parseBoolean(skipInvalidRows)
+      ? rowValidator.compile(headers).validRows(filename)
+      : null;
+
+    if (keysFile != null) {
+      log.info(
+        "Configurando reader ordenado para arquivo: {} - entradas {}-{} - {} colunas",
+        file,
+        keyFrom,
+        keyTo,
+        headers.length
+      );
+      return new SchoolSortedItemReader(
+        file,
+        Path.of(keysFile),
+        keyFrom,
+        keyTo,
+        CsvSchoolRecordFactory.createRowMapper(headers),
+        rowFilter
+      );
     }
 
     log.info(
-      "Configurando reader para arquivo: {} (URI: {}) - {} colunas",
-      csvResource,
-      fileUri,
+      "Configurando reader para arquivo: {} - faixa {}-{} - {} colunas",
+      file,
+      startOffset,
+      endOffset,
       headers.length
     );
 
-    return new FlatFileItemReaderBuilder<CsvSchoolRecord>()
-      .name("csvSchoolReader")
-      .resource(csvResource)
-      .linesToSkip(1)
-      .lineMapper(createLineMapper(headers))
-      .saveState(true)
-      .maxItemCount(Integer.MAX_VALUE)
-      .currentItemCount(0)
-      .strict(true)
-      .build();
-  }
-
-  private LineMapper<CsvSchoolRecord> createLineMapper(String[] headers) {
-    DefaultLineMapper<CsvSchoolRecord> lineMapper = new DefaultLineMapper<>();
-    lineMapper.setLineTokenizer(createTokenizer());
-    lineMapper.setFieldSetMapper(createFieldSetMapper(headers));
-    return lineMapper;
-  }
-
-  private DelimitedLineTokenizer createTokenizer() {
-    DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
-    tokenizer.setDelimiter(";");
-    tokenizer.setStrict(false);
-    return tokenizer;
-  }
-
-  private FieldSetMapper<CsvSchoolRecord> createFieldSetMapper(
-    String[] headers
-  ) {
-    return fieldSet -> {
-      String[] values = new String[fieldSet.getFieldCount()];
-      for (int i = 0; i < fieldSet.getFieldCount(); i++) {
-        values[i] = fieldSet.readString(i);
-      }
-      Function<String[], CsvSchoolRecord> mapper =
-        CsvSchoolRecordFactory.createMapper(headers);
-      return mapper.apply(values);
-    };
+    return new SchoolRangeItemReader(
+      file,
+      startOffset,
+      endOffset,
+      CsvSchoolRecordFactory.createRowMapper(headers),
+      rowFilter
+    );
   }
 }
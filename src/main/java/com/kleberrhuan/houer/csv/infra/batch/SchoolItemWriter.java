@@ -1,35 +1,44 @@
 /* (C)2025 Kleber Rhuan */
 package com.kleberrhuan.houer.csv.infra.batch;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.domain.model.SchoolMetrics;
 import com.kleberrhuan.houer.csv.infra.exception.CsvProcessingException;
+import com.kleberrhuan.houer.csv.infra.observability.ImportPipelineMetrics;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.item.Chunk;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 @Component
 @StepScope
+@ConditionalOnProperty(
+  name = "app.csv.import.writer",
+  havingValue = "upsert",
+  matchIfMissing = true
+)
 @RequiredArgsConstructor
 @Slf4j
 public class SchoolItemWriter implements ItemWriter<CsvSchoolRecord> {
 
   private final EntityManager entityManager;
-  private final ObjectMapper objectMapper;
+  private final SchoolImportDeltaRegistry deltaRegistry;
+  private final ImportPipelineMetrics pipelineMetrics;
 
   @Value("#{jobParameters['userId']}")
   private Long userId;
 
+  @Value("#{jobParameters['jobId']}")
+  private String jobId;
+
   @Override
   @Transactional
   public void write(Chunk<? extends CsvSchoolRecord> chunk) {
@@ -37,9 +46,15 @@ public class SchoolItemWriter implements ItemWriter<CsvSchoolRecord> {
 
     log.info("Iniciando escrita de {} itens", items.size());
 
+    long start = System.nanoTime();
+    markImportTransaction();
+    ChunkDelta chunkDelta = new ChunkDelta(
+      jobId == null ? null : deltaRegistry.find(UUID.fromString(jobId))
+    );
+
     for (CsvSchoolRecord item : items) {
       try {
-        writeSchoolAndMetricsWithUpsert(item);
+        writeSchoolAndMetricsWithUpsert(item, chunkDelta);
       } catch (Exception e) {
         log.error(
           "Falha ao processar item {}: {}",
@@ -53,10 +68,26 @@ public class SchoolItemWriter implements ItemWriter<CsvSchoolRecord> {
       }
     }
 
-    log.info("Finalizou escrita de {} itens", items.size());
+    chunkDelta.commitAfterTransaction();
+    recordStages(items.size(), chunkDelta, System.nanoTime() - start);
+    log.info(
+      "Finalizou escrita de {} itens ({} inalterados ignorados)",
+      items.size(),
+      chunkDelta.unchanged()
+    );
   }
 
-  private void writeSchoolAndMetricsWithUpsert(CsvSchoolRecord item) {
+  /** Evita que os triggers de V23 invalidem o hash que a própria importação está gravando. */
+  private void markImportTransaction() {
+    entityManager
+      .createNativeQuery("SELECT set_config('app.csv_import', 'on', true)")
+      .getSingleResult();
+  }
+
+  private void writeSchoolAndMetricsWithUpsert(
+    CsvSchoolRecord item,
+    ChunkDelta chunkDelta
+  ) {
     Long schoolCode;
     try {
       schoolCode = Long.parseLong(item.codesc());
@@ -65,11 +96,16 @@ public class SchoolItemWriter implements ItemWriter<CsvSchoolRecord> {
       return;
     }
 
+    long contentHash = SchoolContentHash.of(item);
+    if (!chunkDelta.shouldWrite(schoolCode, contentHash)) {
+      return;
+    }
+
     // UPSERT para tabela school
     String schoolUpsertSql =
       """
-        INSERT INTO school.school (code, nome_esc, nome_dep, de, mun, distr, tipo_esc, tipo_esc_desc, codsit, codesc, created_at, updated_at, created_by, updated_by)
-        VALUES (:code, :nomeEsc, :nomeDep, :de, :mun, :distr, :tipoEsc, :tipoEscDesc, :codsit, :codesc, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, :userId, :userId)
+        INSERT INTO school.school (code, nome_esc, nome_dep, de, mun, distr, tipo_esc, tipo_esc_desc, codsit, codesc, content_hash, created_at, updated_at, created_by, updated_by)
+        VALUES (:code, :nomeEsc, :nomeDep, :de, :mun, :distr, :tipoEsc, :tipoEscDesc, :codsit, :codesc, :contentHash, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, :userId, :userId)
         ON CONFLICT (code)
         DO UPDATE SET
             nome_esc = EXCLUDED.nome_esc,
@@ -81,6 +117,7 @@ public class SchoolItemWriter implements ItemWriter<CsvSchoolRecord> {
             tipo_esc_desc = EXCLUDED.tipo_esc_desc,
             codsit = EXCLUDED.codsit,
             codesc = EXCLUDED.codesc,
+            content_hash = EXCLUDED.content_hash,
             updated_at = CURRENT_TIMESTAMP,
             updated_by = :userId
         """;
@@ -99,6 +136,7 @@ public class SchoolItemWriter implements ItemWriter<CsvSchoolRecord> {
     schoolQuery.setParameter("tipoEscDesc", item.tipoescDesc());
     schoolQuery.setParameter("codesc", schoolCode);
     schoolQuery.setParameter("codsit", item.codSit());
+    schoolQuery.setParameter("contentHash", contentHash);
     schoolQuery.setParameter("userId", userId);
 
     int schoolRowsAffected = schoolQuery.executeUpdate();
@@ -108,11 +146,7 @@ public class SchoolItemWriter implements ItemWriter<CsvSchoolRecord> {
       schoolRowsAffected
     );
 
-    Map<String, Long> metrics = item
-      .metrics()
-      .entrySet()
-      .stream()
-      .collect(Collectors.toMap(e -> e.getKey().name(), Map.Entry::getValue));
+    SchoolMetrics metrics = item.metrics();
 
     if (!metrics.isEmpty()) {
       String metricsUpsertSql =
@@ -130,8 +164,7 @@ public class SchoolItemWriter implements ItemWriter<CsvSchoolRecord> {
       metricsQuery.setParameter("schoolCode", schoolCode);
       metricsQuery.setParameter("userId", userId);
 
-      String metricsJson = convertMapToJson(metrics);
-      metricsQuery.setParameter("metrics", metricsJson);
+      metricsQuery.setParameter("metrics", metrics.toJson());
 
       int metricsRowsAffected = metricsQuery.executeUpdate();
       log.debug(
@@ -143,12 +176,22 @@ public class SchoolItemWriter implements ItemWriter<CsvSchoolRecord> {
     }
   }
 
-  private String convertMapToJson(Map<String, Long> metrics) {
-    try {
-      return objectMapper.writeValueAsString(metrics);
-    } catch (JsonProcessingException e) {
-      log.error("Erro ao converter métricas para JSON: {}", e.getMessage());
-      throw new CsvProcessingException("Erro ao processar métricas JSON");
+  private void recordStages(int size, ChunkDelta chunkDelta, long nanos) {
+    if (jobId == null) {
+      return;
     }
+    UUID id = UUID.fromString(jobId);
+    pipelineMetrics.recordStage(
+      id,
+      ImportPipelineMetrics.Stage.DEDUP,
+      chunkDelta.classified(),
+      chunkDelta.nanos()
+    );
+    pipelineMetrics.recordStage(
+      id,
+      ImportPipelineMetrics.Stage.WRITE,
+      size - chunkDelta.unchanged(),
+      nanos - chunkDelta.nanos()
+    );
   }
 }
@@ -0,0 +1,423 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.csv.application.parser.CsvByteTokenizer;
+import com.kleberrhuan.houer.csv.domain.factory.CsvSchoolRecordFactory;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolColumn;
+import com.kleberrhuan.houer.csv.infra.exception.CsvProcessingException;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties.DedupMode;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Ordenação externa das linhas de um CSV por CODESC. Uma passada pelo arquivo extrai {@code (código, offset, tamanho)}
+ * de cada linha; blocos de até {@code runEntries} entradas são ordenados em memória (radix sort estável, então linhas
+ * de mesmo código ficam na ordem do arquivo) e gravados em runs temporários, combinados depois por merge de k vias. A
+ * deduplicação acontece no próprio merge, conforme o {@link DedupMode}. O resultado é um arquivo de entradas de
+ * {@value #ENTRY_BYTES} bytes em ordem de chave primária, que o {@link SchoolSortedItemReader} usa para ler as linhas
+ * direto do CSV. Linhas sem CODESC numérico ficam de fora: já foram recusadas na validação do upload.
+ */
+@Slf4j
+public final class SchoolKeySorter {
+
+  /** {@code long} código, {@code long} offset da linha e {@code int} tamanho em bytes. */
+  public static final int ENTRY_BYTES = 20;
+
+  /** Bytes por entrada em memória: os arrays da run e os auxiliares do radix sort. */
+  public static final int ENTRY_MEMORY_BYTES = 2 * ENTRY_BYTES;
+
+  private static final int MIN_RUN_ENTRIES = 1024;
+  private static final int IO_BUFFER = 64 * 1024;
+
+  private final int runEntries;
+  private final boolean lastWins;
+
+  private long[] codes;
+  private long[] offsets;
+  private int[] lengths;
+  private long[] sortCodes;
+  private long[] sortOffsets;
+  private int[] sortLengths;
+
+  public record SortedKeys(
+    Path file,
+    long count,
+    long duplicates,
+    long skipped,
+    int runs
+  ) {}
+
+  public SchoolKeySorter(int runEntries, DedupMode dedupMode) {
+    this.runEntries = Math.max(MIN_RUN_ENTRIES, runEntries);
+    this.lastWins = dedupMode == DedupMode.LAST_WINS;
+  }
+
+  /** Runs do maior tamanho cujas chaves cabem em {@code memoryBudget}. */
+  public static SchoolKeySorter withMemoryBudget(
+    DataSize memoryBudget,
+    DedupMode dedupMode
+  ) {
+    long entries = memoryBudget.toBytes() / ENTRY_MEMORY_BYTES;
+    return new SchoolKeySorter(
+      (int) Math.min(Integer.MAX_VALUE - 8, entries),
+      dedupMode
+    );
+  }
+
+  /** Arquivo de chaves ordenadas do job, ao lado do CSV para que réplicas com o mesmo armazenamento o leiam. */
+  public static Path keysFile(Path csv, UUID jobId) {
+    return csv.resolveSibling(csv.getFileName() + "." + jobId + ".keys");
+  }
+
+  public static void deleteKeys(Path csv, UUID jobId) {
+    try {
+      Files.deleteIfExists(keysFile(csv, jobId));
+    } catch (IOException e) {
+      log.warn(
+        "Falha ao remover chaves ordenadas do job {}: {}",
+        jobId,
+        e.getMessage()
+      );
+    }
+  }
+
+  /** Ordena e deduplica as linhas de {@code csv} em {@code keysFile}, substituindo-o de forma atômica. */
+  public SortedKeys sort(Path csv, Path keysFile) {
+    Path partial = keysFile.resolveSibling(keysFile.getFileName() + ".tmp");
+    List<Path> runs = new ArrayList<>();
+    try {
+      Scan scan = scan(csv, keysFile, runs);
+      long duplicates = scan.duplicates;
+      long count;
+      try (DedupWriter out = new DedupWriter(partial, lastWins)) {
+        if (runs.isEmpty()) {
+          sortRun(scan.pending);
+          writeRun(scan.pending, out);
+        } else {
+          merge(runs, out);
+        }
+        out.flush();
+        count = out.written;
+        duplicates += out.duplicates;
+      }
+      Files.move(
+        partial,
+        keysFile,
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE
+      );
+
+      log.info(
+        "Chaves de {} ordenadas em {} runs: {} linhas, {} duplicadas descartadas, {} sem código",
+        csv.getFileName(),
+        Math.max(1, runs.size()),
+        count,
+        duplicates,
+        scan.skipped
+      );
+      return new SortedKeys(
+        keysFile,
+        count,
+        duplicates,
+        scan.skipped,
+        Math.max(1, runs.size())
+      );
+    } catch (IOException e) {
+      throw new CsvProcessingException(
+        "Erro ao ordenar chaves do arquivo " +
+        csv.getFileName() +
+        ": " +
+        e.getMessage(),
+        e
+      );
+    } finally {
+      releaseBuffers();
+      runs.forEach(SchoolKeySorter::deleteQuietly);
+      deleteQuietly(partial);
+    }
+  }
+
+  /** Lê o CSV uma vez, despejando em disco cada run cheia; a última fica em memória. */
+  private Scan scan(Path csv, Path keysFile, List<Path> runs)
+    throws IOException {
+    Scan scan = new Scan();
+    try (
+      CsvByteTokenizer tokenizer = new CsvByteTokenizer(
+        Files.newInputStream(csv)
+      )
+    ) {
+      if (!tokenizer.nextRow()) {
+        throw new CsvProcessingException("Arquivo CSV vazio");
+      }
+      int codeColumn = CsvSchoolRecordFactory.columnIndex(
+        tokenizer.toArray(),
+        CsvSchoolColumn.CODESC
+      );
+      if (codeColumn < 0) {
+        throw new CsvProcessingException("Arquivo CSV sem coluna CODESC");
+      }
+
+      allocateBuffers();
+      long rowStart = tokenizer.position();
+      while (tokenizer.nextRow()) {
+        long rowEnd = tokenizer.position();
+        long code = codeAt(tokenizer, codeColumn);
+        if (code >= 0) {
+          if (scan.pending == runEntries) {
+            runs.add(spill(keysFile, runs.size(), scan));
+          }
+          codes[scan.pending] = code;
+          offsets[scan.pending] = rowStart;
+          lengths[scan.pending] = Math.toIntExact(rowEnd - rowStart);
+          scan.pending++;
+        } else if (
+          tokenizer.cellCount() > 1 || tokenizer.cellLength(0) > 0
+        ) {
+          scan.skipped++;
+        }
+        rowStart = rowEnd;
+      }
+    }
+    if (!runs.isEmpty() && scan.pending > 0) {
+      runs.add(spill(keysFile, runs.size(), scan));
+    }
+    return scan;
+  }
+
+  private static long codeAt(CsvByteTokenizer tokenizer, int codeColumn) {
+    if (codeColumn >= tokenizer.cellCount()) {
+      return -1;
+    }
+    try {
+      return tokenizer.cellAsLong(codeColumn, -1);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private Path spill(Path keysFile, int index, Scan scan) throws IOException {
+    Path run = keysFile.resolveSibling(
+      keysFile.getFileName() + ".run" + index
+    );
+    sortRun(scan.pending);
+    try (DedupWriter out = new DedupWriter(run, lastWins)) {
+      writeRun(scan.pending, out);
+      out.flush();
+      scan.duplicates += out.duplicates;
+    }
+    scan.pending = 0;
+    return run;
+  }
+
+  private void writeRun(int size, DedupWriter out) throws IOException {
+    for (int i = 0; i < size; i++) {
+      out.add(codes[i], offsets[i], lengths[i]);
+    }
+  }
+
+  /**
+   * Radix sort LSD de 8 bits pelo código. As entradas chegam em ordem de offset e o radix é estável, então o
+   * resultado fica ordenado por {@code (código, offset)}. Passadas em que todos os códigos têm o mesmo byte são puladas.
+   */
+  void sortRun(int size) {
+    if (size < 2) {
+      return;
+    }
+    int[] counts = new int[257];
+    for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+      Arrays.fill(counts, 0);
+      for (int i = 0; i < size; i++) {
+        counts[(int) ((codes[i] >>> shift) & 0xFF) + 1]++;
+      }
+      if (counts[(int) ((codes[0] >>> shift) & 0xFF) + 1] == size) {
+        continue;
+      }
+      for (int b = 0; b < 256; b++) {
+        counts[b + 1] += counts[b];
+      }
+      for (int i = 0; i < size; i++) {
+        int to = counts[(int) ((codes[i] >>> shift) & 0xFF)]++;
+        sortCodes[to] = codes[i];
+        sortOffsets[to] = offsets[i];
+        sortLengths[to] = lengths[i];
+      }
+      swapBuffers();
+    }
+  }
+
+  private void merge(List<Path> runs, DedupWriter out) throws IOException {
+    PriorityQueue<RunReader> queue = new PriorityQueue<>(
+      Comparator
+        .comparingLong((RunReader r) -> r.code)
+        .thenComparingLong(r -> r.offset)
+    );
+    List<RunReader> readers = new ArrayList<>();
+    try {
+      for (Path run : runs) {
+        RunReader reader = new RunReader(run);
+        readers.add(reader);
+        if (reader.advance()) {
+          queue.add(reader);
+        }
+      }
+      while (!queue.isEmpty()) {
+        RunReader reader = queue.poll();
+        out.add(reader.code, reader.offset, reader.length);
+        if (reader.advance()) {
+          queue.add(reader);
+        }
+      }
+    } finally {
+      for (RunReader reader : readers) {
+        reader.close();
+      }
+    }
+  }
+
+  private void allocateBuffers() {
+    codes = new long[runEntries];
+    offsets = new long[runEntries];
+    lengths = new int[runEntries];
+    sortCodes = new long[runEntries];
+    sortOffsets = new long[runEntries];
+    sortLengths = new int[runEntries];
+  }
+
+  private void swapBuffers() {
+    long[] c = codes;
+    codes = sortCodes;
+    sortCodes = c;
+    long[] o = offsets;
+    offsets = sortOffsets;
+    sortOffsets = o;
+    int[] l = lengths;
+    lengths = sortLengths;
+    sortLengths = l;
+  }
+
+  private void releaseBuffers() {
+    codes = null;
+    offsets = null;
+    lengths = null;
+    sortCodes = null;
+    sortOffsets = null;
+    sortLengths = null;
+  }
+
+  private static void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      log.warn("Falha ao remover arquivo temporário {}", path, e);
+    }
+  }
+
+  private static final class Scan {
+
+    private int pending;
+    private long duplicates;
+    private long skipped;
+  }
+
+  /**
+   * Grava entradas já ordenadas por {@code (código, offset)} mantendo uma por código: a primeira ou, em
+   * {@link DedupMode#LAST_WINS}, a última do arquivo.
+   */
+  private static final class DedupWriter implements Closeable {
+
+    private final DataOutputStream out;
+    private final boolean lastWins;
+    private boolean pending;
+    private long code;
+    private long offset;
+    private int length;
+    private long written;
+    private long duplicates;
+
+    private DedupWriter(Path file, boolean lastWins) throws IOException {
+      this.out =
+        new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(file), IO_BUFFER)
+        );
+      this.lastWins = lastWins;
+    }
+
+    private void add(long code, long offset, int length) throws IOException {
+      if (pending && code == this.code) {
+        duplicates++;
+        if (lastWins) {
+          this.offset = offset;
+          this.length = length;
+        }
+        return;
+      }
+      flush();
+      pending = true;
+      this.code = code;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    private void flush() throws IOException {
+      if (pending) {
+        out.writeLong(code);
+        out.writeLong(offset);
+        out.writeInt(length);
+        written++;
+        pending = false;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      out.close();
+    }
+  }
+
+  private static final class RunReader implements Closeable {
+
+    private final DataInputStream in;
+    private long code;
+    private long offset;
+    private int length;
+
+    private RunReader(Path run) throws IOException {
+      this.in =
+        new DataInputStream(
+          new BufferedInputStream(Files.newInputStream(run), IO_BUFFER)
+        );
+    }
+
+    private boolean advance() throws IOException {
+      try {
+        code = in.readLong();
+      } catch (EOFException e) {
+        return false;
+      }
+      offset = in.readLong();
+      length = in.readInt();
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
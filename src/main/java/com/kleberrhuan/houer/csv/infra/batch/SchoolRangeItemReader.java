@@ -0,0 +1,168 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.csv.application.parser.CsvByteTokenizer;
+import com.kleberrhuan.houer.csv.domain.model.CsvRow;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.infra.storage.CompressionFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.file.FlatFileParseException;
+
+/**
+ * Lê somente a faixa {@code [start, end)} do arquivo atribuída a uma partição. Salva o offset em bytes no contexto
+ * do step, de modo que o restart retoma da última linha confirmada sem reler a faixa. Com um {@code rowFilter}, linhas
+ * recusadas por ele ou que falham no mapeamento são descartadas em vez de falhar o step (já constam no relatório de
+ * erros do upload). Em arquivos compactados os offsets são do conteúdo descompactado e o restart descompacta de novo
+ * até o offset salvo. Não é thread-safe: cada partição tem a sua instância.
+ */
+@Slf4j
+public class SchoolRangeItemReader
+  extends ItemStreamSupport
+  implements ItemStreamReader<CsvSchoolRecord> {
+
+  private static final String OFFSET_KEY = "offset";
+  private static final String LINE_KEY = "line";
+
+  private final Path file;
+  private final long start;
+  private final long end;
+  private final Function<CsvRow, CsvSchoolRecord> rowMapper;
+  private final Predicate<String[]> rowFilter;
+
+  private InputStream input;
+  private CsvByteTokenizer tokenizer;
+  private long openedAt;
+  private int lineNumber;
+
+  public SchoolRangeItemReader(
+    Path file,
+    long start,
+    long end,
+    Function<CsvRow, CsvSchoolRecord> rowMapper
+  ) {
+    this(file, start, end, rowMapper, null);
+  }
+
+  public SchoolRangeItemReader(
+    Path file,
+    long start,
+    long end,
+    Function<CsvRow, CsvSchoolRecord> rowMapper,
+    Predicate<String[]> rowFilter
+  ) {
+    this.file = file;
+    this.start = start;
+    this.end = end;
+    this.rowMapper = rowMapper;
+    this.rowFilter = rowFilter;
+    setName("schoolRangeReader");
+  }
+
+  @Override
+  public void open(ExecutionContext executionContext) {
+    openedAt =
+      executionContext.getLong(getExecutionContextKey(OFFSET_KEY), start);
+    lineNumber = executionContext.getInt(getExecutionContextKey(LINE_KEY), 0);
+    try {
+      input = openAt(openedAt);
+      tokenizer = new CsvByteTokenizer(input, end - openedAt);
+    } catch (IOException e) {
+      throw new ItemStreamException("Erro ao abrir faixa do arquivo " + file, e);
+    }
+    if (openedAt != start) {
+      log.info(
+        "Retomando leitura de {} no offset {} (faixa {}-{})",
+        file.getFileName(),
+        openedAt,
+        start,
+        end
+      );
+    }
+  }
+
+  private InputStream openAt(long offset) throws IOException {
+    CompressionFormat format = CompressionFormat.fromFilename(
+      file.getFileName().toString()
+    );
+    if (format.isCompressed()) {
+      InputStream decoded = format.decode(Files.newInputStream(file));
+      decoded.skipNBytes(offset);
+      return decoded;
+    }
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    channel.position(offset);
+    return Channels.newInputStream(channel);
+  }
+
+  @Override
+  public CsvSchoolRecord read() throws Exception {
+    while (true) {
+      if (!tokenizer.nextRow()) {
+        return null;
+      }
+      lineNumber++;
+      if (tokenizer.cellCount() == 1 && tokenizer.cellLength(0) == 0) {
+        continue;
+      }
+      if (rowFilter != null && !rowFilter.test(tokenizer.toArray())) {
+        continue;
+      }
+
+      try {
+        return rowMapper.apply(tokenizer);
+      } catch (Exception e) {
+        if (rowFilter != null) {
+          log.debug(
+            "Linha {} da faixa {} descartada: {}",
+            lineNumber,
+            start,
+            e.getMessage()
+          );
+          continue;
+        }
+        throw new FlatFileParseException(
+          "Erro ao processar linha " + lineNumber + " da faixa " + start,
+          e,
+          String.join(";", tokenizer.toArray()),
+          lineNumber
+        );
+      }
+    }
+  }
+
+  @Override
+  public void update(ExecutionContext executionContext) {
+    executionContext.putLong(
+      getExecutionContextKey(OFFSET_KEY),
+      openedAt + tokenizer.position()
+    );
+    executionContext.putInt(getExecutionContextKey(LINE_KEY), lineNumber);
+  }
+
+  @Override
+  public void close() {
+    try {
+      if (input != null) {
+        input.close();
+      }
+    } catch (IOException e) {
+      throw new ItemStreamException("Erro ao fechar arquivo " + file, e);
+    } finally {
+      input = null;
+      tokenizer = null;
+    }
+  }
+}
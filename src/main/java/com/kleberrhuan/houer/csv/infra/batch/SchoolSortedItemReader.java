@@ -0,0 +1,215 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import com.kleberrhuan.houer.csv.application.parser.CsvByteTokenizer;
+import com.kleberrhuan.houer.csv.domain.model.CsvRow;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.file.FlatFileParseException;
+
+/**
+ * Lê as entradas {@code [from, to)} do arquivo de chaves do {@link SchoolKeySorter} e, para cada uma, a linha
+ * correspondente do CSV pelo offset. As escolas chegam ao writer em ordem de CODESC e sem duplicadas. Salva no
+ * contexto do step a próxima entrada, de modo que o restart retoma da última confirmada. O tratamento de linhas
+ * recusadas pelo {@code rowFilter} é o mesmo do {@link SchoolRangeItemReader}. Não é thread-safe.
+ */
+@Slf4j
+public class SchoolSortedItemReader
+  extends ItemStreamSupport
+  implements ItemStreamReader<CsvSchoolRecord> {
+
+  private static final String INDEX_KEY = "index";
+
+  private final Path file;
+  private final Path keysFile;
+  private final long from;
+  private final long to;
+  private final Function<CsvRow, CsvSchoolRecord> rowMapper;
+  private final Predicate<String[]> rowFilter;
+
+  private FileChannel csv;
+  private DataInputStream keys;
+  private RowInput row;
+  private CsvByteTokenizer tokenizer;
+  private long index;
+
+  public SchoolSortedItemReader(
+    Path file,
+    Path keysFile,
+    long from,
+    long to,
+    Function<CsvRow, CsvSchoolRecord> rowMapper,
+    Predicate<String[]> rowFilter
+  ) {
+    this.file = file;
+    this.keysFile = keysFile;
+    this.from = from;
+    this.to = to;
+    this.rowMapper = rowMapper;
+    this.rowFilter = rowFilter;
+    setName("schoolSortedReader");
+  }
+
+  @Override
+  public void open(ExecutionContext executionContext) {
+    index = executionContext.getLong(getExecutionContextKey(INDEX_KEY), from);
+    try {
+      csv = FileChannel.open(file, StandardOpenOption.READ);
+      FileChannel keysChannel = FileChannel.open(
+        keysFile,
+        StandardOpenOption.READ
+      );
+      keysChannel.position(index * SchoolKeySorter.ENTRY_BYTES);
+      keys =
+        new DataInputStream(
+          new BufferedInputStream(Channels.newInputStream(keysChannel))
+        );
+    } catch (IOException e) {
+      close();
+      throw new ItemStreamException(
+        "Erro ao abrir chaves ordenadas " + keysFile,
+        e
+      );
+    }
+    row = new RowInput();
+    tokenizer = new CsvByteTokenizer(row);
+    if (index != from) {
+      log.info(
+        "Retomando leitura ordenada de {} na entrada {} (faixa {}-{})",
+        file.getFileName(),
+        index,
+        from,
+        to
+      );
+    }
+  }
+
+  @Override
+  public CsvSchoolRecord read() throws Exception {
+    while (index < to) {
+      long offset;
+      int length;
+      try {
+        keys.readLong();
+        offset = keys.readLong();
+        length = keys.readInt();
+      } catch (EOFException e) {
+        throw new ItemStreamException(
+          "Arquivo de chaves " + keysFile + " terminou na entrada " + index,
+          e
+        );
+      }
+      index++;
+
+      row.load(csv, offset, length);
+      if (!tokenizer.nextRow()) {
+        continue;
+      }
+      if (rowFilter != null && !rowFilter.test(tokenizer.toArray())) {
+        continue;
+      }
+
+      try {
+        return rowMapper.apply(tokenizer);
+      } catch (Exception e) {
+        if (rowFilter != null) {
+          log.debug(
+            "Linha no offset {} descartada: {}",
+            offset,
+            e.getMessage()
+          );
+          continue;
+        }
+        throw new FlatFileParseException(
+          "Erro ao processar linha no offset " + offset,
+          e,
+          String.join(";", tokenizer.toArray()),
+          Math.toIntExact(index)
+        );
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void update(ExecutionContext executionContext) {
+    executionContext.putLong(getExecutionContextKey(INDEX_KEY), index);
+  }
+
+  @Override
+  public void close() {
+    try {
+      if (keys != null) {
+        keys.close();
+      }
+      if (csv != null) {
+        csv.close();
+      }
+    } catch (IOException e) {
+      throw new ItemStreamException("Erro ao fechar arquivo " + file, e);
+    } finally {
+      keys = null;
+      csv = null;
+      row = null;
+      tokenizer = null;
+    }
+  }
+
+  /**
+   * Entrada do tokenizador com uma única linha por vez: ao fim da linha ela se esgota, e a próxima carga continua a
+   * alimentar o mesmo tokenizador, sem realocar buffers a cada linha.
+   */
+  private static final class RowInput extends InputStream {
+
+    private byte[] bytes = new byte[4096];
+    private int position;
+    private int limit;
+
+    private void load(FileChannel channel, long offset, int length)
+      throws IOException {
+      if (length > bytes.length) {
+        bytes = new byte[Integer.highestOneBit(length) << 1];
+      }
+      ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, offset + buffer.position()) < 0) {
+          throw new EOFException("Linha além do fim do arquivo: " + offset);
+        }
+      }
+      position = 0;
+      limit = length;
+    }
+
+    @Override
+    public int read() {
+      return position < limit ? bytes[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) {
+      if (position == limit) {
+        return -1;
+      }
+      int n = Math.min(length, limit - position);
+      System.arraycopy(bytes, position, target, offset, n);
+      position += n;
+      return n;
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Libera para restart uma execução que ficou como {@code STARTED} no repositório do Spring Batch porque o processo
+ * caiu no meio do job. Sem isso o relançamento falha com {@code JobExecutionAlreadyRunningException} e o checkpoint
+ * gravado pelos readers nunca é reaproveitado.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StaleImportExecutionRecovery {
+
+  private final JobRepository jobRepository;
+  private final ImportExecutionRegistry executionRegistry;
+
+  /** @return {@code true} se havia uma execução órfã e ela foi marcada como FAILED */
+  public boolean abandonIfStale(
+    String jobName,
+    JobParameters parameters,
+    UUID jobId
+  ) {
+    JobExecution last = jobRepository.getLastJobExecution(jobName, parameters);
+    if (
+      last == null ||
+      !last.getStatus().isRunning() ||
+      executionRegistry.isRunning(jobId)
+    ) {
+      return false;
+    }
+
+    BatchStatus previous = last.getStatus();
+    LocalDateTime now = LocalDateTime.now();
+    for (StepExecution step : last.getStepExecutions()) {
+      if (step.getStatus().isRunning()) {
+        step.setStatus(BatchStatus.FAILED);
+        step.setExitStatus(ExitStatus.FAILED);
+        step.setEndTime(now);
+        jobRepository.update(step);
+      }
+    }
+    last.setStatus(BatchStatus.FAILED);
+    last.setExitStatus(
+      ExitStatus.FAILED.addExitDescription(
+        "Execução interrompida sem finalizar; liberada para restart"
+      )
+    );
+    last.setEndTime(now);
+    jobRepository.update(last);
+
+    log.warn(
+      "Execução {} do job {} estava órfã ({}); marcada como FAILED para retomar do checkpoint",
+      last.getId(),
+      jobId,
+      previous
+    );
+    return true;
+  }
+}
@@ -0,0 +1,97 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch.listener;
+
+import com.kleberrhuan.houer.csv.infra.batch.AdaptiveChunkController;
+import com.kleberrhuan.houer.csv.infra.exception.CsvProcessingException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.RepeatListener;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener das iterações de chunk do worker step. Roda fora da transação do chunk: espera a vaga de worker sem segurar
+ * conexão e mede cada chunk da leitura até o commit para o {@link AdaptiveChunkController}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdaptiveChunkListener implements RepeatListener {
+
+  private final AdaptiveChunkController controller;
+  private final ThreadLocal<ChunkStart> current = new ThreadLocal<>();
+
+  @Override
+  public void before(RepeatContext context) {
+    if (isTerminating(context)) {
+      return;
+    }
+    try {
+      controller.acquireWorker();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CsvProcessingException(
+        "Importação interrompida aguardando worker",
+        e
+      );
+    }
+    current.set(new ChunkStart(System.nanoTime(), readCount()));
+  }
+
+  @Override
+  public void after(RepeatContext context, RepeatStatus result) {
+    ChunkStart start = finish();
+    if (start != null) {
+      controller.recordChunk(
+        readCount() - start.readCount(),
+        System.nanoTime() - start.nanos()
+      );
+    }
+  }
+
+  @Override
+  public void onError(RepeatContext context, Throwable e) {
+    finish();
+  }
+
+  @Override
+  public void close(RepeatContext context) {
+    finish();
+  }
+
+  private ChunkStart finish() {
+    ChunkStart start = current.get();
+    if (start != null) {
+      current.remove();
+      controller.releaseWorker();
+    }
+    return start;
+  }
+
+  /**
+   * O {@link org.springframework.batch.repeat.support.RepeatTemplate} chama todos os listeners mesmo depois que um deles
+   * encerrou a iteração; uma partição que vai terminar não deve esperar vaga de worker.
+   */
+  private static boolean isTerminating(RepeatContext context) {
+    if (context.isCompleteOnly()) {
+      return true;
+    }
+    StepContext stepContext = StepSynchronizationManager.getContext();
+    return (
+      stepContext != null && stepContext.getStepExecution().isTerminateOnly()
+    );
+  }
+
+  private static long readCount() {
+    StepContext context = StepSynchronizationManager.getContext();
+    if (context == null) {
+      return 0;
+    }
+    StepExecution stepExecution = context.getStepExecution();
+    return stepExecution.getReadCount();
+  }
+
+  private record ChunkStart(long nanos, long readCount) {}
+}
@@ -2,10 +2,17 @@
 package com.kleberrhuan.houer.csv.infra.batch.listener;
 
 import static com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Jobs.FILENAME_PARAMETER_NAME;
+import static com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Jobs.FILE_URI_PARAMETER_NAME;
 import static com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Jobs.ID_PARAMETER_NAME;
 
 import com.kleberrhuan.houer.csv.application.service.CsvImportService;
+import com.kleberrhuan.houer.csv.application.service.ImportQueueScheduler;
 import com.kleberrhuan.houer.csv.domain.model.ImportJobStatus;
+import com.kleberrhuan.houer.csv.infra.batch.ImportCancellationRegistry;
+import com.kleberrhuan.houer.csv.infra.batch.ImportExecutionRegistry;
+import com.kleberrhuan.houer.csv.infra.batch.SchoolKeySorter;
+import java.net.URI;
+import java.nio.file.Path;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.UUID;
@@ -23,6 +30,9 @@ import org.springframework.stereotype.Component;
 public class CsvImportJobListener implements JobExecutionListener {
 
   private final CsvImportService importService;
+  private final ImportExecutionRegistry executionRegistry;
+  private final ImportQueueScheduler queueScheduler;
+  private final ImportCancellationRegistry cancellation;
 
   @Override
   public void beforeJob(JobExecution jobExecution) {
@@ -35,6 +45,7 @@ public class CsvImportJobListener implements JobExecutionListener {
 
     if (jobIdStr != null) {
       UUID jobId = UUID.fromString(jobIdStr);
+      executionRegistry.register(jobId);
 
       MDC.put("jobId", jobId.toString());
       if (filename != null) {
@@ -46,7 +57,10 @@ public class CsvImportJobListener implements JobExecutionListener {
         jobId,
         filename
       );
-      updateJobStatus(jobExecution, ImportJobStatus.RUNNING, null);
+      // Cancelado entre a admissão e o início: o step para no primeiro chunk
+      if (!cancellation.checkNow(jobId)) {
+        updateJobStatus(jobExecution, ImportJobStatus.RUNNING, null);
+      }
     }
   }
 
@@ -62,10 +76,19 @@ public class CsvImportJobListener implements JobExecutionListener {
     if (jobIdStr != null) {
       UUID jobId = UUID.fromString(jobIdStr);
 
-      if (jobExecution.getStatus().isUnsuccessful()) {
-        handleJobFailure(jobExecution, jobId, filename);
-      } else {
-        handleJobSuccess(jobExecution, jobId, filename);
+      try {
+        if (cancellation.checkNow(jobId)) {
+          handleJobCancelled(jobExecution, jobId, filename);
+        } else if (jobExecution.getStatus().isUnsuccessful()) {
+          handleJobFailure(jobExecution, jobId, filename);
+        } else {
+          handleJobSuccess(jobExecution, jobId, filename);
+          deleteSortedKeys(jobExecution, jobId);
+        }
+      } finally {
+        executionRegistry.unregister(jobId);
+        cancellation.forget(jobId);
+        queueScheduler.dispatch();
       }
     }
 
@@ -115,6 +138,27 @@ public class CsvImportJobListener implements JobExecutionListener {
     updateJobStatus(jobExecution, ImportJobStatus.FAILED, errorMessage);
   }
 
+  /** O status CANCELLED já foi gravado pelo cancelamento; aqui só se registra onde o job parou. */
+  private void handleJobCancelled(
+    JobExecution jobExecution,
+    UUID jobId,
+    String filename
+  ) {
+    long written = 0;
+    for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+      if (!stepExecution.getStepName().contains(":")) {
+        written += stepExecution.getWriteCount();
+      }
+    }
+    log.info(
+      "Job {} CANCELADO para arquivo {} - Status do batch: {} - Escritos antes de parar: {}",
+      jobId,
+      filename,
+      jobExecution.getStatus(),
+      written
+    );
+  }
+
   private void handleJobSuccess(
     JobExecution jobExecution,
     UUID jobId,
@@ -134,6 +178,10 @@ public class CsvImportJobListener implements JobExecutionListener {
     long totalSkipped = 0;
 
     for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+      // Partições ("step:partitionN") já estão somadas no step gerenciador
+      if (stepExecution.getStepName().contains(":")) {
+        continue;
+      }
       totalRead += stepExecution.getReadCount();
       totalWritten += stepExecution.getWriteCount();
       totalSkipped += stepExecution.getSkipCount();
@@ -150,6 +198,20 @@ public class CsvImportJobListener implements JobExecutionListener {
     );
 
     updateJobStatus(jobExecution, ImportJobStatus.COMPLETED, null);
+    importService.releaseInputFile(jobId);
+  }
+
+  /**
+   * Jobs cancelados ou com falha podem ser retomados com as mesmas partições, então as chaves ordenadas só saem junto
+   * com o arquivo de entrada, no sucesso.
+   */
+  private void deleteSortedKeys(JobExecution jobExecution, UUID jobId) {
+    String fileUri = jobExecution
+      .getJobParameters()
+      .getString(FILE_URI_PARAMETER_NAME);
+    if (fileUri != null) {
+      SchoolKeySorter.deleteKeys(Path.of(URI.create(fileUri)), jobId);
+    }
   }
 
   private void logStepFailures(Iterable<StepExecution> stepExecutions) {
@@ -3,10 +3,9 @@ package com.kleberrhuan.houer.csv.infra.batch.listener;
 
 import static com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Jobs.ID_PARAMETER_NAME;
 
-import com.kleberrhuan.houer.csv.application.service.CsvImportService;
+import com.kleberrhuan.houer.csv.infra.batch.ImportProgressTracker;
+import com.kleberrhuan.houer.csv.infra.observability.ImportPipelineMetrics;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.ExitStatus;
@@ -14,14 +13,17 @@ import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.stereotype.Component;
 
+/**
+ * Abre o acompanhamento de progresso e a telemetria do job antes das partições e, ao final do step gerenciador, grava
+ * o que ainda estava acumulado em memória e remove os medidores do job.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class CsvImportStepListener implements StepExecutionListener {
 
-  private final CsvImportService importService;
-  private final ConcurrentHashMap<UUID, ReentrantLock> progressLocks =
-    new ConcurrentHashMap<>();
+  private final ImportProgressTracker progressTracker;
+  private final ImportPipelineMetrics pipelineMetrics;
 
   @Override
   public void beforeStep(StepExecution stepExecution) {
@@ -30,6 +32,8 @@ public class CsvImportStepListener implements StepExecutionListener {
       .getString(ID_PARAMETER_NAME);
     if (jobIdStr != null) {
       UUID jobId = UUID.fromString(jobIdStr);
+      progressTracker.open(jobId);
+      pipelineMetrics.open(jobId);
       log.info("Iniciando step de importação para job {}", jobId);
     }
   }
@@ -42,40 +46,16 @@ public class CsvImportStepListener implements StepExecutionListener {
 
     if (jobIdStr != null) {
       UUID jobId = UUID.fromString(jobIdStr);
+      progressTracker.close(jobId);
+      pipelineMetrics.close(jobId);
 
-      long readCount = stepExecution.getReadCount();
-      long writeCount = stepExecution.getWriteCount();
-      long skipCount = stepExecution.getSkipCount();
-
-      ReentrantLock lock = progressLocks.computeIfAbsent(
+      log.info(
+        "Step concluído para job {}: lidos={}, escritos={}, errors={}",
         jobId,
-        k -> new ReentrantLock()
+        stepExecution.getReadCount(),
+        stepExecution.getWriteCount(),
+        stepExecution.getSkipCount()
       );
-      lock.lock();
-      try {
-        importService.updateJobProgress(
-          jobId,
-          (int) writeCount,
-          (int) skipCount
-        );
-
-        log.info(
-          "Step concluído para job {}: lidos={}, escritos={}, errors={}",
-          jobId,
-          readCount,
-          writeCount,
-          skipCount
-        );
-      } finally {
-        lock.unlock();
-
-        if (
-          ExitStatus.COMPLETED.equals(stepExecution.getExitStatus()) ||
-          ExitStatus.FAILED.equals(stepExecution.getExitStatus())
-        ) {
-          progressLocks.remove(jobId);
-        }
-      }
     }
 
     return stepExecution.getExitStatus();
@@ -0,0 +1,66 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch.listener;
+
+import static com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Jobs.ID_PARAMETER_NAME;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.infra.batch.ImportCancellationRegistry;
+import com.kleberrhuan.houer.csv.infra.exception.ImportCancelledException;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.RepeatListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Para o worker step de um job cancelado. Antes de cada chunk, fora da transação, marca a partição para terminar sem
+ * abrir outro chunk nem esperar vaga de worker; antes da escrita, dentro da transação, aborta o chunk em andamento
+ * para que ele seja desfeito.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportCancellationListener
+  implements RepeatListener, ItemWriteListener<CsvSchoolRecord> {
+
+  private final ImportCancellationRegistry cancellation;
+
+  @Override
+  public void before(RepeatContext context) {
+    StepExecution stepExecution = currentStep();
+    if (stepExecution != null && isCancelled(stepExecution)) {
+      stepExecution.setTerminateOnly();
+      context.setTerminateOnly();
+    }
+  }
+
+  @Override
+  public void beforeWrite(Chunk<? extends CsvSchoolRecord> items) {
+    StepExecution stepExecution = currentStep();
+    if (stepExecution != null && isCancelled(stepExecution)) {
+      stepExecution.setTerminateOnly();
+      throw new ImportCancelledException(jobId(stepExecution));
+    }
+  }
+
+  private boolean isCancelled(StepExecution stepExecution) {
+    UUID jobId = jobId(stepExecution);
+    return jobId != null && cancellation.isCancelled(jobId);
+  }
+
+  private static UUID jobId(StepExecution stepExecution) {
+    String jobIdStr = stepExecution
+      .getJobParameters()
+      .getString(ID_PARAMETER_NAME);
+    return jobIdStr == null ? null : UUID.fromString(jobIdStr);
+  }
+
+  private static StepExecution currentStep() {
+    StepContext context = StepSynchronizationManager.getContext();
+    return context == null ? null : context.getStepExecution();
+  }
+}
@@ -0,0 +1,97 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch.listener;
+
+import static com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Jobs.ID_PARAMETER_NAME;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.infra.observability.ImportPipelineMetrics;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.stereotype.Component;
+
+/**
+ * Telemetria dos chunks do worker step para o {@link ImportPipelineMetrics}: chunks em andamento, duração de cada
+ * chunk até o commit ou rollback e o tempo de leitura e processamento, do início do chunk até o writer receber os
+ * itens. Dedup e escrita são medidos pelos próprios writers.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportPipelineChunkListener
+  implements ChunkListener, ItemWriteListener<CsvSchoolRecord> {
+
+  private final ImportPipelineMetrics pipelineMetrics;
+  private final ThreadLocal<ChunkStart> current = new ThreadLocal<>();
+
+  @Override
+  public void beforeChunk(ChunkContext context) {
+    String jobIdStr = context
+      .getStepContext()
+      .getStepExecution()
+      .getJobParameters()
+      .getString(ID_PARAMETER_NAME);
+    if (jobIdStr == null) {
+      return;
+    }
+    ChunkStart start = new ChunkStart(
+      UUID.fromString(jobIdStr),
+      System.nanoTime()
+    );
+    current.set(start);
+    pipelineMetrics.chunkStarted(start.jobId);
+  }
+
+  /** Em retry ou scan o writer é chamado mais de uma vez no mesmo chunk; só a primeira conta como leitura. */
+  @Override
+  public void beforeWrite(Chunk<? extends CsvSchoolRecord> items) {
+    ChunkStart start = current.get();
+    if (start == null || start.readRecorded) {
+      return;
+    }
+    start.readRecorded = true;
+    pipelineMetrics.recordStage(
+      start.jobId,
+      ImportPipelineMetrics.Stage.READ,
+      items.size(),
+      System.nanoTime() - start.nanos
+    );
+  }
+
+  @Override
+  public void afterChunk(ChunkContext context) {
+    finish(true);
+  }
+
+  @Override
+  public void afterChunkError(ChunkContext context) {
+    finish(false);
+  }
+
+  private void finish(boolean committed) {
+    ChunkStart start = current.get();
+    if (start == null) {
+      return;
+    }
+    current.remove();
+    pipelineMetrics.chunkFinished(
+      start.jobId,
+      System.nanoTime() - start.nanos,
+      committed
+    );
+  }
+
+  private static final class ChunkStart {
+
+    private final UUID jobId;
+    private final long nanos;
+    private boolean readRecorded;
+
+    private ChunkStart(UUID jobId, long nanos) {
+      this.jobId = jobId;
+      this.nanos = nanos;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch.listener;
+
+import static com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Jobs.ID_PARAMETER_NAME;
+
+import com.kleberrhuan.houer.csv.infra.batch.ImportCheckpoint;
+import com.kleberrhuan.houer.csv.infra.batch.ImportProgressTracker;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repassa ao {@link ImportProgressTracker} o que cada chunk do worker escreveu e ignorou. A diferença é tirada dos
+ * contadores da partição entre o início e o fim do chunk, depois do commit. Com o repositório leve, o contexto da
+ * partição (já atualizado pelo reader e confirmado) vira o checkpoint dela.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportProgressChunkListener implements ChunkListener {
+
+  private static final String WRITE_COUNT_ATTRIBUTE = "progress.writeCount";
+  private static final String SKIP_COUNT_ATTRIBUTE = "progress.skipCount";
+
+  private final ImportProgressTracker progressTracker;
+  private final CsvImportProperties importProperties;
+
+  @Override
+  public void beforeChunk(ChunkContext context) {
+    StepExecution stepExecution = context.getStepContext().getStepExecution();
+    context.setAttribute(WRITE_COUNT_ATTRIBUTE, stepExecution.getWriteCount());
+    context.setAttribute(SKIP_COUNT_ATTRIBUTE, stepExecution.getSkipCount());
+  }
+
+  @Override
+  public void afterChunk(ChunkContext context) {
+    StepExecution stepExecution = context.getStepContext().getStepExecution();
+    String jobIdStr = stepExecution
+      .getJobParameters()
+      .getString(ID_PARAMETER_NAME);
+    if (jobIdStr == null) {
+      return;
+    }
+
+    long written =
+      stepExecution.getWriteCount() -
+      countAtStart(context, WRITE_COUNT_ATTRIBUTE);
+    long skipped =
+      stepExecution.getSkipCount() - countAtStart(context, SKIP_COUNT_ATTRIBUTE);
+    UUID jobId = UUID.fromString(jobIdStr);
+    progressTracker.recordChunk(jobId, written, skipped);
+    if (importProperties.usesLightweightJobRepository()) {
+      progressTracker.recordCheckpoint(
+        jobId,
+        ImportCheckpoint.partitionName(stepExecution.getStepName()),
+        stepExecution.getExecutionContext()
+      );
+    }
+  }
+
+  private static long countAtStart(ChunkContext context, String attribute) {
+    Object value = context.getAttribute(attribute);
+    return value instanceof Long count ? count : 0L;
+  }
+}
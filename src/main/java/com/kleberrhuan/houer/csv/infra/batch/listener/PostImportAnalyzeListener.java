@@ -0,0 +1,49 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch.listener;
+
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties.WriterMode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Atualiza as estatísticas do planner após uma carga via COPY. Cargas grandes deixam as estatísticas de
+ * {@code school.school} e {@code school.school_metrics_jsonb} defasadas até o próximo autovacuum.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostImportAnalyzeListener implements JobExecutionListener {
+
+  private static final String ANALYZE_SQL =
+    "ANALYZE school.school, school.school_metrics_jsonb";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final CsvImportProperties importProperties;
+
+  @Override
+  public void afterJob(JobExecution jobExecution) {
+    if (
+      importProperties.getWriter() != WriterMode.COPY ||
+      jobExecution.getStatus() != BatchStatus.COMPLETED
+    ) {
+      return;
+    }
+
+    try {
+      long start = System.currentTimeMillis();
+      jdbcTemplate.execute(ANALYZE_SQL);
+      log.info(
+        "ANALYZE pós-importação concluído em {}ms",
+        System.currentTimeMillis() - start
+      );
+    } catch (Exception e) {
+      log.warn("Falha ao executar ANALYZE pós-importação: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch.listener;
+
+import static com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Jobs.ID_PARAMETER_NAME;
+
+import com.kleberrhuan.houer.csv.infra.batch.SchoolImportDelta;
+import com.kleberrhuan.houer.csv.infra.batch.SchoolImportDeltaRegistry;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carrega os hashes de conteúdo das escolas antes do step e os descarta ao fim do job. Os writers gravam só as escolas
+ * novas ou cujo hash mudou.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchoolImportDeltaListener implements JobExecutionListener {
+
+  private final SchoolImportDeltaRegistry deltaRegistry;
+
+  @Override
+  public void beforeJob(JobExecution jobExecution) {
+    String jobIdStr = jobExecution
+      .getJobParameters()
+      .getString(ID_PARAMETER_NAME);
+    if (jobIdStr != null) {
+      deltaRegistry.open(UUID.fromString(jobIdStr));
+    }
+  }
+
+  @Override
+  public void afterJob(JobExecution jobExecution) {
+    String jobIdStr = jobExecution
+      .getJobParameters()
+      .getString(ID_PARAMETER_NAME);
+    if (jobIdStr == null) {
+      return;
+    }
+
+    SchoolImportDelta delta = deltaRegistry.close(UUID.fromString(jobIdStr));
+    if (delta != null) {
+      log.info(
+        "Importação delta do job {}: {} novas, {} alteradas, {} inalteradas",
+        jobIdStr,
+        delta.inserted(),
+        delta.updated(),
+        delta.unchanged()
+      );
+    }
+  }
+}
@@ -1,9 +1,9 @@
 /* (C)2025 Kleber Rhuan */
 package com.kleberrhuan.houer.csv.infra.config;
 
+import com.kleberrhuan.houer.csv.infra.batch.ImportJobRepositoryProvider;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
-import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -15,12 +15,14 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 @EnableAsync
 public class AsyncConfiguration {
 
+  /** Lança as importações no mesmo repositório do {@code schoolImportJob}. */
   @Bean
   @Primary
-  public JobLauncher asyncJobLauncher(JobRepository jobRepository)
-    throws Exception {
+  public JobLauncher asyncJobLauncher(
+    ImportJobRepositoryProvider jobRepositories
+  ) throws Exception {
     TaskExecutorJobLauncher jobLauncher = new TaskExecutorJobLauncher();
-    jobLauncher.setJobRepository(jobRepository);
+    jobLauncher.setJobRepository(jobRepositories.get());
     jobLauncher.setTaskExecutor(asyncTaskExecutor());
     jobLauncher.afterPropertiesSet();
     return jobLauncher;
@@ -2,18 +2,33 @@
 package com.kleberrhuan.houer.csv.infra.config;
 
 import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.infra.batch.AdaptiveCompletionPolicy;
+import com.kleberrhuan.houer.csv.infra.batch.AmqpPartitionHandler;
+import com.kleberrhuan.houer.csv.infra.batch.ImportJobRepositoryProvider;
 import com.kleberrhuan.houer.csv.infra.batch.SchoolItemProcessor;
-import com.kleberrhuan.houer.csv.infra.batch.SchoolItemWriter;
+import com.kleberrhuan.houer.csv.infra.batch.listener.AdaptiveChunkListener;
 import com.kleberrhuan.houer.csv.infra.batch.listener.CsvImportJobListener;
 import com.kleberrhuan.houer.csv.infra.batch.listener.CsvImportStepListener;
+import com.kleberrhuan.houer.csv.infra.batch.listener.ImportCancellationListener;
+import com.kleberrhuan.houer.csv.infra.batch.listener.ImportPipelineChunkListener;
+import com.kleberrhuan.houer.csv.infra.batch.listener.ImportProgressChunkListener;
+import com.kleberrhuan.houer.csv.infra.batch.listener.PostImportAnalyzeListener;
+import com.kleberrhuan.houer.csv.infra.batch.listener.SchoolImportDeltaListener;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
 import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
-import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.core.step.builder.PartitionStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.repeat.RepeatListener;
+import org.springframework.batch.repeat.support.RepeatTemplate;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskExecutor;
@@ -24,43 +39,107 @@ import org.springframework.transaction.PlatformTransactionManager;
 @RequiredArgsConstructor
 public class BatchConfiguration {
 
-  private final JobRepository jobRepository;
+  private final ImportJobRepositoryProvider jobRepositories;
   private final PlatformTransactionManager transactionManager;
   private final SchoolItemProcessor itemProcessor;
   private final CsvImportJobListener jobListener;
   private final CsvImportStepListener stepListener;
+  private final ImportProgressChunkListener progressChunkListener;
+  private final PostImportAnalyzeListener analyzeListener;
+  private final SchoolImportDeltaListener deltaListener;
+  private final AdaptiveCompletionPolicy completionPolicy;
+  private final AdaptiveChunkListener adaptiveChunkListener;
+  private final ImportCancellationListener cancellationListener;
+  private final ImportPipelineChunkListener pipelineChunkListener;
+  private final AmqpPartitionHandler amqpPartitionHandler;
+  private final CsvImportProperties importProperties;
 
-  /** Job principal de importação de escolas. */
+  /** Job principal de importação de escolas, no repositório de {@code app.csv.import.job-repository}. */
   @Bean
   public Job schoolImportJob(Step schoolImportStep) {
-    return new JobBuilder("schoolImportJob", jobRepository)
+    return new JobBuilder("schoolImportJob", jobRepositories.get())
       .incrementer(new RunIdIncrementer())
       .listener(jobListener)
+      .listener(deltaListener)
+      .listener(analyzeListener)
       .start(schoolImportStep)
       .build();
   }
 
-  /** Step de processamento dos dados do CSV. */
+  /**
+   * Step gerenciador: divide o arquivo em faixas de bytes e executa uma partição do worker por thread. Com
+   * {@code app.csv.import.remote.enabled} as partições vão para a fila de partições e qualquer réplica as executa. O
+   * listener daqui abre e fecha o acompanhamento de progresso do job.
+   */
   @Bean
   public Step schoolImportStep(
-    FlatFileItemReader<CsvSchoolRecord> csvSchoolReader,
-    SchoolItemWriter itemWriter
+    Partitioner schoolFilePartitioner,
+    Step schoolImportWorkerStep
   ) {
-    return new StepBuilder("schoolImportStep", jobRepository)
-      .<CsvSchoolRecord, CsvSchoolRecord>chunk(1_000, transactionManager)
+    PartitionStepBuilder builder = new StepBuilder(
+      "schoolImportStep",
+      jobRepositories.get()
+    )
+      .partitioner("schoolImportWorkerStep", schoolFilePartitioner)
+      .step(schoolImportWorkerStep)
+      .gridSize(importProperties.resolveGridSize());
+
+    if (importProperties.getRemote().isEnabled()) {
+      builder.partitionHandler(amqpPartitionHandler);
+    } else {
+      builder.taskExecutor(batchTaskExecutor());
+    }
+    return builder.listener(stepListener).build();
+  }
+
+  /**
+   * Step de processamento de uma faixa do CSV. O writer é escolhido por {@code app.csv.import.writer} (upsert ou
+   * copy); o progresso é acumulado a cada chunk confirmado. O tamanho de chunk e quantas partições executam chunks ao
+   * mesmo tempo vêm do {@code AdaptiveChunkController} ({@code app.csv.import.adaptive}). Um job cancelado para no
+   * próximo chunk e desfaz o que estava em andamento. A telemetria por estágio mede leitura e duração de cada chunk.
+   * Em arquivos grandes o reader segue a ordem de CODESC do {@code SchoolKeySorter} em vez da ordem do arquivo.
+   */
+  @Bean
+  public Step schoolImportWorkerStep(
+    ItemStreamReader<CsvSchoolRecord> csvSchoolReader,
+    ItemWriter<CsvSchoolRecord> itemWriter
+  ) {
+    return new StepBuilder("schoolImportWorkerStep", jobRepositories.get())
+      .<CsvSchoolRecord, CsvSchoolRecord>chunk(
+        completionPolicy,
+        transactionManager
+      )
       .reader(csvSchoolReader)
       .processor(itemProcessor)
       .writer(itemWriter)
-      .listener(stepListener)
-      .taskExecutor(batchTaskExecutor())
+      .listener(
+        (ItemWriteListener<CsvSchoolRecord>) pipelineChunkListener
+      )
+      .listener(progressChunkListener)
+      .listener(cancellationListener)
+      .listener((ChunkListener) pipelineChunkListener)
+      .stepOperations(workerStepOperations())
       .build();
   }
 
+  /**
+   * Laço externo do worker step: cada iteração é um chunk, e os listeners rodam antes de abrir a transação. O de
+   * cancelamento vem primeiro para que uma partição cancelada não espere vaga de worker.
+   */
+  private RepeatTemplate workerStepOperations() {
+    RepeatTemplate template = new RepeatTemplate();
+    template.setListeners(
+      new RepeatListener[] { cancellationListener, adaptiveChunkListener }
+    );
+    return template;
+  }
+
   @Bean
   public TaskExecutor batchTaskExecutor() {
+    int partitions = importProperties.resolvePartitions();
     ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-    executor.setCorePoolSize(3);
-    executor.setMaxPoolSize(3);
+    executor.setCorePoolSize(partitions);
+    executor.setMaxPoolSize(partitions);
     executor.setQueueCapacity(100);
     executor.setThreadNamePrefix("batch-school-");
     executor.setWaitForTasksToCompleteOnShutdown(true);
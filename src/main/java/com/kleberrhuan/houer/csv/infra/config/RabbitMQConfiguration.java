@@ -24,6 +24,11 @@ public class RabbitMQConfiguration {
     return QueueBuilder.durable(Queues.CSV_NOTIFICATION_QUEUE).build();
   }
 
+  @Bean
+  public Queue csvImportPartitionQueue() {
+    return QueueBuilder.durable(Queues.CSV_IMPORT_PARTITION_QUEUE).build();
+  }
+
   @Bean
   public DirectExchange csvImportExchange() {
     return new DirectExchange(Exchanges.CSV_IMPORT_EXCHANGE);
@@ -42,6 +47,14 @@ public class RabbitMQConfiguration {
       .with(Queues.CSV_IMPORT_QUEUE);
   }
 
+  @Bean
+  public Binding csvImportPartitionBinding() {
+    return BindingBuilder
+      .bind(csvImportPartitionQueue())
+      .to(csvImportExchange())
+      .with(Queues.CSV_IMPORT_PARTITION_QUEUE);
+  }
+
   @Bean
   public Binding csvNotificationBinding() {
     return BindingBuilder
@@ -0,0 +1,12 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.exception;
+
+import java.util.UUID;
+
+/** Lançada dentro da transação do chunk quando o job foi cancelado, para que o chunk em andamento seja desfeito. */
+public class ImportCancelledException extends CsvProcessingException {
+
+  public ImportCancelledException(UUID jobId) {
+    super("Importação " + jobId + " cancelada pelo usuário");
+  }
+}
@@ -6,6 +6,8 @@ import static com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Jobs
 import com.kleberrhuan.houer.csv.application.service.CsvImportService;
 import com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants;
 import com.kleberrhuan.houer.csv.domain.model.ImportJobStatus;
+import com.kleberrhuan.houer.csv.infra.batch.ImportCancellationRegistry;
+import com.kleberrhuan.houer.csv.infra.batch.StaleImportExecutionRecovery;
 import com.kleberrhuan.houer.csv.infra.exception.RabbitMqException;
 import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportQueueMessage;
 import java.util.Map;
@@ -23,7 +25,11 @@ import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteExcep
 import org.springframework.batch.core.repository.JobRestartException;
 import org.springframework.stereotype.Component;
 
-/** Consumer para processar mensagens de importação CSV do RabbitMQ. */
+/**
+ * Consumer para processar mensagens de importação CSV do RabbitMQ. Só o {@code jobId} identifica a instância do job,
+ * então redelivery ou retomada da mesma importação reinicia a execução anterior a partir do último chunk confirmado
+ * em vez de começar um novo {@code JobInstance}.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -32,6 +38,8 @@ public class CsvImportMessageConsumer {
   private final JobLauncher jobLauncher;
   private final Job schoolImportJob;
   private final CsvImportService csvImportService;
+  private final StaleImportExecutionRecovery staleExecutionRecovery;
+  private final ImportCancellationRegistry cancellation;
 
   @RabbitListener(queues = CsvImportConstants.Queues.CSV_IMPORT_QUEUE)
   public void handleImportMessage(CsvImportQueueMessage message) {
@@ -39,15 +47,32 @@ public class CsvImportMessageConsumer {
     log.info("Mensagem recebida para importação CSV");
 
     try {
+      if (cancellation.checkNow(message.jobId())) {
+        log.info(
+          "Job {} cancelado antes de iniciar; mensagem ignorada",
+          message.jobId()
+        );
+        return;
+      }
       JobParameters params = buildJobParameters(message);
+      staleExecutionRecovery.abandonIfStale(
+        schoolImportJob.getName(),
+        params,
+        message.jobId()
+      );
       jobLauncher.run(schoolImportJob, params);
       log.info("Job de importação disparado com sucesso");
-    } catch (
-      JobExecutionAlreadyRunningException
-      | JobRestartException
-      | JobInstanceAlreadyCompleteException
-      | JobParametersInvalidException e
-    ) {
+    } catch (JobInstanceAlreadyCompleteException e) {
+      log.info(
+        "Job {} já foi concluído; mensagem reentregue ignorada",
+        message.jobId()
+      );
+    } catch (JobExecutionAlreadyRunningException e) {
+      log.info(
+        "Job {} já está em execução; mensagem reentregue ignorada",
+        message.jobId()
+      );
+    } catch (JobRestartException | JobParametersInvalidException e) {
       handleFailure(message, "Job inválido ou já em execução", e);
     } catch (Exception e) {
       handleFailure(message, "Falha inesperada ao iniciar job", e);
@@ -58,14 +83,18 @@ public class CsvImportMessageConsumer {
 
   /* ---------- helpers ---------- */
 
-  private JobParameters buildJobParameters(CsvImportQueueMessage m) {
+  JobParameters buildJobParameters(CsvImportQueueMessage m) {
     return new JobParametersBuilder()
       .addString(ID_PARAMETER_NAME, m.jobId().toString())
-      .addString(FILENAME_PARAMETER_NAME, m.filename())
-      .addString(FILE_URI_PARAMETER_NAME, m.fileUri().toString())
-      .addString(DESCRIPTION_PARAMETER_NAME, m.description())
-      .addLong(USER_ID_PARAMETER_NAME, m.userId())
-      .addLong(TIMESTAMP_PARAMETER_NAME, System.currentTimeMillis())
+      .addString(FILENAME_PARAMETER_NAME, m.filename(), false)
+      .addString(FILE_URI_PARAMETER_NAME, m.fileUri().toString(), false)
+      .addString(DESCRIPTION_PARAMETER_NAME, m.description(), false)
+      .addLong(USER_ID_PARAMETER_NAME, m.userId(), false)
+      .addString(
+        SKIP_INVALID_PARAMETER_NAME,
+        Boolean.toString(m.skipInvalidRows()),
+        false
+      )
       .toJobParameters();
   }
 
@@ -4,6 +4,7 @@ package com.kleberrhuan.houer.csv.infra.messaging;
 import com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Exchanges;
 import com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Queues;
 import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportNotification;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportPartitionMessage;
 import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportQueueMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +27,19 @@ public class CsvImportMessagePublisher {
     );
   }
 
+  public void publishPartitionMessage(CsvImportPartitionMessage message) {
+    log.debug(
+      "Enviando partição {} do job {} para fila de partições",
+      message.stepExecutionId(),
+      message.jobId()
+    );
+    rabbitTemplate.convertAndSend(
+      Exchanges.CSV_IMPORT_EXCHANGE,
+      Queues.CSV_IMPORT_PARTITION_QUEUE,
+      message
+    );
+  }
+
   public void publishNotification(CsvImportNotification notification) {
     log.debug(
       "Enviando notificação para fila RabbitMQ - job {}: {}",
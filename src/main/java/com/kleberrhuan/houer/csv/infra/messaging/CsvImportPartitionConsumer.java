@@ -0,0 +1,152 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.messaging;
+
+import com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants;
+import com.kleberrhuan.houer.csv.infra.batch.AmqpPartitionHandler;
+import com.kleberrhuan.houer.csv.infra.batch.ImportCancellationRegistry;
+import com.kleberrhuan.houer.csv.infra.batch.ImportProgressTracker;
+import com.kleberrhuan.houer.csv.infra.batch.SchoolImportDeltaRegistry;
+import com.kleberrhuan.houer.csv.infra.observability.ImportPipelineMetrics;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportPartitionMessage;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobInterruptedException;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Worker do modo remoto: executa a partição publicada pelo {@code AmqpPartitionHandler} e grava o resultado na
+ * {@code StepExecution}, que o gerenciador acompanha. Partições fora de {@code STARTING} já foram pegas por outra
+ * réplica ou terminaram, então a mensagem reentregue é ignorada, a não ser que a partição tenha sido abandonada por
+ * uma réplica que caiu: aí ela é retomada do contexto salvo no último chunk.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(
+  value = "app.csv.import.remote.enabled",
+  havingValue = "true"
+)
+public class CsvImportPartitionConsumer {
+
+  private final JobExplorer jobExplorer;
+  private final JobRepository jobRepository;
+  private final Step schoolImportWorkerStep;
+  private final ImportProgressTracker progressTracker;
+  private final SchoolImportDeltaRegistry deltaRegistry;
+  private final ImportCancellationRegistry cancellation;
+  private final ImportPipelineMetrics pipelineMetrics;
+  private final CsvImportProperties importProperties;
+
+  @RabbitListener(
+    queues = CsvImportConstants.Queues.CSV_IMPORT_PARTITION_QUEUE,
+    concurrency = "${app.csv.import.remote.worker-concurrency:2}"
+  )
+  public void handlePartitionMessage(CsvImportPartitionMessage message) {
+    MDC.setContextMap(Map.of("jobId", message.jobId().toString()));
+    try {
+      StepExecution partition = jobExplorer.getStepExecution(
+        message.jobExecutionId(),
+        message.stepExecutionId()
+      );
+      if (partition == null) {
+        log.warn("Partição {} não encontrada", message.stepExecutionId());
+        return;
+      }
+      boolean abandoned = AmqpPartitionHandler.isAbandoned(
+        partition,
+        importProperties.getRemote().getStaleAfter()
+      );
+      if (partition.getStatus() != BatchStatus.STARTING && !abandoned) {
+        log.info(
+          "Partição {} já está em {}; mensagem reentregue ignorada",
+          partition.getId(),
+          partition.getStatus()
+        );
+        return;
+      }
+      if (abandoned && !claim(partition)) {
+        return;
+      }
+      if (cancellation.checkNow(message.jobId())) {
+        // Partição ainda não iniciada de job cancelado: encerra sem ler o arquivo
+        partition.setStatus(BatchStatus.STOPPED);
+        partition.setExitStatus(ExitStatus.STOPPED);
+        jobRepository.update(partition);
+        return;
+      }
+      execute(message, partition);
+    } finally {
+      cancellation.forget(message.jobId());
+      MDC.clear();
+    }
+  }
+
+  /**
+   * Assume a partição abandonada: a atualização renova o {@code lastUpdated} e, pela versão otimista da
+   * {@code StepExecution}, só uma das réplicas que receberam a republicação consegue gravá-la.
+   */
+  private boolean claim(StepExecution partition) {
+    try {
+      jobRepository.update(partition);
+    } catch (OptimisticLockingFailureException e) {
+      log.info(
+        "Partição {} abandonada já foi assumida por outra réplica",
+        partition.getId()
+      );
+      return false;
+    }
+    log.warn(
+      "Retomando partição abandonada {} a partir do último chunk confirmado",
+      partition.getStepName()
+    );
+    return true;
+  }
+
+  // O tracker é fechado antes do delta: o último flush lê os contadores do delta desta réplica.
+  private void execute(
+    CsvImportPartitionMessage message,
+    StepExecution partition
+  ) {
+    progressTracker.open(message.jobId());
+    deltaRegistry.open(message.jobId());
+    pipelineMetrics.open(message.jobId());
+    try {
+      schoolImportWorkerStep.execute(partition);
+      log.info(
+        "Partição {} concluída: status={}, escritos={}",
+        partition.getStepName(),
+        partition.getStatus(),
+        partition.getWriteCount()
+      );
+    } catch (JobInterruptedException e) {
+      partition.setStatus(BatchStatus.STOPPED);
+      jobRepository.update(partition);
+    } catch (RuntimeException e) {
+      log.error(
+        "Falha ao executar partição {}: {}",
+        partition.getStepName(),
+        e.getMessage()
+      );
+      partition.addFailureException(e);
+      partition.setStatus(BatchStatus.FAILED);
+      partition.setExitStatus(ExitStatus.FAILED);
+      jobRepository.update(partition);
+    } finally {
+      pipelineMetrics.close(message.jobId());
+      progressTracker.close(message.jobId());
+      deltaRegistry.close(message.jobId());
+    }
+  }
+}
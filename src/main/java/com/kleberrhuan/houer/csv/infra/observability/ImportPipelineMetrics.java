@@ -0,0 +1,336 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.observability;
+
+import com.kleberrhuan.houer.csv.domain.model.ScanTimings;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Telemetria por estágio das importações (leitura, validação, mapeamento, deduplicação e escrita): linhas e tempo por
+ * estágio, duração de cada chunk confirmado ou desfeito, chunks em andamento e linhas recusadas por motivo, tudo com a
+ * tag {@code job}. Os contadores ficam em memória; os medidores do Micrometer só existem enquanto o job está aberto
+ * nesta réplica e são removidos no último {@link #close}, para que a tag não acumule séries. O resultado dos últimos
+ * {@value #RECENT_JOBS} jobs continua disponível em {@link #stats}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportPipelineMetrics {
+
+  static final String PREFIX = "csv.import.pipeline";
+  static final int RECENT_JOBS = 100;
+
+  private static final double[] PERCENTILES = { 0.5, 0.95, 0.99 };
+
+  private final MeterRegistry registry;
+  private final Map<UUID, JobState> running = new ConcurrentHashMap<>();
+  private final Map<UUID, JobState> finished = new LinkedHashMap<>(
+    16,
+    0.75f,
+    true
+  ) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<UUID, JobState> eldest) {
+      return size() > RECENT_JOBS;
+    }
+  };
+
+  public enum Stage {
+    READ,
+    VALIDATE,
+    MAP,
+    DEDUP,
+    WRITE;
+
+    public String tag() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  public record StageStats(long rows, long nanos) {
+    public double seconds() {
+      return nanos / 1e9;
+    }
+
+    public double rowsPerSecond() {
+      return nanos == 0 ? 0 : rows / seconds();
+    }
+  }
+
+  public record ChunkStats(
+    int inFlight,
+    long committed,
+    long rolledBack,
+    double p50Millis,
+    double p95Millis,
+    double p99Millis,
+    double maxMillis
+  ) {}
+
+  public record JobStats(
+    UUID jobId,
+    boolean running,
+    Map<Stage, StageStats> stages,
+    ChunkStats chunks,
+    Map<String, Long> rejectedRows
+  ) {}
+
+  /** Passa a publicar os medidores do job. Cada chamada conta uma referência, como no acompanhamento de progresso. */
+  public synchronized void open(UUID jobId) {
+    JobState state = running.get(jobId);
+    if (state == null) {
+      state = finished.remove(jobId);
+      if (state == null) {
+        state = new JobState();
+      }
+      register(jobId, state);
+      running.put(jobId, state);
+    }
+    state.references++;
+  }
+
+  /** Solta uma referência; na última, remove os medidores do registry e guarda o resultado entre os recentes. */
+  public synchronized void close(UUID jobId) {
+    JobState state = running.get(jobId);
+    if (state == null || --state.references > 0) {
+      return;
+    }
+    running.remove(jobId);
+    state.chunks = chunkStats(state);
+    state.meters.forEach(registry::remove);
+    state.meters.clear();
+    state.rejectedMeters.clear();
+    state.commitTimer = null;
+    state.rollbackTimer = null;
+    finished.put(jobId, state);
+  }
+
+  /** Soma linhas e tempo de um estágio. Ignorado se o job não está aberto nesta réplica. */
+  public void recordStage(UUID jobId, Stage stage, long rows, long nanos) {
+    JobState state = running.get(jobId);
+    if (state != null) {
+      state.rows.get(stage).add(rows);
+      state.nanos.get(stage).add(nanos);
+    }
+  }
+
+  /** Registra os estágios da validação do upload, que roda antes de o job ser aberto em qualquer réplica. */
+  public synchronized void recordUpload(
+    UUID jobId,
+    long rows,
+    long validRows,
+    ScanTimings timings
+  ) {
+    JobState state = running.get(jobId);
+    boolean open = state != null;
+    if (!open) {
+      state = finished.computeIfAbsent(jobId, id -> new JobState());
+    }
+    state.rows.get(Stage.READ).add(rows);
+    state.nanos.get(Stage.READ).add(timings.readNanos());
+    state.rows.get(Stage.VALIDATE).add(rows);
+    state.nanos.get(Stage.VALIDATE).add(timings.validateNanos());
+    state.rows.get(Stage.MAP).add(validRows);
+    state.nanos.get(Stage.MAP).add(timings.mapNanos());
+    for (Map.Entry<String, Long> entry : timings.rejectedRows().entrySet()) {
+      rejected(state, entry.getKey()).add(entry.getValue());
+      if (open) {
+        registerRejected(jobId, state, entry.getKey());
+      }
+    }
+  }
+
+  public void chunkStarted(UUID jobId) {
+    JobState state = running.get(jobId);
+    if (state != null) {
+      state.inFlight.incrementAndGet();
+    }
+  }
+
+  public void chunkFinished(UUID jobId, long nanos, boolean committed) {
+    JobState state = running.get(jobId);
+    if (state == null) {
+      return;
+    }
+    state.inFlight.decrementAndGet();
+    Timer timer = committed ? state.commitTimer : state.rollbackTimer;
+    if (timer != null) {
+      timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /** Estatísticas do job enquanto ele roda nesta réplica ou entre os últimos que rodaram aqui. */
+  public synchronized Optional<JobStats> stats(UUID jobId) {
+    JobState state = running.get(jobId);
+    boolean isRunning = state != null;
+    if (!isRunning) {
+      state = finished.get(jobId);
+    }
+    if (state == null) {
+      return Optional.empty();
+    }
+
+    Map<Stage, StageStats> stages = new EnumMap<>(Stage.class);
+    for (Stage stage : Stage.values()) {
+      stages.put(
+        stage,
+        new StageStats(
+          state.rows.get(stage).sum(),
+          state.nanos.get(stage).sum()
+        )
+      );
+    }
+    Map<String, Long> rejectedRows = new TreeMap<>();
+    state.rejected.forEach((reason, count) ->
+      rejectedRows.put(reason, count.sum())
+    );
+    return Optional.of(
+      new JobStats(
+        jobId,
+        isRunning,
+        stages,
+        isRunning ? chunkStats(state) : state.chunks,
+        rejectedRows
+      )
+    );
+  }
+
+  private void register(UUID jobId, JobState state) {
+    String job = jobId.toString();
+    for (Stage stage : Stage.values()) {
+      LongAdder rows = state.rows.get(stage);
+      LongAdder nanos = state.nanos.get(stage);
+      state.meters.add(
+        FunctionCounter
+          .builder(PREFIX + ".rows", rows, LongAdder::sum)
+          .description("Linhas que passaram pelo estágio da importação")
+          .tags("job", job, "stage", stage.tag())
+          .register(registry)
+      );
+      state.meters.add(
+        FunctionTimer
+          .builder(
+            PREFIX + ".stage",
+            state,
+            s -> rows.sum(),
+            s -> nanos.sum(),
+            TimeUnit.NANOSECONDS
+          )
+          .description("Tempo gasto no estágio da importação, por linha")
+          .tags("job", job, "stage", stage.tag())
+          .register(registry)
+      );
+    }
+    state.meters.add(
+      Gauge
+        .builder(
+          PREFIX + ".chunks.in.flight",
+          state.inFlight,
+          AtomicInteger::get
+        )
+        .description("Chunks da importação em andamento nesta réplica")
+        .tag("job", job)
+        .register(registry)
+    );
+    state.commitTimer = chunkTimer(job, "commit");
+    state.rollbackTimer = chunkTimer(job, "rollback");
+    state.meters.add(state.commitTimer);
+    state.meters.add(state.rollbackTimer);
+    state.rejected
+      .keySet()
+      .forEach(reason -> registerRejected(jobId, state, reason));
+  }
+
+  private Timer chunkTimer(String job, String outcome) {
+    return Timer
+      .builder(PREFIX + ".chunk")
+      .description("Duração de cada chunk da importação até o commit")
+      .tags("job", job, "outcome", outcome)
+      .publishPercentiles(PERCENTILES)
+      .publishPercentileHistogram()
+      .register(registry);
+  }
+
+  private void registerRejected(UUID jobId, JobState state, String reason) {
+    if (state.rejectedMeters.containsKey(reason)) {
+      return;
+    }
+    Meter meter = FunctionCounter
+      .builder(PREFIX + ".rejected", rejected(state, reason), LongAdder::sum)
+      .description("Linhas recusadas na validação do upload, por motivo")
+      .tags("job", jobId.toString(), "reason", reason)
+      .register(registry);
+    state.rejectedMeters.put(reason, meter);
+    state.meters.add(meter);
+  }
+
+  private static LongAdder rejected(JobState state, String reason) {
+    return state.rejected.computeIfAbsent(reason, r -> new LongAdder());
+  }
+
+  private static ChunkStats chunkStats(JobState state) {
+    if (state.commitTimer == null) {
+      return state.chunks;
+    }
+    HistogramSnapshot snapshot = state.commitTimer.takeSnapshot();
+    double[] millis = new double[PERCENTILES.length];
+    for (ValueAtPercentile value : snapshot.percentileValues()) {
+      for (int i = 0; i < PERCENTILES.length; i++) {
+        if (value.percentile() == PERCENTILES[i]) {
+          millis[i] = value.value(TimeUnit.MILLISECONDS);
+        }
+      }
+    }
+    return new ChunkStats(
+      state.inFlight.get(),
+      snapshot.count(),
+      state.rollbackTimer.count(),
+      millis[0],
+      millis[1],
+      millis[2],
+      snapshot.max(TimeUnit.MILLISECONDS)
+    );
+  }
+
+  private static final class JobState {
+
+    private final Map<Stage, LongAdder> rows = adders();
+    private final Map<Stage, LongAdder> nanos = adders();
+    private final Map<String, LongAdder> rejected = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final List<Meter> meters = new ArrayList<>();
+    private final Map<String, Meter> rejectedMeters = new ConcurrentHashMap<>();
+    private Timer commitTimer;
+    private Timer rollbackTimer;
+    private ChunkStats chunks = new ChunkStats(0, 0, 0, 0, 0, 0, 0);
+    private int references;
+
+    private static Map<Stage, LongAdder> adders() {
+      Map<Stage, LongAdder> adders = new EnumMap<>(Stage.class);
+      for (Stage stage : Stage.values()) {
+        adders.put(stage, new LongAdder());
+      }
+      return adders;
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.observability;
+
+/**
+ * Cronometra uma etapa por linha sem pagar {@code System.nanoTime} em todas: mede uma a cada {@value #SAMPLE_EVERY}
+ * execuções e extrapola o tempo medido para o total. Não é thread-safe; cada worker usa o seu e os combina com
+ * {@link #add}.
+ */
+public final class SampledTimer {
+
+  static final int SAMPLE_EVERY = 8;
+
+  /** Retorno de {@link #begin()} para execuções fora da amostra. */
+  public static final long SKIPPED = Long.MIN_VALUE;
+
+  private long count;
+  private long sampled;
+  private long sampledNanos;
+
+  public long begin() {
+    return count++ % SAMPLE_EVERY == 0 ? System.nanoTime() : SKIPPED;
+  }
+
+  public void end(long begin) {
+    if (begin != SKIPPED) {
+      sampledNanos += System.nanoTime() - begin;
+      sampled++;
+    }
+  }
+
+  public void add(SampledTimer other) {
+    count += other.count;
+    sampled += other.sampled;
+    sampledNanos += other.sampledNanos;
+  }
+
+  public long count() {
+    return count;
+  }
+
+  public long estimatedNanos() {
+    return sampled == 0
+      ? 0
+      : Math.round((double) sampledNanos * count / sampled);
+  }
+}
@@ -0,0 +1,266 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.properties;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/** Propriedades de configuração do pipeline de importação CSV. */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.csv.import")
+public class CsvImportProperties {
+
+  /** Quantidade máxima de erros de linha reportados ao usuário por upload. */
+  private int maxReportedErrors = 100;
+
+  /** Estratégia de escrita do step de importação de escolas. */
+  private WriterMode writer = WriterMode.UPSERT;
+
+  /**
+   * Número de partições (faixas de bytes) do step de importação. Zero usa a quantidade de processadores disponíveis.
+   */
+  private int partitions = 0;
+
+  /**
+   * Linhas inválidas toleradas por upload. Zero rejeita o arquivo no primeiro erro; acima disso, até esse número de
+   * linhas inválidas é ignorado e registrado no relatório de erros do job, e as demais são importadas.
+   */
+  private long skipLimit = 0;
+
+  /** Tamanho de cada parte no upload em partes; a última pode ser menor. */
+  private DataSize uploadChunkSize = DataSize.ofMegabytes(8);
+
+  /** Tamanho máximo de um arquivo enviado em partes. */
+  private DataSize maxUploadSize = DataSize.ofGigabytes(2);
+
+  /** Validade de uma sessão de upload em partes não finalizada. */
+  private Duration uploadSessionTtl = Duration.ofHours(24);
+
+  /**
+   * Janela em que reenviar um arquivo idêntico a uma importação concluída do mesmo usuário devolve aquele job em vez
+   * de importar de novo. Zero desativa.
+   */
+  private Duration duplicateUploadWindow = Duration.ofDays(7);
+
+  /**
+   * Qual registro manter quando o mesmo CODESC aparece mais de uma vez no arquivo, nos streams de validação. A
+   * importação sempre fica com a última ocorrência, em qualquer caminho.
+   */
+  private DedupMode dedupMode = DedupMode.FIRST_WINS;
+
+  /**
+   * Workers que validam e mapeiam lotes de linhas em paralelo durante a validação do upload. Zero usa a quantidade de
+   * processadores; um valida na própria thread de leitura.
+   */
+  private int validationParallelism = 0;
+
+  /**
+   * Intervalo entre gravações do progresso acumulado em memória. Lido também pelo {@code @Scheduled} do
+   * {@code ImportProgressTracker}.
+   */
+  private Duration progressFlushInterval = Duration.ofSeconds(1);
+
+  /** Por quanto tempo os workers reaproveitam a consulta de cancelamento de um job antes de refazê-la. */
+  private Duration cancellationCheckInterval = Duration.ofSeconds(1);
+
+  /** Ajuste automático do tamanho de chunk e de workers ativos do step de importação. */
+  private Adaptive adaptive = new Adaptive();
+
+  /** Fila de importações e admissão de jobs para execução. */
+  private Queue queue = new Queue();
+
+  /** Partições distribuídas entre as réplicas pelo RabbitMQ em vez de threads locais. */
+  private Remote remote = new Remote();
+
+  /** Importação de arquivos pequenos na própria requisição, sem fila nem Spring Batch. */
+  private Inline inline = new Inline();
+
+  /** Ordenação externa por CODESC, com deduplicação, antes do step de importação de arquivos grandes. */
+  private ExternalSort externalSort = new ExternalSort();
+
+  /**
+   * Onde o {@code schoolImportJob} guarda execuções e checkpoints. {@code LIGHTWEIGHT} mantém as execuções em memória
+   * e grava o checkpoint das partições no próprio {@code csv.csv_import_job}; não vale com {@code remote.enabled}, que
+   * depende das tabelas {@code BATCH_} para coordenar as réplicas.
+   */
+  private JobRepositoryMode jobRepository = JobRepositoryMode.JDBC;
+
+  /** Limpeza periódica do histórico antigo das tabelas {@code BATCH_}. */
+  private MetadataPurge metadataPurge = new MetadataPurge();
+
+  /** Partições efetivas: o valor configurado ou, se zero, a quantidade de processadores. */
+  public int resolvePartitions() {
+    return partitions > 0
+      ? partitions
+      : Runtime.getRuntime().availableProcessors();
+  }
+
+  /** Workers de validação efetivos: o valor configurado ou, se zero, a quantidade de processadores. */
+  public int resolveValidationParallelism() {
+    return validationParallelism > 0
+      ? validationParallelism
+      : Runtime.getRuntime().availableProcessors();
+  }
+
+  @Data
+  public static class Adaptive {
+
+    /** Desligado, o step usa {@code initialChunkSize} e todas as partições em paralelo, como antes. */
+    private boolean enabled = true;
+
+    private int initialChunkSize = 1_000;
+
+    private int minChunkSize = 100;
+
+    private int maxChunkSize = 5_000;
+
+    /** Mínimo de partições executando chunks ao mesmo tempo; o máximo é o número de partições. */
+    private int minWorkers = 1;
+
+    /** Duração de chunk (leitura até commit) acima da qual o chunk encolhe. */
+    private Duration targetChunkLatency = Duration.ofSeconds(1);
+
+    /** Espera média por conexão do Hikari acima da qual o controlador recua. */
+    private Duration maxPoolWait = Duration.ofMillis(50);
+
+    /** Intervalo mínimo entre ajustes; as medições do intervalo são agregadas. */
+    private Duration adjustInterval = Duration.ofSeconds(2);
+  }
+
+  @Data
+  public static class Queue {
+
+    /**
+     * Jobs executando ao mesmo tempo em todo o cluster. Zero deriva do pool de conexões: cada job ocupa até uma
+     * conexão por partição, então o limite é o tamanho do pool dividido pelas partições, no mínimo um.
+     */
+    private int maxConcurrentJobs = 0;
+
+    /** Jobs do mesmo usuário executando ao mesmo tempo; os demais esperam na fila. */
+    private int maxRunningPerUser = 1;
+
+    /** Jobs que um usuário pode ter aguardando na fila; acima disso o upload é recusado. */
+    private int maxQueuedPerUser = 10;
+
+    /** Arquivos com até esse número de registros válidos entram na faixa de prioridade alta. */
+    private int smallFileRecords = 10_000;
+
+    /** Intervalo da varredura que admite jobs da fila; ela também roda a cada enfileiramento e término de job. */
+    private Duration dispatchInterval = Duration.ofSeconds(5);
+  }
+
+  @Data
+  public static class Remote {
+
+    /**
+     * Ligado, o step gerenciador publica cada partição na fila de partições e qualquer réplica a executa. Exige que o
+     * armazenamento dos arquivos seja compartilhado entre as réplicas.
+     */
+    private boolean enabled = false;
+
+    /** Partições por job. Zero usa {@code partitions} (ou a quantidade de processadores do gerenciador). */
+    private int gridSize = 0;
+
+    /** Partições que cada réplica executa ao mesmo tempo. */
+    private int workerConcurrency = 2;
+
+    /** Intervalo entre consultas do gerenciador ao estado das partições. */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /** Tempo máximo de espera pelas partições antes de falhar o step gerenciador. */
+    private Duration timeout = Duration.ofHours(6);
+
+    /**
+     * Partição em execução sem atualização há mais que isso é tratada como abandonada (a réplica caiu no meio dela) e
+     * republicada, para que outra réplica a retome do último chunk confirmado. Deve ficar bem acima da duração de um
+     * chunk.
+     */
+    private Duration staleAfter = Duration.ofMinutes(5);
+
+    /** Quantas vezes a mesma partição abandonada é republicada antes de o step gerenciador falhar. */
+    private int staleRetries = 2;
+  }
+
+  @Data
+  public static class Inline {
+
+    /** Desligado, todo upload passa pela fila e pelo Spring Batch. */
+    private boolean enabled = true;
+
+    /** Arquivos com até esse número de registros válidos são gravados na requisição, em uma única transação. */
+    private int maxRecords = 2_000;
+
+    public boolean accepts(long validRecords) {
+      return enabled && validRecords > 0 && validRecords <= maxRecords;
+    }
+  }
+
+  @Data
+  public static class ExternalSort {
+
+    /** Desligado, o step lê os arquivos na ordem em que as linhas aparecem, sem deduplicar. */
+    private boolean enabled = true;
+
+    /**
+     * Memória para as chaves de cada run ordenado em memória antes de ir para disco. Arquivos descompactados maiores
+     * que isso passam pela ordenação; os menores e os compactados são lidos na ordem do arquivo. Nos dois casos, de um
+     * CODESC repetido vale a última linha.
+     */
+    private DataSize memoryBudget = DataSize.ofMegabytes(64);
+
+    public boolean accepts(long fileBytes) {
+      return enabled && fileBytes > memoryBudget.toBytes();
+    }
+  }
+
+  @Data
+  public static class MetadataPurge {
+
+    private boolean enabled = true;
+
+    /** Lido pelo {@code @Scheduled} do {@code BatchMetadataPurgeJob}. */
+    private String cron = "0 30 3 * * *";
+
+    /** Instâncias de job cuja última execução terminou há mais que isso são removidas com todo o histórico. */
+    private Duration retention = Duration.ofDays(30);
+
+    /** Instâncias removidas por transação. */
+    private int batchSize = 500;
+  }
+
+  /** Repositório em memória efetivo: pedido em {@code job-repository} e sem partições remotas. */
+  public boolean usesLightweightJobRepository() {
+    return jobRepository == JobRepositoryMode.LIGHTWEIGHT && !remote.enabled;
+  }
+
+  /** Partições por job: as do modo remoto, se configuradas, ou {@link #resolvePartitions()}. */
+  public int resolveGridSize() {
+    return remote.enabled && remote.gridSize > 0
+      ? remote.gridSize
+      : resolvePartitions();
+  }
+
+  public enum WriterMode {
+    /** Um {@code INSERT ... ON CONFLICT} por registro (padrão). */
+    UPSERT,
+    /** {@code COPY} do chunk para tabela de staging e merge set-based. */
+    COPY,
+  }
+
+  public enum JobRepositoryMode {
+    /** Tabelas {@code BATCH_} do Spring Batch, atualizadas a cada chunk de cada partição (padrão). */
+    JDBC,
+    /** Execuções em memória; checkpoint compacto gravado no intervalo de progresso. */
+    LIGHTWEIGHT,
+  }
+
+  public enum DedupMode {
+    /** Mantém a primeira ocorrência e descarta as seguintes, em streaming. */
+    FIRST_WINS,
+    /** Mantém a última ocorrência, na posição da primeira; exige reter os registros até o fim do arquivo. */
+    LAST_WINS,
+  }
+}
@@ -0,0 +1,111 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Formatos aceitos no upload, reconhecidos pela extensão. Arquivos compactados são armazenados como chegaram e
+ * descompactados em streaming tanto na validação quanto na leitura do job.
+ */
+public enum CompressionFormat {
+  NONE(".csv"),
+  GZIP(".csv.gz"),
+  ZIP(".zip");
+
+  private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+  private final String extension;
+
+  CompressionFormat(String extension) {
+    this.extension = extension;
+  }
+
+  /** Extensão usada no arquivo armazenado. */
+  public String extension() {
+    return extension;
+  }
+
+  public boolean isCompressed() {
+    return this != NONE;
+  }
+
+  public static CompressionFormat fromFilename(String filename) {
+    if (filename == null) {
+      return NONE;
+    }
+    String lower = filename.toLowerCase(Locale.ROOT);
+    if (lower.endsWith(".gz")) {
+      return GZIP;
+    }
+    if (lower.endsWith(".zip")) {
+      return ZIP;
+    }
+    return NONE;
+  }
+
+  /** Stream com o CSV descompactado. Fechá-lo fecha {@code raw}. */
+  public InputStream decode(InputStream raw) throws IOException {
+    return switch (this) {
+      case NONE -> raw;
+      case GZIP -> new GZIPInputStream(raw, GZIP_BUFFER_SIZE);
+      case ZIP -> singleEntry(new ZipInputStream(raw));
+    };
+  }
+
+  private static InputStream singleEntry(ZipInputStream zip)
+    throws IOException {
+    ZipEntry entry = zip.getNextEntry();
+    while (entry != null && entry.isDirectory()) {
+      entry = zip.getNextEntry();
+    }
+    if (entry == null) {
+      zip.close();
+      throw new IOException("Arquivo ZIP sem CSV");
+    }
+
+    // Ao fim da entrada confere que não há outro arquivo no ZIP
+    return new FilterInputStream(zip) {
+      private boolean checked;
+
+      @Override
+      public int read() throws IOException {
+        int b = super.read();
+        if (b < 0) {
+          ensureLastEntry();
+        }
+        return b;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n < 0) {
+          ensureLastEntry();
+        }
+        return n;
+      }
+
+      private void ensureLastEntry() throws IOException {
+        if (checked) {
+          return;
+        }
+        checked = true;
+        ZipEntry next;
+        while ((next = zip.getNextEntry()) != null) {
+          if (!next.isDirectory()) {
+            throw new IOException(
+              "Arquivo ZIP deve conter um único CSV, encontrado também: " +
+              next.getName()
+            );
+          }
+        }
+      }
+    };
+  }
+}
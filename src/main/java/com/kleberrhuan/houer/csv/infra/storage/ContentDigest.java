@@ -0,0 +1,27 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.storage;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/** SHA-256 usado para endereçar arquivos pelo conteúdo e conferir partes de uploads. */
+public final class ContentDigest {
+
+  private static final HexFormat HEX = HexFormat.of();
+
+  private ContentDigest() {}
+
+  public static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 indisponível", e);
+    }
+  }
+
+  /** Finaliza o digest e o devolve em hexadecimal minúsculo. */
+  public static String hex(MessageDigest digest) {
+    return HEX.formatHex(digest.digest());
+  }
+}
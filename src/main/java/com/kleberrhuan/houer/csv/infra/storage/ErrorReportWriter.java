@@ -0,0 +1,71 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.storage;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.kleberrhuan.houer.csv.domain.exception.ValidationErrorAggregator.ValidationError;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Grava os erros de linha em NDJSON ({@code {"line":..,"column":..,"message":..}} por linha) conforme são
+ * encontrados, sem acumulá-los em memória. Fechar o writer não fecha o stream de destino.
+ */
+public class ErrorReportWriter implements Consumer<ValidationError>, AutoCloseable {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final JsonGenerator generator;
+  private long written;
+
+  public ErrorReportWriter(OutputStream out) {
+    try {
+      this.generator =
+        JSON_FACTORY
+          .createGenerator(out)
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      this.generator.setRootValueSeparator(new SerializedString("\n"));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void accept(ValidationError error) {
+    try {
+      generator.writeStartObject();
+      generator.writeNumberField("line", error.lineNumber());
+      generator.writeStringField("column", error.columnName());
+      generator.writeStringField("message", error.message());
+      generator.writeEndObject();
+      written++;
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+        "Erro ao gravar relatório de erros da importação",
+        e
+      );
+    }
+  }
+
+  public long written() {
+    return written;
+  }
+
+  @Override
+  public void close() {
+    try {
+      if (written > 0) {
+        generator.writeRaw('\n');
+      }
+      generator.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+        "Erro ao finalizar relatório de erros da importação",
+        e
+      );
+    }
+  }
+}
@@ -1,16 +1,22 @@
 /* (C)2025 Kleber Rhuan */
 package com.kleberrhuan.houer.csv.infra.storage;
 
+import com.kleberrhuan.houer.csv.application.port.StagedUpload;
+import com.kleberrhuan.houer.csv.application.port.StagedUploadChunk;
 import com.kleberrhuan.houer.csv.application.port.StorageService;
 import com.kleberrhuan.houer.csv.infra.exception.CsvProcessingException;
 import com.kleberrhuan.houer.csv.infra.properties.CsvStorageProperties;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.UUID;
@@ -30,14 +36,23 @@ public class LocalStorageService implements StorageService {
 
   private static final DateTimeFormatter DIR_FORMATTER =
     DateTimeFormatter.ofPattern("yyyy/MM/dd");
-  private static final String FILE_EXTENSION = ".csv";
+  private static final String ERROR_REPORT_EXTENSION = ".errors.ndjson";
+  private static final String STAGING_DIR = ".staging";
+  private static final String UPLOADS_DIR = ".uploads";
+  private static final String CONTENT_DIR = "objects";
+  private static final int CHUNK_BUFFER_SIZE = 64 * 1024;
+  private static final int STAGING_BUFFER_SIZE = 64 * 1024;
 
   private final CsvStorageProperties properties;
 
   @Override
   public URI store(MultipartFile file, UUID jobId) {
     try {
-      Path targetPath = buildFilePath(jobId, file.getOriginalFilename());
+      Path targetPath = buildFilePath(
+        jobId,
+        file.getOriginalFilename(),
+        CompressionFormat.fromFilename(file.getOriginalFilename()).extension()
+      );
       ensureDirectoryExists(targetPath.getParent());
 
       try (InputStream inputStream = file.getInputStream()) {
@@ -63,6 +78,159 @@ public class LocalStorageService implements StorageService {
     }
   }
 
+  @Override
+  public StagedUpload stage(String originalFilename) {
+    return stage(
+      originalFilename,
+      CompressionFormat.fromFilename(originalFilename).extension()
+    );
+  }
+
+  @Override
+  public StagedUpload stageErrorReport(String originalFilename) {
+    return stage(originalFilename, ERROR_REPORT_EXTENSION);
+  }
+
+  private StagedUpload stage(String originalFilename, String extension) {
+    try {
+      Path stagingDir = resolveBasePath().resolve(STAGING_DIR);
+      ensureDirectoryExists(stagingDir);
+      Path tempFile = Files.createTempFile(stagingDir, "upload-", ".part");
+      return new LocalStagedUpload(tempFile, originalFilename, extension);
+    } catch (IOException e) {
+      throw new CsvProcessingException(
+        "Erro ao preparar armazenamento do arquivo CSV: " + originalFilename,
+        e
+      );
+    }
+  }
+
+  @Override
+  public void createUpload(UUID uploadId) {
+    try {
+      Path uploadsDir = resolveBasePath().resolve(UPLOADS_DIR);
+      ensureDirectoryExists(uploadsDir);
+      Files.createFile(uploadPath(uploadId));
+    } catch (IOException e) {
+      throw new CsvProcessingException(
+        "Erro ao criar arquivo do upload " + uploadId,
+        e
+      );
+    }
+  }
+
+  @Override
+  public StagedUploadChunk stageUploadChunk(
+    UUID uploadId,
+    long offset,
+    InputStream data,
+    long maxLength
+  ) {
+    Path tempFile = null;
+    try {
+      Path stagingDir = resolveBasePath().resolve(STAGING_DIR);
+      ensureDirectoryExists(stagingDir);
+      tempFile = Files.createTempFile(stagingDir, "chunk-", ".part");
+
+      long received = 0;
+      try (OutputStream out = Files.newOutputStream(tempFile)) {
+        byte[] buffer = new byte[CHUNK_BUFFER_SIZE];
+        // Lê um byte além do limite só para detectar parte maior que o esperado; ele nunca é guardado
+        while (received <= maxLength) {
+          int toRead = (int) Math.min(
+            buffer.length,
+            maxLength + 1 - received
+          );
+          int n = data.read(buffer, 0, toRead);
+          if (n < 0) {
+            break;
+          }
+          out.write(buffer, 0, (int) Math.min(n, maxLength - received));
+          received += n;
+        }
+      }
+      return new LocalStagedUploadChunk(uploadId, offset, tempFile, received);
+    } catch (IOException e) {
+      deleteQuietly(tempFile);
+      throw new CsvProcessingException(
+        "Erro ao receber parte do upload " + uploadId,
+        e
+      );
+    }
+  }
+
+  @Override
+  public InputStream openUpload(UUID uploadId) {
+    try {
+      return Files.newInputStream(uploadPath(uploadId));
+    } catch (IOException e) {
+      throw new CsvProcessingException(
+        "Erro ao abrir arquivo do upload " + uploadId,
+        e
+      );
+    }
+  }
+
+  @Override
+  public URI promoteUpload(
+    UUID uploadId,
+    String sha256,
+    String originalFilename
+  ) {
+    try {
+      Path targetPath = promoteContent(
+        uploadPath(uploadId),
+        sha256,
+        CompressionFormat.fromFilename(originalFilename).extension()
+      );
+
+      log.info(
+        "Upload em partes {} armazenado localmente: {} -> {}",
+        uploadId,
+        originalFilename,
+        targetPath
+      );
+
+      return targetPath.toUri();
+    } catch (IOException e) {
+      throw new CsvProcessingException(
+        "Erro ao armazenar upload em partes: " + originalFilename,
+        e
+      );
+    }
+  }
+
+  @Override
+  public void deleteUpload(UUID uploadId) {
+    delete(uploadPath(uploadId).toUri());
+  }
+
+  /**
+   * Move {@code source} para {@code objects/<2 primeiros hex>/<sha256><extensão>}. Conteúdo já armazenado não é
+   * regravado: o arquivo de origem é descartado e o existente é reaproveitado.
+   */
+  private Path promoteContent(Path source, String sha256, String extension)
+    throws IOException {
+    Path targetPath = resolveBasePath()
+      .resolve(CONTENT_DIR)
+      .resolve(sha256.substring(0, 2))
+      .resolve(sha256 + extension);
+
+    if (Files.exists(targetPath)) {
+      Files.delete(source);
+      log.debug("Conteúdo {} já armazenado, reaproveitando", sha256);
+      return targetPath;
+    }
+
+    ensureDirectoryExists(targetPath.getParent());
+    Files.move(source, targetPath, StandardCopyOption.ATOMIC_MOVE);
+    return targetPath;
+  }
+
+  private Path uploadPath(UUID uploadId) {
+    return resolveBasePath().resolve(UPLOADS_DIR).resolve(uploadId + ".part");
+  }
+
   @Override
   public void delete(URI uri) {
     try {
@@ -100,22 +268,32 @@ public class LocalStorageService implements StorageService {
     }
   }
 
-  private Path buildFilePath(UUID jobId, String originalFilename) {
+  private Path buildFilePath(
+    UUID jobId,
+    String originalFilename,
+    String extension
+  ) {
+    String dateDir = LocalDateTime.now().format(DIR_FORMATTER);
+    String filename = buildFilename(jobId, originalFilename, extension);
+
+    return resolveBasePath().resolve(dateDir).resolve(filename);
+  }
+
+  private Path resolveBasePath() {
     String baseDir = properties.getBaseDir();
-    Path basePath = Paths.get(baseDir).isAbsolute()
+    return Paths.get(baseDir).isAbsolute()
       ? Paths.get(baseDir)
       : Paths.get(System.getProperty("user.dir"), baseDir);
-
-    String dateDir = LocalDateTime.now().format(DIR_FORMATTER);
-    String filename = buildFilename(jobId, originalFilename);
-
-    return basePath.resolve(dateDir).resolve(filename);
   }
 
-  private String buildFilename(UUID jobId, String originalFilename) {
+  private String buildFilename(
+    UUID jobId,
+    String originalFilename,
+    String extension
+  ) {
     String sanitized = sanitizeFilename(originalFilename);
     String nameWithoutExt = removeExtension(sanitized);
-    return String.format("%s_%s%s", nameWithoutExt, jobId, FILE_EXTENSION);
+    return String.format("%s_%s%s", nameWithoutExt, jobId, extension);
   }
 
   private String sanitizeFilename(String filename) {
@@ -126,14 +304,187 @@ public class LocalStorageService implements StorageService {
   }
 
   private String removeExtension(String filename) {
+    if (filename.toLowerCase().endsWith(CompressionFormat.GZIP.extension())) {
+      return filename.substring(
+        0,
+        filename.length() - CompressionFormat.GZIP.extension().length()
+      );
+    }
     int lastDot = filename.lastIndexOf('.');
     return lastDot > 0 ? filename.substring(0, lastDot) : filename;
   }
 
+  private void deleteQuietly(Path tempFile) {
+    if (tempFile == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(tempFile);
+    } catch (IOException e) {
+      log.warn("Erro ao remover arquivo temporário: {}", tempFile, e);
+    }
+  }
+
   private void ensureDirectoryExists(Path directory) throws IOException {
     if (properties.isCreateDirectories() && !Files.exists(directory)) {
       Files.createDirectories(directory);
       log.debug("Diretório criado: {}", directory);
     }
   }
+
+  /** Arquivo temporário na área de staging, movido atomicamente para o caminho definitivo ao ser promovido. */
+  private final class LocalStagedUpload implements StagedUpload {
+
+    private final Path tempFile;
+    private final String originalFilename;
+    private final String extension;
+    private final OutputStream outputStream;
+    private boolean promoted;
+
+    private LocalStagedUpload(
+      Path tempFile,
+      String originalFilename,
+      String extension
+    ) throws IOException {
+      this.tempFile = tempFile;
+      this.originalFilename = originalFilename;
+      this.extension = extension;
+      this.outputStream =
+        new BufferedOutputStream(
+          Files.newOutputStream(tempFile),
+          STAGING_BUFFER_SIZE
+        );
+    }
+
+    @Override
+    public OutputStream outputStream() {
+      return outputStream;
+    }
+
+    @Override
+    public URI promote(UUID jobId) {
+      try {
+        outputStream.close();
+        Path targetPath = buildFilePath(jobId, originalFilename, extension);
+        ensureDirectoryExists(targetPath.getParent());
+        Files.move(tempFile, targetPath, StandardCopyOption.ATOMIC_MOVE);
+        promoted = true;
+
+        log.info(
+          "Arquivo CSV armazenado localmente: {} -> {}",
+          originalFilename,
+          targetPath
+        );
+
+        return targetPath.toUri();
+      } catch (IOException e) {
+        throw new CsvProcessingException(
+          "Erro ao armazenar arquivo CSV: " + originalFilename,
+          e
+        );
+      }
+    }
+
+    @Override
+    public URI promoteContent(String sha256) {
+      try {
+        outputStream.close();
+        Path targetPath = LocalStorageService.this.promoteContent(
+            tempFile,
+            sha256,
+            extension
+          );
+        promoted = true;
+
+        log.info(
+          "Arquivo CSV armazenado localmente: {} -> {}",
+          originalFilename,
+          targetPath
+        );
+
+        return targetPath.toUri();
+      } catch (IOException e) {
+        throw new CsvProcessingException(
+          "Erro ao armazenar arquivo CSV: " + originalFilename,
+          e
+        );
+      }
+    }
+
+    @Override
+    public void close() {
+      if (promoted) {
+        return;
+      }
+      try {
+        outputStream.close();
+      } catch (IOException e) {
+        log.debug("Erro ao fechar arquivo temporário {}", tempFile, e);
+      }
+      try {
+        Files.deleteIfExists(tempFile);
+        log.debug("Arquivo temporário descartado: {}", tempFile);
+      } catch (IOException e) {
+        log.warn("Erro ao remover arquivo temporário: {}", tempFile, e);
+      }
+    }
+  }
+
+  /** Parte recebida em staging; confirmada, é copiada para a sua posição no arquivo montado. */
+  private final class LocalStagedUploadChunk implements StagedUploadChunk {
+
+    private final UUID uploadId;
+    private final long offset;
+    private final Path tempFile;
+    private final long received;
+
+    private LocalStagedUploadChunk(
+      UUID uploadId,
+      long offset,
+      Path tempFile,
+      long received
+    ) {
+      this.uploadId = uploadId;
+      this.offset = offset;
+      this.tempFile = tempFile;
+      this.received = received;
+    }
+
+    @Override
+    public long received() {
+      return received;
+    }
+
+    @Override
+    public void commit() {
+      try (
+        FileChannel source = FileChannel.open(
+          tempFile,
+          StandardOpenOption.READ
+        );
+        FileChannel target = FileChannel.open(
+          uploadPath(uploadId),
+          StandardOpenOption.WRITE
+        )
+      ) {
+        long size = source.size();
+        long copied = 0;
+        // transferFrom não grava além do fim do arquivo; com o destino posicionado, partes fora de ordem estendem o arquivo
+        target.position(offset);
+        while (copied < size) {
+          copied += source.transferTo(copied, size - copied, target);
+        }
+      } catch (IOException e) {
+        throw new CsvProcessingException(
+          "Erro ao gravar parte do upload " + uploadId,
+          e
+        );
+      }
+    }
+
+    @Override
+    public void close() {
+      deleteQuietly(tempFile);
+    }
+  }
 }
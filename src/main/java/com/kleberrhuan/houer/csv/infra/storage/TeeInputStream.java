@@ -0,0 +1,68 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * InputStream que replica para um {@link OutputStream} tudo o que é lido da origem. Permite validar e armazenar um
+ * upload em uma única passada. Fechar o stream fecha apenas a origem; o destino pertence a quem o criou.
+ */
+public class TeeInputStream extends FilterInputStream {
+
+  private final OutputStream branch;
+
+  public TeeInputStream(InputStream source, OutputStream branch) {
+    super(source);
+    this.branch = branch;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int b = super.read();
+    if (b != -1) {
+      branch.write(b);
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] buffer, int offset, int length) throws IOException {
+    int n = super.read(buffer, offset, length);
+    if (n > 0) {
+      branch.write(buffer, offset, n);
+    }
+    return n;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    byte[] buffer = new byte[(int) Math.min(n, 8192)];
+    long skipped = 0;
+    while (skipped < n) {
+      int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+      if (read < 0) {
+        break;
+      }
+      skipped += read;
+    }
+    return skipped;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public synchronized void mark(int readlimit) {
+    // não suportado: o conteúdo replicado não pode ser "desfeito"
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    throw new IOException("mark/reset não suportado");
+  }
+}
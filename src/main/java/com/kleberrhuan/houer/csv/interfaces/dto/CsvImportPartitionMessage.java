@@ -0,0 +1,14 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.interfaces.dto;
+
+import java.util.UUID;
+
+/**
+ * Mensagem da fila de partições: identifica a {@code StepExecution} de uma faixa do arquivo, já gravada no
+ * {@code JobRepository} pelo step gerenciador.
+ */
+public record CsvImportPartitionMessage(
+  UUID jobId,
+  Long jobExecutionId,
+  Long stepExecutionId
+) {}
@@ -5,12 +5,16 @@ import java.net.URI;
 import java.time.Instant;
 import java.util.UUID;
 
-/** Mensagem para fila RabbitMQ de processamento CSV. */
+/**
+ * Mensagem para fila RabbitMQ de processamento CSV. {@code skipInvalidRows} indica que o upload foi aceito com linhas
+ * inválidas, que o job deve descartar.
+ */
 public record CsvImportQueueMessage(
   UUID jobId,
   String filename,
   URI fileUri,
   String description,
   Long userId,
-  Instant scheduledAt
+  Instant scheduledAt,
+  boolean skipInvalidRows
 ) {}
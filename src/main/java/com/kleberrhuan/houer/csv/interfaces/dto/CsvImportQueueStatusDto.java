@@ -0,0 +1,13 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.interfaces.dto;
+
+import java.util.List;
+
+/** Estado da fila de importações e os jobs do usuário que ainda aguardam admissão, na ordem da fila. */
+public record CsvImportQueueStatusDto(
+  int waitingJobs,
+  int runningJobs,
+  int maxConcurrentJobs,
+  long longestWaitSeconds,
+  List<CsvImportResponseDto> userQueuedJobs
+) {}
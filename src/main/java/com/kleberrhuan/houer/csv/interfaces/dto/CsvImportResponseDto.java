@@ -2,16 +2,24 @@
 package com.kleberrhuan.houer.csv.interfaces.dto;
 
 import com.kleberrhuan.houer.csv.domain.model.ImportJobStatus;
+import com.kleberrhuan.houer.csv.domain.model.ImportPriority;
 import java.time.Instant;
 import java.util.UUID;
 
+/** Job de importação; {@code queuePosition} só vem preenchido enquanto o job aguarda admissão na fila. */
 public record CsvImportResponseDto(
   UUID jobId,
   String filename,
   ImportJobStatus status,
+  ImportPriority priority,
+  Integer queuePosition,
+  Instant queuedAt,
   Integer totalRecords,
   Integer processedRecords,
   Integer errorRecords,
+  Integer insertedRecords,
+  Integer updatedRecords,
+  Integer unchangedRecords,
   String errorMessage,
   Instant startedAt,
   Instant finishedAt,
@@ -0,0 +1,29 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.interfaces.dto;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Telemetria de um job por estágio (read, validate, map, dedup, write), dos chunks e das linhas recusadas por motivo,
+ * como vista pela réplica que respondeu.
+ */
+public record CsvImportStatsDto(
+  UUID jobId,
+  boolean running,
+  Map<String, StageDto> stages,
+  ChunksDto chunks,
+  Map<String, Long> rejectedRows
+) {
+  public record StageDto(long rows, double seconds, double rowsPerSecond) {}
+
+  public record ChunksDto(
+    int inFlight,
+    long committed,
+    long rolledBack,
+    double p50Millis,
+    double p95Millis,
+    double p99Millis,
+    double maxMillis
+  ) {}
+}
@@ -42,7 +42,9 @@ public class CsvNotificationMessage {
 
   public Boolean isFinished() {
     return (
-      status == ImportJobStatus.COMPLETED || status == ImportJobStatus.FAILED
+      status == ImportJobStatus.COMPLETED ||
+      status == ImportJobStatus.FAILED ||
+      status == ImportJobStatus.CANCELLED
     );
   }
 }
@@ -0,0 +1,11 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.interfaces.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+/** DTO para abertura de um upload de CSV em partes. */
+public record CsvUploadSessionRequestDto(
+  @NotBlank(message = "Nome do arquivo é obrigatório") String filename,
+  @Positive(message = "Tamanho do arquivo deve ser positivo") long size
+) {}
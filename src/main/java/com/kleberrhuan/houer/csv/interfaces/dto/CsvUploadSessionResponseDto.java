@@ -0,0 +1,18 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.interfaces.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/** Estado de um upload em partes: o cliente reenvia as partes que não estão em {@code receivedChunks}. */
+public record CsvUploadSessionResponseDto(
+  UUID uploadId,
+  String filename,
+  long totalSize,
+  int chunkSize,
+  int chunkCount,
+  List<Integer> receivedChunks,
+  UUID jobId,
+  Instant expiresAt
+) {}
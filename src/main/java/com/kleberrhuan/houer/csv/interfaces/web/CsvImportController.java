@@ -7,18 +7,32 @@ import com.kleberrhuan.houer.common.interfaces.dto.response.PaginatedResponse;
 import com.kleberrhuan.houer.csv.application.mapper.CsvImportMapper;
 import com.kleberrhuan.houer.csv.application.service.ConcurrentSafeCsvImportService;
 import com.kleberrhuan.houer.csv.application.service.CsvImportService;
+import com.kleberrhuan.houer.csv.application.service.CsvUploadService;
+import com.kleberrhuan.houer.csv.application.service.ImportQueueScheduler;
 import com.kleberrhuan.houer.csv.domain.model.CsvImportJob;
+import com.kleberrhuan.houer.csv.domain.model.CsvUploadSession;
 import com.kleberrhuan.houer.csv.domain.model.ImportJobStatus;
+import com.kleberrhuan.houer.csv.infra.observability.ImportPipelineMetrics;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportQueueStatusDto;
 import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportRequestDto;
 import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportResponseDto;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportStatsDto;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvUploadSessionRequestDto;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvUploadSessionResponseDto;
 import jakarta.validation.Valid;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -32,9 +46,14 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class CsvImportController implements CsvImportControllerDocumentation {
 
+  private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+  private static final String CHUNK_CHECKSUM_HEADER = "X-Chunk-Checksum";
+
   private final CsvImportService csvImportService;
   private final ConcurrentSafeCsvImportService concurrentSafeCsvImportService;
+  private final CsvUploadService csvUploadService;
   private final CsvImportMapper csvImportMapper;
+  private final ImportQueueScheduler importQueueScheduler;
 
   @PostMapping(
     value = "/import",
@@ -58,7 +77,7 @@ public class CsvImportController implements CsvImportControllerDocumentation {
     );
 
     CsvImportJob job = csvImportService.findJobById(jobId);
-    CsvImportResponseDto response = csvImportMapper.toResponseDto(job);
+    CsvImportResponseDto response = toResponseDto(job);
 
     log.info(
       "Importação CSV iniciada com controle de concorrência: jobId={}, arquivo={}, usuário={}",
@@ -67,7 +86,7 @@ public class CsvImportController implements CsvImportControllerDocumentation {
       userId
     );
 
-    return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    return ResponseEntity.status(enqueueStatus(job)).body(response);
   }
 
   @GetMapping("/jobs/{jobId}")
@@ -88,7 +107,7 @@ public class CsvImportController implements CsvImportControllerDocumentation {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
       }
 
-      CsvImportResponseDto response = csvImportMapper.toResponseDto(job);
+      CsvImportResponseDto response = toResponseDto(job);
       return ResponseEntity.ok(response);
     } catch (Exception e) {
       log.error("Erro ao buscar detalhes do job {}: {}", jobId, e.getMessage());
@@ -96,6 +115,38 @@ public class CsvImportController implements CsvImportControllerDocumentation {
     }
   }
 
+  @GetMapping("/jobs/{jobId}/stats")
+  public ResponseEntity<CsvImportStatsDto> getJobStats(
+    @PathVariable UUID jobId,
+    Authentication auth
+  ) {
+    try {
+      CsvImportJob job = csvImportService.findJobById(jobId);
+
+      Long userId = getCurrentUserId(auth);
+      if (userId == null || !job.getCreatedBy().equals(userId)) {
+        log.warn(
+          "Usuário {} tentou acessar estatísticas do job {} sem permissão",
+          userId,
+          jobId
+        );
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+      }
+
+      return csvImportService
+        .findJobStats(jobId)
+        .map(stats -> ResponseEntity.ok(toStatsDto(stats)))
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    } catch (Exception e) {
+      log.error(
+        "Erro ao buscar estatísticas do job {}: {}",
+        jobId,
+        e.getMessage()
+      );
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+  }
+
   @GetMapping("/jobs")
   public ResponseEntity<PaginatedResponse<List<CsvImportResponseDto>>> listUserJobs(
     PageableRequest pageableRequest,
@@ -134,15 +185,16 @@ public class CsvImportController implements CsvImportControllerDocumentation {
       PaginatedResponse<List<CsvImportJob>> jobs =
         csvImportService.findJobsByUser(userId, pageableRequest);
 
-      List<CsvImportResponseDto> activeJobs = jobs
-        .content()
-        .stream()
-        .filter(job ->
-          job.getStatus() == ImportJobStatus.PENDING ||
-          job.getStatus() == ImportJobStatus.RUNNING
-        )
-        .map(csvImportMapper::toResponseDto)
-        .toList();
+      List<CsvImportResponseDto> activeJobs = toResponseDtos(
+        jobs
+          .content()
+          .stream()
+          .filter(job ->
+            job.getStatus() == ImportJobStatus.PENDING ||
+            job.getStatus() == ImportJobStatus.RUNNING
+          )
+          .toList()
+      );
 
       log.debug("Usuário {} tem {} jobs ativos", userId, activeJobs.size());
       return ResponseEntity.ok(activeJobs);
@@ -156,6 +208,39 @@ public class CsvImportController implements CsvImportControllerDocumentation {
     }
   }
 
+  @GetMapping("/jobs/queue")
+  public ResponseEntity<CsvImportQueueStatusDto> getQueueStatus(
+    Authentication auth
+  ) {
+    Long userId = getCurrentUserId(auth);
+
+    if (userId == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    ImportQueueScheduler.QueueSnapshot snapshot =
+      importQueueScheduler.snapshot();
+    List<CsvImportJob> queued = importQueueScheduler.queuedJobs();
+
+    List<CsvImportResponseDto> userJobs = new ArrayList<>();
+    for (int i = 0; i < queued.size(); i++) {
+      CsvImportJob job = queued.get(i);
+      if (userId.equals(job.getCreatedBy())) {
+        userJobs.add(csvImportMapper.toResponseDto(job, i + 1));
+      }
+    }
+
+    return ResponseEntity.ok(
+      new CsvImportQueueStatusDto(
+        snapshot.waiting(),
+        snapshot.running(),
+        snapshot.maxConcurrentJobs(),
+        snapshot.longestWait().toSeconds(),
+        userJobs
+      )
+    );
+  }
+
   @GetMapping("/jobs/status/{status}")
   public ResponseEntity<PaginatedResponse<List<CsvImportResponseDto>>> listJobsByStatus(
     @PathVariable ImportJobStatus status,
@@ -191,7 +276,7 @@ public class CsvImportController implements CsvImportControllerDocumentation {
       concurrentSafeCsvImportService.cancelJob(jobId, userId);
 
       CsvImportJob job = csvImportService.findJobById(jobId);
-      CsvImportResponseDto response = csvImportMapper.toResponseDto(job);
+      CsvImportResponseDto response = toResponseDto(job);
 
       log.info(
         "Job {} cancelado com controle de concorrência pelo usuário {}",
@@ -211,6 +296,147 @@ public class CsvImportController implements CsvImportControllerDocumentation {
     }
   }
 
+  @PostMapping("/jobs/{jobId}/resume")
+  public ResponseEntity<CsvImportResponseDto> resumeJob(
+    @PathVariable UUID jobId,
+    Authentication auth
+  ) {
+    Long userId = getCurrentUserId(auth);
+
+    if (userId == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    concurrentSafeCsvImportService.resumeJob(jobId, userId);
+
+    CsvImportJob job = csvImportService.findJobById(jobId);
+    log.info("Job {} retomado pelo usuário {}", jobId, userId);
+
+    return ResponseEntity
+      .status(HttpStatus.ACCEPTED)
+      .body(toResponseDto(job));
+  }
+
+  @GetMapping(value = "/jobs/{jobId}/errors", produces = NDJSON_MEDIA_TYPE)
+  public ResponseEntity<InputStreamResource> downloadErrorReport(
+    @PathVariable UUID jobId,
+    Authentication auth
+  ) {
+    Long userId = getCurrentUserId(auth);
+
+    if (userId == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    InputStream report = csvImportService.openErrorReport(jobId, userId);
+
+    return ResponseEntity
+      .ok()
+      .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+      .header(
+        HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition
+          .attachment()
+          .filename(jobId + "-errors.ndjson")
+          .build()
+          .toString()
+      )
+      .body(new InputStreamResource(report));
+  }
+
+  @PostMapping(
+    value = "/uploads",
+    consumes = MediaType.APPLICATION_JSON_VALUE,
+    produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  public ResponseEntity<CsvUploadSessionResponseDto> createUpload(
+    @Valid @RequestBody CsvUploadSessionRequestDto request,
+    Authentication auth
+  ) {
+    Long userId = getCurrentUserId(auth);
+
+    if (userId == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    CsvUploadSession session = csvUploadService.createSession(
+      request.filename(),
+      request.size()
+    );
+
+    return ResponseEntity
+      .status(HttpStatus.CREATED)
+      .body(csvImportMapper.toUploadResponseDto(session, List.of()));
+  }
+
+  @PutMapping(
+    value = "/uploads/{uploadId}/chunks/{index}",
+    consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE
+  )
+  public ResponseEntity<Void> uploadChunk(
+    @PathVariable UUID uploadId,
+    @PathVariable int index,
+    @RequestHeader(CHUNK_CHECKSUM_HEADER) String checksum,
+    InputStream body,
+    Authentication auth
+  ) {
+    Long userId = getCurrentUserId(auth);
+
+    if (userId == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    csvUploadService.uploadChunk(uploadId, index, body, checksum, userId);
+    return ResponseEntity.noContent().build();
+  }
+
+  @GetMapping("/uploads/{uploadId}")
+  public ResponseEntity<CsvUploadSessionResponseDto> getUpload(
+    @PathVariable UUID uploadId,
+    Authentication auth
+  ) {
+    Long userId = getCurrentUserId(auth);
+
+    if (userId == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    CsvUploadSession session = csvUploadService.findSession(uploadId, userId);
+    List<Integer> received = session.isCompleted()
+      ? List.of()
+      : csvUploadService.findReceivedChunks(uploadId);
+
+    return ResponseEntity.ok(
+      csvImportMapper.toUploadResponseDto(session, received)
+    );
+  }
+
+  @PostMapping("/uploads/{uploadId}/complete")
+  public ResponseEntity<CsvImportResponseDto> completeUpload(
+    @PathVariable UUID uploadId,
+    Authentication auth
+  ) {
+    Long userId = getCurrentUserId(auth);
+
+    if (userId == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    UUID jobId = csvUploadService.complete(uploadId, userId);
+
+    CsvImportJob job = csvImportService.findJobById(jobId);
+    log.info(
+      "Upload em partes {} finalizado: jobId={}, usuário={}",
+      uploadId,
+      jobId,
+      userId
+    );
+
+    return ResponseEntity
+      .status(enqueueStatus(job))
+      .body(toResponseDto(job));
+  }
+
   @GetMapping("/websocket/status")
   public ResponseEntity<Map<String, Object>> getWebSocketStatus(
     Authentication auth
@@ -300,11 +526,7 @@ public class CsvImportController implements CsvImportControllerDocumentation {
   private ResponseEntity<PaginatedResponse<List<CsvImportResponseDto>>> getPaginatedResponseResponseEntity(
     PaginatedResponse<List<CsvImportJob>> jobs
   ) {
-    List<CsvImportResponseDto> dtoList = jobs
-      .content()
-      .stream()
-      .map(csvImportMapper::toResponseDto)
-      .toList();
+    List<CsvImportResponseDto> dtoList = toResponseDtos(jobs.content());
 
     PaginatedResponse<List<CsvImportResponseDto>> response =
       new PaginatedResponse<>(
@@ -319,6 +541,39 @@ public class CsvImportController implements CsvImportControllerDocumentation {
     return ResponseEntity.ok(response);
   }
 
+  private CsvImportResponseDto toResponseDto(CsvImportJob job) {
+    return toResponseDtos(List.of(job)).getFirst();
+  }
+
+  /** Jobs ainda na fila saem com a posição atual; a ordem da fila só é calculada se algum deles estiver aguardando. */
+  private List<CsvImportResponseDto> toResponseDtos(List<CsvImportJob> jobs) {
+    Map<UUID, Integer> positions = jobs
+        .stream()
+        .anyMatch(CsvImportController::isQueued)
+      ? importQueueScheduler.queuePositions()
+      : Map.of();
+    return jobs
+      .stream()
+      .map(job ->
+        csvImportMapper.toResponseDto(job, positions.get(job.getId()))
+      )
+      .toList();
+  }
+
+  private static boolean isQueued(CsvImportJob job) {
+    return (
+      job.getStatus() == ImportJobStatus.PENDING &&
+      job.getDispatchedAt() == null
+    );
+  }
+
+  /** Job já concluído (arquivo idêntico a uma importação anterior ou gravado na requisição): 200 em vez de 202. */
+  private static HttpStatus enqueueStatus(CsvImportJob job) {
+    return job.getStatus() == ImportJobStatus.COMPLETED
+      ? HttpStatus.OK
+      : HttpStatus.ACCEPTED;
+  }
+
   private Long getCurrentUserId(Authentication auth) {
     if (auth != null && auth.getPrincipal() instanceof Jwt jwt) {
       String subClaim = jwt.getClaim("sub");
@@ -333,4 +588,38 @@ public class CsvImportController implements CsvImportControllerDocumentation {
     }
     return null;
   }
+
+  private static CsvImportStatsDto toStatsDto(
+    ImportPipelineMetrics.JobStats stats
+  ) {
+    Map<String, CsvImportStatsDto.StageDto> stages = new LinkedHashMap<>();
+    stats
+      .stages()
+      .forEach((stage, stageStats) ->
+        stages.put(
+          stage.tag(),
+          new CsvImportStatsDto.StageDto(
+            stageStats.rows(),
+            stageStats.seconds(),
+            stageStats.rowsPerSecond()
+          )
+        )
+      );
+    ImportPipelineMetrics.ChunkStats chunks = stats.chunks();
+    return new CsvImportStatsDto(
+      stats.jobId(),
+      stats.running(),
+      stages,
+      new CsvImportStatsDto.ChunksDto(
+        chunks.inFlight(),
+        chunks.committed(),
+        chunks.rolledBack(),
+        chunks.p50Millis(),
+        chunks.p95Millis(),
+        chunks.p99Millis(),
+        chunks.maxMillis()
+      ),
+      stats.rejectedRows()
+    );
+  }
 }
@@ -0,0 +1,5 @@
+-- Guarda o arquivo promovido do job para permitir retomar a importação a partir do último checkpoint
+ALTER TABLE csv.csv_import_job
+ADD COLUMN IF NOT EXISTS file_uri TEXT;
+
+COMMENT ON COLUMN csv.csv_import_job.file_uri IS 'URI do arquivo armazenado, usada para retomar a importação';
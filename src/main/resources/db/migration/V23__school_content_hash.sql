@@ -0,0 +1,49 @@
+-- Migration V23: Hash de conteúdo por escola para importações delta
+
+-- Hash de 64 bits do registro normalizado (dados básicos + métricas) gravado pela última importação
+ALTER TABLE school.school
+ADD COLUMN IF NOT EXISTS content_hash BIGINT;
+
+COMMENT ON COLUMN school.school.content_hash IS 'Hash do último registro importado via CSV; NULL força regravação na próxima importação';
+
+-- Contadores da importação delta
+ALTER TABLE csv.csv_import_job
+ADD COLUMN IF NOT EXISTS inserted_records INTEGER DEFAULT 0,
+ADD COLUMN IF NOT EXISTS updated_records INTEGER DEFAULT 0,
+ADD COLUMN IF NOT EXISTS unchanged_records INTEGER DEFAULT 0;
+
+-- Alterações feitas fora da importação (API) invalidam o hash. A importação marca a transação com
+-- app.csv_import = 'on' para não invalidar o hash que acabou de gravar.
+CREATE OR REPLACE FUNCTION school.invalidate_school_content_hash()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF current_setting('app.csv_import', true) IS DISTINCT FROM 'on' THEN
+        NEW.content_hash := NULL;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION school.invalidate_school_content_hash_from_metrics()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF current_setting('app.csv_import', true) IS DISTINCT FROM 'on' THEN
+        UPDATE school.school
+        SET content_hash = NULL
+        WHERE code = NEW.school_code AND content_hash IS NOT NULL;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_school_invalidate_content_hash ON school.school;
+CREATE TRIGGER trg_school_invalidate_content_hash
+    BEFORE UPDATE ON school.school
+    FOR EACH ROW
+    EXECUTE FUNCTION school.invalidate_school_content_hash();
+
+DROP TRIGGER IF EXISTS trg_school_metrics_invalidate_content_hash ON school.school_metrics_jsonb;
+CREATE TRIGGER trg_school_metrics_invalidate_content_hash
+    AFTER INSERT OR UPDATE ON school.school_metrics_jsonb
+    FOR EACH ROW
+    EXECUTE FUNCTION school.invalidate_school_content_hash_from_metrics();
@@ -0,0 +1,5 @@
+-- Relatório NDJSON com as linhas ignoradas no modo de importação com tolerância a erros
+ALTER TABLE csv.csv_import_job
+ADD COLUMN IF NOT EXISTS error_report_uri TEXT;
+
+COMMENT ON COLUMN csv.csv_import_job.error_report_uri IS 'URI do relatório de linhas inválidas ignoradas na importação';
@@ -0,0 +1,36 @@
+-- Uploads em partes: a sessão reserva o arquivo e cada parte confirmada é registrada com seu checksum
+
+CREATE TABLE IF NOT EXISTS csv.csv_upload_session (
+  id          UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  filename    TEXT NOT NULL,
+  total_size  BIGINT NOT NULL,
+  chunk_size  INTEGER NOT NULL,
+  chunk_count INTEGER NOT NULL,
+  job_id      UUID REFERENCES csv.csv_import_job(id),
+  expires_at  TIMESTAMP NOT NULL,
+  version     BIGINT NOT NULL DEFAULT 0,
+
+  -- Colunas de auditoria (Auditable)
+  created_at  TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  created_by  BIGINT NOT NULL,
+  updated_by  BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS csv.csv_upload_chunk (
+  id          UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  session_id  UUID NOT NULL REFERENCES csv.csv_upload_session(id) ON DELETE CASCADE,
+  chunk_index INTEGER NOT NULL,
+  size        INTEGER NOT NULL,
+  sha256      TEXT NOT NULL,
+  received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT uk_csv_upload_chunk UNIQUE (session_id, chunk_index)
+);
+
+CREATE INDEX IF NOT EXISTS idx_csv_upload_session_expires_at ON csv.csv_upload_session(expires_at) WHERE job_id IS NULL;
+
+COMMENT ON TABLE csv.csv_upload_session IS 'Sessões de upload de CSV em partes';
+COMMENT ON COLUMN csv.csv_upload_session.job_id IS 'Job criado ao finalizar a sessão';
+COMMENT ON COLUMN csv.csv_upload_session.expires_at IS 'Sessões não finalizadas até esta data são descartadas';
+COMMENT ON TABLE csv.csv_upload_chunk IS 'Partes recebidas de uma sessão de upload';
+COMMENT ON COLUMN csv.csv_upload_chunk.sha256 IS 'SHA-256 (hex) informado pelo cliente e conferido na gravação';
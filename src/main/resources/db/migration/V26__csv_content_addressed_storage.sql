@@ -0,0 +1,17 @@
+-- Arquivos de importação passam a ser armazenados pelo SHA-256 do conteúdo, compartilhados entre jobs
+
+ALTER TABLE csv.csv_import_job
+ADD COLUMN IF NOT EXISTS content_sha256 VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_csv_import_job_content_sha256
+  ON csv.csv_import_job(created_by, content_sha256, created_at DESC)
+  WHERE status = 'COMPLETED';
+
+CREATE TABLE IF NOT EXISTS csv.csv_stored_file (
+  sha256     VARCHAR(64) PRIMARY KEY,
+  ref_count  INTEGER NOT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON COLUMN csv.csv_import_job.content_sha256 IS 'SHA-256 (hex) do arquivo enviado, como recebido';
+COMMENT ON TABLE csv.csv_stored_file IS 'Arquivos armazenados por conteúdo e quantos jobs ainda dependem de cada um';
@@ -0,0 +1,20 @@
+-- Fila persistente de importações: jobs PENDING aguardam admissão pelo escalonador antes de irem para o RabbitMQ
+
+ALTER TABLE csv.csv_import_job
+ADD COLUMN IF NOT EXISTS priority VARCHAR(10) NOT NULL DEFAULT 'NORMAL',
+ADD COLUMN IF NOT EXISTS queued_at TIMESTAMP,
+ADD COLUMN IF NOT EXISTS dispatched_at TIMESTAMP;
+
+-- Jobs já enfileirados no broker antes desta versão não devem ser publicados de novo
+UPDATE csv.csv_import_job
+SET queued_at = created_at,
+    dispatched_at = CASE WHEN status IN ('PENDING', 'RUNNING') THEN created_at END
+WHERE queued_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_csv_import_job_waiting
+  ON csv.csv_import_job(queued_at)
+  WHERE status = 'PENDING' AND dispatched_at IS NULL;
+
+COMMENT ON COLUMN csv.csv_import_job.priority IS 'Faixa de prioridade na fila (HIGH, NORMAL)';
+COMMENT ON COLUMN csv.csv_import_job.queued_at IS 'Entrada (ou reentrada, na retomada) do job na fila';
+COMMENT ON COLUMN csv.csv_import_job.dispatched_at IS 'Admissão do job pelo escalonador e publicação no broker';
@@ -0,0 +1,5 @@
+-- Um usuário não pode ter duas importações ativas do mesmo arquivo, em nenhuma réplica da API
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_csv_import_job_active_content
+  ON csv.csv_import_job(created_by, content_sha256)
+  WHERE status IN ('PENDING', 'RUNNING') AND content_sha256 IS NOT NULL;
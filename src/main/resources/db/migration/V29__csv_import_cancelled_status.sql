@@ -0,0 +1,8 @@
+-- Importações canceladas pelo usuário ficam em CANCELLED, separadas das que falharam
+
+ALTER TABLE csv.csv_import_job DROP CONSTRAINT IF EXISTS csv_import_job_status_check;
+ALTER TABLE csv.csv_import_job
+  ADD CONSTRAINT csv_import_job_status_check
+  CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED', 'CANCELLED'));
+
+COMMENT ON COLUMN csv.csv_import_job.status IS 'Status do job (PENDING, RUNNING, COMPLETED, FAILED, CANCELLED)';
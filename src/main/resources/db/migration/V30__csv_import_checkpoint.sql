@@ -0,0 +1,6 @@
+-- Checkpoint compacto das partições para o modo de repositório leve do Spring Batch, que não grava nas tabelas BATCH_
+
+ALTER TABLE csv.csv_import_job
+ADD COLUMN IF NOT EXISTS checkpoint TEXT;
+
+COMMENT ON COLUMN csv.csv_import_job.checkpoint IS 'Contexto de restart de cada partição (JSON); limpo quando o job conclui';
@@ -0,0 +1,156 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.benchmark;
+
+import com.kleberrhuan.houer.csv.application.parser.CsvParser;
+import com.kleberrhuan.houer.csv.application.processor.CsvProcessor;
+import com.kleberrhuan.houer.csv.application.processor.CsvSchoolProcessor;
+import com.kleberrhuan.houer.csv.application.service.CsvColumnMetadataService;
+import com.kleberrhuan.houer.csv.application.validator.CompositeRowValidator;
+import com.kleberrhuan.houer.csv.application.validator.HeaderValidator;
+import com.kleberrhuan.houer.csv.application.validator.rule.MandatoryRule;
+import com.kleberrhuan.houer.csv.application.validator.rule.NumericRule;
+import com.kleberrhuan.houer.csv.application.validator.rule.SchoolCodeRule;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.domain.model.ValidationSummary;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Tempo por arquivo do caminho de upload sobre CSVs do {@link SchoolCsvGenerator}: só o parser e a validação completa
+ * do {@link CsvSchoolProcessor#summarize} (parser, cabeçalho, plano de linha e mapeamento), sequencial e em paralelo.
+ * Os arquivos vão para um diretório temporário e são apagados ao fim de cada combinação de parâmetros.
+ *
+ * <p>O {@link #main} roda todos os benchmarks de ingestão com {@code -prof gc} e repassa os argumentos ao JMH:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.kleberrhuan.houer.benchmark.CsvIngestionBenchmark \
+ *   -Dexec.args="CsvIngestionBenchmark.upload -p rows=5000000 -p invalidRatio=0.01"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class CsvIngestionBenchmark {
+
+  private static final int MAX_ERRORS = 100;
+
+  @Param({ "1000", "100000", "1000000", "5000000" })
+  int rows;
+
+  @Param({ "0.0", "0.05" })
+  double invalidRatio;
+
+  private Path file;
+  private CsvParser parser;
+  private CsvSchoolProcessor sequential;
+  private CsvSchoolProcessor parallel;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    file =
+      SchoolCsvGenerator.write(
+        Files.createTempFile("schools-bench-", ".csv"),
+        rows,
+        invalidRatio
+      );
+    parser = new CsvParser();
+    sequential = processor(parser, 1);
+    parallel = processor(parser, 0);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Benchmark
+  public void parse(Blackhole blackhole) throws IOException {
+    try (InputStream in = open()) {
+      Iterator<String[]> iterator = parser.readAsIterator(in);
+      while (iterator.hasNext()) {
+        blackhole.consume(iterator.next());
+      }
+    }
+  }
+
+  /** Validação do upload como o {@code CsvImportService} a faz, com um worker. */
+  @Benchmark
+  public ValidationSummary upload() throws IOException {
+    try (InputStream in = open()) {
+      return sequential.summarize(in, "bench.csv", MAX_ERRORS);
+    }
+  }
+
+  /** Mesma validação com um worker por processador. */
+  @Benchmark
+  public ValidationSummary uploadParallel() throws IOException {
+    try (InputStream in = open()) {
+      return parallel.summarize(in, "bench.csv", MAX_ERRORS);
+    }
+  }
+
+  private InputStream open() throws IOException {
+    return new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+  }
+
+  /** Processador montado sem Spring; {@code parallelism} zero usa a quantidade de processadores. */
+  static CsvSchoolProcessor processor(CsvParser parser, int parallelism) {
+    CsvColumnMetadataService metadataService = new CsvColumnMetadataService();
+    CsvImportProperties properties = new CsvImportProperties();
+    properties.setValidationParallelism(parallelism);
+    CsvProcessor<CsvSchoolRecord> core = new CsvProcessor<>(
+      parser,
+      new HeaderValidator(metadataService),
+      new CompositeRowValidator(
+        List.of(
+          new MandatoryRule(metadataService),
+          new NumericRule(metadataService),
+          new SchoolCodeRule()
+        )
+      ),
+      properties
+    );
+    return new CsvSchoolProcessor(core, properties);
+  }
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    ChainedOptionsBuilder options = new OptionsBuilder()
+      .parent(commandLine)
+      .addProfiler(GCProfiler.class);
+    if (commandLine.getIncludes().isEmpty()) {
+      options.include("CsvIngestion|CsvProcessingStrategy");
+    }
+    new Runner(options.build()).run();
+  }
+}
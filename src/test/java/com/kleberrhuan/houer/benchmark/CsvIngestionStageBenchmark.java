@@ -0,0 +1,145 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.benchmark;
+
+import com.kleberrhuan.houer.csv.application.service.CsvColumnMetadataService;
+import com.kleberrhuan.houer.csv.application.validator.CompositeRowValidator;
+import com.kleberrhuan.houer.csv.application.validator.HeaderValidator;
+import com.kleberrhuan.houer.csv.application.validator.RowValidationPlan;
+import com.kleberrhuan.houer.csv.application.validator.rule.MandatoryRule;
+import com.kleberrhuan.houer.csv.application.validator.rule.NumericRule;
+import com.kleberrhuan.houer.csv.application.validator.rule.SchoolCodeRule;
+import com.kleberrhuan.houer.csv.domain.exception.CsvValidationException;
+import com.kleberrhuan.houer.csv.domain.exception.RowValidationException;
+import com.kleberrhuan.houer.csv.domain.factory.CsvSchoolRecordFactory;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.infra.batch.SchoolItemProcessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Vazão por linha de cada estágio do upload sobre uma amostra gerada pelo {@link SchoolCsvGenerator}: validação de
+ * cabeçalho, plano de validação de linha, {@link CsvSchoolRecordFactory} e {@link SchoolItemProcessor}. Os resultados
+ * são linhas por milissegundo; com {@code -prof gc}, {@code gc.alloc.rate.norm} é a alocação por linha.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.kleberrhuan.houer.benchmark.CsvIngestionBenchmark \
+ *   -Dexec.args="CsvIngestionStageBenchmark -p invalidRatio=0.1"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvIngestionStageBenchmark {
+
+  static final int SAMPLE_ROWS = 10_000;
+
+  @Param({ "0.0", "0.05" })
+  double invalidRatio;
+
+  private HeaderValidator headerValidator;
+  private RowValidationPlan plan;
+  private Function<String[], CsvSchoolRecord> mapper;
+  private SchoolItemProcessor itemProcessor;
+  private String[] header;
+  private String[][] rows;
+  private String[][] validRows;
+  private CsvSchoolRecord[] records;
+
+  @Setup
+  public void setUp() {
+    CsvColumnMetadataService metadataService = new CsvColumnMetadataService();
+    headerValidator = new HeaderValidator(metadataService);
+    itemProcessor = new SchoolItemProcessor(metadataService);
+    header = SchoolCsvGenerator.header();
+    plan =
+      new CompositeRowValidator(
+        List.of(
+          new MandatoryRule(metadataService),
+          new NumericRule(metadataService),
+          new SchoolCodeRule()
+        )
+      )
+        .compile(header);
+    mapper = CsvSchoolRecordFactory.createMapper(header);
+
+    rows = SchoolCsvGenerator.rows(SAMPLE_ROWS, invalidRatio);
+    List<String[]> valid = new ArrayList<>(SAMPLE_ROWS);
+    for (String[] row : rows) {
+      if (isValid(row)) {
+        valid.add(row);
+      }
+    }
+    // Repete as válidas até SAMPLE_ROWS para manter o divisor de @OperationsPerInvocation
+    validRows = new String[SAMPLE_ROWS][];
+    records = new CsvSchoolRecord[SAMPLE_ROWS];
+    for (int i = 0; i < SAMPLE_ROWS; i++) {
+      validRows[i] = valid.get(i % valid.size());
+      records[i] = mapper.apply(validRows[i]);
+    }
+  }
+
+  @Benchmark
+  public String[] headerValidation() {
+    return headerValidator.validate(header, "bench.csv");
+  }
+
+  /** Inclui o custo das exceções das linhas inválidas, como no upload. */
+  @Benchmark
+  @OperationsPerInvocation(SAMPLE_ROWS)
+  public int rowValidation() {
+    int errors = 0;
+    for (int i = 0; i < rows.length; i++) {
+      try {
+        plan.validate(rows[i], i + 2, "bench.csv");
+      } catch (CsvValidationException | RowValidationException e) {
+        errors++;
+      }
+    }
+    return errors;
+  }
+
+  /** Só linhas válidas: as inválidas nunca chegam ao mapper. */
+  @Benchmark
+  @OperationsPerInvocation(SAMPLE_ROWS)
+  public void recordFactory(Blackhole blackhole) {
+    for (String[] row : validRows) {
+      blackhole.consume(mapper.apply(row));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SAMPLE_ROWS)
+  public void itemProcessor(Blackhole blackhole) {
+    for (CsvSchoolRecord record : records) {
+      blackhole.consume(itemProcessor.process(record));
+    }
+  }
+
+  private boolean isValid(String[] row) {
+    try {
+      plan.validate(row, 0, "bench.csv");
+      return true;
+    } catch (CsvValidationException | RowValidationException e) {
+      return false;
+    }
+  }
+}
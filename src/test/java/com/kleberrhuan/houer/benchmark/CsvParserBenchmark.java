@@ -0,0 +1,127 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.benchmark;
+
+import com.kleberrhuan.houer.csv.application.parser.CsvByteTokenizer;
+import com.kleberrhuan.houer.csv.domain.factory.CsvSchoolRecordFactory;
+import com.kleberrhuan.houer.csv.domain.model.CsvRow;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolColumn;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compara o parser OpenCSV (baseline) com o {@link CsvByteTokenizer} lendo e mapeando um CSV sintético de escolas.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.kleberrhuan.houer.benchmark.CsvParserBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvParserBenchmark {
+
+  @Param({ "10000", "100000" })
+  int rows;
+
+  private byte[] csv;
+
+  @Setup
+  public void setUp() {
+    String[] headers = Arrays
+      .stream(CsvSchoolColumn.values())
+      .map(Enum::name)
+      .toArray(String[]::new);
+
+    StringBuilder sb = new StringBuilder(rows * 200);
+    sb.append(String.join(";", headers)).append('\n');
+    for (int i = 0; i < rows; i++) {
+      for (CsvSchoolColumn column : CsvSchoolColumn.values()) {
+        if (column.ordinal() > 0) {
+          sb.append(';');
+        }
+        switch (column) {
+          case CODESC -> sb.append(10_000 + i);
+          case TIPOESC, CODSIT -> sb.append(i % 9 + 1);
+          case NOMESC -> sb.append("\"ESCOLA ESTADUAL Nº ").append(i).append('"');
+          default -> sb.append(
+            column.isMetric() ? String.valueOf(i % 37) : "SÃO PAULO"
+          );
+        }
+      }
+      sb.append('\n');
+    }
+    csv = sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public void openCsv(Blackhole blackhole) throws Exception {
+    try (
+      CSVReader reader = new CSVReaderBuilder(
+        new InputStreamReader(
+          new ByteArrayInputStream(csv),
+          StandardCharsets.UTF_8
+        )
+      )
+        .withCSVParser(new CSVParserBuilder().withSeparator(';').build())
+        .build()
+    ) {
+      Function<String[], CsvSchoolRecord> mapper =
+        CsvSchoolRecordFactory.createMapper(reader.readNext());
+      String[] values;
+      while ((values = reader.readNext()) != null) {
+        blackhole.consume(mapper.apply(values));
+      }
+    }
+  }
+
+  @Benchmark
+  public void byteTokenizer(Blackhole blackhole) throws Exception {
+    try (
+      CsvByteTokenizer tokenizer = new CsvByteTokenizer(
+        new ByteArrayInputStream(csv)
+      )
+    ) {
+      tokenizer.nextRow();
+      Function<CsvRow, CsvSchoolRecord> mapper =
+        CsvSchoolRecordFactory.createRowMapper(tokenizer.toArray());
+      while (tokenizer.nextRow()) {
+        blackhole.consume(mapper.apply(tokenizer));
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(
+      new OptionsBuilder()
+        .include(CsvParserBenchmark.class.getSimpleName())
+        .build()
+    )
+      .run();
+  }
+}
@@ -0,0 +1,104 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.benchmark;
+
+import com.kleberrhuan.houer.csv.application.parser.CsvParser;
+import com.kleberrhuan.houer.csv.application.port.ProcessingStrategy;
+import com.kleberrhuan.houer.csv.application.processor.CsvSchoolProcessor;
+import com.kleberrhuan.houer.csv.application.service.CsvColumnMetadataService;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.infra.batch.SchoolItemProcessor;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties.DedupMode;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Estratégias do {@link CsvSchoolProcessor} consumindo o arquivo inteiro, seguidas do {@link SchoolItemProcessor}
+ * como no step. Usa só linhas válidas: {@code process} interrompe o stream na primeira linha inválida. Rodado pelo
+ * {@link CsvIngestionBenchmark#main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class CsvProcessingStrategyBenchmark {
+
+  public enum Strategy {
+    SEQUENTIAL,
+    FIRST_WINS,
+    LAST_WINS,
+    FIRST_WINS_PARALLEL,
+  }
+
+  @Param({ "1000", "100000", "1000000" })
+  int rows;
+
+  @Param({ "SEQUENTIAL", "FIRST_WINS", "LAST_WINS", "FIRST_WINS_PARALLEL" })
+  Strategy strategy;
+
+  private Path file;
+  private CsvSchoolProcessor processor;
+  private SchoolItemProcessor itemProcessor;
+  private ProcessingStrategy<CsvSchoolRecord> selected;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    file =
+      SchoolCsvGenerator.write(
+        Files.createTempFile("schools-bench-", ".csv"),
+        rows,
+        0.0
+      );
+    processor = CsvIngestionBenchmark.processor(new CsvParser(), 1);
+    itemProcessor = new SchoolItemProcessor(new CsvColumnMetadataService());
+    selected =
+      switch (strategy) {
+        case SEQUENTIAL -> processor.sequential();
+        case FIRST_WINS -> processor.deduplicated(DedupMode.FIRST_WINS);
+        case LAST_WINS -> processor.deduplicated(DedupMode.LAST_WINS);
+        case FIRST_WINS_PARALLEL -> processor.deduplicatedParallel();
+      };
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Benchmark
+  public void process(Blackhole blackhole) throws IOException {
+    try (
+      InputStream in = new BufferedInputStream(
+        Files.newInputStream(file),
+        1 << 16
+      );
+      Stream<CsvSchoolRecord> records = processor.process(
+        in,
+        "bench.csv",
+        selected
+      )
+    ) {
+      records.map(itemProcessor::process).forEach(blackhole::consume);
+    }
+  }
+}
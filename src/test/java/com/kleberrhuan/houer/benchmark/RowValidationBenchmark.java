@@ -0,0 +1,76 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.benchmark;
+
+import com.kleberrhuan.houer.csv.application.service.CsvColumnMetadataService;
+import com.kleberrhuan.houer.csv.application.validator.CompositeRowValidator;
+import com.kleberrhuan.houer.csv.application.validator.RowValidationPlan;
+import com.kleberrhuan.houer.csv.application.validator.rule.MandatoryRule;
+import com.kleberrhuan.houer.csv.application.validator.rule.NumericRule;
+import com.kleberrhuan.houer.csv.application.validator.rule.SchoolCodeRule;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolColumn;
+import com.kleberrhuan.houer.csv.domain.model.RowContext;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Validação de uma linha válida com todas as colunas: regras por {@link RowContext} vs plano compilado. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowValidationBenchmark {
+
+  private CompositeRowValidator validator;
+  private RowValidationPlan plan;
+  private String[] headers;
+  private String[] values;
+
+  @Setup
+  public void setUp() {
+    CsvColumnMetadataService metadataService = new CsvColumnMetadataService();
+    validator =
+      new CompositeRowValidator(
+        List.of(
+          new MandatoryRule(metadataService),
+          new NumericRule(metadataService),
+          new SchoolCodeRule()
+        )
+      );
+    headers =
+      Arrays
+        .stream(CsvSchoolColumn.values())
+        .map(Enum::name)
+        .toArray(String[]::new);
+    values =
+      Arrays
+        .stream(CsvSchoolColumn.values())
+        .map(c -> c.isNumeric() || c == CsvSchoolColumn.CODESC ? "12" : "TEXTO")
+        .toArray(String[]::new);
+    plan = validator.compile(headers);
+  }
+
+  @Benchmark
+  public RowContext perRowLookup() {
+    RowContext context = new RowContext(headers, values, 2, "bench.csv");
+    validator.validate(context);
+    return context;
+  }
+
+  @Benchmark
+  public String[] compiledPlan() {
+    plan.validate(values, 2, "bench.csv");
+    return values;
+  }
+}
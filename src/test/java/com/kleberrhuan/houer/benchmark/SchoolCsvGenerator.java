@@ -0,0 +1,154 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.benchmark;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolColumn;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Gera CSVs sintéticos de escolas com todas as colunas de {@link CsvSchoolColumn}, na ordem do enum. Uma fração
+ * {@code invalidRatio} das linhas quebra uma das regras de linha (obrigatório vazio, métrica não numérica ou CODESC
+ * inválido); a semente fixa torna o arquivo reproduzível entre execuções.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SchoolCsvGenerator {
+
+  public static final long DEFAULT_SEED = 42L;
+
+  private static final CsvSchoolColumn[] COLUMNS = CsvSchoolColumn.values();
+  private static final int FIRST_METRIC = firstMetric();
+
+  /** Escreve o CSV em {@code target}, sem carregá-lo em memória; usado para os arquivos grandes. */
+  public static Path write(Path target, int rows, double invalidRatio)
+    throws IOException {
+    try (OutputStream out = Files.newOutputStream(target)) {
+      writeTo(out, rows, invalidRatio, DEFAULT_SEED);
+    }
+    return target;
+  }
+
+  public static byte[] generate(int rows, double invalidRatio) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(rows * 256);
+    try {
+      writeTo(out, rows, invalidRatio, DEFAULT_SEED);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  /** Linhas geradas sem o cabeçalho, já separadas em células, como o parser as entrega. */
+  public static String[][] rows(int rows, double invalidRatio) {
+    Random random = new Random(DEFAULT_SEED);
+    String[][] result = new String[rows][];
+    StringBuilder line = new StringBuilder(256);
+    for (int i = 0; i < rows; i++) {
+      line.setLength(0);
+      appendRow(line, i, random, invalidRatio, false);
+      result[i] = line.toString().split(";", -1);
+    }
+    return result;
+  }
+
+  public static String[] header() {
+    String[] header = new String[COLUMNS.length];
+    for (CsvSchoolColumn column : COLUMNS) {
+      header[column.ordinal()] = column.name();
+    }
+    return header;
+  }
+
+  static void writeTo(
+    OutputStream out,
+    int rows,
+    double invalidRatio,
+    long seed
+  ) throws IOException {
+    Random random = new Random(seed);
+    Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    StringBuilder line = new StringBuilder(256);
+    line.append(String.join(";", header())).append('\n');
+    for (int i = 0; i < rows; i++) {
+      appendRow(line, i, random, invalidRatio, true);
+      line.append('\n');
+      if (line.length() >= 64 * 1024) {
+        writer.append(line);
+        line.setLength(0);
+      }
+    }
+    writer.append(line);
+    writer.flush();
+  }
+
+  private static void appendRow(
+    StringBuilder sb,
+    int i,
+    Random random,
+    double invalidRatio,
+    boolean quoteName
+  ) {
+    // -1 = linha válida; 0, 1, 2 = qual regra a linha quebra
+    int defect = random.nextDouble() < invalidRatio ? random.nextInt(3) : -1;
+    int brokenMetric =
+      FIRST_METRIC + random.nextInt(COLUMNS.length - FIRST_METRIC);
+
+    for (CsvSchoolColumn column : COLUMNS) {
+      if (column.ordinal() > 0) {
+        sb.append(';');
+      }
+      switch (column) {
+        case CODESC -> {
+          if (defect == 2) {
+            sb.append("ESC-").append(i);
+          } else {
+            sb.append(10_000 + i);
+          }
+        }
+        case NOMESC -> {
+          if (defect != 0) {
+            appendName(sb, i, quoteName);
+          }
+        }
+        case TIPOESC, CODSIT -> sb.append(i % 9 + 1);
+        default -> {
+          if (!column.isMetric()) {
+            sb.append("SÃO PAULO");
+          } else if (defect == 1 && column.ordinal() == brokenMetric) {
+            sb.append("N/A");
+          } else {
+            sb.append(random.nextInt(40));
+          }
+        }
+      }
+    }
+  }
+
+  private static void appendName(StringBuilder sb, int i, boolean quote) {
+    if (quote) {
+      sb.append('"');
+    }
+    sb.append("ESCOLA ESTADUAL Nº ").append(i);
+    if (quote) {
+      sb.append('"');
+    }
+  }
+
+  private static int firstMetric() {
+    for (CsvSchoolColumn column : COLUMNS) {
+      if (column.isMetric()) {
+        return column.ordinal();
+      }
+    }
+    throw new IllegalStateException("CsvSchoolColumn sem colunas de métrica");
+  }
+}
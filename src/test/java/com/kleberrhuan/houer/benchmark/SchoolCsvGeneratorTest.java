@@ -0,0 +1,49 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.benchmark;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.kleberrhuan.houer.csv.application.parser.CsvParser;
+import com.kleberrhuan.houer.csv.domain.model.ValidationSummary;
+import java.io.ByteArrayInputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SchoolCsvGenerator Tests")
+class SchoolCsvGeneratorTest {
+
+  @Test
+  @DisplayName("Deve gerar arquivo válido pelo caminho de upload quando não há linhas inválidas")
+  void shouldGenerateValidFile() {
+    // Given
+    byte[] csv = SchoolCsvGenerator.generate(1_000, 0.0);
+
+    // When
+    ValidationSummary summary = summarize(csv);
+
+    // Then
+    assertThat(summary.validRecords()).isEqualTo(1_000);
+    assertThat(summary.invalidRecords()).isZero();
+  }
+
+  @Test
+  @DisplayName("Deve gerar aproximadamente a fração pedida de linhas inválidas")
+  void shouldGenerateRequestedInvalidRatio() {
+    // Given
+    byte[] csv = SchoolCsvGenerator.generate(10_000, 0.1);
+
+    // When
+    ValidationSummary summary = summarize(csv);
+
+    // Then
+    assertThat(summary.validRecords() + summary.invalidRecords())
+      .isEqualTo(10_000);
+    assertThat(summary.invalidRecords()).isBetween(800L, 1_200L);
+  }
+
+  private static ValidationSummary summarize(byte[] csv) {
+    return CsvIngestionBenchmark
+      .processor(new CsvParser(), 1)
+      .summarize(new ByteArrayInputStream(csv), "bench.csv", 10);
+  }
+}
@@ -0,0 +1,118 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.parser;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CsvByteTokenizer Tests")
+class CsvByteTokenizerTest {
+
+  @Test
+  @DisplayName("Deve expor células como faixas do buffer reaproveitado")
+  void shouldExposeCellsAsBufferViews() throws IOException {
+    // Given
+    CsvByteTokenizer tokenizer = tokenizer("12345;Escola São João;;42\n");
+
+    // When
+    boolean hasRow = tokenizer.nextRow();
+
+    // Then
+    assertThat(hasRow).isTrue();
+    assertThat(tokenizer.cellCount()).isEqualTo(4);
+    assertThat(tokenizer.cellAsString(1)).isEqualTo("Escola São João");
+    assertThat(tokenizer.cellLength(2)).isZero();
+    assertThat(
+      new String(
+        tokenizer.rowBuffer(),
+        tokenizer.cellOffset(3),
+        tokenizer.cellLength(3),
+        StandardCharsets.UTF_8
+      )
+    )
+      .isEqualTo("42");
+    assertThat(tokenizer.nextRow()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Deve converter números direto dos bytes e usar default para não numéricos")
+  void shouldParseNumbersFromBytes() throws IOException {
+    // Given
+    CsvByteTokenizer tokenizer = tokenizer("123;abc;;-1;9223372036854775807");
+
+    // When
+    tokenizer.nextRow();
+
+    // Then
+    assertThat(tokenizer.cellAsLong(0, 0L)).isEqualTo(123L);
+    assertThat(tokenizer.cellAsLong(1, 0L)).isZero();
+    assertThat(tokenizer.cellAsLong(2, -7L)).isEqualTo(-7L);
+    assertThat(tokenizer.cellAsLong(3, 0L)).isZero();
+    assertThat(tokenizer.cellAsLong(4, 0L)).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  @DisplayName("Deve lançar NumberFormatException quando número excede long")
+  void shouldThrowWhenNumberOverflows() throws IOException {
+    // Given
+    CsvByteTokenizer tokenizer = tokenizer("99999999999999999999");
+    tokenizer.nextRow();
+
+    // When / Then
+    assertThatThrownBy(() -> tokenizer.cellAsLong(0, 0L))
+      .isInstanceOf(NumberFormatException.class);
+  }
+
+  @Test
+  @DisplayName("Deve respeitar aspas, aspas escapadas e quebras de linha dentro de aspas")
+  void shouldHandleQuotedFields() throws IOException {
+    // Given
+    CsvByteTokenizer tokenizer = tokenizer(
+      "\"Silva; João\";\"Diz \"\"olá\"\"\";\"a\\\"b\";\"linha\num\"\r\nfim\r\n"
+    );
+
+    // When
+    tokenizer.nextRow();
+    String[] first = tokenizer.toArray();
+    tokenizer.nextRow();
+    String[] second = tokenizer.toArray();
+
+    // Then
+    assertThat(first)
+      .containsExactly("Silva; João", "Diz \"olá\"", "a\"b", "linha\num");
+    assertThat(second).containsExactly("fim");
+    assertThat(tokenizer.nextRow()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Deve parar no limite de bytes e informar posição consumida")
+  void shouldStopAtLimitAndReportPosition() throws IOException {
+    // Given
+    byte[] content = "A;B\nC;D\nE;F\n".getBytes(StandardCharsets.UTF_8);
+    CsvByteTokenizer tokenizer = new CsvByteTokenizer(
+      new ByteArrayInputStream(content),
+      8
+    );
+
+    // When
+    tokenizer.nextRow();
+    long afterFirst = tokenizer.position();
+    tokenizer.nextRow();
+
+    // Then
+    assertThat(afterFirst).isEqualTo(4);
+    assertThat(tokenizer.toArray()).containsExactly("C", "D");
+    assertThat(tokenizer.position()).isEqualTo(8);
+    assertThat(tokenizer.nextRow()).isFalse();
+  }
+
+  private CsvByteTokenizer tokenizer(String content) {
+    return new CsvByteTokenizer(
+      new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))
+    );
+  }
+}
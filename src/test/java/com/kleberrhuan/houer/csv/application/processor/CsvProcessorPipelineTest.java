@@ -0,0 +1,176 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.processor;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.kleberrhuan.houer.csv.application.parser.CsvParser;
+import com.kleberrhuan.houer.csv.application.service.CsvColumnMetadataService;
+import com.kleberrhuan.houer.csv.application.validator.CompositeRowValidator;
+import com.kleberrhuan.houer.csv.application.validator.HeaderValidator;
+import com.kleberrhuan.houer.csv.application.validator.rule.MandatoryRule;
+import com.kleberrhuan.houer.csv.application.validator.rule.NumericRule;
+import com.kleberrhuan.houer.csv.application.validator.rule.SchoolCodeRule;
+import com.kleberrhuan.houer.csv.domain.exception.CsvValidationException;
+import com.kleberrhuan.houer.csv.domain.exception.ValidationErrorAggregator.ValidationError;
+import com.kleberrhuan.houer.csv.domain.model.ValidationSummary;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CsvProcessor - validação em pipeline")
+class CsvProcessorPipelineTest {
+
+  private static final int ROWS = 5_000;
+  private static final Function<String[], Function<String[], String>> MAPPER =
+    headers -> values -> values[0];
+
+  private CsvProcessor<String> sequential;
+  private CsvProcessor<String> pipelined;
+
+  @BeforeEach
+  void setUp() {
+    CsvColumnMetadataService metadataService = new CsvColumnMetadataService();
+    CompositeRowValidator rowValidator = new CompositeRowValidator(
+      List.of(
+        new MandatoryRule(metadataService),
+        new NumericRule(metadataService),
+        new SchoolCodeRule()
+      )
+    );
+    HeaderValidator headerValidator = mock(HeaderValidator.class);
+    sequential =
+      new CsvProcessor<>(new CsvParser(), headerValidator, rowValidator, 1);
+    pipelined =
+      new CsvProcessor<>(new CsvParser(), headerValidator, rowValidator, 4);
+  }
+
+  @Test
+  @DisplayName("Deve reportar os mesmos erros, na ordem das linhas, que a validação sequencial")
+  void scanShouldMatchSequentialResult() {
+    // When
+    ValidationSummary expected = sequential.scan(csv(), "test.csv", MAPPER, 50);
+    ValidationSummary actual = pipelined.scan(csv(), "test.csv", MAPPER, 50);
+
+    // Then
+    assertThat(actual)
+      .usingRecursiveComparison()
+      .ignoringFields(
+        "timings.readNanos",
+        "timings.validateNanos",
+        "timings.mapNanos"
+      )
+      .isEqualTo(expected);
+    assertThat(actual.validRecords()).isEqualTo(ROWS - ROWS / 97);
+    assertThat(actual.timings().rejectedRows())
+      .containsExactly(entry("numeric", (long) ROWS / 97));
+    assertThat(actual.errors())
+      .hasSize(50)
+      .extracting(ValidationError::lineNumber)
+      .isSorted()
+      .startsWith(98, 195);
+  }
+
+  @Test
+  @DisplayName("Deve entregar todos os erros ao relatório, na ordem do arquivo, além do limite reportado")
+  void scanShouldStreamEveryErrorToSink() {
+    // Given
+    List<ValidationError> sequentialErrors = new ArrayList<>();
+    List<ValidationError> pipelinedErrors = new ArrayList<>();
+
+    // When
+    ValidationSummary summary = pipelined.scan(
+      csv(),
+      "test.csv",
+      MAPPER,
+      5,
+      pipelinedErrors::add
+    );
+    sequential.scan(csv(), "test.csv", MAPPER, 5, sequentialErrors::add);
+
+    // Then
+    assertThat(summary.errors()).hasSize(5);
+    assertThat(pipelinedErrors)
+      .hasSize(ROWS / 97)
+      .isEqualTo(sequentialErrors)
+      .extracting(ValidationError::lineNumber)
+      .isSorted()
+      .startsWith(98, 195);
+  }
+
+  @Test
+  @DisplayName("Deve entregar os registros na ordem do arquivo")
+  void processShouldKeepFileOrder() {
+    // Given
+    String csv = csvText(false);
+
+    // When
+    List<String> codes;
+    try (
+      Stream<String> stream = pipelined.processWithFactory(
+        input(csv),
+        "test.csv",
+        MAPPER
+      )
+    ) {
+      codes = stream.toList();
+    }
+
+    // Then
+    assertThat(codes).hasSize(ROWS).isSortedAccordingTo(
+      (a, b) -> Integer.compare(Integer.parseInt(a), Integer.parseInt(b))
+    );
+  }
+
+  @Test
+  @DisplayName("Deve lançar o erro da linha inválida quando o consumidor chegar nela")
+  void processShouldThrowAtInvalidLine() {
+    // Given
+    Iterator<String> iterator = pipelined
+      .processWithFactory(csv(), "test.csv", MAPPER)
+      .iterator();
+
+    // When
+    int consumed = 0;
+    Throwable error = null;
+    try {
+      while (iterator.hasNext()) {
+        iterator.next();
+        consumed++;
+      }
+    } catch (CsvValidationException e) {
+      error = e;
+    }
+
+    // Then
+    assertThat(consumed).isEqualTo(96);
+    assertThat(error).hasMessageContaining("Linha 98");
+  }
+
+  private static InputStream csv() {
+    return input(csvText(true));
+  }
+
+  private static InputStream input(String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** Registro {@code i} fica na linha {@code i + 1}; TIPOESC é inválido quando {@code i} é múltiplo de 97. */
+  private static String csvText(boolean withErrors) {
+    StringBuilder sb = new StringBuilder("CODESC;NOMESC;TIPOESC\n");
+    for (int i = 1; i <= ROWS; i++) {
+      String tipo = withErrors && i % 97 == 0 ? "abc" : "8";
+      sb.append(i).append(";Escola ").append(i).append(';').append(tipo);
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,112 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.domain.model.SchoolMetrics;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties.DedupMode;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CsvSchoolProcessor - deduplicação por CODESC")
+class CsvSchoolProcessorDedupTest {
+
+  @SuppressWarnings("unchecked")
+  private final CsvSchoolProcessor processor = new CsvSchoolProcessor(
+    mock(CsvProcessor.class)
+  );
+
+  @Test
+  @DisplayName("FIRST_WINS deve manter a primeira ocorrência de cada código")
+  void firstWinsShouldKeepFirstOccurrence() {
+    // Given
+    Stream<CsvSchoolRecord> input = Stream.of(
+      school("100", "A"),
+      school("200", "B"),
+      school("100", "C"),
+      school("ABC", "D"),
+      school("ABC", "E"),
+      school(null, "F")
+    );
+
+    // When
+    List<String> names = processor
+      .deduplicated(DedupMode.FIRST_WINS)
+      .apply(input)
+      .map(CsvSchoolRecord::nomesc)
+      .toList();
+
+    // Then
+    assertThat(names).containsExactly("A", "B", "D");
+  }
+
+  @Test
+  @DisplayName("LAST_WINS deve manter a última ocorrência na posição da primeira")
+  void lastWinsShouldKeepLastOccurrence() {
+    // Given
+    Stream<CsvSchoolRecord> input = Stream.of(
+      school("100", "A"),
+      school("200", "B"),
+      school("100", "C"),
+      school("ABC", "D"),
+      school("ABC", "E"),
+      school(null, "F")
+    );
+
+    // When
+    List<String> names = processor
+      .deduplicated(DedupMode.LAST_WINS)
+      .apply(input)
+      .map(CsvSchoolRecord::nomesc)
+      .toList();
+
+    // Then
+    assertThat(names).containsExactly("C", "B", "E");
+  }
+
+  @Test
+  @DisplayName("Estratégia paralela deve descartar duplicados entre threads")
+  void parallelShouldDropDuplicates() {
+    // Given
+    Stream<CsvSchoolRecord> input = Stream
+      .iterate(0, i -> i + 1)
+      .limit(20_000)
+      .map(i -> school(String.valueOf(i % 5_000), "E" + i));
+
+    // When
+    long count = processor.deduplicatedParallel().apply(input).count();
+
+    // Then
+    assertThat(count).isEqualTo(5_000);
+  }
+
+  @Test
+  @DisplayName("Deve converter apenas códigos puramente numéricos")
+  void shouldParseOnlyNumericCodes() {
+    assertThat(CsvSchoolProcessor.parseCode("035000001")).isEqualTo(35_000_001L);
+    assertThat(CsvSchoolProcessor.parseCode("12a")).isEqualTo(-1);
+    assertThat(CsvSchoolProcessor.parseCode("")).isEqualTo(-1);
+    assertThat(CsvSchoolProcessor.parseCode("1234567890123456789")).isEqualTo(
+      -1
+    );
+  }
+
+  private static CsvSchoolRecord school(String codesc, String nome) {
+    return new CsvSchoolRecord(
+      "Estadual",
+      "Centro",
+      "São Paulo",
+      "Sé",
+      codesc,
+      nome,
+      8L,
+      "Escola",
+      (short) 1,
+      SchoolMetrics.empty()
+    );
+  }
+}
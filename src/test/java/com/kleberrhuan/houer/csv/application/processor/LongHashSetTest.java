@@ -0,0 +1,78 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("LongHashSet")
+class LongHashSetTest {
+
+  @Test
+  @DisplayName("Deve aceitar cada chave uma única vez, incluindo zero")
+  void shouldAddEachKeyOnce() {
+    // Given
+    LongHashSet set = new LongHashSet();
+
+    // When / Then
+    assertThat(set.add(0L)).isTrue();
+    assertThat(set.add(0L)).isFalse();
+    assertThat(set.add(35_000_001L)).isTrue();
+    assertThat(set.add(35_000_001L)).isFalse();
+    assertThat(set.contains(0L)).isTrue();
+    assertThat(set.contains(42L)).isFalse();
+    assertThat(set.size()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Deve crescer mantendo todas as chaves já inseridas")
+  void shouldKeepKeysAcrossRehash() {
+    // Given
+    LongHashSet set = new LongHashSet(4);
+
+    // When
+    LongStream.range(0, 10_000).forEach(i -> set.add(i * 1_024));
+
+    // Then
+    assertThat(set.size()).isEqualTo(10_000);
+    assertThat(set.capacity()).isGreaterThanOrEqualTo(10_000 * 4 / 3);
+    assertThat(
+      LongStream.range(0, 10_000).allMatch(i -> set.contains(i * 1_024))
+    ).isTrue();
+    assertThat(set.contains(1L)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Versão concorrente deve aceitar cada chave uma única vez")
+  void concurrentSetShouldAcceptEachKeyOnce() {
+    // Given
+    ConcurrentLongHashSet set = new ConcurrentLongHashSet();
+
+    // When
+    long accepted = LongStream
+      .range(0, 200_000)
+      .parallel()
+      .filter(i -> set.add(i % 50_000))
+      .count();
+
+    // Then
+    assertThat(accepted).isEqualTo(50_000);
+    assertThat(set.size()).isEqualTo(50_000);
+  }
+
+  @Test
+  @DisplayName("LongIntHashMap deve devolver a posição já registrada")
+  void mapShouldReturnExistingValue() {
+    // Given
+    LongIntHashMap map = new LongIntHashMap();
+
+    // When / Then
+    assertThat(map.putIfAbsent(0L, 3)).isEqualTo(-1);
+    assertThat(map.putIfAbsent(0L, 9)).isEqualTo(3);
+    LongStream.range(1, 5_000).forEach(i -> map.putIfAbsent(i, (int) i));
+    assertThat(map.putIfAbsent(4_999L, 0)).isEqualTo(4_999);
+    assertThat(map.size()).isEqualTo(5_000);
+  }
+}
@@ -0,0 +1,123 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.kleberrhuan.houer.csv.application.port.StorageService;
+import com.kleberrhuan.houer.csv.domain.model.CsvImportJob;
+import com.kleberrhuan.houer.csv.domain.model.CsvStoredFile;
+import com.kleberrhuan.houer.csv.domain.repository.CsvStoredFileRepository;
+import com.kleberrhuan.houer.csv.infra.properties.CsvStorageProperties;
+import java.net.URI;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CsvContentStore Tests")
+class CsvContentStoreTest {
+
+  private static final String SHA256 = "ab".repeat(32);
+  private static final URI FILE_URI = URI.create(
+    "file:///tmp/objects/ab/" + SHA256 + ".csv"
+  );
+
+  @Mock
+  private CsvStoredFileRepository storedFileRepository;
+
+  @Mock
+  private StorageService storageService;
+
+  private CsvStorageProperties storageProperties;
+  private CsvContentStore contentStore;
+  private CsvImportJob job;
+
+  @BeforeEach
+  void setUp() {
+    storageProperties = new CsvStorageProperties();
+    contentStore = new CsvContentStore(
+      storedFileRepository,
+      storageService,
+      storageProperties
+    );
+
+    job = new CsvImportJob();
+    job.setContentSha256(SHA256);
+    job.setFileUri(FILE_URI.toString());
+  }
+
+  @Test
+  @DisplayName("Deve registrar a referência antes de mover o arquivo")
+  void shouldAcquireReferenceBeforePromoting() {
+    // When
+    URI uri = contentStore.store(
+      SHA256,
+      () -> {
+        verify(storedFileRepository).acquire(SHA256);
+        return FILE_URI;
+      }
+    );
+
+    // Then
+    assertThat(uri).isEqualTo(FILE_URI);
+  }
+
+  @Test
+  @DisplayName("Deve manter o arquivo enquanto outro job o referencia")
+  void shouldKeepFileWhileStillReferenced() {
+    // Given
+    CsvStoredFile file = storedFile(2);
+    when(storedFileRepository.findForUpdate(SHA256))
+      .thenReturn(Optional.of(file));
+
+    // When
+    contentStore.release(job);
+
+    // Then
+    assertThat(file.getRefCount()).isEqualTo(1);
+    verify(storageService, never()).delete(any());
+    verify(storedFileRepository, never()).delete(any());
+  }
+
+  @Test
+  @DisplayName("Deve remover o arquivo ao liberar a última referência")
+  void shouldDeleteFileOnLastRelease() {
+    // Given
+    CsvStoredFile file = storedFile(1);
+    when(storedFileRepository.findForUpdate(SHA256))
+      .thenReturn(Optional.of(file));
+
+    // When
+    contentStore.release(job);
+
+    // Then
+    verify(storageService).delete(FILE_URI);
+    verify(storedFileRepository).delete(file);
+  }
+
+  @Test
+  @DisplayName("Não deve liberar nada quando a remoção após processamento está desativada")
+  void shouldKeepEverythingWhenDeleteAfterProcessingDisabled() {
+    // Given
+    storageProperties.setDeleteAfterProcessing(false);
+
+    // When
+    contentStore.release(job);
+
+    // Then
+    verifyNoInteractions(storedFileRepository, storageService);
+  }
+
+  private static CsvStoredFile storedFile(int refCount) {
+    CsvStoredFile file = new CsvStoredFile();
+    file.setSha256(SHA256);
+    file.setRefCount(refCount);
+    return file;
+  }
+}
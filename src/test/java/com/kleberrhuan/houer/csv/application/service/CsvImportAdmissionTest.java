@@ -0,0 +1,112 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.kleberrhuan.houer.common.infra.persistence.AdvisoryLockService;
+import com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Locks;
+import com.kleberrhuan.houer.csv.domain.exception.ActiveImportJobException;
+import com.kleberrhuan.houer.csv.domain.model.CsvImportJob;
+import com.kleberrhuan.houer.csv.domain.model.ImportJobStatus;
+import com.kleberrhuan.houer.csv.domain.repository.CsvImportJobRepository;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CsvImportAdmission Tests")
+class CsvImportAdmissionTest {
+
+  private static final Long USER_ID = 7L;
+  private static final String SHA256 = "ab".repeat(32);
+
+  @Mock
+  private CsvImportJobRepository jobRepository;
+
+  @Mock
+  private AdvisoryLockService advisoryLocks;
+
+  private CsvImportProperties properties;
+  private CsvImportAdmission admission;
+  private CsvImportJob job;
+
+  @BeforeEach
+  void setUp() {
+    properties = new CsvImportProperties();
+    admission =
+      new CsvImportAdmission(jobRepository, advisoryLocks, properties);
+
+    job = new CsvImportJob();
+    job.setFilename("escolas.csv");
+    job.setContentSha256(SHA256);
+  }
+
+  @Test
+  @DisplayName("Deve inserir o job sob o lock do usuário")
+  void shouldInsertUnderUserLock() {
+    // Given
+    when(jobRepository.saveAndFlush(job)).thenReturn(job);
+
+    // When
+    CsvImportJob registered = admission.register(job, USER_ID);
+
+    // Then
+    assertThat(registered).isSameAs(job);
+    InOrder inOrder = inOrder(advisoryLocks, jobRepository);
+    inOrder
+      .verify(advisoryLocks)
+      .lock(eq(Locks.USER_ADMISSION), eq(USER_ID), any(), any());
+    inOrder.verify(jobRepository).saveAndFlush(job);
+  }
+
+  @Test
+  @DisplayName("Deve devolver o job ativo com o mesmo conteúdo sem inserir outro")
+  void shouldReturnActiveJobWithSameContent() {
+    // Given
+    CsvImportJob active = new CsvImportJob();
+    active.setId(UUID.randomUUID());
+    when(
+      jobRepository.findFirstByCreatedByAndContentSha256AndStatusIn(
+        USER_ID,
+        SHA256,
+        CsvImportAdmission.ACTIVE
+      )
+    )
+      .thenReturn(Optional.of(active));
+
+    // When
+    CsvImportJob registered = admission.register(job, USER_ID);
+
+    // Then
+    assertThat(registered).isSameAs(active);
+    verify(jobRepository, never()).saveAndFlush(any());
+  }
+
+  @Test
+  @DisplayName("Deve recusar quando a fila do usuário está cheia")
+  void shouldRejectWhenUserQueueIsFull() {
+    // Given
+    properties.getQueue().setMaxQueuedPerUser(2);
+    when(
+      jobRepository.countByCreatedByAndStatusAndDispatchedAtIsNull(
+        USER_ID,
+        ImportJobStatus.PENDING
+      )
+    )
+      .thenReturn(2L);
+
+    // When / Then
+    assertThatThrownBy(() -> admission.register(job, USER_ID))
+      .isInstanceOf(ActiveImportJobException.class);
+    verify(jobRepository, never()).saveAndFlush(any());
+  }
+}
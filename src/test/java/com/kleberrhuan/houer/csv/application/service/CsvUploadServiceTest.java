@@ -0,0 +1,288 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.kleberrhuan.houer.common.domain.exception.BusinessException;
+import com.kleberrhuan.houer.csv.application.port.StagedUploadChunk;
+import com.kleberrhuan.houer.csv.application.port.StorageService;
+import com.kleberrhuan.houer.csv.domain.model.CsvUploadChunk;
+import com.kleberrhuan.houer.csv.domain.model.CsvUploadSession;
+import com.kleberrhuan.houer.csv.domain.repository.CsvUploadChunkRepository;
+import com.kleberrhuan.houer.csv.domain.repository.CsvUploadSessionRepository;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CsvUploadService Tests")
+class CsvUploadServiceTest {
+
+  private static final Long USER_ID = 7L;
+
+  @Mock
+  private CsvUploadSessionRepository sessionRepository;
+
+  @Mock
+  private CsvUploadChunkRepository chunkRepository;
+
+  @Mock
+  private StorageService storageService;
+
+  @Mock
+  private ConcurrentSafeCsvImportService importService;
+
+  private CsvImportProperties properties;
+  private CsvUploadService uploadService;
+  private CsvUploadSession session;
+  private List<StagedChunk> staged;
+
+  @BeforeEach
+  void setUp() {
+    staged = new ArrayList<>();
+    properties = new CsvImportProperties();
+    properties.setUploadChunkSize(DataSize.ofBytes(4));
+    uploadService = new CsvUploadService(
+      sessionRepository,
+      chunkRepository,
+      storageService,
+      importService,
+      properties
+    );
+
+    session = new CsvUploadSession();
+    session.setId(UUID.randomUUID());
+    session.setFilename("escolas.csv");
+    session.setTotalSize(6);
+    session.setChunkSize(4);
+    session.setChunkCount(2);
+    session.setExpiresAt(Instant.now().plusSeconds(60));
+    ReflectionTestUtils.setField(session, "createdBy", USER_ID);
+  }
+
+  @Test
+  @DisplayName("Deve dividir o arquivo em partes de tamanho fixo ao abrir o upload")
+  void shouldSplitFileIntoFixedSizeChunks() {
+    // Given
+    when(sessionRepository.save(any())).thenAnswer(inv -> {
+      CsvUploadSession saved = inv.getArgument(0);
+      saved.setId(UUID.randomUUID());
+      return saved;
+    });
+
+    // When
+    CsvUploadSession created = uploadService.createSession("escolas.csv", 9);
+
+    // Then
+    assertThat(created.getChunkCount()).isEqualTo(3);
+    assertThat(created.sizeOf(2)).isEqualTo(1);
+    verify(storageService).createUpload(created.getId());
+  }
+
+  @Test
+  @DisplayName("Deve gravar a parte na sua posição e registrar o checksum")
+  void shouldWriteChunkAtOffsetAndRecordChecksum() throws Exception {
+    // Given
+    byte[] data = "56".getBytes();
+    givenSession();
+    givenStorageConsumes();
+
+    // When
+    uploadService.uploadChunk(
+      session.getId(),
+      1,
+      new ByteArrayInputStream(data),
+      sha256(data),
+      USER_ID
+    );
+
+    // Then
+    verify(storageService)
+      .stageUploadChunk(eq(session.getId()), eq(4L), any(), eq(2L));
+    assertThat(staged).singleElement().satisfies(c -> {
+      assertThat(c.committed).isTrue();
+      assertThat(c.closed).isTrue();
+    });
+    ArgumentCaptor<CsvUploadChunk> chunk = ArgumentCaptor.forClass(
+      CsvUploadChunk.class
+    );
+    verify(chunkRepository).save(chunk.capture());
+    assertThat(chunk.getValue().getChunkIndex()).isEqualTo(1);
+    assertThat(chunk.getValue().getSha256()).isEqualTo(sha256(data));
+  }
+
+  @Test
+  @DisplayName("Deve rejeitar parte cujo SHA-256 não confere")
+  void shouldRejectChunkWithChecksumMismatch() throws Exception {
+    // Given
+    givenSession();
+    givenStorageConsumes();
+    String wrongChecksum = sha256("xx".getBytes());
+
+    // When / Then
+    assertThatThrownBy(() ->
+        uploadService.uploadChunk(
+          session.getId(),
+          1,
+          new ByteArrayInputStream("56".getBytes()),
+          wrongChecksum,
+          USER_ID
+        )
+      )
+      .isInstanceOf(BusinessException.class)
+      .extracting("status")
+      .isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    verify(chunkRepository, never()).save(any());
+    assertThat(staged).singleElement().satisfies(c -> {
+      assertThat(c.committed).isFalse();
+      assertThat(c.closed).isTrue();
+    });
+  }
+
+  @Test
+  @DisplayName("Deve invalidar a parte confirmada quando o reenvio não confere e recusar a finalização")
+  void shouldInvalidateConfirmedChunkWhenResendFailsChecksum()
+    throws Exception {
+    // Given
+    byte[] data = "56".getBytes();
+    givenSession();
+    givenStorageConsumes();
+    Set<Integer> confirmed = new HashSet<>(Set.of(0));
+    when(chunkRepository.save(any())).thenAnswer(inv -> {
+      CsvUploadChunk chunk = inv.getArgument(0);
+      confirmed.add(chunk.getChunkIndex());
+      return chunk;
+    });
+    doAnswer(inv -> confirmed.remove(inv.<Integer>getArgument(1)))
+      .when(chunkRepository)
+      .deleteBySessionIdAndChunkIndex(eq(session.getId()), anyInt());
+    when(chunkRepository.countBySessionId(session.getId()))
+      .thenAnswer(inv -> (long) confirmed.size());
+    uploadService.uploadChunk(
+      session.getId(),
+      1,
+      new ByteArrayInputStream(data),
+      sha256(data),
+      USER_ID
+    );
+
+    // When
+    assertThatThrownBy(() ->
+        uploadService.uploadChunk(
+          session.getId(),
+          1,
+          new ByteArrayInputStream("99".getBytes()),
+          sha256(data),
+          USER_ID
+        )
+      )
+      .isInstanceOf(BusinessException.class);
+
+    // Then
+    assertThat(staged.getLast().committed).isFalse();
+    assertThatThrownBy(() -> uploadService.complete(session.getId(), USER_ID))
+      .isInstanceOf(BusinessException.class)
+      .extracting("status")
+      .isEqualTo(HttpStatus.CONFLICT);
+    verifyNoInteractions(importService);
+  }
+
+  @Test
+  @DisplayName("Não deve finalizar upload com partes ausentes")
+  void shouldNotCompleteUploadWithMissingChunks() {
+    // Given
+    givenSession();
+    when(chunkRepository.countBySessionId(session.getId())).thenReturn(1L);
+
+    // When / Then
+    assertThatThrownBy(() -> uploadService.complete(session.getId(), USER_ID))
+      .isInstanceOf(BusinessException.class)
+      .extracting("status")
+      .isEqualTo(HttpStatus.CONFLICT);
+    verifyNoInteractions(importService);
+  }
+
+  @Test
+  @DisplayName("Deve devolver o mesmo job ao finalizar upload já finalizado")
+  void shouldReturnSameJobWhenCompletingTwice() {
+    // Given
+    UUID jobId = UUID.randomUUID();
+    session.setJobId(jobId);
+    givenSession();
+
+    // When
+    UUID result = uploadService.complete(session.getId(), USER_ID);
+
+    // Then
+    assertThat(result).isEqualTo(jobId);
+    verifyNoInteractions(importService);
+  }
+
+  private void givenSession() {
+    when(sessionRepository.findById(session.getId()))
+      .thenReturn(Optional.of(session));
+  }
+
+  private void givenStorageConsumes() {
+    when(storageService.stageUploadChunk(any(), anyLong(), any(), anyLong()))
+      .thenAnswer(inv -> {
+        InputStream in = inv.getArgument(2);
+        StagedChunk chunk = new StagedChunk(in.readAllBytes().length);
+        staged.add(chunk);
+        return chunk;
+      });
+  }
+
+  private static String sha256(byte[] data) throws Exception {
+    return HexFormat
+      .of()
+      .formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+  }
+
+  private static final class StagedChunk implements StagedUploadChunk {
+
+    private final long received;
+    private boolean committed;
+    private boolean closed;
+
+    private StagedChunk(long received) {
+      this.received = received;
+    }
+
+    @Override
+    public long received() {
+      return received;
+    }
+
+    @Override
+    public void commit() {
+      committed = true;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
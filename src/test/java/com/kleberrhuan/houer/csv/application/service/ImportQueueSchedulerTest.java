@@ -0,0 +1,311 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.kleberrhuan.houer.common.infra.persistence.AdvisoryLockService;
+import com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Locks;
+import com.kleberrhuan.houer.csv.domain.model.CsvImportJob;
+import com.kleberrhuan.houer.csv.domain.model.ImportJobStatus;
+import com.kleberrhuan.houer.csv.domain.model.ImportPriority;
+import com.kleberrhuan.houer.csv.domain.repository.CsvImportJobRepository;
+import com.kleberrhuan.houer.csv.infra.exception.RabbitMqException;
+import com.kleberrhuan.houer.csv.infra.messaging.CsvImportMessagePublisher;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportQueueMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImportQueueScheduler Tests")
+class ImportQueueSchedulerTest {
+
+  private static final Instant T0 = Instant.parse("2025-01-15T10:00:00Z");
+
+  @Mock
+  private CsvImportJobRepository jobRepository;
+
+  @Mock
+  private CsvImportMessagePublisher messagePublisher;
+
+  @Mock
+  private AdvisoryLockService advisoryLocks;
+
+  private CsvImportProperties properties;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    properties = new CsvImportProperties();
+    meterRegistry = new SimpleMeterRegistry();
+    lenient()
+      .when(advisoryLocks.tryLock(eq(Locks.QUEUE_DISPATCH), anyLong()))
+      .thenReturn(true);
+  }
+
+  @Test
+  @DisplayName("Deve alternar entre usuários em vez de seguir a ordem de chegada")
+  void shouldRoundRobinBetweenUsers() {
+    // Given
+    CsvImportJob a1 = job(1L, ImportPriority.NORMAL, 0);
+    CsvImportJob a2 = job(1L, ImportPriority.NORMAL, 1);
+    CsvImportJob a3 = job(1L, ImportPriority.NORMAL, 2);
+    CsvImportJob b1 = job(2L, ImportPriority.NORMAL, 3);
+    CsvImportJob c1 = job(3L, ImportPriority.NORMAL, 4);
+
+    // When
+    List<CsvImportJob> order = ImportQueueScheduler.fairOrder(
+      List.of(a1, a2, a3, b1, c1),
+      Map.of()
+    );
+
+    // Then
+    assertThat(order).containsExactly(a1, b1, c1, a2, a3);
+  }
+
+  @Test
+  @DisplayName("Deve atender a faixa HIGH antes da NORMAL")
+  void shouldServeHighPriorityFirst() {
+    // Given
+    CsvImportJob normal = job(1L, ImportPriority.NORMAL, 0);
+    CsvImportJob high = job(2L, ImportPriority.HIGH, 5);
+
+    // When
+    List<CsvImportJob> order = ImportQueueScheduler.fairOrder(
+      List.of(normal, high),
+      Map.of()
+    );
+
+    // Then
+    assertThat(order).containsExactly(high, normal);
+  }
+
+  @Test
+  @DisplayName("Deve colocar atrás quem já tem job em execução")
+  void shouldPutUsersWithRunningJobsBehind() {
+    // Given
+    CsvImportJob busy = job(1L, ImportPriority.NORMAL, 0);
+    CsvImportJob idle = job(2L, ImportPriority.NORMAL, 1);
+
+    // When
+    List<CsvImportJob> order = ImportQueueScheduler.fairOrder(
+      List.of(busy, idle),
+      Map.of(1L, 1)
+    );
+
+    // Then
+    assertThat(order).containsExactly(idle, busy);
+  }
+
+  @Test
+  @DisplayName("Deve admitir apenas até o limite global de jobs simultâneos")
+  void shouldRespectGlobalLimit() {
+    // Given
+    ImportQueueScheduler scheduler = scheduler(2);
+    CsvImportJob running = job(9L, ImportPriority.NORMAL, 0);
+    CsvImportJob a = job(1L, ImportPriority.NORMAL, 1);
+    CsvImportJob b = job(2L, ImportPriority.NORMAL, 2);
+    when(jobRepository.findInFlight()).thenReturn(List.of(running));
+    when(
+      jobRepository.findByStatusAndDispatchedAtIsNullAndFileUriIsNotNullOrderByQueuedAtAsc(
+        ImportJobStatus.PENDING
+      )
+    )
+      .thenReturn(List.of(a, b));
+    when(jobRepository.markDispatched(any(), any())).thenReturn(1);
+
+    // When
+    scheduler.dispatch();
+
+    // Then
+    ArgumentCaptor<CsvImportQueueMessage> captor = ArgumentCaptor.forClass(
+      CsvImportQueueMessage.class
+    );
+    verify(messagePublisher).publishImportMessage(captor.capture());
+    assertThat(captor.getValue().jobId()).isEqualTo(a.getId());
+    assertThat(gauge("in.flight")).isEqualTo(2);
+    assertThat(depth(ImportPriority.NORMAL)).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Deve manter na fila o segundo job do mesmo usuário")
+  void shouldLimitRunningJobsPerUser() {
+    // Given
+    ImportQueueScheduler scheduler = scheduler(4);
+    CsvImportJob first = job(1L, ImportPriority.NORMAL, 0);
+    CsvImportJob second = job(1L, ImportPriority.NORMAL, 1);
+    when(jobRepository.findInFlight()).thenReturn(List.of());
+    when(
+      jobRepository.findByStatusAndDispatchedAtIsNullAndFileUriIsNotNullOrderByQueuedAtAsc(
+        ImportJobStatus.PENDING
+      )
+    )
+      .thenReturn(List.of(first, second));
+    when(jobRepository.markDispatched(any(), any())).thenReturn(1);
+
+    // When
+    scheduler.dispatch();
+
+    // Then
+    verify(jobRepository).markDispatched(eq(first.getId()), any());
+    verify(jobRepository, never()).markDispatched(eq(second.getId()), any());
+  }
+
+  @Test
+  @DisplayName("Deve devolver o job à fila quando a publicação falha")
+  void shouldRequeueWhenPublishFails() {
+    // Given
+    ImportQueueScheduler scheduler = scheduler(1);
+    CsvImportJob job = job(1L, ImportPriority.NORMAL, 0);
+    when(jobRepository.findInFlight()).thenReturn(List.of());
+    when(
+      jobRepository.findByStatusAndDispatchedAtIsNullAndFileUriIsNotNullOrderByQueuedAtAsc(
+        ImportJobStatus.PENDING
+      )
+    )
+      .thenReturn(List.of(job));
+    when(jobRepository.markDispatched(any(), any())).thenReturn(1);
+    doThrow(new RabbitMqException("broker fora"))
+      .when(messagePublisher)
+      .publishImportMessage(any());
+
+    // When
+    scheduler.dispatch();
+
+    // Then
+    verify(jobRepository).clearDispatched(job.getId());
+    assertThat(gauge("in.flight")).isZero();
+  }
+
+  @Test
+  @DisplayName("Deve publicar o job só depois do commit da admissão")
+  void shouldPublishOnlyAfterAdmissionCommits() {
+    // Given
+    AtomicBoolean committed = new AtomicBoolean();
+    TransactionOperations transactions = new TransactionOperations() {
+      @Override
+      public <T> T execute(TransactionCallback<T> action) {
+        T result = action.doInTransaction(new SimpleTransactionStatus());
+        committed.set(true);
+        return result;
+      }
+    };
+    ImportQueueScheduler scheduler = new ImportQueueScheduler(
+      jobRepository,
+      messagePublisher,
+      properties,
+      meterRegistry,
+      1,
+      transactions,
+      advisoryLocks
+    );
+    CsvImportJob job = job(1L, ImportPriority.NORMAL, 0);
+    when(jobRepository.findInFlight()).thenReturn(List.of());
+    when(
+      jobRepository.findByStatusAndDispatchedAtIsNullAndFileUriIsNotNullOrderByQueuedAtAsc(
+        ImportJobStatus.PENDING
+      )
+    )
+      .thenReturn(List.of(job));
+    when(jobRepository.markDispatched(any(), any())).thenReturn(1);
+    AtomicBoolean publishedAfterCommit = new AtomicBoolean();
+    doAnswer(invocation -> {
+        publishedAfterCommit.set(committed.get());
+        return null;
+      })
+      .when(messagePublisher)
+      .publishImportMessage(any());
+
+    // When
+    scheduler.dispatch();
+
+    // Then
+    verify(messagePublisher).publishImportMessage(any());
+    assertThat(publishedAfterCommit).isTrue();
+    assertThat(gauge("in.flight")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Deve pular a rodada quando outra instância está admitindo")
+  void shouldSkipWhenAnotherInstanceIsDispatching() {
+    // Given
+    ImportQueueScheduler scheduler = scheduler(1);
+    when(advisoryLocks.tryLock(eq(Locks.QUEUE_DISPATCH), anyLong()))
+      .thenReturn(false);
+
+    // When
+    scheduler.dispatch();
+
+    // Then
+    verifyNoInteractions(jobRepository, messagePublisher);
+  }
+
+  @Test
+  @DisplayName("Deve dar prioridade alta a arquivos pequenos")
+  void shouldPrioritizeSmallFiles() {
+    // Given
+    properties.getQueue().setSmallFileRecords(100);
+    ImportQueueScheduler scheduler = scheduler(1);
+
+    // When / Then
+    assertThat(scheduler.priorityOf(100)).isEqualTo(ImportPriority.HIGH);
+    assertThat(scheduler.priorityOf(101)).isEqualTo(ImportPriority.NORMAL);
+  }
+
+  private ImportQueueScheduler scheduler(int maxConcurrentJobs) {
+    return new ImportQueueScheduler(
+      jobRepository,
+      messagePublisher,
+      properties,
+      meterRegistry,
+      maxConcurrentJobs,
+      TransactionOperations.withoutTransaction(),
+      advisoryLocks
+    );
+  }
+
+  private double gauge(String name) {
+    return meterRegistry.get("csv.import.queue." + name).gauge().value();
+  }
+
+  private double depth(ImportPriority priority) {
+    return meterRegistry
+      .get("csv.import.queue.depth")
+      .tag("priority", priority.name())
+      .gauge()
+      .value();
+  }
+
+  private static CsvImportJob job(
+    Long userId,
+    ImportPriority priority,
+    int minute
+  ) {
+    CsvImportJob job = new CsvImportJob();
+    job.setId(UUID.randomUUID());
+    job.setFilename("escolas.csv");
+    job.setFileUri("file:///tmp/escolas.csv");
+    job.setStatus(ImportJobStatus.PENDING);
+    job.setPriority(priority);
+    job.setQueuedAt(T0.plusSeconds(60L * minute));
+    ReflectionTestUtils.setField(job, "createdBy", userId);
+    return job;
+  }
+}
@@ -0,0 +1,108 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.application.validator;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.kleberrhuan.houer.csv.application.service.CsvColumnMetadataService;
+import com.kleberrhuan.houer.csv.application.validator.rule.MandatoryRule;
+import com.kleberrhuan.houer.csv.application.validator.rule.NumericRule;
+import com.kleberrhuan.houer.csv.application.validator.rule.SchoolCodeRule;
+import com.kleberrhuan.houer.csv.domain.exception.AggregatedValidationException;
+import com.kleberrhuan.houer.csv.domain.exception.RowValidationException;
+import com.kleberrhuan.houer.csv.domain.model.RowContext;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("RowValidationPlan Tests")
+class RowValidationPlanTest {
+
+  private static final String[] HEADERS = {
+    "CODESC",
+    " NOMESC ",
+    "TIPOESC",
+    "SALAS_AULA",
+    "COLUNA_EXTRA",
+  };
+
+  private CompositeRowValidator validator;
+  private RowValidationPlan plan;
+
+  @BeforeEach
+  void setUp() {
+    CsvColumnMetadataService metadataService = new CsvColumnMetadataService();
+    validator =
+      new CompositeRowValidator(
+        List.of(
+          new MandatoryRule(metadataService),
+          new NumericRule(metadataService),
+          new SchoolCodeRule()
+        )
+      );
+    plan = validator.compile(HEADERS);
+  }
+
+  @Test
+  @DisplayName("Deve aceitar linha válida, inclusive com colunas faltando no fim")
+  void shouldAcceptValidRows() {
+    // When & Then
+    assertThatNoException()
+      .isThrownBy(() -> {
+        plan.validate(
+          new String[] { "123", "Escola", "8", "10", "x" },
+          2,
+          "test.csv"
+        );
+        plan.validate(new String[] { "123", "Escola" }, 3, "test.csv");
+      });
+  }
+
+  @Test
+  @DisplayName("Deve reportar os mesmos erros que a validação por RowContext")
+  void shouldReportSameErrorsAsContextValidation() {
+    // Given
+    String[] values = { "123", "  ", " -5 ", "abc", "x" };
+
+    // When
+    Throwable compiled = catchThrowable(() ->
+      plan.validate(values, 7, "test.csv")
+    );
+    Throwable legacy = catchThrowable(() ->
+      validator.validate(new RowContext(HEADERS, values, 7, "test.csv"))
+    );
+
+    // Then
+    assertThat(compiled)
+      .isInstanceOf(AggregatedValidationException.class)
+      .hasMessage(legacy.getMessage());
+  }
+
+  @Test
+  @DisplayName("Deve aplicar as regras na ordem e propagar a falha do código da escola")
+  void shouldPropagateSchoolCodeFailure() {
+    // Given
+    String[] values = { "0", "Escola", "8", "10" };
+
+    // When & Then
+    assertThatThrownBy(() -> plan.validate(values, 4, "test.csv"))
+      .isInstanceOf(RowValidationException.class)
+      .hasMessageContaining("positivo");
+  }
+
+  @Test
+  @DisplayName("Deve filtrar só as linhas recusadas pelas regras")
+  void shouldFilterRejectedRows() {
+    // Given
+    Predicate<String[]> validRows = plan.validRows("test.csv");
+
+    // When & Then
+    assertThat(validRows.test(new String[] { "123", "Escola", "8", "10" }))
+      .isTrue();
+    assertThat(validRows.test(new String[] { "0", "Escola", "8", "10" }))
+      .isFalse();
+    assertThat(validRows.test(new String[] { "123", "  ", "x", "10" }))
+      .isFalse();
+  }
+}
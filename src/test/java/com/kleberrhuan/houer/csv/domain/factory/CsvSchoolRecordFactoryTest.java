@@ -0,0 +1,89 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.domain.factory;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.kleberrhuan.houer.csv.application.parser.CsvByteTokenizer;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolColumn;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CsvSchoolRecordFactory Tests")
+class CsvSchoolRecordFactoryTest {
+
+  private static final String[] HEADERS = {
+    "\uFEFFCODESC",
+    "NOMESC",
+    "SALAS_AULA",
+    "TIPOESC",
+    "BIBLIOTECA",
+  };
+
+  @Test
+  @DisplayName("Deve montar vetor de métricas na ordem do arquivo e serializar em JSON")
+  void shouldBuildMetricVectorInFileOrder() {
+    // Given
+    String[] values = { "123", "Escola", "10", "8", "x" };
+
+    // When
+    CsvSchoolRecord record = CsvSchoolRecordFactory
+      .createMapper(HEADERS)
+      .apply(values);
+
+    // Then
+    assertThat(record.codesc()).isEqualTo("123");
+    assertThat(record.tipoesc()).isEqualTo(8L);
+    assertThat(record.metrics().size()).isEqualTo(2);
+    assertThat(record.metrics().get(CsvSchoolColumn.SALAS_AULA)).isEqualTo(10L);
+    assertThat(record.metrics().get(CsvSchoolColumn.BIBLIOTECA)).isZero();
+    assertThat(record.metrics().toJson())
+      .isEqualTo("{\"SALAS_AULA\":10,\"BIBLIOTECA\":0}");
+  }
+
+  @Test
+  @DisplayName("Deve omitir métricas de células ausentes no fim da linha")
+  void shouldOmitMetricsForMissingTrailingCells() {
+    // Given
+    String[] values = { "123", "Escola", "10" };
+
+    // When
+    CsvSchoolRecord record = CsvSchoolRecordFactory
+      .createMapper(HEADERS)
+      .apply(values);
+
+    // Then
+    assertThat(record.tipoesc()).isNull();
+    assertThat(record.metrics().containsKey(CsvSchoolColumn.SALAS_AULA))
+      .isTrue();
+    assertThat(record.metrics().containsKey(CsvSchoolColumn.BIBLIOTECA))
+      .isFalse();
+    assertThat(record.metrics().get(CsvSchoolColumn.BIBLIOTECA)).isNull();
+  }
+
+  @Test
+  @DisplayName("Deve produzir o mesmo registro a partir de linha tokenizada")
+  void shouldProduceSameRecordFromTokenizedRow() throws IOException {
+    // Given
+    String line = "123;Escola;10;8; 7";
+    CsvByteTokenizer tokenizer = new CsvByteTokenizer(
+      new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8))
+    );
+    tokenizer.nextRow();
+
+    // When
+    CsvSchoolRecord fromRow = CsvSchoolRecordFactory
+      .createRowMapper(HEADERS)
+      .apply(tokenizer);
+    CsvSchoolRecord fromArray = CsvSchoolRecordFactory
+      .createMapper(HEADERS)
+      .apply(line.split(";"));
+
+    // Then
+    assertThat(fromRow).isEqualTo(fromArray);
+    assertThat(fromRow.metrics().get(CsvSchoolColumn.BIBLIOTECA)).isZero();
+  }
+}
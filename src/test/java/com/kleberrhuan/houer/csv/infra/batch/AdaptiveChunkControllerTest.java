@@ -0,0 +1,162 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.kleberrhuan.houer.csv.infra.batch.AdaptiveChunkController.PoolWait;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("AdaptiveChunkController Tests")
+class AdaptiveChunkControllerTest {
+
+  private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicReference<PoolWait> poolWait = new AtomicReference<>(
+    new PoolWait(0, 0)
+  );
+
+  private CsvImportProperties properties;
+  private SimpleMeterRegistry meterRegistry;
+  private AdaptiveChunkController controller;
+
+  @BeforeEach
+  void setUp() {
+    properties = new CsvImportProperties();
+    properties.setPartitions(4);
+    properties.getAdaptive().setInitialChunkSize(1_000);
+    properties.getAdaptive().setMinChunkSize(100);
+    properties.getAdaptive().setMaxChunkSize(2_000);
+    properties.getAdaptive().setTargetChunkLatency(Duration.ofMillis(500));
+    properties.getAdaptive().setAdjustInterval(Duration.ofSeconds(1));
+    meterRegistry = new SimpleMeterRegistry();
+    controller = newController();
+  }
+
+  @Test
+  @DisplayName("Deve encolher o chunk quando a latência passa do alvo")
+  void shouldShrinkChunkWhenLatencyAboveTarget() {
+    // When
+    chunkAfterInterval(1_000, 800 * MS);
+
+    // Then
+    assertThat(controller.currentChunkSize()).isEqualTo(625);
+    assertThat(adjustments("chunk_size", "down", "latency")).isEqualTo(1);
+    assertThat(
+      meterRegistry.get("csv.import.adaptive.chunk.size").gauge().value()
+    )
+      .isEqualTo(625);
+  }
+
+  @Test
+  @DisplayName("Deve tirar um worker quando há espera no pool de conexões")
+  void shouldRemoveWorkerOnPoolWait() {
+    // Given
+    poolWait.set(new PoolWait(2, 0));
+
+    // When
+    chunkAfterInterval(1_000, 100 * MS);
+
+    // Then
+    assertThat(controller.currentWorkers()).isEqualTo(3);
+    assertThat(controller.currentChunkSize()).isEqualTo(1_000);
+    assertThat(adjustments("workers", "down", "pool_wait")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Deve cortar o chunk quando há espera no pool e os workers já estão no mínimo")
+  void shouldHalveChunkOnPoolWaitAtMinimumWorkers() {
+    // Given
+    properties.setPartitions(1);
+    controller = newController();
+    poolWait.set(new PoolWait(0, 200 * MS));
+
+    // When
+    chunkAfterInterval(1_000, 100 * MS);
+
+    // Then
+    assertThat(controller.currentWorkers()).isEqualTo(1);
+    assertThat(controller.currentChunkSize()).isEqualTo(500);
+  }
+
+  @Test
+  @DisplayName("Deve crescer o chunk e, no máximo, devolver workers quando há folga")
+  void shouldGrowChunkThenWorkersWithHeadroom() {
+    // Given
+    poolWait.set(new PoolWait(1, 0));
+    chunkAfterInterval(1_000, 100 * MS);
+    poolWait.set(new PoolWait(0, 0));
+
+    // When
+    for (int i = 0; i < 5; i++) {
+      chunkAfterInterval(controller.currentChunkSize(), 100 * MS);
+    }
+
+    // Then
+    assertThat(controller.currentChunkSize()).isEqualTo(2_000);
+    assertThat(controller.currentWorkers()).isEqualTo(4);
+    assertThat(adjustments("workers", "up", "headroom")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Não deve ajustar antes do intervalo de ajuste")
+  void shouldNotAdjustBeforeInterval() {
+    // When
+    clock.addAndGet(100 * MS);
+    controller.recordChunk(1_000, 900 * MS);
+
+    // Then
+    assertThat(controller.currentChunkSize()).isEqualTo(1_000);
+  }
+
+  @Test
+  @DisplayName("Deve manter o tamanho inicial quando desligado")
+  void shouldKeepInitialSizeWhenDisabled() {
+    // Given
+    properties.getAdaptive().setEnabled(false);
+    controller = newController();
+
+    // When
+    chunkAfterInterval(1_000, 900 * MS);
+
+    // Then
+    assertThat(controller.currentChunkSize()).isEqualTo(1_000);
+    assertThat(meterRegistry.find("csv.import.adaptive.adjustments").counter())
+      .isNull();
+  }
+
+  private AdaptiveChunkController newController() {
+    meterRegistry = new SimpleMeterRegistry();
+    return new AdaptiveChunkController(
+      properties,
+      meterRegistry,
+      poolWait::get,
+      clock::get
+    );
+  }
+
+  private void chunkAfterInterval(long items, long elapsedNanos) {
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    controller.recordChunk(items, elapsedNanos);
+  }
+
+  private double adjustments(
+    String parameter,
+    String direction,
+    String reason
+  ) {
+    return meterRegistry
+      .get("csv.import.adaptive.adjustments")
+      .tags("parameter", parameter, "direction", direction, "reason", reason)
+      .counter()
+      .count();
+  }
+}
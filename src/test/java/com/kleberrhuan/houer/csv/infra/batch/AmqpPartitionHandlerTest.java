@@ -0,0 +1,183 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Jobs.ID_PARAMETER_NAME;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.kleberrhuan.houer.csv.infra.exception.CsvProcessingException;
+import com.kleberrhuan.houer.csv.infra.messaging.CsvImportMessagePublisher;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportPartitionMessage;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.partition.StepExecutionSplitter;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AmqpPartitionHandler Tests")
+class AmqpPartitionHandlerTest {
+
+  private static final long JOB_EXECUTION_ID = 10L;
+
+  @Mock
+  private CsvImportMessagePublisher messagePublisher;
+
+  @Mock
+  private JobExplorer jobExplorer;
+
+  @Mock
+  private StepExecutionSplitter splitter;
+
+  private CsvImportProperties properties;
+  private AmqpPartitionHandler handler;
+  private UUID jobId;
+  private JobExecution jobExecution;
+
+  @BeforeEach
+  void setUp() {
+    properties = new CsvImportProperties();
+    properties.getRemote().setEnabled(true);
+    properties.getRemote().setGridSize(2);
+    properties.getRemote().setPollInterval(Duration.ofMillis(1));
+    handler = new AmqpPartitionHandler(
+      messagePublisher,
+      jobExplorer,
+      properties
+    );
+    jobId = UUID.randomUUID();
+    jobExecution = new JobExecution(
+      JOB_EXECUTION_ID,
+      new JobParametersBuilder()
+        .addString(ID_PARAMETER_NAME, jobId.toString())
+        .toJobParameters()
+    );
+  }
+
+  @Test
+  @DisplayName("Deve publicar uma mensagem por partição e aguardar todas terminarem")
+  void shouldPublishPartitionsAndAwaitCompletion() throws Exception {
+    // Given
+    StepExecution manager = step("schoolImportStep", 1L, BatchStatus.STARTED);
+    StepExecution p0 = step("worker:partition0", 2L, BatchStatus.STARTING);
+    StepExecution p1 = step("worker:partition1", 3L, BatchStatus.STARTING);
+    when(splitter.split(manager, 2)).thenReturn(Set.of(p0, p1));
+    when(jobExplorer.getStepExecution(JOB_EXECUTION_ID, 2L))
+      .thenReturn(step("worker:partition0", 2L, BatchStatus.STARTED))
+      .thenReturn(step("worker:partition0", 2L, BatchStatus.COMPLETED));
+    when(jobExplorer.getStepExecution(JOB_EXECUTION_ID, 3L))
+      .thenReturn(step("worker:partition1", 3L, BatchStatus.FAILED));
+
+    // When
+    Collection<StepExecution> result = handler.handle(splitter, manager);
+
+    // Then
+    ArgumentCaptor<CsvImportPartitionMessage> captor = ArgumentCaptor.forClass(
+      CsvImportPartitionMessage.class
+    );
+    verify(messagePublisher, times(2))
+      .publishPartitionMessage(captor.capture());
+    assertThat(captor.getAllValues())
+      .extracting(CsvImportPartitionMessage::stepExecutionId)
+      .containsExactlyInAnyOrder(2L, 3L);
+    assertThat(captor.getAllValues())
+      .allMatch(message -> message.jobId().equals(jobId));
+    assertThat(result)
+      .extracting(StepExecution::getStatus)
+      .containsExactlyInAnyOrder(BatchStatus.COMPLETED, BatchStatus.FAILED);
+  }
+
+  @Test
+  @DisplayName("Deve falhar quando as partições não terminam dentro do prazo")
+  void shouldFailWhenPartitionsTimeOut() {
+    // Given
+    properties.getRemote().setTimeout(Duration.ofMillis(20));
+    StepExecution partition = step(
+      "worker:partition0",
+      2L,
+      BatchStatus.STARTED
+    );
+    when(jobExplorer.getStepExecution(eq(JOB_EXECUTION_ID), anyLong()))
+      .thenReturn(partition);
+
+    // When / Then
+    assertThatThrownBy(() ->
+      handler.awaitPartitions(jobId, JOB_EXECUTION_ID, List.of(partition))
+    )
+      .isInstanceOf(CsvProcessingException.class);
+  }
+
+  @Test
+  @DisplayName("Deve republicar uma vez a partição abandonada e aguardar a retomada")
+  void shouldRepublishAbandonedPartitionOnce() throws Exception {
+    // Given
+    properties.getRemote().setStaleAfter(Duration.ofMinutes(5));
+    LocalDateTime lastChunk = LocalDateTime.now().minusMinutes(10);
+    StepExecution stale = step("worker:partition0", 2L, BatchStatus.STARTED);
+    stale.setLastUpdated(lastChunk);
+    when(jobExplorer.getStepExecution(JOB_EXECUTION_ID, 2L))
+      .thenReturn(stale)
+      .thenReturn(stale)
+      .thenReturn(step("worker:partition0", 2L, BatchStatus.COMPLETED));
+
+    // When
+    Collection<StepExecution> result = handler.awaitPartitions(
+      jobId,
+      JOB_EXECUTION_ID,
+      List.of(step("worker:partition0", 2L, BatchStatus.STARTING))
+    );
+
+    // Then
+    verify(messagePublisher, times(1))
+      .publishPartitionMessage(
+        new CsvImportPartitionMessage(jobId, JOB_EXECUTION_ID, 2L)
+      );
+    assertThat(result)
+      .extracting(StepExecution::getStatus)
+      .containsExactly(BatchStatus.COMPLETED);
+  }
+
+  @Test
+  @DisplayName("Deve falhar sem esperar o prazo quando a partição é abandonada mais vezes que o limite")
+  void shouldFailRightAwayWhenPartitionKeepsBeingAbandoned() {
+    // Given
+    properties.getRemote().setStaleAfter(Duration.ofMinutes(5));
+    properties.getRemote().setStaleRetries(1);
+    StepExecution first = step("worker:partition0", 2L, BatchStatus.STARTED);
+    first.setLastUpdated(LocalDateTime.now().minusMinutes(20));
+    StepExecution second = step("worker:partition0", 2L, BatchStatus.STARTED);
+    second.setLastUpdated(LocalDateTime.now().minusMinutes(10));
+    when(jobExplorer.getStepExecution(JOB_EXECUTION_ID, 2L))
+      .thenReturn(first)
+      .thenReturn(second);
+
+    // When / Then
+    assertThatThrownBy(() ->
+      handler.awaitPartitions(jobId, JOB_EXECUTION_ID, List.of(first))
+    )
+      .isInstanceOf(CsvProcessingException.class);
+    verify(messagePublisher, times(1)).publishPartitionMessage(any());
+  }
+
+  private StepExecution step(String name, Long id, BatchStatus status) {
+    StepExecution stepExecution = new StepExecution(name, jobExecution, id);
+    stepExecution.setStatus(status);
+    return stepExecution;
+  }
+}
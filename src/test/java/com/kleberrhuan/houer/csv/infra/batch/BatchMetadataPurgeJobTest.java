@@ -0,0 +1,136 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.kleberrhuan.houer.common.infra.persistence.AdvisoryLockService;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+@DisplayName("BatchMetadataPurgeJob Tests")
+class BatchMetadataPurgeJobTest {
+
+  private EmbeddedDatabase database;
+  private JdbcTemplate jdbcTemplate;
+  private JobRepository jobRepository;
+  private BatchMetadataPurgeJob purgeJob;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    database =
+      new EmbeddedDatabaseBuilder()
+        .setType(EmbeddedDatabaseType.H2)
+        .generateUniqueName(true)
+        .addScript("/org/springframework/batch/core/schema-h2.sql")
+        .build();
+    jdbcTemplate = new JdbcTemplate(database);
+    DataSourceTransactionManager transactionManager =
+      new DataSourceTransactionManager(database);
+
+    JobRepositoryFactoryBean factory = new JobRepositoryFactoryBean();
+    factory.setDataSource(database);
+    factory.setTransactionManager(transactionManager);
+    factory.afterPropertiesSet();
+    jobRepository = factory.getObject();
+
+    CsvImportProperties properties = new CsvImportProperties();
+    properties.getMetadataPurge().setRetention(Duration.ofDays(30));
+    properties.getMetadataPurge().setBatchSize(1);
+    purgeJob =
+      new BatchMetadataPurgeJob(
+        jdbcTemplate,
+        transactionManager,
+        new AdvisoryLockService(jdbcTemplate),
+        properties,
+        "BATCH_"
+      );
+  }
+
+  @AfterEach
+  void tearDown() {
+    database.shutdown();
+  }
+
+  @Test
+  @DisplayName("Deve remover só as instâncias cuja última atividade é anterior à retenção")
+  void shouldPurgeOnlyInstancesOlderThanRetention() throws Exception {
+    // Given
+    JobExecution old = finishedExecution("antigo-1");
+    JobExecution alsoOld = finishedExecution("antigo-2");
+    JobExecution recent = finishedExecution("recente");
+    age(old, 45);
+    age(alsoOld, 31);
+    age(recent, 2);
+
+    // When
+    purgeJob.purge();
+
+    // Then
+    assertThat(
+      jdbcTemplate.queryForList(
+        "SELECT JOB_INSTANCE_ID FROM BATCH_JOB_INSTANCE",
+        Long.class
+      )
+    )
+      .containsExactly(recent.getJobInstance().getId());
+    assertThat(count("BATCH_JOB_EXECUTION")).isEqualTo(1);
+    assertThat(count("BATCH_JOB_EXECUTION_PARAMS")).isEqualTo(1);
+    assertThat(count("BATCH_JOB_EXECUTION_CONTEXT")).isEqualTo(1);
+    assertThat(count("BATCH_STEP_EXECUTION")).isEqualTo(1);
+    assertThat(count("BATCH_STEP_EXECUTION_CONTEXT")).isEqualTo(1);
+  }
+
+  private JobExecution finishedExecution(String jobId) throws Exception {
+    JobExecution execution = jobRepository.createJobExecution(
+      "schoolImportJob",
+      new JobParametersBuilder().addString("jobId", jobId).toJobParameters()
+    );
+    StepExecution step = execution.createStepExecution(
+      "schoolImportManagerStep"
+    );
+    jobRepository.add(step);
+    step.setStatus(BatchStatus.COMPLETED);
+    step.setEndTime(LocalDateTime.now());
+    jobRepository.update(step);
+    execution.setStartTime(LocalDateTime.now());
+    execution.setStatus(BatchStatus.COMPLETED);
+    execution.setEndTime(LocalDateTime.now());
+    jobRepository.update(execution);
+    return execution;
+  }
+
+  private void age(JobExecution execution, int days) {
+    Timestamp then = Timestamp.valueOf(LocalDateTime.now().minusDays(days));
+    jdbcTemplate.update(
+      "UPDATE BATCH_JOB_EXECUTION SET CREATE_TIME = ?, END_TIME = ?, LAST_UPDATED = ? WHERE JOB_EXECUTION_ID = ?",
+      then,
+      then,
+      then,
+      execution.getId()
+    );
+  }
+
+  private int count(String table) {
+    return jdbcTemplate.queryForObject(
+      "SELECT COUNT(*) FROM " + table,
+      Integer.class
+    );
+  }
+}
@@ -0,0 +1,128 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CheckpointPartitioner Tests")
+class CheckpointPartitionerTest {
+
+  @Mock
+  private Partitioner delegate;
+
+  @Mock
+  private ImportProgressTracker progressTracker;
+
+  @TempDir
+  Path tempDir;
+
+  private UUID jobId;
+
+  @BeforeEach
+  void setUp() {
+    jobId = UUID.randomUUID();
+  }
+
+  @Test
+  @DisplayName("Deve retomar as partições e posições gravadas no checkpoint")
+  void shouldRestorePartitionsFromCheckpoint() throws Exception {
+    // Given
+    Path keysFile = Files.createFile(tempDir.resolve("escolas.keys"));
+    Map<String, ExecutionContext> saved = new LinkedHashMap<>();
+    saved.put("partition0", partition(keysFile, 0, 250));
+    saved.put("partition1", partition(keysFile, 500, 0));
+    String checkpoint = ImportCheckpoint.write(saved);
+
+    // When
+    Map<String, ExecutionContext> partitions = new CheckpointPartitioner(
+      jobId,
+      delegate,
+      checkpoint,
+      progressTracker
+    )
+      .partition(2);
+
+    // Then
+    assertThat(partitions).containsOnlyKeys("partition0", "partition1");
+    ExecutionContext first = partitions.get("partition0");
+    assertThat(first.getLong(SchoolFilePartitioner.KEY_FROM_KEY)).isZero();
+    assertThat(first.getInt("reader.read.count")).isEqualTo(250);
+    assertThat(first.getString(SchoolFilePartitioner.KEYS_FILE_KEY))
+      .isEqualTo(keysFile.toString());
+    verifyNoInteractions(delegate);
+    verify(progressTracker).recordCheckpoint(jobId, "partition0", first);
+    verify(progressTracker)
+      .recordCheckpoint(jobId, "partition1", partitions.get("partition1"));
+  }
+
+  @Test
+  @DisplayName("Deve particionar do zero e semear o checkpoint quando não há nenhum salvo")
+  void shouldDelegateAndSeedWhenNoCheckpoint() {
+    // Given
+    ExecutionContext context = new ExecutionContext();
+    context.putLong(SchoolFilePartitioner.START_OFFSET_KEY, 0);
+    when(delegate.partition(4)).thenReturn(Map.of("partition0", context));
+
+    // When
+    Map<String, ExecutionContext> partitions = new CheckpointPartitioner(
+      jobId,
+      delegate,
+      null,
+      progressTracker
+    )
+      .partition(4);
+
+    // Then
+    assertThat(partitions).containsOnlyKeys("partition0");
+    verify(progressTracker).recordCheckpoint(jobId, "partition0", context);
+  }
+
+  @Test
+  @DisplayName("Deve descartar o checkpoint quando o arquivo de chaves não existe mais")
+  void shouldDiscardCheckpointWhenKeysFileIsGone() {
+    // Given
+    Path keysFile = tempDir.resolve("removido.keys");
+    String checkpoint = ImportCheckpoint.write(
+      Map.of("partition0", partition(keysFile, 0, 100))
+    );
+    when(delegate.partition(anyInt())).thenReturn(new LinkedHashMap<>());
+
+    // When
+    new CheckpointPartitioner(jobId, delegate, checkpoint, progressTracker)
+      .partition(2);
+
+    // Then
+    verify(delegate).partition(2);
+    verifyNoInteractions(progressTracker);
+  }
+
+  private static ExecutionContext partition(
+    Path keysFile,
+    long keyFrom,
+    int readCount
+  ) {
+    ExecutionContext context = new ExecutionContext();
+    context.putString(SchoolFilePartitioner.KEYS_FILE_KEY, keysFile.toString());
+    context.putLong(SchoolFilePartitioner.KEY_FROM_KEY, keyFrom);
+    context.putLong(SchoolFilePartitioner.KEY_TO_KEY, keyFrom + 500);
+    context.putInt("reader.read.count", readCount);
+    return context;
+  }
+}
@@ -0,0 +1,94 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.kleberrhuan.houer.csv.domain.model.ImportJobStatus;
+import com.kleberrhuan.houer.csv.domain.repository.CsvImportJobRepository;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import java.time.Duration;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImportCancellationRegistry Tests")
+class ImportCancellationRegistryTest {
+
+  @Mock
+  private CsvImportJobRepository jobRepository;
+
+  private CsvImportProperties properties;
+  private ImportCancellationRegistry registry;
+  private UUID jobId;
+
+  @BeforeEach
+  void setUp() {
+    properties = new CsvImportProperties();
+    properties.setCancellationCheckInterval(Duration.ofHours(1));
+    registry = new ImportCancellationRegistry(jobRepository, properties);
+    jobId = UUID.randomUUID();
+  }
+
+  @Test
+  @DisplayName("Deve consultar o banco uma vez por intervalo")
+  void shouldCacheCheckWithinInterval() {
+    // Given
+    when(jobRepository.existsByIdAndStatus(jobId, ImportJobStatus.CANCELLED))
+      .thenReturn(false);
+
+    // When
+    boolean first = registry.isCancelled(jobId);
+    boolean second = registry.isCancelled(jobId);
+
+    // Then
+    assertThat(first).isFalse();
+    assertThat(second).isFalse();
+    verify(jobRepository, times(1))
+      .existsByIdAndStatus(jobId, ImportJobStatus.CANCELLED);
+  }
+
+  @Test
+  @DisplayName("Deve valer na hora o cancelamento feito nesta réplica")
+  void shouldSeeLocalCancellationImmediately() {
+    // Given
+    when(jobRepository.existsByIdAndStatus(jobId, ImportJobStatus.CANCELLED))
+      .thenReturn(false);
+    registry.isCancelled(jobId);
+
+    // When
+    registry.markCancelled(jobId);
+
+    // Then
+    assertThat(registry.isCancelled(jobId)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Deve enxergar o cancelamento de outra réplica após o intervalo")
+  void shouldSeeRemoteCancellationAfterInterval() {
+    // Given
+    properties.setCancellationCheckInterval(Duration.ZERO);
+    when(jobRepository.existsByIdAndStatus(jobId, ImportJobStatus.CANCELLED))
+      .thenReturn(false, true);
+
+    // When / Then
+    assertThat(registry.isCancelled(jobId)).isFalse();
+    assertThat(registry.isCancelled(jobId)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Deve seguir importando quando a consulta falha")
+  void shouldNotCancelWhenLookupFails() {
+    // Given
+    when(jobRepository.existsByIdAndStatus(jobId, ImportJobStatus.CANCELLED))
+      .thenThrow(new IllegalStateException("banco fora"));
+
+    // When / Then
+    assertThat(registry.checkNow(jobId)).isFalse();
+  }
+}
@@ -0,0 +1,158 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.kleberrhuan.houer.csv.application.service.CsvImportService;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.ExecutionContext;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImportProgressTracker Tests")
+class ImportProgressTrackerTest {
+
+  @Mock
+  private CsvImportService importService;
+
+  @Mock
+  private SchoolImportDeltaRegistry deltaRegistry;
+
+  private ImportProgressTracker tracker;
+  private UUID jobId;
+
+  @BeforeEach
+  void setUp() {
+    tracker = new ImportProgressTracker(importService, deltaRegistry);
+    jobId = UUID.randomUUID();
+    tracker.open(jobId);
+  }
+
+  @Test
+  @DisplayName("Deve agrupar vários chunks em um único incremento por flush")
+  void shouldCoalesceChunksIntoSingleIncrement() {
+    // Given
+    tracker.recordChunk(jobId, 1_000, 0);
+    tracker.recordChunk(jobId, 1_000, 2);
+    tracker.recordChunk(jobId, 500, 1);
+
+    // When
+    tracker.flushAll();
+    tracker.flushAll();
+
+    // Then
+    verify(importService, times(1))
+      .addJobProgress(jobId, 2_500, 3, 0, 0, 0);
+  }
+
+  @Test
+  @DisplayName("Deve enviar apenas o que mudou desde o último flush, incluindo o delta")
+  void shouldSendOnlyIncrementSinceLastFlush() {
+    // Given
+    SchoolImportDelta delta = new SchoolImportDelta(new SchoolHashIndex(0));
+    when(deltaRegistry.find(jobId)).thenReturn(delta);
+    tracker.recordChunk(jobId, 10, 0);
+    delta.count(SchoolImportDelta.Change.INSERTED, 10);
+    tracker.flushAll();
+
+    // When
+    tracker.recordChunk(jobId, 4, 0);
+    delta.count(SchoolImportDelta.Change.UNCHANGED, 4);
+    tracker.flushAll();
+
+    // Then
+    verify(importService).addJobProgress(jobId, 10, 0, 10, 0, 0);
+    verify(importService).addJobProgress(jobId, 4, 0, 0, 0, 4);
+  }
+
+  @Test
+  @DisplayName("Deve reenviar o incremento no próximo flush quando o UPDATE falhar")
+  void shouldRetryIncrementAfterFailure() {
+    // Given
+    tracker.recordChunk(jobId, 100, 0);
+    doThrow(new IllegalStateException("banco indisponível"))
+      .doNothing()
+      .when(importService)
+      .addJobProgress(any(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt());
+    tracker.flushAll();
+
+    // When
+    tracker.recordChunk(jobId, 50, 0);
+    tracker.flushAll();
+
+    // Then
+    verify(importService).addJobProgress(jobId, 100, 0, 0, 0, 0);
+    verify(importService).addJobProgress(jobId, 150, 0, 0, 0, 0);
+  }
+
+  @Test
+  @DisplayName("Deve gravar o restante ao fechar e ignorar chunks posteriores")
+  void shouldFlushOnCloseAndStopTracking() {
+    // Given
+    tracker.recordChunk(jobId, 7, 1);
+
+    // When
+    tracker.close(jobId);
+    tracker.recordChunk(jobId, 3, 0);
+    tracker.flushAll();
+
+    // Then
+    verify(importService).addJobProgress(jobId, 7, 1, 0, 0, 0);
+    verifyNoMoreInteractions(importService);
+    assertThat(tracker.isTracking(jobId)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Deve manter o acompanhamento até o último close quando aberto mais de uma vez")
+  void shouldKeepTrackingUntilLastReferenceCloses() {
+    // Given
+    tracker.open(jobId);
+    tracker.recordChunk(jobId, 5, 0);
+
+    // When
+    tracker.close(jobId);
+    tracker.recordChunk(jobId, 2, 0);
+    tracker.close(jobId);
+
+    // Then
+    verify(importService).addJobProgress(jobId, 5, 0, 0, 0, 0);
+    verify(importService).addJobProgress(jobId, 2, 0, 0, 0, 0);
+    assertThat(tracker.isTracking(jobId)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Deve gravar o checkpoint das partições só quando alguma posição mudou")
+  void shouldFlushCheckpointOnlyWhenChanged() {
+    // Given
+    ExecutionContext context = new ExecutionContext();
+    context.putLong("SchoolFileItemReader.read.count", 500);
+    tracker.recordCheckpoint(jobId, "partition0", context);
+    context.putLong("SchoolFileItemReader.read.count", 1_000);
+
+    // When
+    tracker.flushAll();
+    tracker.flushAll();
+
+    // Then
+    ArgumentCaptor<String> checkpoint = ArgumentCaptor.forClass(String.class);
+    verify(importService, times(1))
+      .saveJobCheckpoint(eq(jobId), checkpoint.capture());
+    Map<String, ExecutionContext> saved = ImportCheckpoint.read(
+      checkpoint.getValue()
+    );
+    assertThat(saved).containsOnlyKeys("partition0");
+    assertThat(
+      saved.get("partition0").getLong("SchoolFileItemReader.read.count")
+    )
+      .isEqualTo(500);
+  }
+}
@@ -0,0 +1,154 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+@DisplayName("InMemoryJobRepository Tests")
+class InMemoryJobRepositoryTest {
+
+  private InMemoryJobRepository repository;
+  private JobParameters parameters;
+
+  @BeforeEach
+  void setUp() {
+    repository = new InMemoryJobRepository();
+    parameters =
+      new JobParametersBuilder()
+        .addString("jobId", "a1b2c3")
+        .addString("filename", "escolas.csv", false)
+        .toJobParameters();
+  }
+
+  @Test
+  @DisplayName("Deve executar um job particionado e descartar a instância ao terminar")
+  void shouldRunPartitionedJobAndForgetInstance() throws Exception {
+    // Given
+    Set<String> executed = ConcurrentHashMap.newKeySet();
+    ResourcelessTransactionManager transactionManager =
+      new ResourcelessTransactionManager();
+    Step worker = new StepBuilder("worker", repository)
+      .tasklet(
+        (contribution, chunkContext) -> {
+          executed.add(
+            chunkContext
+              .getStepContext()
+              .getStepExecution()
+              .getExecutionContext()
+              .getString("range")
+          );
+          return RepeatStatus.FINISHED;
+        },
+        transactionManager
+      )
+      .build();
+    Step manager = new StepBuilder("manager", repository)
+      .partitioner(
+        "worker",
+        gridSize -> {
+          Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+          for (int i = 0; i < gridSize; i++) {
+            ExecutionContext context = new ExecutionContext();
+            context.putString("range", "faixa-" + i);
+            partitions.put("partition" + i, context);
+          }
+          return partitions;
+        }
+      )
+      .step(worker)
+      .gridSize(3)
+      .taskExecutor(new SimpleAsyncTaskExecutor())
+      .build();
+    Job job = new JobBuilder("importJob", repository).start(manager).build();
+
+    TaskExecutorJobLauncher launcher = new TaskExecutorJobLauncher();
+    launcher.setJobRepository(repository);
+    launcher.afterPropertiesSet();
+
+    // When
+    JobExecution execution = launcher.run(job, parameters);
+
+    // Then
+    assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+    assertThat(execution.getStepExecutions()).hasSize(4);
+    assertThat(executed)
+      .containsExactlyInAnyOrder("faixa-0", "faixa-1", "faixa-2");
+    assertThat(repository.getLastJobExecution("importJob", parameters))
+      .isNull();
+    assertThat(repository.getJobNames()).isEmpty();
+    assertThatThrownBy(() -> launcher.run(job, parameters))
+      .isInstanceOf(JobInstanceAlreadyCompleteException.class);
+  }
+
+  @Test
+  @DisplayName("Deve recusar uma segunda execução enquanto a primeira está em andamento")
+  void shouldRejectSecondExecutionWhileRunning() throws Exception {
+    // Given
+    JobExecution running = repository.createJobExecution(
+      "importJob",
+      parameters
+    );
+    running.setStartTime(LocalDateTime.now());
+    running.setStatus(BatchStatus.STARTED);
+    repository.update(running);
+
+    // When / Then
+    assertThatThrownBy(() ->
+      repository.createJobExecution("importJob", parameters)
+    )
+      .isInstanceOf(JobExecutionAlreadyRunningException.class);
+    assertThat(repository.getLastJobExecution("importJob", parameters))
+      .isSameAs(running);
+  }
+
+  @Test
+  @DisplayName("Deve permitir relançar um job que falhou como uma nova instância")
+  void shouldRelaunchFailedJobAsNewInstance() throws Exception {
+    // Given
+    JobExecution failed = repository.createJobExecution(
+      "importJob",
+      parameters
+    );
+    failed.setStartTime(LocalDateTime.now());
+    failed.setStatus(BatchStatus.FAILED);
+    failed.setEndTime(LocalDateTime.now());
+    repository.update(failed);
+
+    // When
+    JobExecution relaunched = repository.createJobExecution(
+      "importJob",
+      parameters
+    );
+
+    // Then
+    assertThat(relaunched.getJobInstance().getId())
+      .isNotEqualTo(failed.getJobInstance().getId());
+    assertThat(
+      repository.getLastStepExecution(relaunched.getJobInstance(), "manager")
+    )
+      .isNull();
+  }
+}
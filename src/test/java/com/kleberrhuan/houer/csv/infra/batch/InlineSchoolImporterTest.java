@@ -0,0 +1,131 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.kleberrhuan.houer.benchmark.SchoolCsvGenerator;
+import com.kleberrhuan.houer.csv.application.service.CsvColumnMetadataService;
+import com.kleberrhuan.houer.csv.application.validator.CompositeRowValidator;
+import com.kleberrhuan.houer.csv.application.validator.RowValidationPlan;
+import com.kleberrhuan.houer.csv.application.validator.rule.MandatoryRule;
+import com.kleberrhuan.houer.csv.application.validator.rule.NumericRule;
+import com.kleberrhuan.houer.csv.application.validator.rule.SchoolCodeRule;
+import com.kleberrhuan.houer.csv.infra.observability.ImportPipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InlineSchoolImporter Tests")
+class InlineSchoolImporterTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private SchoolImportDeltaRegistry deltaRegistry;
+
+  private CompositeRowValidator rowValidator;
+  private InlineSchoolImporter importer;
+
+  @BeforeEach
+  void setUp() {
+    CsvColumnMetadataService metadataService = new CsvColumnMetadataService();
+    rowValidator =
+      new CompositeRowValidator(
+        List.of(
+          new MandatoryRule(metadataService),
+          new NumericRule(metadataService),
+          new SchoolCodeRule()
+        )
+      );
+    importer =
+      new InlineSchoolImporter(
+        rowValidator,
+        new SchoolItemProcessor(metadataService),
+        deltaRegistry,
+        new SchoolCopyLoader(jdbcTemplate),
+        new ImportPipelineMetrics(new SimpleMeterRegistry())
+      );
+  }
+
+  @Test
+  @DisplayName("Deve gravar o arquivo em um único COPY e classificar pelo delta")
+  void shouldWriteAllRecordsInSingleCopy() throws Exception {
+    // Given
+    Path file = SchoolCsvGenerator.write(tempDir.resolve("e.csv"), 20, 0.0);
+    SchoolHashIndex index = new SchoolHashIndex(1);
+    index.put(10_001L, 0L);
+    when(deltaRegistry.forCodes(any()))
+      .thenReturn(new SchoolImportDelta(index));
+
+    // When
+    InlineSchoolImporter.Result result = importer.importFile(
+      UUID.randomUUID(),
+      file,
+      "e.csv",
+      false,
+      7L
+    );
+
+    // Then
+    assertThat(result.read()).isEqualTo(20);
+    assertThat(result.inserted()).isEqualTo(19);
+    assertThat(result.updated()).isEqualTo(1);
+    assertThat(result.unchanged()).isZero();
+    verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+  }
+
+  @Test
+  @DisplayName("Deve descartar as linhas inválidas quando o upload as aceitou")
+  void shouldSkipInvalidRows() throws Exception {
+    // Given
+    Path file = SchoolCsvGenerator.write(tempDir.resolve("e.csv"), 40, 0.5);
+    when(deltaRegistry.forCodes(any()))
+      .thenReturn(new SchoolImportDelta(new SchoolHashIndex(0)));
+    long valid = countValid(SchoolCsvGenerator.rows(40, 0.5));
+
+    // When
+    InlineSchoolImporter.Result result = importer.importFile(
+      UUID.randomUUID(),
+      file,
+      "e.csv",
+      true,
+      7L
+    );
+
+    // Then
+    assertThat(valid).isBetween(1L, 39L);
+    assertThat(result.read()).isEqualTo(valid);
+    assertThat(result.inserted()).isEqualTo(valid);
+  }
+
+  private long countValid(String[][] rows) {
+    RowValidationPlan plan = rowValidator.compile(SchoolCsvGenerator.header());
+    long valid = 0;
+    for (String[] row : rows) {
+      try {
+        plan.validate(row, 0, "e.csv");
+        valid++;
+      } catch (RuntimeException e) {
+        // linha inválida
+      }
+    }
+    return valid;
+  }
+}
@@ -0,0 +1,91 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolColumn;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.domain.model.MetricLayout;
+import com.kleberrhuan.houer.csv.domain.model.SchoolMetrics;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SchoolContentHash Tests")
+class SchoolContentHashTest {
+
+  @Test
+  @DisplayName("Deve gerar o mesmo hash para o mesmo conteúdo")
+  void shouldBeDeterministic() {
+    // Given
+    CsvSchoolRecord a = school("ESCOLA A", 8L, metrics(10, 2));
+    CsvSchoolRecord b = school("ESCOLA A", 8L, metrics(10, 2));
+
+    // When / Then
+    assertThat(SchoolContentHash.of(a)).isEqualTo(SchoolContentHash.of(b));
+    assertThat(SchoolContentHash.of(a)).isNotZero();
+  }
+
+  @Test
+  @DisplayName("Deve mudar o hash quando um campo ou métrica muda")
+  void shouldChangeWhenContentChanges() {
+    // Given
+    long base = SchoolContentHash.of(school("ESCOLA A", 8L, metrics(10, 2)));
+
+    // When / Then
+    assertThat(SchoolContentHash.of(school("ESCOLA B", 8L, metrics(10, 2))))
+      .isNotEqualTo(base);
+    assertThat(SchoolContentHash.of(school("ESCOLA A", null, metrics(10, 2))))
+      .isNotEqualTo(base);
+    assertThat(SchoolContentHash.of(school("ESCOLA A", 8L, metrics(10, 3))))
+      .isNotEqualTo(base);
+    assertThat(
+      SchoolContentHash.of(school("ESCOLA A", 8L, SchoolMetrics.empty()))
+    )
+      .isNotEqualTo(base);
+  }
+
+  @Test
+  @DisplayName("Não deve depender da ordem das colunas de métricas no arquivo")
+  void shouldIgnoreMetricColumnOrder() {
+    // Given
+    MetricLayout reversed = MetricLayout.of(
+      Map.of(CsvSchoolColumn.SALAS_ED_INF, 9, CsvSchoolColumn.SALAS_AULA, 10)
+    );
+    SchoolMetrics reordered = new SchoolMetrics(
+      reversed,
+      new long[] { 2, 10 },
+      2
+    );
+
+    // When / Then
+    assertThat(SchoolContentHash.of(school("ESCOLA A", 8L, reordered)))
+      .isEqualTo(SchoolContentHash.of(school("ESCOLA A", 8L, metrics(10, 2))));
+  }
+
+  private static SchoolMetrics metrics(long salasAula, long salasEdInf) {
+    MetricLayout layout = MetricLayout.of(
+      Map.of(CsvSchoolColumn.SALAS_AULA, 9, CsvSchoolColumn.SALAS_ED_INF, 10)
+    );
+    return new SchoolMetrics(layout, new long[] { salasAula, salasEdInf }, 2);
+  }
+
+  private static CsvSchoolRecord school(
+    String name,
+    Long tipoEsc,
+    SchoolMetrics metrics
+  ) {
+    return new CsvSchoolRecord(
+      "ESTADUAL",
+      "CENTRO",
+      "SAO PAULO",
+      "SE",
+      "12345",
+      name,
+      tipoEsc,
+      "EE",
+      (short) 1,
+      metrics
+    );
+  }
+}
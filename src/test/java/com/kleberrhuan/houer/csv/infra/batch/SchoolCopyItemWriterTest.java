@@ -0,0 +1,197 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolColumn;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.domain.model.MetricLayout;
+import com.kleberrhuan.houer.csv.domain.model.SchoolMetrics;
+import com.kleberrhuan.houer.csv.infra.observability.ImportPipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+@DisplayName("SchoolCopyItemWriter Tests")
+class SchoolCopyItemWriterTest {
+
+  private SchoolCopyItemWriter writer;
+
+  @BeforeEach
+  void setUp() {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate();
+    writer =
+      new SchoolCopyItemWriter(
+        new SchoolCopyLoader(jdbcTemplate),
+        new SchoolImportDeltaRegistry(jdbcTemplate),
+        new ImportPipelineMetrics(new SimpleMeterRegistry())
+      );
+  }
+
+  @Test
+  @DisplayName("Deve gerar linha no formato texto do COPY com métricas em JSON")
+  void shouldBuildCopyLineWithMetricsJson() {
+    // Given
+    MetricLayout layout = MetricLayout.of(
+      Map.of(CsvSchoolColumn.SALAS_AULA, 9, CsvSchoolColumn.SALAS_ED_INF, 10)
+    );
+    SchoolMetrics metrics = new SchoolMetrics(layout, new long[] { 10, 2 }, 2);
+    CsvSchoolRecord record = new CsvSchoolRecord(
+      "ESTADUAL",
+      "CENTRO",
+      "SAO PAULO",
+      "SE",
+      "12345",
+      "ESCOLA A",
+      8L,
+      "EE",
+      (short) 1,
+      metrics
+    );
+
+    // When
+    String payload = writer.buildCopyPayload(List.of(record));
+
+    // Then
+    assertThat(payload)
+      .isEqualTo(
+        "0\t12345\tESCOLA A\tESTADUAL\tCENTRO\tSAO PAULO\tSE\t8\tEE\t1\t" +
+        SchoolContentHash.of(record) +
+        "\t{\"SALAS_AULA\":10,\"SALAS_ED_INF\":2}\n"
+      );
+  }
+
+  @Test
+  @DisplayName("Deve escapar caracteres especiais e usar \\N para nulos")
+  void shouldEscapeSpecialCharactersAndNulls() {
+    // Given
+    CsvSchoolRecord record = new CsvSchoolRecord(
+      "ESTADUAL",
+      "DE\tX",
+      "MUN\\Y",
+      null,
+      "1",
+      "LINHA\nNOVA",
+      null,
+      null,
+      null,
+      SchoolMetrics.empty()
+    );
+
+    // When
+    String payload = writer.buildCopyPayload(List.of(record));
+
+    // Then
+    assertThat(payload)
+      .isEqualTo(
+        "0\t1\tLINHA\\nNOVA\tESTADUAL\tDE\\tX\tMUN\\\\Y\t\\N\t\\N\t\\N\t\\N\t" +
+        SchoolContentHash.of(record) +
+        "\t\\N\n"
+      );
+  }
+
+  @Test
+  @DisplayName("Deve ignorar registros com código de escola inválido")
+  void shouldSkipRecordsWithInvalidCode() {
+    // Given
+    CsvSchoolRecord invalid = new CsvSchoolRecord(
+      "ESTADUAL",
+      "DE",
+      "MUN",
+      "DISTR",
+      "ABC",
+      "ESCOLA",
+      1L,
+      "EE",
+      (short) 1,
+      SchoolMetrics.empty()
+    );
+
+    // When
+    String payload = writer.buildCopyPayload(List.of(invalid));
+
+    // Then
+    assertThat(payload).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Deve enviar apenas escolas novas ou com hash alterado")
+  void shouldSkipUnchangedSchools() {
+    // Given
+    CsvSchoolRecord unchanged = school("100", "ESCOLA A");
+    CsvSchoolRecord changed = school("200", "ESCOLA B");
+    CsvSchoolRecord inserted = school("300", "ESCOLA C");
+    SchoolHashIndex index = new SchoolHashIndex(2);
+    index.put(100L, SchoolContentHash.of(unchanged));
+    index.put(200L, SchoolContentHash.of(school("200", "NOME ANTIGO")));
+    SchoolImportDelta delta = new SchoolImportDelta(index);
+    ChunkDelta chunkDelta = new ChunkDelta(delta);
+
+    // When
+    String payload = writer.buildCopyPayload(
+      List.of(unchanged, changed, inserted),
+      chunkDelta
+    );
+    chunkDelta.commit();
+
+    // Then
+    assertThat(payload.lines().map(line -> line.split("\t")[1]))
+      .containsExactly("200", "300");
+    assertThat(delta.inserted()).isEqualTo(1);
+    assertThat(delta.updated()).isEqualTo(1);
+    assertThat(delta.unchanged()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Deve contar o delta do chunk só depois do commit")
+  void shouldCountChunkDeltaOnlyAfterCommit() {
+    // Given
+    SchoolImportDelta delta = new SchoolImportDelta(new SchoolHashIndex(0));
+    ChunkDelta committed = new ChunkDelta(delta);
+    ChunkDelta rolledBack = new ChunkDelta(delta);
+    writer.buildCopyPayload(List.of(school("100", "ESCOLA A")), committed);
+    writer.buildCopyPayload(List.of(school("200", "ESCOLA B")), rolledBack);
+
+    // When
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      committed.commitAfterTransaction();
+      assertThat(delta.inserted()).isZero();
+      TransactionSynchronizationUtils.triggerAfterCommit();
+
+      TransactionSynchronizationManager.clearSynchronization();
+      TransactionSynchronizationManager.initSynchronization();
+      rolledBack.commitAfterTransaction();
+      TransactionSynchronizationUtils.triggerAfterCompletion(
+        TransactionSynchronization.STATUS_ROLLED_BACK
+      );
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // Then
+    assertThat(delta.inserted()).isEqualTo(1);
+  }
+
+  private static CsvSchoolRecord school(String code, String name) {
+    return new CsvSchoolRecord(
+      "ESTADUAL",
+      "DE",
+      "MUN",
+      "DISTR",
+      code,
+      name,
+      1L,
+      "EE",
+      (short) 1,
+      SchoolMetrics.empty()
+    );
+  }
+}
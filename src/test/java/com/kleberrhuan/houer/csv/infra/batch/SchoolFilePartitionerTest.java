@@ -0,0 +1,248 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvRow;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.domain.model.SchoolMetrics;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+@DisplayName("SchoolFilePartitioner Tests")
+class SchoolFilePartitionerTest {
+
+  private static final Function<CsvRow, CsvSchoolRecord> CODE_ONLY_MAPPER =
+    row ->
+    new CsvSchoolRecord(
+      null,
+      null,
+      null,
+      null,
+      row.cellAsString(0),
+      null,
+      null,
+      null,
+      null,
+      SchoolMetrics.empty()
+    );
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Deve cobrir todas as linhas de dados exatamente uma vez")
+  void shouldCoverEveryDataLineExactlyOnce() throws Exception {
+    // Given
+    Path file = writeCsv(1_000, "\n");
+
+    // When
+    Map<String, ExecutionContext> partitions = new SchoolFilePartitioner(file)
+      .partition(4);
+
+    // Then
+    assertThat(partitions).hasSize(4);
+    assertThat(readAll(file, partitions))
+      .hasSize(1_000)
+      .doesNotHaveDuplicates()
+      .startsWith("0")
+      .endsWith("999");
+    assertThat(
+      partitions
+        .values()
+        .stream()
+        .mapToInt(c -> c.getInt(SchoolFilePartitioner.LINE_COUNT_KEY))
+        .sum()
+    )
+      .isEqualTo(1_000);
+  }
+
+  @Test
+  @DisplayName("Deve limitar partições ao número de linhas e aceitar CRLF")
+  void shouldCapPartitionsToLineCountWithCrlf() throws Exception {
+    // Given
+    Path file = writeCsv(3, "\r\n");
+
+    // When
+    Map<String, ExecutionContext> partitions = new SchoolFilePartitioner(file)
+      .partition(8);
+
+    // Then
+    assertThat(partitions).hasSize(3);
+    assertThat(readAll(file, partitions)).containsExactly("0", "1", "2");
+  }
+
+  @Test
+  @DisplayName("Deve gerar partição vazia para arquivo somente com cabeçalho")
+  void shouldCreateEmptyPartitionForHeaderOnlyFile() throws Exception {
+    // Given
+    Path file = tempDir.resolve("header.csv");
+    Files.writeString(file, "CODESC;NOMESC\n", StandardCharsets.UTF_8);
+
+    // When
+    Map<String, ExecutionContext> partitions = new SchoolFilePartitioner(file)
+      .partition(4);
+
+    // Then
+    assertThat(partitions).hasSize(1);
+    assertThat(readAll(file, partitions)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Não deve cortar partição no meio de campo entre aspas com quebra de linha")
+  void shouldNotSplitInsideQuotedFieldWithNewline() throws Exception {
+    // Given: quase todo o conteúdo de cada registro é um campo entre aspas com quebras de linha
+    String multiline = "\"" + "linha\n".repeat(50) + "\"";
+    StringBuilder sb = new StringBuilder("CODESC;NOMESC\n");
+    for (int i = 0; i < 200; i++) {
+      sb.append(i).append(';').append(multiline).append('\n');
+    }
+    Path file = tempDir.resolve("multiline.csv");
+    Files.writeString(file, sb.toString(), StandardCharsets.UTF_8);
+
+    // When
+    Map<String, ExecutionContext> partitions = new SchoolFilePartitioner(file)
+      .partition(4);
+
+    // Then
+    assertThat(partitions).hasSize(4);
+    assertThat(readAll(file, partitions))
+      .hasSize(200)
+      .doesNotHaveDuplicates()
+      .allMatch(code -> code.matches("\\d+"));
+    assertThat(
+      partitions
+        .values()
+        .stream()
+        .mapToInt(c -> c.getInt(SchoolFilePartitioner.LINE_COUNT_KEY))
+        .sum()
+    )
+      .isEqualTo(200);
+  }
+
+  @Test
+  @DisplayName("Deve retomar leitura a partir do offset salvo no contexto")
+  void shouldResumeFromSavedOffset() throws Exception {
+    // Given
+    Path file = writeCsv(10, "\n");
+    ExecutionContext context = new SchoolFilePartitioner(file)
+      .partition(1)
+      .values()
+      .iterator()
+      .next();
+    long start = context.getLong(SchoolFilePartitioner.START_OFFSET_KEY);
+    long end = context.getLong(SchoolFilePartitioner.END_OFFSET_KEY);
+
+    SchoolRangeItemReader first = new SchoolRangeItemReader(
+      file,
+      start,
+      end,
+      CODE_ONLY_MAPPER
+    );
+    first.open(context);
+    first.read();
+    first.read();
+    first.update(context);
+    first.close();
+
+    // When
+    SchoolRangeItemReader resumed = new SchoolRangeItemReader(
+      file,
+      start,
+      end,
+      CODE_ONLY_MAPPER
+    );
+    resumed.open(context);
+    CsvSchoolRecord next = resumed.read();
+    resumed.close();
+
+    // Then
+    assertThat(next.codesc()).isEqualTo("2");
+  }
+
+  @Test
+  @DisplayName("Deve ler arquivo gzip em uma única partição e retomar do offset descompactado")
+  void shouldReadGzipInSinglePartitionAndResume() throws Exception {
+    // Given
+    Path plain = writeCsv(500, "\n");
+    Path file = tempDir.resolve("schools.csv.gz");
+    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+      Files.copy(plain, out);
+    }
+
+    // When
+    Map<String, ExecutionContext> partitions = new SchoolFilePartitioner(file)
+      .partition(4);
+    ExecutionContext context = partitions.values().iterator().next();
+    SchoolRangeItemReader first = new SchoolRangeItemReader(
+      file,
+      context.getLong(SchoolFilePartitioner.START_OFFSET_KEY),
+      context.getLong(SchoolFilePartitioner.END_OFFSET_KEY),
+      CODE_ONLY_MAPPER
+    );
+    first.open(context);
+    first.read();
+    first.update(context);
+    first.close();
+
+    // Then
+    assertThat(partitions).hasSize(1);
+    assertThat(readAll(file, partitions))
+      .hasSize(500)
+      .startsWith("0")
+      .endsWith("499");
+
+    SchoolRangeItemReader resumed = new SchoolRangeItemReader(
+      file,
+      context.getLong(SchoolFilePartitioner.START_OFFSET_KEY),
+      context.getLong(SchoolFilePartitioner.END_OFFSET_KEY),
+      CODE_ONLY_MAPPER
+    );
+    resumed.open(context);
+    assertThat(resumed.read().codesc()).isEqualTo("1");
+    resumed.close();
+  }
+
+  private Path writeCsv(int lines, String newline) throws Exception {
+    StringBuilder sb = new StringBuilder("CODESC;NOMESC").append(newline);
+    for (int i = 0; i < lines; i++) {
+      sb.append(i).append(";ESCOLA ").append(i).append(newline);
+    }
+    Path file = tempDir.resolve("schools.csv");
+    Files.writeString(file, sb.toString(), StandardCharsets.UTF_8);
+    return file;
+  }
+
+  private List<String> readAll(
+    Path file,
+    Map<String, ExecutionContext> partitions
+  ) throws Exception {
+    List<String> codes = new ArrayList<>();
+    for (ExecutionContext context : partitions.values()) {
+      SchoolRangeItemReader reader = new SchoolRangeItemReader(
+        file,
+        context.getLong(SchoolFilePartitioner.START_OFFSET_KEY),
+        context.getLong(SchoolFilePartitioner.END_OFFSET_KEY),
+        CODE_ONLY_MAPPER
+      );
+      reader.open(new ExecutionContext());
+      CsvSchoolRecord item;
+      while ((item = reader.read()) != null) {
+        codes.add(item.codesc());
+      }
+      reader.close();
+    }
+    return codes;
+  }
+}
@@ -0,0 +1,89 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SchoolImportDeltaRegistry Tests")
+class SchoolImportDeltaRegistryTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  private SchoolImportDeltaRegistry registry;
+  private UUID jobId;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SchoolImportDeltaRegistry(jdbcTemplate);
+    jobId = UUID.randomUUID();
+  }
+
+  @Test
+  @DisplayName("Deve carregar os hashes uma vez só quando as partições abrem o job juntas")
+  void shouldLoadOnceForConcurrentOpens() throws Exception {
+    // Given
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+      .thenReturn(0L);
+    doAnswer(invocation -> {
+        loading.countDown();
+        release.await(5, TimeUnit.SECONDS);
+        return null;
+      })
+      .when(jdbcTemplate)
+      .query(anyString(), any(RowCallbackHandler.class));
+
+    // When
+    CompletableFuture<SchoolImportDelta> first = CompletableFuture.supplyAsync(
+      () -> registry.open(jobId)
+    );
+    assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<SchoolImportDelta> second = CompletableFuture.supplyAsync(
+      () -> registry.open(jobId)
+    );
+    release.countDown();
+
+    // Then
+    assertThat(second.get(5, TimeUnit.SECONDS))
+      .isSameAs(first.get(5, TimeUnit.SECONDS))
+      .isSameAs(registry.find(jobId));
+    verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    assertThat(registry.close(jobId)).isNull();
+    assertThat(registry.close(jobId)).isSameAs(first.get());
+  }
+
+  @Test
+  @DisplayName("Não deve deixar referência quando a carga dos hashes falha")
+  void shouldReleaseReferenceWhenLoadFails() {
+    // Given
+    when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+      .thenThrow(new QueryTimeoutException("timeout"))
+      .thenReturn(0L);
+
+    // When
+    assertThatThrownBy(() -> registry.open(jobId))
+      .isInstanceOf(QueryTimeoutException.class);
+
+    // Then
+    assertThat(registry.find(jobId)).isNull();
+    assertThat(registry.open(jobId)).isNotNull();
+  }
+}
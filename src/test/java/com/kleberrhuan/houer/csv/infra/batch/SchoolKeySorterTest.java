@@ -0,0 +1,281 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.kleberrhuan.houer.csv.domain.model.CsvRow;
+import com.kleberrhuan.houer.csv.domain.model.CsvSchoolRecord;
+import com.kleberrhuan.houer.csv.domain.model.SchoolMetrics;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties.DedupMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+@DisplayName("SchoolKeySorter Tests")
+class SchoolKeySorterTest {
+
+  private static final Function<CsvRow, CsvSchoolRecord> CODE_NAME_MAPPER =
+    row ->
+    new CsvSchoolRecord(
+      null,
+      null,
+      null,
+      null,
+      row.cellAsString(0),
+      row.cellAsString(1),
+      null,
+      null,
+      null,
+      SchoolMetrics.empty()
+    );
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Deve entregar as escolas em ordem de CODESC com runs gravadas em disco")
+  void shouldReadSchoolsInCodeOrderAcrossSpilledRuns() throws Exception {
+    // Given: 5.000 códigos fora de ordem, com mais de uma run de 1.024 entradas
+    List<String> rows = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      rows.add(((i * 7_919L) % 5_000) + ";ESCOLA " + i);
+    }
+    Path file = writeCsv(rows);
+    Path keysFile = SchoolKeySorter.keysFile(file, UUID.randomUUID());
+
+    // When
+    Map<String, ExecutionContext> partitions = new SchoolFilePartitioner(
+      file,
+      new SchoolKeySorter(1_024, DedupMode.FIRST_WINS),
+      keysFile
+    )
+      .partition(3);
+
+    // Then
+    assertThat(partitions).hasSize(3);
+    List<CsvSchoolRecord> records = readAll(file, partitions);
+    assertThat(records)
+      .extracting(r -> Long.parseLong(r.codesc()))
+      .hasSize(5_000)
+      .isSorted()
+      .doesNotHaveDuplicates();
+    assertThat(
+      partitions
+        .values()
+        .stream()
+        .mapToInt(c -> c.getInt(SchoolFilePartitioner.LINE_COUNT_KEY))
+        .sum()
+    )
+      .isEqualTo(5_000);
+  }
+
+  @Test
+  @DisplayName("Deve manter a primeira ocorrência de cada CODESC em FIRST_WINS")
+  void shouldKeepFirstOccurrenceWhenFirstWins() throws Exception {
+    // Given
+    Path file = writeCsv(duplicatedRows());
+
+    // When
+    SchoolKeySorter.SortedKeys keys = new SchoolKeySorter(
+      1_024,
+      DedupMode.FIRST_WINS
+    )
+      .sort(file, tempDir.resolve("first.keys"));
+
+    // Then
+    assertThat(keys.count()).isEqualTo(2_000);
+    assertThat(keys.duplicates()).isEqualTo(1_000);
+    assertThat(keys.skipped()).isEqualTo(1);
+    assertThat(keys.runs()).isEqualTo(3);
+    assertThat(readKeys(file, keys))
+      .filteredOn(r -> Long.parseLong(r.codesc()) % 2 == 0)
+      .extracting(CsvSchoolRecord::nomesc)
+      .containsOnly("PRIMEIRA");
+  }
+
+  @Test
+  @DisplayName("Deve manter a última ocorrência de cada CODESC em LAST_WINS")
+  void shouldKeepLastOccurrenceWhenLastWins() throws Exception {
+    // Given
+    Path file = writeCsv(duplicatedRows());
+
+    // When
+    SchoolKeySorter.SortedKeys keys = new SchoolKeySorter(
+      1_024,
+      DedupMode.LAST_WINS
+    )
+      .sort(file, tempDir.resolve("last.keys"));
+
+    // Then
+    assertThat(keys.count()).isEqualTo(2_000);
+    assertThat(keys.duplicates()).isEqualTo(1_000);
+    assertThat(readKeys(file, keys))
+      .filteredOn(r -> Long.parseLong(r.codesc()) % 2 == 0)
+      .extracting(CsvSchoolRecord::nomesc)
+      .containsOnly("ULTIMA");
+  }
+
+  @Test
+  @DisplayName("Deve informar as duplicadas descartadas para que contem como processadas")
+  void shouldReportDiscardedDuplicatesToProgress() throws Exception {
+    // Given
+    Path file = writeCsv(duplicatedRows());
+    LongAdder discarded = new LongAdder();
+
+    // When
+    Map<String, ExecutionContext> partitions = new SchoolFilePartitioner(
+      file,
+      new SchoolKeySorter(1_024, DedupMode.LAST_WINS),
+      tempDir.resolve("progress.keys"),
+      discarded::add
+    )
+      .partition(2);
+
+    // Then
+    long lines = partitions
+      .values()
+      .stream()
+      .mapToInt(c -> c.getInt(SchoolFilePartitioner.LINE_COUNT_KEY))
+      .sum();
+    assertThat(discarded.sum()).isEqualTo(1_000);
+    assertThat(lines + discarded.sum()).isEqualTo(3_000);
+  }
+
+  @Test
+  @DisplayName("Deve retomar a leitura ordenada a partir da entrada salva no contexto")
+  void shouldResumeSortedReadFromSavedIndex() throws Exception {
+    // Given
+    Path file = writeCsv(List.of("30;C", "10;A", "20;B", "40;D"));
+    SchoolKeySorter.SortedKeys keys = new SchoolKeySorter(
+      1_024,
+      DedupMode.FIRST_WINS
+    )
+      .sort(file, tempDir.resolve("resume.keys"));
+    ExecutionContext context = new ExecutionContext();
+
+    SchoolSortedItemReader first = reader(file, keys.file(), 0, keys.count());
+    first.open(context);
+    first.read();
+    first.read();
+    first.update(context);
+    first.close();
+
+    // When
+    SchoolSortedItemReader resumed = reader(
+      file,
+      keys.file(),
+      0,
+      keys.count()
+    );
+    resumed.open(context);
+    CsvSchoolRecord next = resumed.read();
+    resumed.close();
+
+    // Then
+    assertThat(next.codesc()).isEqualTo("30");
+    assertThat(next.nomesc()).isEqualTo("C");
+  }
+
+  @Test
+  @DisplayName("Deve remover o arquivo de chaves do job")
+  void shouldDeleteJobKeysFile() throws Exception {
+    // Given
+    Path file = writeCsv(List.of("1;A"));
+    UUID jobId = UUID.randomUUID();
+    Path keysFile = SchoolKeySorter.keysFile(file, jobId);
+    new SchoolKeySorter(1_024, DedupMode.FIRST_WINS).sort(file, keysFile);
+
+    // When
+    SchoolKeySorter.deleteKeys(file, jobId);
+
+    // Then
+    assertThat(keysFile.getParent()).isEqualTo(file.getParent());
+    assertThat(keysFile).doesNotExist();
+  }
+
+  /** 2.000 códigos; os pares aparecem duas vezes, com a segunda ocorrência em outra run. Uma linha sem código. */
+  private static List<String> duplicatedRows() {
+    List<String> rows = new ArrayList<>();
+    for (int i = 1_999; i >= 0; i--) {
+      rows.add(i + ";" + (i % 2 == 0 ? "PRIMEIRA" : "UNICA"));
+    }
+    rows.add(";SEM CODIGO");
+    for (int i = 0; i < 2_000; i += 2) {
+      rows.add(i + ";ULTIMA");
+    }
+    return rows;
+  }
+
+  private Path writeCsv(List<String> rows) throws Exception {
+    StringBuilder sb = new StringBuilder("CODESC;NOMESC\n");
+    rows.forEach(row -> sb.append(row).append('\n'));
+    Path file = tempDir.resolve("schools.csv");
+    Files.writeString(file, sb.toString(), StandardCharsets.UTF_8);
+    return file;
+  }
+
+  private static SchoolSortedItemReader reader(
+    Path file,
+    Path keysFile,
+    long from,
+    long to
+  ) {
+    return new SchoolSortedItemReader(
+      file,
+      keysFile,
+      from,
+      to,
+      CODE_NAME_MAPPER,
+      null
+    );
+  }
+
+  private List<CsvSchoolRecord> readKeys(
+    Path file,
+    SchoolKeySorter.SortedKeys keys
+  ) throws Exception {
+    return read(reader(file, keys.file(), 0, keys.count()));
+  }
+
+  private List<CsvSchoolRecord> readAll(
+    Path file,
+    Map<String, ExecutionContext> partitions
+  ) throws Exception {
+    List<CsvSchoolRecord> records = new ArrayList<>();
+    for (ExecutionContext context : partitions.values()) {
+      records.addAll(
+        read(
+          reader(
+            file,
+            Path.of(context.getString(SchoolFilePartitioner.KEYS_FILE_KEY)),
+            context.getLong(SchoolFilePartitioner.KEY_FROM_KEY),
+            context.getLong(SchoolFilePartitioner.KEY_TO_KEY)
+          )
+        )
+      );
+    }
+    return records;
+  }
+
+  private static List<CsvSchoolRecord> read(SchoolSortedItemReader reader)
+    throws Exception {
+    List<CsvSchoolRecord> records = new ArrayList<>();
+    reader.open(new ExecutionContext());
+    CsvSchoolRecord item;
+    while ((item = reader.read()) != null) {
+      records.add(item);
+    }
+    reader.close();
+    return records;
+  }
+}
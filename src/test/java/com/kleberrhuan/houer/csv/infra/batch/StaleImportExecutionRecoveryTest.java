@@ -0,0 +1,115 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StaleImportExecutionRecovery Tests")
+class StaleImportExecutionRecoveryTest {
+
+  @Mock
+  private JobRepository jobRepository;
+
+  private ImportExecutionRegistry registry;
+  private StaleImportExecutionRecovery recovery;
+  private UUID jobId;
+  private JobParameters params;
+
+  @BeforeEach
+  void setUp() {
+    registry = new ImportExecutionRegistry();
+    recovery = new StaleImportExecutionRecovery(jobRepository, registry);
+    jobId = UUID.randomUUID();
+    params =
+      new JobParametersBuilder()
+        .addString("jobId", jobId.toString())
+        .toJobParameters();
+  }
+
+  @Test
+  @DisplayName("Deve marcar como FAILED execução órfã e seus steps em andamento")
+  void shouldFailOrphanExecution() {
+    // Given
+    JobExecution execution = execution(BatchStatus.STARTED);
+    StepExecution running = execution.createStepExecution(
+      "schoolImportWorkerStep:partition0"
+    );
+    running.setStatus(BatchStatus.STARTED);
+    StepExecution done = execution.createStepExecution(
+      "schoolImportWorkerStep:partition1"
+    );
+    done.setStatus(BatchStatus.COMPLETED);
+    when(jobRepository.getLastJobExecution("schoolImportJob", params))
+      .thenReturn(execution);
+
+    // When
+    boolean abandoned = recovery.abandonIfStale(
+      "schoolImportJob",
+      params,
+      jobId
+    );
+
+    // Then
+    assertThat(abandoned).isTrue();
+    assertThat(execution.getStatus()).isEqualTo(BatchStatus.FAILED);
+    assertThat(running.getStatus()).isEqualTo(BatchStatus.FAILED);
+    assertThat(done.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+    verify(jobRepository).update(running);
+    verify(jobRepository, never()).update(done);
+    verify(jobRepository).update(execution);
+  }
+
+  @Test
+  @DisplayName("Não deve alterar execução que está rodando nesta instância")
+  void shouldKeepExecutionRunningLocally() {
+    // Given
+    registry.register(jobId);
+    when(jobRepository.getLastJobExecution("schoolImportJob", params))
+      .thenReturn(execution(BatchStatus.STARTED));
+
+    // When / Then
+    assertThat(recovery.abandonIfStale("schoolImportJob", params, jobId))
+      .isFalse();
+    verify(jobRepository, never()).update(any(JobExecution.class));
+  }
+
+  @Test
+  @DisplayName("Não deve alterar execução já finalizada")
+  void shouldIgnoreFinishedExecution() {
+    // Given
+    when(jobRepository.getLastJobExecution("schoolImportJob", params))
+      .thenReturn(execution(BatchStatus.FAILED));
+
+    // When / Then
+    assertThat(recovery.abandonIfStale("schoolImportJob", params, jobId))
+      .isFalse();
+    verify(jobRepository, never()).update(any(JobExecution.class));
+  }
+
+  private JobExecution execution(BatchStatus status) {
+    JobExecution execution = new JobExecution(
+      new JobInstance(1L, "schoolImportJob"),
+      10L,
+      params
+    );
+    execution.setStatus(status);
+    return execution;
+  }
+}
@@ -5,7 +5,10 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import com.kleberrhuan.houer.csv.application.service.CsvImportService;
+import com.kleberrhuan.houer.csv.application.service.ImportQueueScheduler;
 import com.kleberrhuan.houer.csv.domain.model.ImportJobStatus;
+import com.kleberrhuan.houer.csv.infra.batch.ImportCancellationRegistry;
+import com.kleberrhuan.houer.csv.infra.batch.ImportExecutionRegistry;
 import java.time.LocalDateTime;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,13 +33,25 @@ class CsvImportJobListenerTest {
   @Mock
   private CsvImportService csvImportService;
 
+  @Mock
+  private ImportQueueScheduler queueScheduler;
+
+  @Mock
+  private ImportCancellationRegistry cancellation;
+
   private CsvImportJobListener listener;
   private UUID jobId;
   private String filename;
 
   @BeforeEach
   void setUp() {
-    listener = new CsvImportJobListener(csvImportService);
+    listener =
+      new CsvImportJobListener(
+        csvImportService,
+        new ImportExecutionRegistry(),
+        queueScheduler,
+        cancellation
+      );
     jobId = UUID.randomUUID();
     filename = "test.csv";
   }
@@ -112,6 +127,33 @@ class CsvImportJobListenerTest {
       );
   }
 
+  @Test
+  @DisplayName("Deve manter CANCELLED e liberar a vaga quando o job foi cancelado")
+  void shouldKeepCancelledStatusAndDispatchNext() {
+    // Given
+    when(cancellation.checkNow(jobId)).thenReturn(true);
+    StepExecution stepExecution = addStepExecution(
+      null,
+      "schoolImportStep",
+      30,
+      30,
+      0
+    );
+    JobExecution jobExecution = createJobExecutionWithSteps(
+      BatchStatus.FAILED,
+      stepExecution
+    );
+
+    // When
+    listener.afterJob(jobExecution);
+
+    // Then
+    verify(csvImportService, never())
+      .updateJobStatus(any(), any(), any());
+    verify(cancellation).forget(jobId);
+    verify(queueScheduler).dispatch();
+  }
+
   @Test
   @DisplayName("Deve construir mensagem de erro detalhada com contexto do step")
   void shouldBuildDetailedErrorMessageWithStepContext() {
@@ -0,0 +1,107 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.batch.listener;
+
+import static com.kleberrhuan.houer.csv.domain.constants.CsvImportConstants.Jobs.ID_PARAMETER_NAME;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.kleberrhuan.houer.csv.infra.batch.AdaptiveChunkController;
+import com.kleberrhuan.houer.csv.infra.batch.ImportCancellationRegistry;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.repeat.RepeatListener;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.repeat.support.RepeatTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImportCancellationListener Tests")
+class ImportCancellationListenerTest {
+
+  @Mock
+  private ImportCancellationRegistry cancellation;
+
+  @Mock
+  private AdaptiveChunkController controller;
+
+  private UUID jobId;
+  private StepExecution stepExecution;
+  private RepeatTemplate template;
+
+  @BeforeEach
+  void setUp() {
+    jobId = UUID.randomUUID();
+    JobExecution jobExecution = new JobExecution(
+      1L,
+      new JobParametersBuilder()
+        .addString(ID_PARAMETER_NAME, jobId.toString())
+        .toJobParameters()
+    );
+    stepExecution =
+      new StepExecution("schoolImportWorkerStep:partition0", jobExecution, 2L);
+    StepSynchronizationManager.register(stepExecution);
+
+    template = new RepeatTemplate();
+    template.setListeners(
+      new RepeatListener[] {
+        new ImportCancellationListener(cancellation),
+        new AdaptiveChunkListener(controller),
+      }
+    );
+  }
+
+  @AfterEach
+  void tearDown() {
+    StepSynchronizationManager.close();
+  }
+
+  @Test
+  @DisplayName("Partição de job cancelado deve terminar sem esperar vaga de worker")
+  void shouldNotAcquireWorkerWhenCancelled() throws Exception {
+    // Given
+    when(cancellation.isCancelled(jobId)).thenReturn(true);
+    AtomicInteger chunks = new AtomicInteger();
+
+    // When
+    template.iterate(context -> {
+      chunks.incrementAndGet();
+      return RepeatStatus.FINISHED;
+    });
+
+    // Then
+    assertThat(chunks).hasValue(0);
+    assertThat(stepExecution.isTerminateOnly()).isTrue();
+    verify(controller, never()).acquireWorker();
+    verify(controller, never()).releaseWorker();
+  }
+
+  @Test
+  @DisplayName("Partição de job ativo deve esperar vaga de worker a cada chunk")
+  void shouldAcquireWorkerPerChunkWhenActive() throws Exception {
+    // Given
+    when(cancellation.isCancelled(jobId)).thenReturn(false);
+    AtomicInteger chunks = new AtomicInteger();
+
+    // When
+    template.iterate(context ->
+      chunks.incrementAndGet() < 3
+        ? RepeatStatus.CONTINUABLE
+        : RepeatStatus.FINISHED
+    );
+
+    // Then
+    assertThat(chunks).hasValue(3);
+    verify(controller, times(3)).acquireWorker();
+    verify(controller, times(3)).releaseWorker();
+  }
+}
@@ -0,0 +1,128 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.messaging;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.kleberrhuan.houer.csv.application.service.CsvImportService;
+import com.kleberrhuan.houer.csv.infra.batch.ImportCancellationRegistry;
+import com.kleberrhuan.houer.csv.infra.batch.StaleImportExecutionRecovery;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportQueueMessage;
+import java.net.URI;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CsvImportMessageConsumer Tests")
+class CsvImportMessageConsumerTest {
+
+  @Mock
+  private JobLauncher jobLauncher;
+
+  @Mock
+  private Job schoolImportJob;
+
+  @Mock
+  private CsvImportService csvImportService;
+
+  @Mock
+  private StaleImportExecutionRecovery staleExecutionRecovery;
+
+  @Mock
+  private ImportCancellationRegistry cancellation;
+
+  private CsvImportMessageConsumer consumer;
+
+  @BeforeEach
+  void setUp() {
+    consumer =
+      new CsvImportMessageConsumer(
+        jobLauncher,
+        schoolImportJob,
+        csvImportService,
+        staleExecutionRecovery,
+        cancellation
+      );
+  }
+
+  @Test
+  @DisplayName("Deve identificar a instância do job apenas pelo jobId")
+  void shouldIdentifyInstanceOnlyByJobId() {
+    // Given
+    CsvImportQueueMessage first = message(UUID.randomUUID());
+    CsvImportQueueMessage redelivered = new CsvImportQueueMessage(
+      first.jobId(),
+      first.filename(),
+      first.fileUri(),
+      "outra descrição",
+      first.userId(),
+      Instant.now().plusSeconds(60),
+      true
+    );
+
+    // When
+    JobParameters a = consumer.buildJobParameters(first);
+    JobParameters b = consumer.buildJobParameters(redelivered);
+
+    // Then
+    assertThat(a.getIdentifyingParameters())
+      .containsOnlyKeys("jobId")
+      .isEqualTo(b.getIdentifyingParameters());
+    assertThat(a.getString("fileUri")).isEqualTo("file:///tmp/escolas.csv");
+  }
+
+  @Test
+  @DisplayName("Deve ignorar reentrega de job já concluído sem marcar falha")
+  void shouldIgnoreRedeliveryOfCompletedJob() throws Exception {
+    // Given
+    CsvImportQueueMessage msg = message(UUID.randomUUID());
+    when(schoolImportJob.getName()).thenReturn("schoolImportJob");
+    when(jobLauncher.run(any(), any()))
+      .thenThrow(new JobInstanceAlreadyCompleteException("concluído"));
+
+    // When / Then
+    assertThatCode(() -> consumer.handleImportMessage(msg))
+      .doesNotThrowAnyException();
+    verify(staleExecutionRecovery)
+      .abandonIfStale(eq("schoolImportJob"), any(), eq(msg.jobId()));
+    verifyNoInteractions(csvImportService);
+  }
+
+  @Test
+  @DisplayName("Deve descartar a mensagem de job cancelado antes de iniciar")
+  void shouldDropMessageOfCancelledJob() throws Exception {
+    // Given
+    CsvImportQueueMessage msg = message(UUID.randomUUID());
+    when(cancellation.checkNow(msg.jobId())).thenReturn(true);
+
+    // When
+    consumer.handleImportMessage(msg);
+
+    // Then
+    verifyNoInteractions(jobLauncher, staleExecutionRecovery, csvImportService);
+  }
+
+  private static CsvImportQueueMessage message(UUID jobId) {
+    return new CsvImportQueueMessage(
+      jobId,
+      "escolas.csv",
+      URI.create("file:///tmp/escolas.csv"),
+      "escolas.csv",
+      7L,
+      Instant.now(),
+      false
+    );
+  }
+}
@@ -0,0 +1,138 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.messaging;
+
+import static org.mockito.Mockito.*;
+
+import com.kleberrhuan.houer.csv.infra.batch.ImportCancellationRegistry;
+import com.kleberrhuan.houer.csv.infra.batch.ImportProgressTracker;
+import com.kleberrhuan.houer.csv.infra.batch.SchoolImportDeltaRegistry;
+import com.kleberrhuan.houer.csv.infra.observability.ImportPipelineMetrics;
+import com.kleberrhuan.houer.csv.infra.properties.CsvImportProperties;
+import com.kleberrhuan.houer.csv.interfaces.dto.CsvImportPartitionMessage;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CsvImportPartitionConsumer Tests")
+class CsvImportPartitionConsumerTest {
+
+  private static final long JOB_EXECUTION_ID = 10L;
+  private static final long STEP_EXECUTION_ID = 11L;
+
+  @Mock
+  private JobExplorer jobExplorer;
+
+  @Mock
+  private JobRepository jobRepository;
+
+  @Mock
+  private Step workerStep;
+
+  @Mock
+  private ImportProgressTracker progressTracker;
+
+  @Mock
+  private SchoolImportDeltaRegistry deltaRegistry;
+
+  @Mock
+  private ImportCancellationRegistry cancellation;
+
+  @Mock
+  private ImportPipelineMetrics pipelineMetrics;
+
+  private CsvImportPartitionConsumer consumer;
+  private CsvImportPartitionMessage message;
+
+  @BeforeEach
+  void setUp() {
+    CsvImportProperties properties = new CsvImportProperties();
+    properties.getRemote().setStaleAfter(Duration.ofMinutes(5));
+    consumer =
+      new CsvImportPartitionConsumer(
+        jobExplorer,
+        jobRepository,
+        workerStep,
+        progressTracker,
+        deltaRegistry,
+        cancellation,
+        pipelineMetrics,
+        properties
+      );
+    message =
+      new CsvImportPartitionMessage(
+        UUID.randomUUID(),
+        JOB_EXECUTION_ID,
+        STEP_EXECUTION_ID
+      );
+  }
+
+  @Test
+  @DisplayName("Deve assumir e retomar a partição abandonada por uma réplica que caiu")
+  void shouldClaimAndResumeAbandonedPartition() throws Exception {
+    // Given
+    StepExecution partition = partition(LocalDateTime.now().minusMinutes(10));
+
+    // When
+    consumer.handlePartitionMessage(message);
+
+    // Then
+    verify(jobRepository).update(partition);
+    verify(workerStep).execute(partition);
+  }
+
+  @Test
+  @DisplayName("Deve ignorar a mensagem de partição em execução com atualização recente")
+  void shouldIgnorePartitionStillRunning() throws Exception {
+    // Given
+    partition(LocalDateTime.now().minusSeconds(10));
+
+    // When
+    consumer.handlePartitionMessage(message);
+
+    // Then
+    verifyNoInteractions(workerStep, jobRepository);
+  }
+
+  @Test
+  @DisplayName("Não deve executar a partição abandonada já assumida por outra réplica")
+  void shouldNotRunPartitionClaimedByAnotherReplica() throws Exception {
+    // Given
+    StepExecution partition = partition(LocalDateTime.now().minusMinutes(10));
+    doThrow(new OptimisticLockingFailureException("versão alterada"))
+      .when(jobRepository)
+      .update(partition);
+
+    // When
+    consumer.handlePartitionMessage(message);
+
+    // Then
+    verifyNoInteractions(workerStep);
+  }
+
+  private StepExecution partition(LocalDateTime lastUpdated) {
+    StepExecution partition = new StepExecution(
+      "schoolImportWorkerStep:partition0",
+      new JobExecution(JOB_EXECUTION_ID),
+      STEP_EXECUTION_ID
+    );
+    partition.setStatus(BatchStatus.STARTED);
+    partition.setLastUpdated(lastUpdated);
+    when(jobExplorer.getStepExecution(JOB_EXECUTION_ID, STEP_EXECUTION_ID))
+      .thenReturn(partition);
+    return partition;
+  }
+}
@@ -0,0 +1,139 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.observability;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.kleberrhuan.houer.csv.domain.model.ScanTimings;
+import com.kleberrhuan.houer.csv.infra.observability.ImportPipelineMetrics.JobStats;
+import com.kleberrhuan.houer.csv.infra.observability.ImportPipelineMetrics.Stage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ImportPipelineMetrics Tests")
+class ImportPipelineMetricsTest {
+
+  private SimpleMeterRegistry registry;
+  private ImportPipelineMetrics metrics;
+  private UUID jobId;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    metrics = new ImportPipelineMetrics(registry);
+    jobId = UUID.randomUUID();
+  }
+
+  @Test
+  @DisplayName("Deve publicar linhas por estágio e duração dos chunks com a tag do job")
+  void shouldPublishStageMetersTaggedByJob() {
+    // Given
+    metrics.open(jobId);
+
+    // When
+    metrics.recordStage(jobId, Stage.WRITE, 500, 2_000_000_000L);
+    metrics.chunkStarted(jobId);
+    metrics.chunkStarted(jobId);
+    metrics.chunkFinished(jobId, 40_000_000L, true);
+
+    // Then
+    String job = jobId.toString();
+    assertThat(
+      registry
+        .get("csv.import.pipeline.rows")
+        .tags("job", job, "stage", "write")
+        .functionCounter()
+        .count()
+    )
+      .isEqualTo(500);
+    assertThat(
+      registry
+        .get("csv.import.pipeline.chunks.in.flight")
+        .tag("job", job)
+        .gauge()
+        .value()
+    )
+      .isEqualTo(1);
+    assertThat(
+      registry
+        .get("csv.import.pipeline.chunk")
+        .tags("job", job, "outcome", "commit")
+        .timer()
+        .count()
+    )
+      .isEqualTo(1);
+
+    JobStats stats = metrics.stats(jobId).orElseThrow();
+    assertThat(stats.running()).isTrue();
+    assertThat(stats.stages().get(Stage.WRITE).rowsPerSecond())
+      .isEqualTo(250.0);
+    assertThat(stats.chunks().committed()).isEqualTo(1);
+    assertThat(stats.chunks().inFlight()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Deve remover os medidores do job no último close e manter as estatísticas")
+  void shouldRemoveMetersOnLastClose() {
+    // Given
+    metrics.open(jobId);
+    metrics.open(jobId);
+    metrics.recordStage(jobId, Stage.DEDUP, 10, 1_000L);
+
+    // When
+    metrics.close(jobId);
+    int metersAfterFirstClose = registry.getMeters().size();
+    metrics.close(jobId);
+
+    // Then
+    assertThat(metersAfterFirstClose).isPositive();
+    assertThat(registry.getMeters()).isEmpty();
+    JobStats stats = metrics.stats(jobId).orElseThrow();
+    assertThat(stats.running()).isFalse();
+    assertThat(stats.stages().get(Stage.DEDUP).rows()).isEqualTo(10);
+  }
+
+  @Test
+  @DisplayName("Deve guardar a validação do upload até o job abrir nesta réplica")
+  void shouldKeepUploadStagesUntilJobOpens() {
+    // Given
+    metrics.recordUpload(
+      jobId,
+      100,
+      97,
+      new ScanTimings(1_000, 2_000, 3_000, Map.of("numeric", 3L))
+    );
+
+    // When
+    metrics.open(jobId);
+
+    // Then
+    assertThat(registry.getMeters()).isNotEmpty();
+    assertThat(
+      registry
+        .get("csv.import.pipeline.rejected")
+        .tags("job", jobId.toString(), "reason", "numeric")
+        .functionCounter()
+        .count()
+    )
+      .isEqualTo(3);
+    JobStats stats = metrics.stats(jobId).orElseThrow();
+    assertThat(stats.stages().get(Stage.VALIDATE).rows()).isEqualTo(100);
+    assertThat(stats.stages().get(Stage.MAP).rows()).isEqualTo(97);
+    assertThat(stats.rejectedRows()).containsEntry("numeric", 3L);
+  }
+
+  @Test
+  @DisplayName("Deve ignorar estágios de jobs que não estão abertos")
+  void shouldIgnoreStagesOfUnopenedJobs() {
+    // When
+    metrics.recordStage(jobId, Stage.WRITE, 10, 1_000L);
+    metrics.chunkFinished(jobId, 1_000L, true);
+
+    // Then
+    assertThat(metrics.stats(jobId)).isEmpty();
+    assertThat(registry.getMeters()).isEmpty();
+  }
+}
@@ -0,0 +1,91 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.storage;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CompressionFormat Tests")
+class CompressionFormatTest {
+
+  private static final String CSV = "CODESC;NOMESC\n1;ESCOLA A\n2;ESCOLA B\n";
+
+  @Test
+  @DisplayName("Deve reconhecer o formato pela extensão do arquivo")
+  void shouldDetectFormatFromFilename() {
+    assertThat(CompressionFormat.fromFilename("escolas.csv"))
+      .isEqualTo(CompressionFormat.NONE);
+    assertThat(CompressionFormat.fromFilename("escolas.CSV.GZ"))
+      .isEqualTo(CompressionFormat.GZIP);
+    assertThat(CompressionFormat.fromFilename("escolas.zip"))
+      .isEqualTo(CompressionFormat.ZIP);
+    assertThat(CompressionFormat.fromFilename(null))
+      .isEqualTo(CompressionFormat.NONE);
+  }
+
+  @Test
+  @DisplayName("Deve descompactar gzip em streaming")
+  void shouldDecodeGzip() throws Exception {
+    // Given
+    ByteArrayOutputStream gz = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(gz)) {
+      out.write(CSV.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // When
+    String decoded = read(CompressionFormat.GZIP, gz.toByteArray());
+
+    // Then
+    assertThat(decoded).isEqualTo(CSV);
+  }
+
+  @Test
+  @DisplayName("Deve descompactar a única entrada de um zip")
+  void shouldDecodeSingleEntryZip() throws Exception {
+    // When
+    String decoded = read(CompressionFormat.ZIP, zip("escolas.csv"));
+
+    // Then
+    assertThat(decoded).isEqualTo(CSV);
+  }
+
+  @Test
+  @DisplayName("Deve rejeitar zip com mais de um arquivo")
+  void shouldRejectZipWithMultipleEntries() throws Exception {
+    // Given
+    byte[] zip = zip("escolas.csv", "outras.csv");
+
+    // When / Then
+    assertThatThrownBy(() -> read(CompressionFormat.ZIP, zip))
+      .isInstanceOf(IOException.class)
+      .hasMessageContaining("outras.csv");
+  }
+
+  private static String read(CompressionFormat format, byte[] data)
+    throws IOException {
+    try (InputStream in = format.decode(new ByteArrayInputStream(data))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static byte[] zip(String... entries) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+      for (String entry : entries) {
+        out.putNextEntry(new ZipEntry(entry));
+        out.write(CSV.getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+      }
+    }
+    return bytes.toByteArray();
+  }
+}
@@ -0,0 +1,64 @@
+/* (C)2025 Kleber Rhuan */
+package com.kleberrhuan.houer.csv.infra.storage;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kleberrhuan.houer.csv.domain.exception.ValidationErrorAggregator.ValidationError;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ErrorReportWriter Tests")
+class ErrorReportWriterTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  @DisplayName("Deve gravar um objeto JSON por linha com linha, coluna e mensagem")
+  void shouldWriteOneJsonObjectPerLine() throws Exception {
+    // Given
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // When
+    try (ErrorReportWriter writer = new ErrorReportWriter(out)) {
+      writer.accept(new ValidationError(12, "CODESC", "Valor \"x\" inválido"));
+      writer.accept(new ValidationError(40, null, "Linha\tquebrada"));
+    }
+
+    // Then
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertThat(lines).hasSize(2);
+
+    JsonNode first = objectMapper.readTree(lines[0]);
+    assertThat(first.get("line").asInt()).isEqualTo(12);
+    assertThat(first.get("column").asText()).isEqualTo("CODESC");
+    assertThat(first.get("message").asText()).isEqualTo("Valor \"x\" inválido");
+
+    JsonNode second = objectMapper.readTree(lines[1]);
+    assertThat(second.get("column").isNull()).isTrue();
+    assertThat(second.get("message").asText()).isEqualTo("Linha\tquebrada");
+  }
+
+  @Test
+  @DisplayName("Não deve fechar o stream de destino nem gravar nada sem erros")
+  void shouldLeaveTargetOpenAndEmpty() {
+    // Given
+    ByteArrayOutputStream out = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        throw new AssertionError("stream de destino não deve ser fechado");
+      }
+    };
+
+    // When
+    ErrorReportWriter writer = new ErrorReportWriter(out);
+    writer.close();
+
+    // Then
+    assertThat(writer.written()).isZero();
+    assertThat(out.size()).isZero();
+  }
+}
@@ -3,13 +3,17 @@ package com.kleberrhuan.houer.csv.infra.storage;
 
 import static org.assertj.core.api.Assertions.*;
 
+import com.kleberrhuan.houer.csv.application.port.StagedUpload;
+import com.kleberrhuan.houer.csv.application.port.StagedUploadChunk;
 import com.kleberrhuan.houer.csv.infra.properties.CsvStorageProperties;
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.UUID;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -155,4 +159,181 @@ class LocalStorageServiceTest {
     assertThat(filename).matches("[a-zA-Z0-9._-]+\\.csv");
     assertThat(filename).contains(jobId.toString());
   }
+
+  @Test
+  @DisplayName("Deve promover upload em staging para o caminho definitivo do job")
+  void shouldPromoteStagedUploadToJobPath() throws Exception {
+    // Given
+    String content = "CODESC;NOMESC\n12345;Escola Teste";
+    UUID jobId = UUID.randomUUID();
+    URI uri;
+
+    // When
+    try (
+      StagedUpload upload = storageService.stage("escolas.csv");
+      InputStream in = new TeeInputStream(
+        new ByteArrayInputStream(content.getBytes()),
+        upload.outputStream()
+      )
+    ) {
+      assertThat(new String(in.readAllBytes())).isEqualTo(content);
+      uri = upload.promote(jobId);
+    }
+
+    // Then
+    Path filePath = Paths.get(uri);
+    assertThat(filePath.getFileName().toString()).contains(jobId.toString());
+    assertThat(Files.readString(filePath)).isEqualTo(content);
+    try (Stream<Path> staged = Files.list(tempDir.resolve(".staging"))) {
+      assertThat(staged).isEmpty();
+    }
+  }
+
+  @Test
+  @DisplayName("Deve descartar upload em staging não promovido")
+  void shouldDiscardStagedUploadWhenNotPromoted() throws Exception {
+    // Given
+    try (StagedUpload upload = storageService.stage("escolas.csv")) {
+      upload.outputStream().write("CODESC;NOMESC".getBytes());
+    }
+
+    // Then
+    try (Stream<Path> staged = Files.list(tempDir.resolve(".staging"))) {
+      assertThat(staged).isEmpty();
+    }
+  }
+
+  @Test
+  @DisplayName("Deve promover relatório de erros ao lado do arquivo do job")
+  void shouldPromoteErrorReportNextToJobFile() throws Exception {
+    // Given
+    UUID jobId = UUID.randomUUID();
+    URI fileUri;
+    URI reportUri;
+
+    // When
+    try (
+      StagedUpload upload = storageService.stage("escolas.csv");
+      StagedUpload report = storageService.stageErrorReport("escolas.csv")
+    ) {
+      report.outputStream().write("{\"line\":3}\n".getBytes());
+      fileUri = upload.promote(jobId);
+      reportUri = report.promote(jobId);
+    }
+
+    // Then
+    Path reportPath = Paths.get(reportUri);
+    assertThat(reportPath.getParent()).isEqualTo(Paths.get(fileUri).getParent());
+    assertThat(reportPath.getFileName().toString())
+      .isEqualTo("escolas_" + jobId + ".errors.ndjson");
+    assertThat(Files.readString(reportPath)).isEqualTo("{\"line\":3}\n");
+  }
+
+  @Test
+  @DisplayName("Deve montar upload em partes recebidas fora de ordem")
+  void shouldAssembleUploadFromChunksOutOfOrder() throws Exception {
+    // Given
+    UUID uploadId = UUID.randomUUID();
+    String sha256 = "ab" + "0".repeat(62);
+    storageService.createUpload(uploadId);
+
+    // When
+    long second = writeChunk(uploadId, 4, "5678", 4);
+    long first = writeChunk(uploadId, 0, "1234", 4);
+    URI uri = storageService.promoteUpload(uploadId, sha256, "escolas.csv");
+
+    // Then
+    assertThat(first).isEqualTo(4);
+    assertThat(second).isEqualTo(4);
+    assertThat(Files.readString(Paths.get(uri))).isEqualTo("12345678");
+    assertThat(Paths.get(uri))
+      .isEqualTo(tempDir.resolve("objects/ab/" + sha256 + ".csv"));
+  }
+
+  @Test
+  @DisplayName("Deve acusar parte maior que o esperado sem gravar o excedente")
+  void shouldReportOversizedChunkWithoutWritingExcess() throws Exception {
+    // Given
+    UUID uploadId = UUID.randomUUID();
+    storageService.createUpload(uploadId);
+
+    // When
+    long received = writeChunk(uploadId, 0, "123456", 4);
+
+    // Then
+    assertThat(received).isEqualTo(5);
+    try (InputStream in = storageService.openUpload(uploadId)) {
+      assertThat(new String(in.readAllBytes())).isEqualTo("1234");
+    }
+  }
+
+  @Test
+  @DisplayName("Não deve alterar o arquivo montado quando a parte recebida é descartada")
+  void shouldKeepAssembledUploadWhenStagedChunkIsDiscarded()
+    throws Exception {
+    // Given
+    UUID uploadId = UUID.randomUUID();
+    storageService.createUpload(uploadId);
+    writeChunk(uploadId, 0, "1234", 4);
+
+    // When
+    try (
+      StagedUploadChunk chunk = storageService.stageUploadChunk(
+        uploadId,
+        0,
+        new ByteArrayInputStream("9999".getBytes()),
+        4
+      )
+    ) {
+      assertThat(chunk.received()).isEqualTo(4);
+    }
+
+    // Then
+    try (InputStream in = storageService.openUpload(uploadId)) {
+      assertThat(new String(in.readAllBytes())).isEqualTo("1234");
+    }
+    try (Stream<Path> staging = Files.list(tempDir.resolve(".staging"))) {
+      assertThat(staging).isEmpty();
+    }
+  }
+
+  @Test
+  @DisplayName("Deve reaproveitar conteúdo já armazenado e descartar a cópia em staging")
+  void shouldReuseStoredContentAndDiscardStagedCopy() throws Exception {
+    // Given
+    String sha256 = "cd" + "1".repeat(62);
+    URI first;
+    URI second;
+
+    // When
+    try (StagedUpload upload = storageService.stage("escolas.csv")) {
+      upload.outputStream().write("CODESC\n1".getBytes());
+      first = upload.promoteContent(sha256);
+    }
+    try (StagedUpload upload = storageService.stage("outro_nome.csv")) {
+      upload.outputStream().write("CODESC\n1".getBytes());
+      second = upload.promoteContent(sha256);
+    }
+
+    // Then
+    assertThat(second).isEqualTo(first);
+    assertThat(Files.readString(Paths.get(first))).isEqualTo("CODESC\n1");
+    try (Stream<Path> staged = Files.list(tempDir.resolve(".staging"))) {
+      assertThat(staged).isEmpty();
+    }
+  }
+
+  private long writeChunk(UUID uploadId, long offset, String data, long max) {
+    try (
+      StagedUploadChunk chunk = storageService.stageUploadChunk(
+        uploadId,
+        offset,
+        new ByteArrayInputStream(data.getBytes()),
+        max
+      )
+    ) {
+      chunk.commit();
+      return chunk.received();
+    }
+  }
 }